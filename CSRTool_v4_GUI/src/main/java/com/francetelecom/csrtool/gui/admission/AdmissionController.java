@@ -0,0 +1,349 @@
+package com.francetelecom.csrtool.gui.admission;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admits the requests of the node within an adaptive concurrency limit.<br>
+ * While the number of requests in progress is under the {@link GradientLimit} a request is
+ * admitted at once. Over it, the request waits in the queue of its MCO until a request completes
+ * or its deadline expires. The completions serve the queues of the MCOs in turn, so that a spike
+ * of one MCO only delays the requests of that MCO.<br>
+ * There are two priority classes: the interactive requests of the agents, and the background
+ * requests of the administrators and batches. The background requests are only served when no
+ * interactive request waits, and never use more than a share of the limit.
+ * @class AdmissionController
+ */
+public final class AdmissionController {
+
+	/**
+	 * The priority classes of the requests.
+	 */
+	public enum Priority {
+		/** requests of the agents on a live call **/
+		INTERACTIVE,
+		/** requests of the administrators and batches **/
+		BACKGROUND
+	}
+
+	/**	default initial limit **/
+	public static final int DEFAULT_INITIAL_LIMIT = 50;
+
+	/**	default minimum limit **/
+	public static final int DEFAULT_MIN_LIMIT = 10;
+
+	/**	default maximum limit **/
+	public static final int DEFAULT_MAX_LIMIT = 400;
+
+	/**	default maximum number of waiting requests per MCO and class **/
+	public static final int DEFAULT_MAX_QUEUE_PER_MCO = 100;
+
+	/**	default share of the limit the background requests may use **/
+	public static final double DEFAULT_BACKGROUND_SHARE = 0.25d;
+
+	/**	unique instance **/
+	private static final AdmissionController INSTANCE = new AdmissionController();
+
+	/**	lock of the state **/
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**	concurrency limit **/
+	private GradientLimit limit = new GradientLimit(DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT);
+
+	/**	maximum number of waiting requests per MCO and class **/
+	private int maxQueuePerMco = DEFAULT_MAX_QUEUE_PER_MCO;
+
+	/**	share of the limit the background requests may use **/
+	private double backgroundShare = DEFAULT_BACKGROUND_SHARE;
+
+	/**	waiting interactive requests per MCO **/
+	private final FairQueue interactive = new FairQueue();
+
+	/**	waiting background requests per MCO **/
+	private final FairQueue background = new FairQueue();
+
+	/**	number of requests in progress **/
+	private int inFlight;
+
+	/**	number of background requests in progress **/
+	private int backgroundInFlight;
+
+	/**	number of requests admitted at once **/
+	private long admitted;
+
+	/**	number of requests admitted after waiting **/
+	private long admittedAfterWait;
+
+	/**	number of requests rejected because their queue was full **/
+	private long shed;
+
+	/**	number of requests rejected because their deadline expired while waiting **/
+	private long timedOut;
+
+	/**
+	 * A request waiting to be admitted.
+	 * @class Waiter
+	 */
+	private static final class Waiter {
+		/**	signaled when admitted **/
+		private final Condition admittedCondition;
+
+		/**	priority class **/
+		private final Priority priority;
+
+		/**	whether the request was admitted **/
+		private boolean admitted;
+
+		/**
+		 * Constructor
+		 * @param admittedCondition signaled when admitted
+		 * @param priority priority class
+		 */
+		private Waiter(Condition admittedCondition, Priority priority) {
+			this.admittedCondition = admittedCondition;
+			this.priority = priority;
+		}
+	}
+
+	/**
+	 * The queues of the MCOs of a priority class, served in turn.
+	 * @class FairQueue
+	 */
+	private static final class FairQueue {
+		/**	queue per MCO **/
+		private final Map<String, Queue<Waiter>> queues = new HashMap<String, Queue<Waiter>>();
+
+		/**	MCOs with waiting requests, in serving order **/
+		private final LinkedList<String> turn = new LinkedList<String>();
+
+		/**	number of waiting requests **/
+		private int size;
+
+		/**
+		 * Adds a request to the queue of its MCO
+		 * @param mco MCO of the request
+		 * @param waiter the request
+		 * @param maxQueue maximum number of waiting requests of the MCO
+		 * @return <code>false</code> if the queue of the MCO is full
+		 */
+		private boolean offer(String mco, Waiter waiter, int maxQueue) {
+			Queue<Waiter> queue = queues.get(mco);
+			if (queue == null) {
+				queue = new ArrayDeque<Waiter>();
+				queues.put(mco, queue);
+			}
+			if (queue.size() >= maxQueue) {
+				return false;
+			}
+			if (queue.isEmpty()) {
+				turn.addLast(mco);
+			}
+			queue.add(waiter);
+			size++;
+			return true;
+		}
+
+		/**
+		 * @return the first request of the MCO whose turn it is, or <code>null</code>
+		 **/
+		private Waiter poll() {
+			String mco = turn.pollFirst();
+			if (mco == null) {
+				return null;
+			}
+			Queue<Waiter> queue = queues.get(mco);
+			Waiter waiter = queue.poll();
+			size--;
+			if (queue.isEmpty()) {
+				queues.remove(mco);
+			} else {
+				turn.addLast(mco);
+			}
+			return waiter;
+		}
+
+		/**
+		 * Removes a request that gave up waiting
+		 * @param mco MCO of the request
+		 * @param waiter the request
+		 */
+		private void remove(String mco, Waiter waiter) {
+			Queue<Waiter> queue = queues.get(mco);
+			if (queue != null && queue.remove(waiter)) {
+				size--;
+				if (queue.isEmpty()) {
+					queues.remove(mco);
+					turn.remove(mco);
+				}
+			}
+		}
+
+		/**
+		 * @return <code>true</code> if no request waits
+		 **/
+		private boolean isEmpty() {
+			return size == 0;
+		}
+	}
+
+	/**
+	 * Constructor
+	 */
+	private AdmissionController() {
+		// singleton
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static AdmissionController getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Sets the limits, keeping the requests in progress
+	 * @param initialLimit initial concurrency limit
+	 * @param minLimit minimum concurrency limit
+	 * @param maxLimit maximum concurrency limit
+	 * @param maxQueuePerMco maximum number of waiting requests per MCO and class
+	 * @param backgroundShare share of the limit the background requests may use
+	 */
+	public void configure(int initialLimit, int minLimit, int maxLimit, int maxQueuePerMco, double backgroundShare) {
+		lock.lock();
+		try {
+			this.limit = new GradientLimit(initialLimit, minLimit, maxLimit);
+			this.maxQueuePerMco = maxQueuePerMco;
+			this.backgroundShare = backgroundShare;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Admits a request, waiting for its turn if the node is at its limit
+	 * @param mco MCO of the request
+	 * @param priority priority class of the request
+	 * @param maxWaitMillis maximum time to wait, in milliseconds
+	 * @return <code>true</code> if admitted, the caller must then call {@link #release(Priority, long)}
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public boolean acquire(String mco, Priority priority, long maxWaitMillis) throws InterruptedException {
+		lock.lock();
+		try {
+			if (canStart(priority) && (priority == Priority.BACKGROUND ? interactive.isEmpty() && background.isEmpty() : interactive.isEmpty())) {
+				start(priority);
+				admitted++;
+				return true;
+			}
+
+			FairQueue queue = priority == Priority.INTERACTIVE ? interactive : background;
+			Waiter waiter = new Waiter(lock.newCondition(), priority);
+			if (!queue.offer(mco, waiter, maxQueuePerMco)) {
+				shed++;
+				return false;
+			}
+
+			long nanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+			try {
+				while (!waiter.admitted) {
+					if (nanos <= 0L) {
+						queue.remove(mco, waiter);
+						timedOut++;
+						return false;
+					}
+					nanos = waiter.admittedCondition.awaitNanos(nanos);
+				}
+			} catch (InterruptedException e) {
+				if (waiter.admitted) {
+					release(priority, -1L);
+				} else {
+					queue.remove(mco, waiter);
+				}
+				throw e;
+			}
+			admittedAfterWait++;
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Ends a request admitted by {@link #acquire(String, Priority, long)}, then admits the waiting
+	 * requests the limit allows
+	 * @param priority priority class of the request
+	 * @param rttNanos response time of the request in nanoseconds, negative to leave it out of the limit
+	 */
+	public void release(Priority priority, long rttNanos) {
+		lock.lock();
+		try {
+			if (rttNanos >= 0L) {
+				limit.onSample(rttNanos, inFlight);
+			}
+			inFlight--;
+			if (priority == Priority.BACKGROUND) {
+				backgroundInFlight--;
+			}
+
+			while (true) {
+				Waiter next = null;
+				if (canStart(Priority.INTERACTIVE)) {
+					next = interactive.poll();
+				}
+				if (next == null && canStart(Priority.BACKGROUND) && interactive.isEmpty()) {
+					next = background.poll();
+				}
+				if (next == null) {
+					break;
+				}
+				start(next.priority);
+				next.admitted = true;
+				next.admittedCondition.signal();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @param priority priority class
+	 * @return <code>true</code> if a request of the class may start now
+	 **/
+	private boolean canStart(Priority priority) {
+		int currentLimit = limit.getLimit();
+		if (inFlight >= currentLimit) {
+			return false;
+		}
+		return priority == Priority.INTERACTIVE || backgroundInFlight < Math.max(1, (int) (currentLimit * backgroundShare));
+	}
+
+	/**
+	 * Counts a request in progress
+	 * @param priority priority class of the request
+	 */
+	private void start(Priority priority) {
+		inFlight++;
+		if (priority == Priority.BACKGROUND) {
+			backgroundInFlight++;
+		}
+	}
+
+	/**
+	 * @return a snapshot of the state of the admission control
+	 **/
+	public AdmissionStats getStats() {
+		lock.lock();
+		try {
+			return new AdmissionStats(limit.getLimit(), inFlight, backgroundInFlight, interactive.size, background.size,
+					admitted, admittedAfterWait, shed, timedOut, limit.getShortRttMicros(), limit.getLongRttMicros());
+		} finally {
+			lock.unlock();
+		}
+	}
+}
@@ -0,0 +1,226 @@
+package com.francetelecom.csrtool.gui.admission;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.gui.admission.AdmissionController.Priority;
+import com.francetelecom.csrtool.gui.deadline.RequestDeadline;
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+import com.francetelecom.csrtool.model.profiles.CSRPermission;
+import com.francetelecom.csrtool.model.profiles.CSRUser;
+
+/**
+ * Admits the requests of the controllers through the {@link AdmissionController}.<br>
+ * The requests of the administrators and the paths listed as background get the background
+ * priority, the others the interactive one. A request that cannot be admitted within the
+ * maximum wait is answered 503 with a <code>Retry-After</code> header, before it reaches the
+ * backends. The wait never outlasts the {@link RequestDeadline} of the request.<br>
+ * The priority depends on the current user: a request whose user is not authenticated yet is
+ * passed on, and admitted by the authentication filter with {@link #admitAuthenticated} once its
+ * user is known. The requests rejected by the authentication take no admission slot.
+ * @class AdmissionFilter
+ * @Implements Filter
+ */
+public class AdmissionFilter implements Filter {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(AdmissionFilter.class);
+
+	/**	init parameter holding the initial concurrency limit **/
+	private static final String PARAM_INITIAL_LIMIT = "initialLimit";
+
+	/**	init parameter holding the minimum concurrency limit **/
+	private static final String PARAM_MIN_LIMIT = "minLimit";
+
+	/**	init parameter holding the maximum concurrency limit **/
+	private static final String PARAM_MAX_LIMIT = "maxLimit";
+
+	/**	init parameter holding the maximum number of waiting requests per MCO and class **/
+	private static final String PARAM_MAX_QUEUE_PER_MCO = "maxQueuePerMco";
+
+	/**	init parameter holding the maximum wait of a request, in milliseconds **/
+	private static final String PARAM_MAX_QUEUE_WAIT_MILLIS = "maxQueueWaitMillis";
+
+	/**	init parameter holding the share of the limit the background requests may use, in percent **/
+	private static final String PARAM_BACKGROUND_SHARE_PERCENT = "backgroundSharePercent";
+
+	/**	init parameter holding the paths of the background requests, comma separated **/
+	private static final String PARAM_BACKGROUND_PATHS = "backgroundPaths";
+
+	/**	default maximum wait of a request, in milliseconds **/
+	private static final int DEFAULT_MAX_QUEUE_WAIT_MILLIS = 500;
+
+	/**	delay advised to the clients of the rejected requests, in seconds **/
+	private static final String RETRY_AFTER_SECONDS = "1";
+
+	/**	MCO of the requests without user **/
+	private static final String NO_MCO = "none";
+
+	/**	request attribute holding the admission filter of a request waiting for its user **/
+	private static final String DEFERRED_ATTRIBUTE = AdmissionFilter.class.getName() + ".deferred";
+
+	/**	admission controller **/
+	private AdmissionController admissionController;
+
+	/**	maximum wait of a request, in milliseconds **/
+	private long maxQueueWaitMillis;
+
+	/**	paths of the background requests, without the context path **/
+	private final Set<String> backgroundPaths = new HashSet<String>();
+
+	/**
+	 * Configures the admission controller
+	 * @param config filter config
+	 * @throws ServletException servlet exception
+	 */
+	public void init(FilterConfig config) throws ServletException {
+		int initialLimit = getIntParameter(config, PARAM_INITIAL_LIMIT, AdmissionController.DEFAULT_INITIAL_LIMIT);
+		int minLimit = getIntParameter(config, PARAM_MIN_LIMIT, AdmissionController.DEFAULT_MIN_LIMIT);
+		int maxLimit = getIntParameter(config, PARAM_MAX_LIMIT, AdmissionController.DEFAULT_MAX_LIMIT);
+		int maxQueuePerMco = getIntParameter(config, PARAM_MAX_QUEUE_PER_MCO, AdmissionController.DEFAULT_MAX_QUEUE_PER_MCO);
+		int backgroundSharePercent = getIntParameter(config, PARAM_BACKGROUND_SHARE_PERCENT, (int) (AdmissionController.DEFAULT_BACKGROUND_SHARE * 100));
+		maxQueueWaitMillis = getIntParameter(config, PARAM_MAX_QUEUE_WAIT_MILLIS, DEFAULT_MAX_QUEUE_WAIT_MILLIS);
+		if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+			throw new ServletException(String.format("invalid limits: %d <= %d <= %d", minLimit, initialLimit, maxLimit));
+		}
+		String paths = config.getInitParameter(PARAM_BACKGROUND_PATHS);
+		if (StringUtils.isNotBlank(paths)) {
+			for (String path : StringUtils.split(paths, ", ")) {
+				backgroundPaths.add(path);
+			}
+		}
+
+		admissionController = AdmissionController.getInstance();
+		admissionController.configure(initialLimit, minLimit, maxLimit, maxQueuePerMco, backgroundSharePercent / 100d);
+		LOGGER.info(FuncLogging.getLogFormatedMessage("AdmissionFilter","init",
+				String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,"admission limit " + initialLimit + " in [" + minLimit + ", " + maxLimit + "]"));
+	}
+
+	/**
+	 * Admits the request, or answers 503 if it cannot be admitted in time. A request whose user is
+	 * not authenticated yet is passed on, to be admitted by the authentication filter.
+	 * @param request servlet request
+	 * @param response servlet response
+	 * @param chain filter chain
+	 * @throws IOException input output exception
+	 * @throws ServletException servlet exception
+	 */
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+		CSRUser currentUser = CSRUser.getCurrentCSR();
+		if (currentUser == null) {
+			request.setAttribute(DEFERRED_ATTRIBUTE, this);
+			chain.doFilter(request, response);
+			return;
+		}
+		admit((HttpServletRequest) request, response, chain, currentUser);
+	}
+
+	/**
+	 * Admits a request passed on before its user was authenticated, then passes it on to the next
+	 * filter. To be called by the authentication filter once the current user is set; the request
+	 * is passed on at once if it was not deferred by an admission filter.
+	 * @param request servlet request
+	 * @param response servlet response
+	 * @param chain filter chain
+	 * @throws IOException input output exception
+	 * @throws ServletException servlet exception
+	 */
+	public static void admitAuthenticated(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+		AdmissionFilter admissionFilter = (AdmissionFilter) request.getAttribute(DEFERRED_ATTRIBUTE);
+		if (admissionFilter == null) {
+			chain.doFilter(request, response);
+			return;
+		}
+		request.removeAttribute(DEFERRED_ATTRIBUTE);
+		admissionFilter.admit((HttpServletRequest) request, response, chain, CSRUser.getCurrentCSR());
+	}
+
+	/**
+	 * Admits a request, or answers 503 if it cannot be admitted in time
+	 * @param httpRequest http servlet request
+	 * @param response servlet response
+	 * @param chain filter chain
+	 * @param currentUser current user, <code>null</code> if not authenticated
+	 * @throws IOException input output exception
+	 * @throws ServletException servlet exception
+	 */
+	private void admit(HttpServletRequest httpRequest, ServletResponse response, FilterChain chain, CSRUser currentUser)
+			throws IOException, ServletException {
+		String mco = currentUser != null && currentUser.getMco() != null ? currentUser.getMco() : NO_MCO;
+		Priority priority = getPriority(httpRequest, currentUser);
+
+		boolean admitted;
+		try {
+			admitted = admissionController.acquire(mco, priority, RequestDeadline.bound(maxQueueWaitMillis));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			admitted = false;
+		}
+		if (!admitted) {
+			HttpServletResponse httpResponse = (HttpServletResponse) response;
+			httpResponse.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+			httpResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			return;
+		}
+
+		long start = System.nanoTime();
+		try {
+			chain.doFilter(httpRequest, response);
+		} finally {
+			admissionController.release(priority, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * @param request http servlet request
+	 * @param currentUser current user, <code>null</code> if not authenticated
+	 * @return the priority class of the request
+	 **/
+	private Priority getPriority(HttpServletRequest request, CSRUser currentUser) {
+		if (currentUser != null && (currentUser.hasAdminLevel(CSRPermission.ADMIN_LEVEL)
+				|| currentUser.hasAdminLevel(CSRPermission.WRITE_LEVEL) || currentUser.hasAdminLevel(CSRPermission.READ_LEVEL))) {
+			return Priority.BACKGROUND;
+		}
+		if (!backgroundPaths.isEmpty() && backgroundPaths.contains(request.getRequestURI().substring(request.getContextPath().length()))) {
+			return Priority.BACKGROUND;
+		}
+		return Priority.INTERACTIVE;
+	}
+
+	/**
+	 * Reads an integer init parameter
+	 * @param config filter config
+	 * @param name parameter name
+	 * @param defaultValue value when the parameter is blank
+	 * @return the value of the parameter
+	 * @throws ServletException if the parameter is not an integer
+	 */
+	private static int getIntParameter(FilterConfig config, String name, int defaultValue) throws ServletException {
+		try {
+			return Integer.parseInt(StringUtils.defaultIfBlank(config.getInitParameter(name), String.valueOf(defaultValue)).trim());
+		} catch (NumberFormatException e) {
+			throw new ServletException(String.format("invalid init parameter: %s", name), e);
+		}
+	}
+
+	/**
+	 * Finalize the filter
+	 * <BR>Callback method; It is called just before filter destroys.
+	 */
+	public void destroy() {
+		// Do nothing
+	}
+}
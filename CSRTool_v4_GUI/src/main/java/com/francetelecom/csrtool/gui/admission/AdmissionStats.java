@@ -0,0 +1,178 @@
+package com.francetelecom.csrtool.gui.admission;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * This bean is a snapshot of the state of the {@link AdmissionController}.
+ * @class AdmissionStats
+ * @Implements Serializable
+ */
+public class AdmissionStats implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = -3190856472204418871L;
+
+	/**	current concurrency limit **/
+	private final int limit;
+
+	/**	number of requests in progress **/
+	private final int inFlight;
+
+	/**	number of background requests in progress **/
+	private final int backgroundInFlight;
+
+	/**	number of waiting interactive requests **/
+	private final int interactiveWaiting;
+
+	/**	number of waiting background requests **/
+	private final int backgroundWaiting;
+
+	/**	number of requests admitted at once **/
+	private final long admitted;
+
+	/**	number of requests admitted after waiting **/
+	private final long admittedAfterWait;
+
+	/**	number of requests rejected because their queue was full **/
+	private final long shed;
+
+	/**	number of requests rejected because their deadline expired while waiting **/
+	private final long timedOut;
+
+	/**	short average of the response times, in microseconds **/
+	private final long shortRttMicros;
+
+	/**	long average of the response times, in microseconds **/
+	private final long longRttMicros;
+
+	/**
+	 * Constructor
+	 * @param limit current concurrency limit
+	 * @param inFlight number of requests in progress
+	 * @param backgroundInFlight number of background requests in progress
+	 * @param interactiveWaiting number of waiting interactive requests
+	 * @param backgroundWaiting number of waiting background requests
+	 * @param admitted number of requests admitted at once
+	 * @param admittedAfterWait number of requests admitted after waiting
+	 * @param shed number of requests rejected because their queue was full
+	 * @param timedOut number of requests rejected because their deadline expired
+	 * @param shortRttMicros short average of the response times, in microseconds
+	 * @param longRttMicros long average of the response times, in microseconds
+	 */
+	public AdmissionStats(int limit, int inFlight, int backgroundInFlight, int interactiveWaiting, int backgroundWaiting,
+			long admitted, long admittedAfterWait, long shed, long timedOut, long shortRttMicros, long longRttMicros) {
+		this.limit = limit;
+		this.inFlight = inFlight;
+		this.backgroundInFlight = backgroundInFlight;
+		this.interactiveWaiting = interactiveWaiting;
+		this.backgroundWaiting = backgroundWaiting;
+		this.admitted = admitted;
+		this.admittedAfterWait = admittedAfterWait;
+		this.shed = shed;
+		this.timedOut = timedOut;
+		this.shortRttMicros = shortRttMicros;
+		this.longRttMicros = longRttMicros;
+	}
+
+	/**
+	 * @return details of the state
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("limit", limit);
+		toStringBuilder.append("inFlight", inFlight);
+		toStringBuilder.append("backgroundInFlight", backgroundInFlight);
+		toStringBuilder.append("interactiveWaiting", interactiveWaiting);
+		toStringBuilder.append("backgroundWaiting", backgroundWaiting);
+		toStringBuilder.append("admitted", admitted);
+		toStringBuilder.append("admittedAfterWait", admittedAfterWait);
+		toStringBuilder.append("shed", shed);
+		toStringBuilder.append("timedOut", timedOut);
+		toStringBuilder.append("shortRttMicros", shortRttMicros);
+		toStringBuilder.append("longRttMicros", longRttMicros);
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return current concurrency limit
+	 **/
+	public int getLimit() {
+		return limit;
+	}
+
+	/**
+	 * @return number of requests in progress
+	 **/
+	public int getInFlight() {
+		return inFlight;
+	}
+
+	/**
+	 * @return number of background requests in progress
+	 **/
+	public int getBackgroundInFlight() {
+		return backgroundInFlight;
+	}
+
+	/**
+	 * @return number of waiting interactive requests
+	 **/
+	public int getInteractiveWaiting() {
+		return interactiveWaiting;
+	}
+
+	/**
+	 * @return number of waiting background requests
+	 **/
+	public int getBackgroundWaiting() {
+		return backgroundWaiting;
+	}
+
+	/**
+	 * @return number of requests admitted at once
+	 **/
+	public long getAdmitted() {
+		return admitted;
+	}
+
+	/**
+	 * @return number of requests admitted after waiting
+	 **/
+	public long getAdmittedAfterWait() {
+		return admittedAfterWait;
+	}
+
+	/**
+	 * @return number of requests rejected because their queue was full
+	 **/
+	public long getShed() {
+		return shed;
+	}
+
+	/**
+	 * @return number of requests rejected because their deadline expired while waiting
+	 **/
+	public long getTimedOut() {
+		return timedOut;
+	}
+
+	/**
+	 * @return short average of the response times, in microseconds
+	 **/
+	public long getShortRttMicros() {
+		return shortRttMicros;
+	}
+
+	/**
+	 * @return long average of the response times, in microseconds
+	 **/
+	public long getLongRttMicros() {
+		return longRttMicros;
+	}
+}
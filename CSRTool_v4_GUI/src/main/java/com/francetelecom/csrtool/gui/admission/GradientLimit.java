@@ -0,0 +1,103 @@
+package com.francetelecom.csrtool.gui.admission;
+
+/**
+ * A concurrency limit adjusted from the latency of the requests.<br>
+ * Two averages of the response time are kept: a short one following the current latency and a
+ * long one standing for the latency without load. While the short one stays close to the long
+ * one the limit grows by its square root, the allowed queue. When the short one rises the node is
+ * queuing internally and the limit shrinks by the ratio of the two, down to half of it at once.<br>
+ * This class is not thread safe, the {@link AdmissionController} updates it under its lock.
+ * @class GradientLimit
+ */
+public class GradientLimit {
+
+	/**	weight of a sample in the short average **/
+	private static final double SHORT_SMOOTHING = 0.1d;
+
+	/**	weight of a sample in the long average **/
+	private static final double LONG_SMOOTHING = 0.002d;
+
+	/**	weight of a new limit over the current one **/
+	private static final double LIMIT_SMOOTHING = 0.2d;
+
+	/**	ratio of the short average over the long one tolerated before shrinking the limit **/
+	private static final double RTT_TOLERANCE = 1.5d;
+
+	/**	minimum limit **/
+	private final int minLimit;
+
+	/**	maximum limit **/
+	private final int maxLimit;
+
+	/**	current limit **/
+	private double limit;
+
+	/**	short average of the response times, in nanoseconds **/
+	private double shortRtt;
+
+	/**	long average of the response times, in nanoseconds **/
+	private double longRtt;
+
+	/**
+	 * Constructor
+	 * @param initialLimit initial limit
+	 * @param minLimit minimum limit
+	 * @param maxLimit maximum limit
+	 */
+	public GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+		this.limit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+	}
+
+	/**
+	 * Adjusts the limit after a request
+	 * @param rttNanos response time of the request, in nanoseconds
+	 * @param inFlight number of requests in progress when the request completed
+	 */
+	public void onSample(long rttNanos, int inFlight) {
+		if (longRtt == 0d) {
+			shortRtt = rttNanos;
+			longRtt = rttNanos;
+			return;
+		}
+		shortRtt += (rttNanos - shortRtt) * SHORT_SMOOTHING;
+		longRtt += (rttNanos - longRtt) * LONG_SMOOTHING;
+
+		// after a long overload the long average drifts up, let it come back quickly
+		if (longRtt > shortRtt * 2d) {
+			longRtt *= 0.95d;
+		}
+
+		double gradient = Math.max(0.5d, Math.min(1d, RTT_TOLERANCE * longRtt / shortRtt));
+		double newLimit = limit * gradient + Math.sqrt(limit);
+
+		// the limit is not raised while the node does not use half of it
+		if (newLimit > limit && inFlight < limit / 2d) {
+			return;
+		}
+		limit = limit * (1d - LIMIT_SMOOTHING) + newLimit * LIMIT_SMOOTHING;
+		limit = Math.max(minLimit, Math.min(maxLimit, limit));
+	}
+
+	/**
+	 * @return the current limit
+	 **/
+	public int getLimit() {
+		return (int) limit;
+	}
+
+	/**
+	 * @return the short average of the response times, in microseconds
+	 **/
+	public long getShortRttMicros() {
+		return (long) (shortRtt / 1000d);
+	}
+
+	/**
+	 * @return the long average of the response times, in microseconds
+	 **/
+	public long getLongRttMicros() {
+		return (long) (longRtt / 1000d);
+	}
+}
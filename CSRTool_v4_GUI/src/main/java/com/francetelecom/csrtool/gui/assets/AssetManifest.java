@@ -0,0 +1,285 @@
+package com.francetelecom.csrtool.gui.assets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.ServletContext;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * The manifest of the static assets of the web application, built once at startup.<br>
+ * Each asset is listed under its path and under a fingerprinted path holding the hash of its
+ * content, e.g. <code>/js/app.3f2a9c01d4.js</code>. The content is loaded in memory, or
+ * memory-mapped for the large files, along with its gzip encoding when compressing is worth it
+ * and with the brotli encoding precompressed at build time, in a <code>.br</code> file next to
+ * the asset.<br>
+ * The manifest is published in the servlet context so that the pages can link the fingerprinted
+ * paths.
+ * @class AssetManifest
+ */
+public class AssetManifest {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(AssetManifest.class);
+
+	/**	servlet context attribute holding the manifest **/
+	public static final String CONTEXT_ATTRIBUTE = "assetManifest";
+
+	/**	number of hexadecimal characters of the hash kept in the fingerprinted paths **/
+	private static final int FINGERPRINT_LENGTH = 10;
+
+	/**	minimum size of a content worth compressing **/
+	private static final int MIN_COMPRESSED_SIZE = 256;
+
+	/**	assets per path **/
+	private final Map<String, StaticAsset> assets;
+
+	/**	assets per fingerprinted path **/
+	private final Map<String, StaticAsset> fingerprintedAssets;
+
+	/**
+	 * Constructor
+	 * @param assets assets per path
+	 * @param fingerprintedAssets assets per fingerprinted path
+	 */
+	private AssetManifest(Map<String, StaticAsset> assets, Map<String, StaticAsset> fingerprintedAssets) {
+		this.assets = Collections.unmodifiableMap(assets);
+		this.fingerprintedAssets = Collections.unmodifiableMap(fingerprintedAssets);
+	}
+
+	/**
+	 * Builds the manifest of the assets of a web application. The assets that cannot be read are
+	 * left out of the manifest and served as before.
+	 * @param context servlet context of the application
+	 * @param extensions extensions of the assets
+	 * @param maxInMemorySize size above which the assets are memory-mapped instead of loaded
+	 * @return the manifest
+	 */
+	public static AssetManifest build(ServletContext context, Set<String> extensions, long maxInMemorySize) {
+		Map<String, StaticAsset> assets = new HashMap<String, StaticAsset>();
+		Map<String, StaticAsset> fingerprintedAssets = new HashMap<String, StaticAsset>();
+		scan(context, "/", extensions, maxInMemorySize, assets, fingerprintedAssets);
+
+		if (LOGGER.isInfoEnabled()) {
+			LOGGER.info(FuncLogging.getLogFormatedMessage("AssetManifest","build",
+					String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,assets.size() + " static assets"));
+		}
+		return new AssetManifest(assets, fingerprintedAssets);
+	}
+
+	/**
+	 * Adds the assets of a directory and of its sub directories
+	 * @param context servlet context of the application
+	 * @param directory directory path, ending with a slash
+	 * @param extensions extensions of the assets
+	 * @param maxInMemorySize size above which the assets are memory-mapped
+	 * @param assets assets per path
+	 * @param fingerprintedAssets assets per fingerprinted path
+	 */
+	private static void scan(ServletContext context, String directory, Set<String> extensions, long maxInMemorySize,
+			Map<String, StaticAsset> assets, Map<String, StaticAsset> fingerprintedAssets) {
+		Set<String> paths = context.getResourcePaths(directory);
+		if (paths == null) {
+			return;
+		}
+		for (String path : paths) {
+			if (path.endsWith("/")) {
+				if (!path.startsWith("/WEB-INF/") && !path.startsWith("/META-INF/")) {
+					scan(context, path, extensions, maxInMemorySize, assets, fingerprintedAssets);
+				}
+			} else if (extensions.contains(StringUtils.substringAfterLast(path, ".").toLowerCase())) {
+				try {
+					StaticAsset asset = load(context, path, maxInMemorySize);
+					assets.put(asset.getPath(), asset);
+					fingerprintedAssets.put(asset.getFingerprintedPath(), asset);
+				} catch (IOException e) {
+					LOGGER.warn(FuncLogging.getLogFormatedMessage("AssetManifest","scan",
+							FuncLogging.REQUEST_STATUS_FAILED, null,"asset " + path + " left out: " + e.getMessage()), e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Loads an asset
+	 * @param context servlet context of the application
+	 * @param path path of the asset
+	 * @param maxInMemorySize size above which the asset is memory-mapped
+	 * @return the asset
+	 * @throws IOException if the asset cannot be read
+	 */
+	private static StaticAsset load(ServletContext context, String path, long maxInMemorySize) throws IOException {
+		ByteBuffer content;
+		long lastModified;
+		String realPath = context.getRealPath(path);
+		File file = realPath != null ? new File(realPath) : null;
+		if (file != null && file.isFile()) {
+			lastModified = file.lastModified();
+			content = file.length() > maxInMemorySize ? map(file) : ByteBuffer.wrap(read(context.getResourceAsStream(path)));
+		} else {
+			URL url = context.getResource(path);
+			lastModified = url != null ? url.openConnection().getLastModified() : 0L;
+			content = ByteBuffer.wrap(read(context.getResourceAsStream(path)));
+		}
+
+		String hash = md5(content);
+		String contentType = StringUtils.defaultIfBlank(context.getMimeType(path), "application/octet-stream");
+		AssetVariant identity = new AssetVariant(null, "\"" + hash + "\"", content);
+
+		AssetVariant gzip = null;
+		if (isCompressible(contentType) && content.remaining() >= MIN_COMPRESSED_SIZE) {
+			byte[] compressed = gzip(content);
+			if (compressed.length < content.remaining() * 9L / 10L) {
+				gzip = new AssetVariant("gzip", "\"" + hash + "-gz\"", ByteBuffer.wrap(compressed));
+			}
+		}
+
+		AssetVariant brotli = null;
+		InputStream brotliStream = context.getResourceAsStream(path + ".br");
+		if (brotliStream != null) {
+			brotli = new AssetVariant("br", "\"" + hash + "-br\"", ByteBuffer.wrap(read(brotliStream)));
+		}
+
+		return new StaticAsset(path, fingerprint(path, hash), contentType, lastModified, identity, gzip, brotli);
+	}
+
+	/**
+	 * Inserts a hash before the extension of a path
+	 * @param path path of the asset
+	 * @param hash hash of the content
+	 * @return the fingerprinted path
+	 */
+	private static String fingerprint(String path, String hash) {
+		int dot = path.lastIndexOf('.');
+		return path.substring(0, dot) + "." + hash.substring(0, FINGERPRINT_LENGTH) + path.substring(dot);
+	}
+
+	/**
+	 * @param contentType content type
+	 * @return <code>true</code> for the text formats, the images and fonts being compressed already
+	 **/
+	private static boolean isCompressible(String contentType) {
+		return contentType.startsWith("text/") || contentType.contains("javascript") || contentType.contains("json")
+				|| contentType.contains("xml");
+	}
+
+	/**
+	 * Memory-maps a file
+	 * @param file the file
+	 * @return the content of the file
+	 * @throws IOException input output exception
+	 */
+	private static ByteBuffer map(File file) throws IOException {
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = randomAccessFile.getChannel();
+			// the mapping stays valid once the channel is closed
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			randomAccessFile.close();
+		}
+	}
+
+	/**
+	 * Reads a stream fully, then closes it
+	 * @param in the stream
+	 * @return the content of the stream
+	 * @throws IOException input output exception
+	 */
+	private static byte[] read(InputStream in) throws IOException {
+		if (in == null) {
+			throw new IOException("resource not found");
+		}
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int length;
+			while ((length = in.read(buffer)) != -1) {
+				out.write(buffer, 0, length);
+			}
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Compresses a content with gzip
+	 * @param content the content
+	 * @return the compressed content
+	 * @throws IOException input output exception
+	 */
+	private static byte[] gzip(ByteBuffer content) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(content.remaining() / 3);
+		GZIPOutputStream gzipOut = new GZIPOutputStream(out);
+		try {
+			new AssetVariant(null, null, content).writeTo(gzipOut);
+		} finally {
+			gzipOut.close();
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * @param content a content
+	 * @return the MD5 hash of the content, in hexadecimal
+	 **/
+	private static String md5(ByteBuffer content) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("MD5");
+			digest.update(content.duplicate());
+			StringBuilder hex = new StringBuilder(32);
+			for (byte b : digest.digest()) {
+				hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("MD5 not supported", e);
+		}
+	}
+
+	/**
+	 * Finds an asset by its fingerprinted path
+	 * @param path request path, relative to the context
+	 * @return the asset or <code>null</code>
+	 */
+	public StaticAsset getFingerprinted(String path) {
+		return fingerprintedAssets.get(path);
+	}
+
+	/**
+	 * Finds an asset by its path
+	 * @param path request path, relative to the context
+	 * @return the asset or <code>null</code>
+	 */
+	public StaticAsset get(String path) {
+		return assets.get(path);
+	}
+
+	/**
+	 * Gets the path to link an asset with, for the pages
+	 * @param path path of the asset
+	 * @return the fingerprinted path, or the path itself if the asset is not in the manifest
+	 */
+	public String getUrl(String path) {
+		StaticAsset asset = assets.get(path);
+		return asset != null ? asset.getFingerprintedPath() : path;
+	}
+}
@@ -0,0 +1,73 @@
+package com.francetelecom.csrtool.gui.assets;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * One encoding of a {@link StaticAsset}: the identity content or a compressed one. The content is
+ * either held in memory or memory-mapped from the file of the asset.
+ * @class AssetVariant
+ */
+public class AssetVariant {
+
+	/**	content encoding, <code>null</code> for the identity content **/
+	private final String encoding;
+
+	/**	entity tag of this encoding **/
+	private final String etag;
+
+	/**	content, read only **/
+	private final ByteBuffer content;
+
+	/**
+	 * Constructor
+	 * @param encoding content encoding, <code>null</code> for the identity content
+	 * @param etag entity tag of this encoding
+	 * @param content content
+	 */
+	AssetVariant(String encoding, String etag, ByteBuffer content) {
+		this.encoding = encoding;
+		this.etag = etag;
+		this.content = content.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Writes the content
+	 * @param out target stream
+	 * @throws IOException input output exception
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		ByteBuffer buffer = content.duplicate();
+		WritableByteChannel channel = Channels.newChannel(out);
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return content encoding, <code>null</code> for the identity content
+	 **/
+	public String getEncoding() {
+		return encoding;
+	}
+
+	/**
+	 * @return entity tag of this encoding
+	 **/
+	public String getEtag() {
+		return etag;
+	}
+
+	/**
+	 * @return length of the content in bytes
+	 **/
+	public int getLength() {
+		return content.remaining();
+	}
+}
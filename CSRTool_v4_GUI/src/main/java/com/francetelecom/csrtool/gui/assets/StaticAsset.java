@@ -0,0 +1,141 @@
+package com.francetelecom.csrtool.gui.assets;
+
+/**
+ * A static asset of the web application with its encodings, as listed in the {@link AssetManifest}.
+ * @class StaticAsset
+ */
+public class StaticAsset {
+
+	/**	path of the asset in the web application **/
+	private final String path;
+
+	/**	path of the asset with the hash of its content **/
+	private final String fingerprintedPath;
+
+	/**	content type **/
+	private final String contentType;
+
+	/**	last modification time, truncated to the second as in the HTTP dates **/
+	private final long lastModified;
+
+	/**	identity content **/
+	private final AssetVariant identity;
+
+	/**	gzip content, <code>null</code> if compressing is not worth it **/
+	private final AssetVariant gzip;
+
+	/**	brotli content, <code>null</code> if not precompressed at build time **/
+	private final AssetVariant brotli;
+
+	/**
+	 * Constructor
+	 * @param path path of the asset in the web application
+	 * @param fingerprintedPath path of the asset with the hash of its content
+	 * @param contentType content type
+	 * @param lastModified last modification time
+	 * @param identity identity content
+	 * @param gzip gzip content or <code>null</code>
+	 * @param brotli brotli content or <code>null</code>
+	 */
+	StaticAsset(String path, String fingerprintedPath, String contentType, long lastModified, AssetVariant identity,
+			AssetVariant gzip, AssetVariant brotli) {
+		this.path = path;
+		this.fingerprintedPath = fingerprintedPath;
+		this.contentType = contentType;
+		this.lastModified = lastModified / 1000L * 1000L;
+		this.identity = identity;
+		this.gzip = gzip;
+		this.brotli = brotli;
+	}
+
+	/**
+	 * Chooses the smallest encoding accepted by a client
+	 * @param acceptEncoding <code>Accept-Encoding</code> header of the request, may be <code>null</code>
+	 * @return the encoding to send
+	 */
+	public AssetVariant select(String acceptEncoding) {
+		if (brotli != null && accepts(acceptEncoding, "br")) {
+			return brotli;
+		}
+		if (gzip != null && accepts(acceptEncoding, "gzip")) {
+			return gzip;
+		}
+		return identity;
+	}
+
+	/**
+	 * @return <code>true</code> if the asset has compressed encodings
+	 **/
+	public boolean isCompressed() {
+		return gzip != null || brotli != null;
+	}
+
+	/**
+	 * Tells whether an <code>Accept-Encoding</code> header accepts a content coding, that is lists
+	 * it without a zero quality value
+	 * @param acceptEncoding <code>Accept-Encoding</code> header, may be <code>null</code>
+	 * @param coding content coding
+	 * @return <code>true</code> if the coding is accepted
+	 */
+	public static boolean accepts(String acceptEncoding, String coding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (String element : acceptEncoding.split(",")) {
+			String[] parts = element.split(";");
+			if (!coding.equalsIgnoreCase(parts[0].trim())) {
+				continue;
+			}
+			for (int i = 1; i < parts.length; i++) {
+				String parameter = parts[i].trim();
+				if (parameter.startsWith("q=")) {
+					try {
+						return Double.parseDouble(parameter.substring(2)) > 0d;
+					} catch (NumberFormatException e) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return path of the asset in the web application
+	 **/
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * @return path of the asset with the hash of its content
+	 **/
+	public String getFingerprintedPath() {
+		return fingerprintedPath;
+	}
+
+	/**
+	 * @return content type
+	 **/
+	public String getContentType() {
+		return contentType;
+	}
+
+	/**
+	 * @return last modification time
+	 **/
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * @return identity content
+	 **/
+	public AssetVariant getIdentity() {
+		return identity;
+	}
+}
@@ -0,0 +1,128 @@
+package com.francetelecom.csrtool.gui.assets;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Serves the static assets listed in the {@link AssetManifest} from memory.<br>
+ * The smallest encoding accepted by the client is sent. The fingerprinted paths never change of
+ * content and are cached by the browsers for a year, the other paths are revalidated on each use
+ * with their entity tag. The requests for other resources go through the chain.<br>
+ * The assets are served without going through the rest of the chain, so the filter must only be
+ * mapped to, and configured with, the extensions that need no authentication.
+ * @class StaticAssetFilter
+ * @Implements Filter
+ */
+public class StaticAssetFilter implements Filter {
+
+	/**	init parameter holding the extensions of the assets, comma separated **/
+	private static final String PARAM_EXTENSIONS = "extensions";
+
+	/**	init parameter holding the size above which the assets are memory-mapped, in bytes **/
+	private static final String PARAM_MAX_IN_MEMORY_SIZE = "maxInMemorySize";
+
+	/**	default extensions of the assets, those served without authentication by the AuthentFilter **/
+	private static final String DEFAULT_EXTENSIONS = "js,gif,png";
+
+	/**	default size above which the assets are memory-mapped, in bytes **/
+	private static final String DEFAULT_MAX_IN_MEMORY_SIZE = "1048576";
+
+	/**	cache control of the fingerprinted paths **/
+	private static final String CACHE_CONTROL_IMMUTABLE = "public, max-age=31536000, immutable";
+
+	/**	cache control of the other paths **/
+	private static final String CACHE_CONTROL_REVALIDATE = "no-cache";
+
+	/**	manifest of the assets **/
+	private AssetManifest manifest;
+
+	/**
+	 * Builds the manifest of the assets and publishes it in the servlet context
+	 * @param config filter config
+	 * @throws ServletException servlet exception
+	 */
+	public void init(FilterConfig config) throws ServletException {
+		Set<String> extensions = new HashSet<String>();
+		for (String extension : StringUtils.split(StringUtils.defaultIfBlank(config.getInitParameter(PARAM_EXTENSIONS), DEFAULT_EXTENSIONS), ", ")) {
+			extensions.add(extension.toLowerCase());
+		}
+		long maxInMemorySize;
+		try {
+			maxInMemorySize = Long.parseLong(StringUtils.defaultIfBlank(config.getInitParameter(PARAM_MAX_IN_MEMORY_SIZE), DEFAULT_MAX_IN_MEMORY_SIZE).trim());
+		} catch (NumberFormatException e) {
+			throw new ServletException(String.format("invalid init parameter: %s", PARAM_MAX_IN_MEMORY_SIZE), e);
+		}
+
+		manifest = AssetManifest.build(config.getServletContext(), extensions, maxInMemorySize);
+		config.getServletContext().setAttribute(AssetManifest.CONTEXT_ATTRIBUTE, manifest);
+	}
+
+	/**
+	 * Serves the request if it is for an asset of the manifest
+	 * @param request servlet request
+	 * @param response servlet response
+	 * @param chain filter chain
+	 * @throws IOException input output exception
+	 * @throws ServletException servlet exception
+	 */
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+		HttpServletRequest httpRequest = (HttpServletRequest) request;
+		HttpServletResponse httpResponse = (HttpServletResponse) response;
+		String method = httpRequest.getMethod();
+		if (!"GET".equals(method) && !"HEAD".equals(method)) {
+			chain.doFilter(request, response);
+			return;
+		}
+
+		String path = httpRequest.getRequestURI().substring(httpRequest.getContextPath().length());
+		boolean fingerprinted = true;
+		StaticAsset asset = manifest.getFingerprinted(path);
+		if (asset == null) {
+			fingerprinted = false;
+			asset = manifest.get(path);
+		}
+		if (asset == null) {
+			chain.doFilter(request, response);
+			return;
+		}
+
+		AssetVariant variant = asset.select(httpRequest.getHeader("Accept-Encoding"));
+		if (asset.isCompressed()) {
+			httpResponse.setHeader("Vary", "Accept-Encoding");
+		}
+		httpResponse.setHeader("Cache-Control", fingerprinted ? CACHE_CONTROL_IMMUTABLE : CACHE_CONTROL_REVALIDATE);
+		if (new ServletWebRequest(httpRequest, httpResponse).checkNotModified(variant.getEtag(), asset.getLastModified())) {
+			return;
+		}
+
+		httpResponse.setContentType(asset.getContentType());
+		if (variant.getEncoding() != null) {
+			httpResponse.setHeader("Content-Encoding", variant.getEncoding());
+		}
+		httpResponse.setContentLength(variant.getLength());
+		if ("GET".equals(method)) {
+			variant.writeTo(httpResponse.getOutputStream());
+		}
+	}
+
+	/**
+	 * Finalize the filter
+	 * <BR>Callback method; It is called just before filter destroys.
+	 */
+	public void destroy() {
+		// Do nothing
+	}
+}
@@ -24,14 +24,28 @@ import org.apache.log4j.MDC;
 import org.ow2.opensuit.core.util.BeanUtils;
 import org.ow2.opensuit.xml.base.enums.Scope;
 
+import com.francetelecom.csrtool.gui.admission.AdmissionFilter;
+import com.francetelecom.csrtool.gui.authent.capture.GassiCapture;
+import com.francetelecom.csrtool.gui.deadline.RequestDeadline;
+import com.francetelecom.csrtool.gui.jfr.LoginEvent;
+import com.francetelecom.csrtool.gui.jfr.LoginRejectedEvent;
+import com.francetelecom.csrtool.gui.jfr.ProfileDatabaseEvent;
+import com.francetelecom.csrtool.gui.pagecache.IPageRenderer;
+import com.francetelecom.csrtool.gui.pagecache.PageCache;
+import com.francetelecom.csrtool.gui.profiles.ProfilePrefetcher;
+import com.francetelecom.csrtool.gui.profiles.store.IProfilesStore;
+import com.francetelecom.csrtool.gui.profiles.store.ProfilesStoreException;
+import com.francetelecom.csrtool.gui.profiles.store.ProfilesStoreRegistry;
+import com.francetelecom.csrtool.gui.session.SessionRecord;
+import com.francetelecom.csrtool.gui.session.SessionStore;
 import com.francetelecom.csrtool.gui.utils.MessagesUtil;
+import com.francetelecom.csrtool.gui.watchdog.InFlightRegistry;
 import com.francetelecom.csrtool.model.logging.FuncLogging;
 import com.francetelecom.csrtool.model.profiles.CSRPermission;
 import com.francetelecom.csrtool.model.profiles.CSRRole;
 import com.francetelecom.csrtool.model.profiles.CSRUser;
 import com.francetelecom.csrtool.model.profiles.CSRUserInfo;
 import com.francetelecom.csrtool.model.profiles.ProfilesException;
-import com.francetelecom.csrtool.model.profiles.ProfilesRegistry;
 import com.francetelecom.csrtool.model.services.McoFacade;
 import com.francetelecom.csrtool.utils.CSRToolUtil;
 
@@ -85,6 +99,21 @@ public class AuthentFilter implements Filter {
 	/** authentication failure error **/
 	private static final String ERROR_AUTHENTICATION_FAILURE = "auth_error";
 
+	/** in-flight stage: authentication of the user **/
+	private static final String STAGE_AUTHENT = "authent";
+
+	/** in-flight stage: loading of the profile of a new user **/
+	private static final String STAGE_NOTIFY_CONNECTION = "notifyConnection";
+
+	/** in-flight stage: loading of the service role of a new user **/
+	private static final String STAGE_LOAD_ROLES = "loadRoles";
+
+	/** in-flight stage: processing by the rest of the chain **/
+	private static final String STAGE_CHAIN = "chain";
+
+	/** home page of the administrators, the same for all the administrators of a level **/
+	private static final String ADMIN_HOME_PAGE = "/Bricks/pg/osuit/pages/csradmin/ViewAllCSRRoles";
+
 	/** authentPlugins **/
 	private IAuthentPlugin[] authentPlugins;
 
@@ -183,6 +212,36 @@ public class AuthentFilter implements Filter {
 			chain.doFilter(request, response);
 			return;
 		}
+		/*
+		 * Register the request as in progress until it completes, for the slow request watchdog.
+		 */
+		long startMillis = System.currentTimeMillis();
+		InFlightRegistry inFlightRegistry = InFlightRegistry.getInstance();
+		inFlightRegistry.begin(httpRequest.getRequestURI(), STAGE_AUTHENT);
+		try {
+			authenticateAndFilter(httpRequest, request, response, chain, inFlightRegistry);
+		} finally {
+			inFlightRegistry.end();
+			/*
+			 * Record the request in the GASSI trace when a capture is in progress, for a replay on a
+			 * test platform.
+			 */
+			GassiCapture.getInstance().capture(httpRequest, startMillis);
+		}
+	}
+
+	/**
+	 * Authenticates the user of the request, then passes the request on to the next filter
+	 * @param httpRequest Http servlet request
+	 * @param request Servlet request
+	 * @param response Servlet response
+	 * @param chain FilterChain object
+	 * @param inFlightRegistry registry of the requests in progress
+	 * @throws ServletException general exception a servlet can throw when it encounters difficulty
+	 * @throws IOException input oytput exception
+	 */
+	private void authenticateAndFilter(HttpServletRequest httpRequest, ServletRequest request, ServletResponse response, FilterChain chain,
+			InFlightRegistry inFlightRegistry) throws IOException, ServletException {
 		/*
 		 * Print some debug information. the information is printed only if the request contains a
 		 * parameter named 'dumphttp'. The user has to add this parameter to the request by himself
@@ -196,18 +255,39 @@ public class AuthentFilter implements Filter {
 		 */
 		CSRUser sessionUser = getSessionUser(httpRequest);
 		AuthentifiedUser authentifiedUser = getAuthentifiedUser(httpRequest, sessionUser);
+		/*
+		 * A user whose session was lost by a restart gets it back from the session store, without
+		 * loading its profile and its roles again.
+		 */
+		if (sessionUser == null && authentifiedUser != null) {
+			sessionUser = restoreSessionUser(httpRequest, authentifiedUser);
+			if (sessionUser != null) {
+				authentifiedUser = null;
+			}
+		}
 		/*
 		 * Reject if the user could not be authentified
 		 */
 		if (authentifiedUser==null && sessionUser==null) {
+			LoginRejectedEvent.record(null, null, LoginRejectedEvent.REASON_NOT_AUTHENTICATED);
 			dumpAllHeaders(httpRequest);
 			printInvalidPage(request, response, DEFAULT_TITLE_KEY_AUTH_ERROR, DEFAULT_MESSAGE_KEY_AUTH_ERROR, ERROR_AUTHENTICATION_FAILURE);
 			return;
 		}
+		/*
+		 * No login work starts once the budget of the request is spent.
+		 */
+		if (CSRToolUtil.isNotNull(authentifiedUser) && RequestDeadline.isExceeded(STAGE_AUTHENT)) {
+			((HttpServletResponse) response).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			return;
+		}
 		/*
 		 * Compare the authenticated user to the current user stored in the session.
 		 */
 		if (CSRToolUtil.isNotNull(authentifiedUser)) {
+			LoginEvent loginEvent = new LoginEvent(authentifiedUser.getLogin(), authentifiedUser.getMco(), authentifiedUser.getAdminLevel(),
+					authentifiedUser.getServiceRoleName());
+			loginEvent.begin();
 			try {
 				/*
 				 * Verify the coherence of the data sent by the GASSI - number of admin and service
@@ -221,6 +301,7 @@ public class AuthentFilter implements Filter {
 			} catch (AuthentifiedUser.ValidationException e) {
 					LOGGER.error(FuncLogging.getLogFormatedMessage("AuthentFilter","doFilter",
 							FuncLogging.REQUEST_STATUS_FAILED, null,e.getMessage()), e);
+				LoginRejectedEvent.record(authentifiedUser.getLogin(), authentifiedUser.getMco(), LoginRejectedEvent.REASON_INVALID_DATA);
 				dumpAllHeaders(httpRequest);
 				printInvalidPage(request, response, DEFAULT_TITLE_KEY_AUTH_ERROR, DEFAULT_MESSAGE_KEY_AUTH_ERROR, ERROR_AUTHENTICATION_FAILURE);
 				return;
@@ -228,24 +309,54 @@ public class AuthentFilter implements Filter {
 
 			try {
 				// Tries to check MCO loading provided by user
-				McoFacade mcoFacade = McoFacade.get(authentifiedUser.getMco());
+				ProfileDatabaseEvent mcoEvent = new ProfileDatabaseEvent(ProfileDatabaseEvent.OPERATION_MCO_FACADE, authentifiedUser.getLogin(),
+						authentifiedUser.getMco());
+				mcoEvent.begin();
+				McoFacade mcoFacade;
+				try {
+					mcoFacade = McoFacade.get(authentifiedUser.getMco());
+					mcoEvent.setSucceeded();
+				} finally {
+					mcoEvent.commit();
+				}
 
 				/*
 				 * Load the userinfo for the new authentified user from the database.
 				 */
-				CSRUserInfo userInfo = notifyConnection(authentifiedUser);
+				inFlightRegistry.setUser(authentifiedUser.getLogin(), authentifiedUser.getMco());
+				inFlightRegistry.setStage(STAGE_NOTIFY_CONNECTION);
+				ProfileDatabaseEvent notifyConnectionEvent = new ProfileDatabaseEvent(ProfileDatabaseEvent.OPERATION_NOTIFY_CONNECTION,
+						authentifiedUser.getLogin(), authentifiedUser.getMco());
+				notifyConnectionEvent.begin();
+				CSRUserInfo userInfo;
+				try {
+					userInfo = notifyConnection(authentifiedUser);
+					notifyConnectionEvent.setSucceeded();
+				} finally {
+					notifyConnectionEvent.commit();
+				}
 
 				CSRRole userServiceRole = null;
 				if (authentifiedUser.getAdminLevel() != CSRPermission.ADMIN_LEVEL && authentifiedUser.getAdminLevel() != CSRPermission.WRITE_LEVEL) {
 					/*
 					 * Load the roles also
 					 */
-					userServiceRole = loadRoles(authentifiedUser);
+					inFlightRegistry.setStage(STAGE_LOAD_ROLES);
+					ProfileDatabaseEvent loadRolesEvent = new ProfileDatabaseEvent(ProfileDatabaseEvent.OPERATION_LOAD_ROLES,
+							authentifiedUser.getLogin(), authentifiedUser.getMco());
+					loadRolesEvent.begin();
+					try {
+						userServiceRole = loadRoles(authentifiedUser);
+						loadRolesEvent.setSucceeded();
+					} finally {
+						loadRolesEvent.commit();
+					}
 					if (userServiceRole == null) {
 						if (LOGGER.isDebugEnabled()) {
 							LOGGER.debug(FuncLogging.getLogFormatedMessage("AuthentFilter","doFilter",
 							  String.valueOf(FuncLogging.REQUEST_STATUS_FAILED), null,String.format("Role \"%s\" not found in database", authentifiedUser.getServiceRoleName())));
 						}
+						LoginRejectedEvent.record(authentifiedUser.getLogin(), authentifiedUser.getMco(), LoginRejectedEvent.REASON_ROLE_NOT_FOUND);
 						printInvalidPage(request, response, DEFAULT_TITLE_KEY_AUTH_ERROR, DEFAULT_MESSAGE_KEY_AUTH_ERROR, ERROR_AUTHENTICATION_FAILURE);
 						return;
 					}
@@ -258,6 +369,12 @@ public class AuthentFilter implements Filter {
 			} catch (ProfilesException e) {
 					LOGGER.error(FuncLogging.getLogFormatedMessage("AuthentFilter","doFilter",
 							FuncLogging.REQUEST_STATUS_FAILED, null,e.getMessage()), e);
+				LoginRejectedEvent.record(authentifiedUser.getLogin(), authentifiedUser.getMco(), LoginRejectedEvent.REASON_PROFILES_ERROR);
+				printInvalidPage(request, response, DEFAULT_TITLE_KEY_AUTH_ERROR, DEFAULT_MESSAGE_KEY_AUTH_ERROR, ERROR_AUTHENTICATION_FAILURE);
+			} catch (ProfilesStoreException e) {
+					LOGGER.error(FuncLogging.getLogFormatedMessage("AuthentFilter","doFilter",
+							FuncLogging.REQUEST_STATUS_FAILED, null,e.getMessage()), e);
+				LoginRejectedEvent.record(authentifiedUser.getLogin(), authentifiedUser.getMco(), LoginRejectedEvent.REASON_PROFILES_ERROR);
 				printInvalidPage(request, response, DEFAULT_TITLE_KEY_AUTH_ERROR, DEFAULT_MESSAGE_KEY_AUTH_ERROR, ERROR_AUTHENTICATION_FAILURE);
 			}
 
@@ -271,6 +388,8 @@ public class AuthentFilter implements Filter {
 				LOGGER.info(FuncLogging.getLogFormatedMessage("AuthentFilter","doFilter",String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,"User connected :" + sessionUser.getLogin()));
 			}
 			setSessionUser(httpRequest, sessionUser);
+			SessionStore.getInstance().save(sessionUser, authentifiedUser.getServiceRoleName());
+			loginEvent.commit();
 
 		}
 
@@ -281,28 +400,45 @@ public class AuthentFilter implements Filter {
 			 */
 			CSRUser.setCurrentCSR(sessionUser);
 
-			// For admin user, the homepage is the ViewAllCSRRoles page
+			// For admin user, the homepage is the ViewAllCSRRoles page, served in place of the chain once admitted
+			FilterChain nextChain = chain;
 			if (sessionUser.hasAdminLevel(CSRPermission.ADMIN_LEVEL) || sessionUser.hasAdminLevel(CSRPermission.WRITE_LEVEL)) {
 				// --- default url: /<ctx_path>/<servlet>
 				String[] path = httpRequest.getRequestURI().split("/");
 				if (path.length < 4) {
 					// This is the default Home page URL
-					RequestDispatcher dispatcher = httpRequest.getRequestDispatcher("/Bricks/pg/osuit/pages/csradmin/ViewAllCSRRoles");
-					dispatcher.forward(request, response);
-					return;
+					final RequestDispatcher dispatcher = httpRequest.getRequestDispatcher(ADMIN_HOME_PAGE);
+					nextChain = new FilterChain() {
+						public void doFilter(ServletRequest chainRequest, ServletResponse chainResponse) throws IOException, ServletException {
+							PageCache.getInstance().serve((HttpServletRequest) chainRequest, (HttpServletResponse) chainResponse,
+									PageCache.getPage(ADMIN_HOME_PAGE, null), new IPageRenderer() {
+								public void render(HttpServletRequest renderRequest, HttpServletResponse renderResponse) throws IOException, ServletException {
+									dispatcher.forward(renderRequest, renderResponse);
+								}
+							});
+						}
+					};
 				}
 			}
 			setLogContext(CSRUser.getCurrentCSR());
+			inFlightRegistry.setUser(sessionUser.getLogin(), sessionUser.getMco());
+			inFlightRegistry.setStage(STAGE_CHAIN);
+			if (RequestDeadline.isExceeded(STAGE_CHAIN)) {
+				((HttpServletResponse) response).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+				return;
+			}
 
 			/*
-			 * Pass on to the next filter in the chain.
+			 * Pass on to the next filter in the chain, through the admission of the requests now that
+			 * the user is known.
 			 */
-			chain.doFilter(request, response);
+			AdmissionFilter.admitAuthenticated(request, response, nextChain);
 		} finally {
 			/*
-			 * Remove the current CSRUser from the thread local as a safety mesure.
+			 * Remove the current CSRUser from the thread local and the log context as a safety mesure.
 			 */
 			CSRUser.removeCurrentCSR();
+			setLogContext(null);
 		}
 	}
 
@@ -427,15 +563,21 @@ public class AuthentFilter implements Filter {
 	 * @param authentifiedUser authentified user object
 	 * @return a CSRUserInfo CSRUserInfo
 	 * @throws ProfilesException custom exception related to profile errors
+	 * @throws ProfilesStoreException if the profiles store failed
 	 */
-	protected CSRUserInfo notifyConnection(AuthentifiedUser authentifiedUser) throws ProfilesException {
+	protected CSRUserInfo notifyConnection(AuthentifiedUser authentifiedUser) throws ProfilesException, ProfilesStoreException {
 		String login = authentifiedUser.getLogin();
 		String mco = authentifiedUser.getMco();
 
-		ProfilesRegistry profilesRegistry = ProfilesRegistry.getInstance();
+		IProfilesStore profilesStore = ProfilesStoreRegistry.getInstance().getStore();
 
-		// --- try to retrieve existing userinfo
-		CSRUserInfo userInfo = profilesRegistry.getUserInfo(login, mco);
+		// --- try to retrieve existing userinfo, prefetched before the start of the shift if predicted
+		ProfilePrefetcher profilePrefetcher = ProfilePrefetcher.getInstance();
+		profilePrefetcher.recordConnection(login, mco, authentifiedUser.getServiceRoleName());
+		CSRUserInfo userInfo = profilePrefetcher.takeUserInfo(login, mco);
+		if (CSRToolUtil.isNull(userInfo)) {
+			userInfo = profilesStore.getUserInfo(login, mco);
+		}
 
 		if (CSRToolUtil.isNull(userInfo)) {
 			/*
@@ -461,10 +603,10 @@ public class AuthentFilter implements Filter {
 			/*
 			 * store the record in the database.
 			 */
-			profilesRegistry.createUserInfo(userInfo);
+			profilesStore.createUserInfo(userInfo);
 		} else {
 			// finally, store the connection
-			profilesRegistry.notifyConnection(userInfo);
+			profilesStore.notifyConnection(userInfo);
 		}
 
 		// Set MCO name of CSR user in to upper case
@@ -479,8 +621,9 @@ public class AuthentFilter implements Filter {
 	 * @param authentifiedUser authentified user object
 	 * @return a CSRRole
 	 * @throws ProfilesException arises due to profile errors
+	 * @throws ProfilesStoreException if the profiles store failed
 	 */
-	protected CSRRole loadRoles(AuthentifiedUser authentifiedUser) throws ProfilesException {
+	protected CSRRole loadRoles(AuthentifiedUser authentifiedUser) throws ProfilesException, ProfilesStoreException {
 		if (authentifiedUser.getAdminLevel() == CSRPermission.ADMIN_LEVEL || authentifiedUser.getAdminLevel() == CSRPermission.WRITE_LEVEL) {
 			return null;
 		}
@@ -489,8 +632,16 @@ public class AuthentFilter implements Filter {
 		String roleName = authentifiedUser.getServiceRoleName();
 
 		try {
-			ProfilesRegistry profilesRegistry = ProfilesRegistry.getInstance();
-			return profilesRegistry.getRole(roleName, mco);
+			CSRRole role = ProfilePrefetcher.getInstance().getRole(roleName, mco);
+			if (CSRToolUtil.isNull(role)) {
+				IProfilesStore profilesStore = ProfilesStoreRegistry.getInstance().getStore();
+				role = profilesStore.getRole(roleName, mco);
+			}
+			if (CSRToolUtil.isNotNull(role)) {
+				// compiled once per role, shared by the users of the role
+				RolePermissions.getInstance().get(role);
+			}
+			return role;
 		} catch (ProfilesException e) {
 			LOGGER.error(FuncLogging.getLogFormatedMessage("AuthentFilter","loadRoles",
 					FuncLogging.REQUEST_STATUS_FAILED, null,e.getMessage()), e);
@@ -498,6 +649,53 @@ public class AuthentFilter implements Filter {
 		}
 	}
 
+	/**
+	 * Restore the session user of an authentified user saved in the session store before a restart
+	 * @param httpRequest http servlet request object
+	 * @param authentifiedUser authentified user object
+	 * @return the restored CSRUser or <code>null</code> if the user must be loaded again
+	 */
+	protected CSRUser restoreSessionUser(HttpServletRequest httpRequest, AuthentifiedUser authentifiedUser) {
+		SessionStore sessionStore = SessionStore.getInstance();
+		SessionRecord record = sessionStore.find(authentifiedUser);
+		if (record == null) {
+			return null;
+		}
+		try {
+			authentifiedUser.validate();
+			CSRRole userServiceRole = null;
+			if (record.getAdminLevel() != CSRPermission.ADMIN_LEVEL && record.getAdminLevel() != CSRPermission.WRITE_LEVEL) {
+				// the agents of a MCO share few roles, load each one once
+				userServiceRole = sessionStore.getRole(record.getRoleName(), record.getMco());
+				if (userServiceRole == null) {
+					userServiceRole = loadRoles(authentifiedUser);
+					if (userServiceRole == null) {
+						return null;
+					}
+					sessionStore.putRole(record.getRoleName(), record.getMco(), userServiceRole);
+				}
+			}
+			CSRUser restoredUser = new CSRUser(record.toUserInfo(), record.getAdminLevel(), userServiceRole);
+			setSessionUser(httpRequest, restoredUser);
+			sessionStore.restored();
+			if(LOGGER.isInfoEnabled()) {
+				LOGGER.info(FuncLogging.getLogFormatedMessage("AuthentFilter","restoreSessionUser",String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,"User restored :" + restoredUser.getLogin()));
+			}
+			return restoredUser;
+		} catch (AuthentifiedUser.ValidationException e) {
+			// rejected by the complete login
+			return null;
+		} catch (ProfilesException e) {
+			LOGGER.warn(FuncLogging.getLogFormatedMessage("AuthentFilter","restoreSessionUser",
+					FuncLogging.REQUEST_STATUS_FAILED, null,e.getMessage()), e);
+			return null;
+		} catch (ProfilesStoreException e) {
+			LOGGER.warn(FuncLogging.getLogFormatedMessage("AuthentFilter","restoreSessionUser",
+					FuncLogging.REQUEST_STATUS_FAILED, null,e.getMessage()), e);
+			return null;
+		}
+	}
+
 	/**
 	 * Let the authentification plugins verify if the user is correctly authentified.
 	 * @param httpRequest HttpServletRequest
@@ -531,12 +729,13 @@ public class AuthentFilter implements Filter {
 	}
 
 	/**
-	 * Set the current user in the session
+	 * Set the current user in the session, along with its compiled permissions
 	 * @param httpRequest http servlet request object
 	 * @param currentUser current csr user object
 	 */
 	protected void setSessionUser(HttpServletRequest httpRequest, CSRUser currentUser) {
 		BeanUtils.setBean(httpRequest, currentUser, "curUser", Scope.Session);
+		httpRequest.getSession().setAttribute(PermissionSet.SESSION_ATTRIBUTE, PermissionSet.compile(currentUser));
 	}
 
 	/**
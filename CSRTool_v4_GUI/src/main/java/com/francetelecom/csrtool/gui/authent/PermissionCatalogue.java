@@ -0,0 +1,87 @@
+package com.francetelecom.csrtool.gui.authent;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The catalogue of the permission names, each one bound to a fixed index for the lifetime of the
+ * application. The indexes are the bit positions of the permissions in a {@link PermissionSet}.
+ * They depend on the order the names are registered in, so they are never written outside the
+ * application: a {@link PermissionSet} keeps the names and compiles its bits again when read.
+ * The administration pseudo-permissions always take the first indexes.
+ * @class PermissionCatalogue
+ */
+public final class PermissionCatalogue {
+
+	/**	unique instance **/
+	private static final PermissionCatalogue INSTANCE = new PermissionCatalogue();
+
+	/**	index per permission name **/
+	private final ConcurrentMap<String, Integer> indexes = new ConcurrentHashMap<String, Integer>();
+
+	/**	next index to assign, guarded by the catalogue **/
+	private int nextIndex;
+
+	/**
+	 * Constructor
+	 */
+	private PermissionCatalogue() {
+		register(PermissionSet.ADMINISTRATION_READ);
+		register(PermissionSet.ADMINISTRATION_WRITE);
+		register(PermissionSet.ADMINISTRATION_ALL);
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static PermissionCatalogue getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Normalizes a permission name, permission names being case insensitive
+	 * @param permissionName permission name
+	 * @return the key of the permission in the catalogue
+	 */
+	static String normalize(String permissionName) {
+		return permissionName.trim().toUpperCase();
+	}
+
+	/**
+	 * Gets the index of a permission, assigning the next free one to a permission never seen
+	 * before. To be called when a role or the permissions of an action are compiled.
+	 * @param permissionName permission name
+	 * @return index of the permission
+	 */
+	public int register(String permissionName) {
+		String key = normalize(permissionName);
+		Integer index = indexes.get(key);
+		if (index == null) {
+			synchronized (this) {
+				index = indexes.get(key);
+				if (index == null) {
+					index = Integer.valueOf(nextIndex++);
+					indexes.put(key, index);
+				}
+			}
+		}
+		return index.intValue();
+	}
+
+	/**
+	 * Gets the index of a permission without registering it
+	 * @param permissionName permission name
+	 * @return index of the permission, -1 if no role nor action uses it
+	 */
+	public int lookup(String permissionName) {
+		Integer index = indexes.get(normalize(permissionName));
+		return index != null ? index.intValue() : -1;
+	}
+
+	/**
+	 * @return number of permissions in the catalogue
+	 **/
+	public int size() {
+		return indexes.size();
+	}
+}
@@ -0,0 +1,220 @@
+package com.francetelecom.csrtool.gui.authent;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import com.francetelecom.csrtool.model.profiles.CSRPermission;
+import com.francetelecom.csrtool.model.profiles.CSRRole;
+import com.francetelecom.csrtool.model.profiles.CSRUser;
+import com.francetelecom.csrtool.utils.CSRToolUtil;
+
+/**
+ * The permissions of a user compiled into a bitset indexed by the {@link PermissionCatalogue}.<br>
+ * The permissions of each role are compiled once, when the role is loaded, and kept by the
+ * {@link RolePermissions}; the set of a user is the union of its roles, made at login and kept in
+ * the session: checking the permissions of an action is then a few word comparisons, without
+ * walking the roles.<br>
+ * The indexes of the catalogue are proper to the application instance, so the set is serialized
+ * with the names of its permissions and its bits are compiled again when it is read, as after a
+ * replication or a restart.<br>
+ * The administration levels are held as the pseudo-permissions <code>ADMINISTRATION_*</code>, so
+ * that the administration actions are checked like the other ones.
+ * @class PermissionSet
+ * @Implements Serializable
+ */
+public final class PermissionSet implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = -4590188526392211652L;
+
+	/**	session attribute holding the permissions of the session user **/
+	public static final String SESSION_ATTRIBUTE = "curPermissions";
+
+	/**	pseudo-permission of the admin_read, admin_write and admin_allmco users **/
+	public static final String ADMINISTRATION_READ = "CSRTOOL_ADMINISTRATION_READ";
+
+	/**	pseudo-permission of the admin_write and admin_allmco users **/
+	public static final String ADMINISTRATION_WRITE = "CSRTOOL_ADMINISTRATION_WRITE";
+
+	/**	pseudo-permission of the admin_allmco users **/
+	public static final String ADMINISTRATION_ALL = "CSRTOOL_ADMINISTRATION_ALL";
+
+	/**	bits of the administration pseudo-permissions, the first ones of the catalogue **/
+	private static final long ADMINISTRATION_MASK = 0x7L;
+
+	/**	the set of the users without any permission **/
+	public static final PermissionSet EMPTY = new PermissionSet(new String[0], false);
+
+	/**	names of the permissions, sorted **/
+	private final String[] names;
+
+	/**	whether every permission other than the administration ones is granted **/
+	private final boolean all;
+
+	/**	permission bits, 64 per word, compiled from the names in this application instance **/
+	private transient long[] words;
+
+	/**
+	 * Constructor
+	 * @param names normalized names of the permissions, sorted
+	 * @param all whether every permission other than the administration ones is granted
+	 */
+	private PermissionSet(String[] names, boolean all) {
+		this.names = names;
+		this.all = all;
+		this.words = compileWords(names);
+	}
+
+	/**
+	 * Compiles the permissions of a role. Prefer {@link RolePermissions#get(CSRRole)}, which
+	 * compiles each role once.
+	 * @param role CSR role
+	 * @return the permissions of the role
+	 */
+	public static PermissionSet compile(CSRRole role) {
+		SortedSet<String> permissionNames = new TreeSet<String>();
+		if (CSRToolUtil.isNotNull(role) && CSRToolUtil.isNotNull(role.getPermissions())) {
+			for (CSRPermission permission : role.getPermissions()) {
+				if (CSRToolUtil.isNotNull(permission) && CSRToolUtil.isNotNull(permission.getName())) {
+					permissionNames.add(PermissionCatalogue.normalize(permission.getName()));
+				}
+			}
+		}
+		return new PermissionSet(permissionNames.toArray(new String[permissionNames.size()]), false);
+	}
+
+	/**
+	 * Compiles the permissions of a user from the compiled permissions of its roles. The
+	 * admin_write and admin_allmco users have no service role and are granted every permission
+	 * other than the administration ones of the levels above theirs.
+	 * @param user CSR user
+	 * @return the permissions of the user
+	 */
+	public static PermissionSet compile(CSRUser user) {
+		if (CSRToolUtil.isNull(user)) {
+			return EMPTY;
+		}
+		SortedSet<String> permissionNames = new TreeSet<String>();
+		boolean allPermissions = false;
+		if (user.hasAdminLevel(CSRPermission.ADMIN_LEVEL)) {
+			permissionNames.add(ADMINISTRATION_ALL);
+			permissionNames.add(ADMINISTRATION_WRITE);
+			permissionNames.add(ADMINISTRATION_READ);
+			allPermissions = true;
+		} else if (user.hasAdminLevel(CSRPermission.WRITE_LEVEL)) {
+			permissionNames.add(ADMINISTRATION_WRITE);
+			permissionNames.add(ADMINISTRATION_READ);
+			allPermissions = true;
+		} else if (user.hasAdminLevel(CSRPermission.READ_LEVEL)) {
+			permissionNames.add(ADMINISTRATION_READ);
+		}
+
+		Collection<CSRRole> roles = user.getRoles();
+		if (!allPermissions && CSRToolUtil.isNotNull(roles)) {
+			RolePermissions rolePermissions = RolePermissions.getInstance();
+			for (CSRRole role : roles) {
+				if (CSRToolUtil.isNotNull(role)) {
+					for (String name : rolePermissions.get(role).names) {
+						permissionNames.add(name);
+					}
+				}
+			}
+		}
+		return new PermissionSet(permissionNames.toArray(new String[permissionNames.size()]), allPermissions);
+	}
+
+	/**
+	 * Compiles a list of permission names, typically the permissions required by an action
+	 * @param permissionNames permission names
+	 * @return the set of the permissions
+	 */
+	public static PermissionSet of(String... permissionNames) {
+		SortedSet<String> normalizedNames = new TreeSet<String>();
+		for (String permissionName : permissionNames) {
+			normalizedNames.add(PermissionCatalogue.normalize(permissionName));
+		}
+		return new PermissionSet(normalizedNames.toArray(new String[normalizedNames.size()]), false);
+	}
+
+	/**
+	 * Compiles the bits of permissions, registering them in the catalogue
+	 * @param permissionNames names of the permissions
+	 * @return the permission bits
+	 */
+	private static long[] compileWords(String[] permissionNames) {
+		PermissionCatalogue catalogue = PermissionCatalogue.getInstance();
+		long[] result = new long[0];
+		for (String permissionName : permissionNames) {
+			int index = catalogue.register(permissionName);
+			int word = index >>> 6;
+			if (word >= result.length) {
+				long[] grown = new long[word + 1];
+				System.arraycopy(result, 0, grown, 0, result.length);
+				result = grown;
+			}
+			result[word] |= 1L << index;
+		}
+		return result;
+	}
+
+	/**
+	 * Compiles the bits again from the names, the indexes of the catalogue being proper to each
+	 * application instance
+	 * @param in serialized form
+	 * @throws IOException if the set could not be read
+	 * @throws ClassNotFoundException if a class of the set is unknown
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		words = compileWords(names);
+	}
+
+	/**
+	 * Tells whether this set holds all the permissions of another one. Does not allocate.
+	 * @param required the required permissions
+	 * @return <code>true</code> if every required permission is held
+	 */
+	public boolean containsAll(PermissionSet required) {
+		long[] requiredWords = required.words;
+		for (int i = 0; i < requiredWords.length; i++) {
+			long missing = requiredWords[i] & ~(i < words.length ? words[i] : 0L);
+			if (all) {
+				// every permission is granted but the administration ones
+				missing &= i == 0 ? ADMINISTRATION_MASK : 0L;
+			}
+			if (missing != 0L) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tells whether this set holds a permission. Does not register the permission.
+	 * @param permissionName permission name
+	 * @return <code>true</code> if the permission is held
+	 */
+	public boolean contains(String permissionName) {
+		int index = PermissionCatalogue.getInstance().lookup(permissionName);
+		if (index < 0) {
+			// a permission neither a role nor an action uses
+			return false;
+		}
+		int word = index >>> 6;
+		if (word < words.length && (words[word] & (1L << index)) != 0L) {
+			return true;
+		}
+		return all && (word > 0 || (ADMINISTRATION_MASK & (1L << index)) == 0L);
+	}
+
+	/**
+	 * @return the names of the permissions held, sorted
+	 **/
+	String[] getNames() {
+		return names.clone();
+	}
+}
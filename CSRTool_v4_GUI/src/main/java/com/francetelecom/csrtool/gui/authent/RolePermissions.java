@@ -0,0 +1,77 @@
+package com.francetelecom.csrtool.gui.authent;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.francetelecom.csrtool.model.profiles.CSRRole;
+
+/**
+ * The compiled permissions of the roles, compiled when a role is loaded and shared by all the
+ * users of the role. A role changed by the administrators is compiled again when next loaded.
+ * @class RolePermissions
+ */
+public final class RolePermissions {
+
+	/**	unique instance **/
+	private static final RolePermissions INSTANCE = new RolePermissions();
+
+	/**	compiled permissions per MCO and role name **/
+	private final ConcurrentMap<String, PermissionSet> compiled = new ConcurrentHashMap<String, PermissionSet>();
+
+	/**
+	 * Constructor
+	 */
+	private RolePermissions() {
+		// singleton
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static RolePermissions getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Gets the compiled permissions of a role, compiling them if the role was not compiled yet
+	 * @param role CSR role
+	 * @return the permissions of the role
+	 */
+	public PermissionSet get(CSRRole role) {
+		String key = key(role.getMco(), role.getName());
+		PermissionSet permissions = compiled.get(key);
+		if (permissions == null) {
+			permissions = PermissionSet.compile(role);
+			PermissionSet existing = compiled.putIfAbsent(key, permissions);
+			if (existing != null) {
+				permissions = existing;
+			}
+		}
+		return permissions;
+	}
+
+	/**
+	 * Forgets the compiled permissions of a role changed
+	 * @param mco MCO name of the role
+	 * @param roleName role name
+	 */
+	public void invalidate(String mco, String roleName) {
+		compiled.remove(key(mco, roleName));
+	}
+
+	/**
+	 * Forgets the compiled permissions of all the roles
+	 */
+	public void invalidateAll() {
+		compiled.clear();
+	}
+
+	/**
+	 * @param mco MCO name of a role
+	 * @param roleName role name
+	 * @return the key of the role
+	 **/
+	private static String key(String mco, String roleName) {
+		return String.valueOf(mco).trim().toUpperCase() + '\u0000' + String.valueOf(roleName).trim().toUpperCase();
+	}
+}
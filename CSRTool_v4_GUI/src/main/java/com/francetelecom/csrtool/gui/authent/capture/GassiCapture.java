@@ -0,0 +1,329 @@
+package com.francetelecom.csrtool.gui.authent.capture;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.gui.concurrent.DaemonThreadFactory;
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * Captures the authenticated requests in a GASSI trace, to be replayed on a test platform by the
+ * GassiReplay tool of the tests. The capture is off unless started; the records are written by a
+ * background thread and dropped when it lags behind, so that the capture never slows the requests
+ * down.<br>
+ * The users and the sessions are written as pseudonyms: the first 8 bytes of the SHA-256 of a key
+ * drawn at the start of each capture and never written, followed by the identifier. They are
+ * stable within a capture and cannot be traced back to the identifiers.
+ * @class GassiCapture
+ */
+public final class GassiCapture {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(GassiCapture.class);
+
+	/**	GASSI header of the user identifier **/
+	public static final String HEADER_UNIVERSAL_ID = "sm_universalid";
+
+	/**	GASSI header of the MCO and of the roles **/
+	public static final String HEADER_CREDENTIALS = "ftusercredentials";
+
+	/**	GASSI header of the roles **/
+	public static final String HEADER_APPLICATION_ROLES = "ftapplicationroles";
+
+	/**	maximum length of the strings captured **/
+	private static final int MAX_STRING_LENGTH = 1024;
+
+	/**	length of the pseudonym key, in bytes **/
+	private static final int KEY_LENGTH = 32;
+
+	/**	charset of the identifiers hashed **/
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**	unique instance **/
+	private static final GassiCapture INSTANCE = new GassiCapture();
+
+	/**	SHA-256 digest of each thread **/
+	private static final ThreadLocal<MessageDigest> DIGEST = new ThreadLocal<MessageDigest>() {
+		@Override
+		protected MessageDigest initialValue() {
+			try {
+				return MessageDigest.getInstance("SHA-256");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	};
+
+	/**	directory of the traces **/
+	private volatile File directory = new File(System.getProperty("java.io.tmpdir"));
+
+	/**	maximum number of records waiting to be written **/
+	private volatile int queueSize = 10000;
+
+	/**	maximum number of records of a trace **/
+	private volatile long maxRecords = 1000000L;
+
+	/**	capture in progress, <code>null</code> if none **/
+	private volatile Capture capture;
+
+	/**	number of requests captured **/
+	private final AtomicLong captured = new AtomicLong();
+
+	/**	number of requests not captured because the writer lagged behind or the trace was full **/
+	private final AtomicLong dropped = new AtomicLong();
+
+	/**	number of records which could not be written **/
+	private final AtomicLong failures = new AtomicLong();
+
+	/**
+	 * Constructor
+	 */
+	private GassiCapture() {
+		// singleton
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static GassiCapture getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Configures the captures started afterwards
+	 * @param directory directory of the traces
+	 * @param queueSize maximum number of records waiting to be written
+	 * @param maxRecords maximum number of records of a trace
+	 */
+	public void configure(File directory, int queueSize, long maxRecords) {
+		this.directory = directory;
+		this.queueSize = queueSize;
+		this.maxRecords = maxRecords;
+	}
+
+	/**
+	 * Starts a capture in a new trace file of the directory, unless a capture is in progress
+	 * @return the trace file of the capture in progress
+	 * @throws IOException if the trace file could not be created
+	 */
+	public synchronized File start() throws IOException {
+		if (capture != null) {
+			return capture.file;
+		}
+		long startMillis = System.currentTimeMillis();
+		File file = new File(directory, "csrtool-gassi-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date(startMillis)) + ".trace");
+		byte[] key = new byte[KEY_LENGTH];
+		new SecureRandom().nextBytes(key);
+		capture = new Capture(file, new GassiTraceWriter(file, startMillis), startMillis, key, queueSize, maxRecords);
+
+		if (LOGGER.isInfoEnabled()) {
+			LOGGER.info(FuncLogging.getLogFormatedMessage("GassiCapture","start",
+					String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,"GASSI capture started in " + file));
+		}
+		return file;
+	}
+
+	/**
+	 * Stops the capture in progress, once the records waiting are written
+	 */
+	public synchronized void stop() {
+		Capture stopped = capture;
+		if (stopped == null) {
+			return;
+		}
+		capture = null;
+		stopped.executor.shutdown();
+		try {
+			if (!stopped.executor.awaitTermination(10L, TimeUnit.SECONDS)) {
+				stopped.executor.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			stopped.executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+		try {
+			stopped.writer.close();
+		} catch (IOException e) {
+			failures.incrementAndGet();
+			LOGGER.error(FuncLogging.getLogFormatedMessage("GassiCapture","stop",
+					FuncLogging.REQUEST_STATUS_FAILED, null,"GASSI trace not closed: " + e.getMessage()), e);
+		}
+
+		if (LOGGER.isInfoEnabled()) {
+			LOGGER.info(FuncLogging.getLogFormatedMessage("GassiCapture","stop",
+					String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,"GASSI capture stopped in " + stopped.file));
+		}
+	}
+
+	/**
+	 * @return whether a capture is in progress
+	 **/
+	public boolean isActive() {
+		return capture != null;
+	}
+
+	/**
+	 * Captures a request completed, if a capture is in progress
+	 * @param request http servlet request
+	 * @param startMillis arrival time of the request
+	 */
+	public void capture(HttpServletRequest request, long startMillis) {
+		final Capture current = capture;
+		if (current == null) {
+			return;
+		}
+		if (current.records.incrementAndGet() > current.maxRecords) {
+			dropped.incrementAndGet();
+			return;
+		}
+		long sessionPseudonym = 0L;
+		boolean newSession = false;
+		HttpSession session = request.getSession(false);
+		if (session != null) {
+			try {
+				sessionPseudonym = pseudonym(current.key, session.getId());
+				newSession = session.isNew();
+			} catch (IllegalStateException e) {
+				// the session was invalidated by the request, as on a logout
+				sessionPseudonym = 0L;
+			}
+		}
+		String userId = StringUtils.trimToNull(request.getHeader(HEADER_UNIVERSAL_ID));
+		final GassiTraceRecord record = new GassiTraceRecord(startMillis - current.startMillis,
+				(int) Math.min(Integer.MAX_VALUE, System.currentTimeMillis() - startMillis), request.getMethod(),
+				truncate(request.getRequestURI().substring(request.getContextPath().length())),
+				userId != null ? pseudonym(current.key, userId) : 0L, truncate(request.getHeader(HEADER_CREDENTIALS)),
+				truncate(request.getHeader(HEADER_APPLICATION_ROLES)), sessionPseudonym, newSession);
+		try {
+			current.executor.execute(new Runnable() {
+				public void run() {
+					current.write(record);
+				}
+			});
+			captured.incrementAndGet();
+		} catch (RejectedExecutionException e) {
+			dropped.incrementAndGet();
+		}
+	}
+
+	/**
+	 * @param key pseudonym key of the capture
+	 * @param identifier user or session identifier
+	 * @return the pseudonym of the identifier, never 0
+	 **/
+	private static long pseudonym(byte[] key, String identifier) {
+		MessageDigest digest = DIGEST.get();
+		digest.update(key);
+		byte[] hash = digest.digest(identifier.getBytes(UTF_8));
+		long pseudonym = 0L;
+		for (int i = 0; i < 8; i++) {
+			pseudonym = (pseudonym << 8) | (hash[i] & 0xFFL);
+		}
+		return pseudonym != 0L ? pseudonym : 1L;
+	}
+
+	/**
+	 * @param s a string captured, may be <code>null</code>
+	 * @return the string truncated to <code>MAX_STRING_LENGTH</code> characters
+	 **/
+	private static String truncate(String s) {
+		return StringUtils.left(s, MAX_STRING_LENGTH);
+	}
+
+	/**
+	 * @return a snapshot of the statistics of the captures
+	 **/
+	public GassiCaptureStats getStats() {
+		Capture current = capture;
+		return new GassiCaptureStats(current != null ? current.file.getPath() : null, captured.get(), dropped.get(), failures.get());
+	}
+
+	/**
+	 * A capture in progress, with its trace and the thread writing it.
+	 * @class Capture
+	 */
+	private final class Capture {
+
+		/**	trace file **/
+		private final File file;
+
+		/**	writer of the trace, used by the thread of the executor only **/
+		private final GassiTraceWriter writer;
+
+		/**	start time of the capture **/
+		private final long startMillis;
+
+		/**	pseudonym key **/
+		private final byte[] key;
+
+		/**	maximum number of records of the trace **/
+		private final long maxRecords;
+
+		/**	number of records accepted **/
+		private final AtomicLong records = new AtomicLong();
+
+		/**	thread writing the trace **/
+		private final ThreadPoolExecutor executor;
+
+		/**	whether the trace could not be written, the next records are then dropped **/
+		private boolean broken;
+
+		/**
+		 * Constructor
+		 * @param file trace file
+		 * @param writer writer of the trace
+		 * @param startMillis start time of the capture
+		 * @param key pseudonym key
+		 * @param queueSize maximum number of records waiting to be written
+		 * @param maxRecords maximum number of records of the trace
+		 */
+		private Capture(File file, GassiTraceWriter writer, long startMillis, byte[] key, int queueSize, long maxRecords) {
+			this.file = file;
+			this.writer = writer;
+			this.startMillis = startMillis;
+			this.key = key;
+			this.maxRecords = maxRecords;
+			this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(queueSize),
+					new DaemonThreadFactory("GassiCapture", Thread.MIN_PRIORITY));
+		}
+
+		/**
+		 * Writes a record, and flushes the trace when no other record is waiting
+		 * @param record the record
+		 */
+		private void write(GassiTraceRecord record) {
+			if (broken) {
+				failures.incrementAndGet();
+				return;
+			}
+			try {
+				writer.write(record);
+				if (executor.getQueue().isEmpty()) {
+					writer.flush();
+				}
+			} catch (IOException e) {
+				broken = true;
+				failures.incrementAndGet();
+				LOGGER.error(FuncLogging.getLogFormatedMessage("GassiCapture","write",
+						FuncLogging.REQUEST_STATUS_FAILED, null,"GASSI trace not written: " + e.getMessage()), e);
+			}
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.francetelecom.csrtool.gui.authent.capture;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * Configures the {@link GassiCapture} when the application starts, and starts a capture if
+ * enabled; the capture in progress is stopped with the application.
+ * @class GassiCaptureListener
+ * @Implements ServletContextListener
+ */
+public class GassiCaptureListener implements ServletContextListener {
+
+	/** Logger **/
+	private static Logger LOGGER = Logger.getLogger(GassiCaptureListener.class);
+
+	/** context parameter enabling the capture from the start of the application **/
+	private static final String PARAM_ENABLED = "gassi.capture.enabled";
+
+	/** context parameter holding the directory of the traces **/
+	private static final String PARAM_DIRECTORY = "gassi.capture.directory";
+
+	/** context parameter holding the maximum number of records waiting to be written **/
+	private static final String PARAM_QUEUE_SIZE = "gassi.capture.queueSize";
+
+	/** context parameter holding the maximum number of records of a trace **/
+	private static final String PARAM_MAX_RECORDS = "gassi.capture.maxRecords";
+
+	/** default maximum number of records waiting to be written **/
+	private static final String DEFAULT_QUEUE_SIZE = "10000";
+
+	/** default maximum number of records of a trace **/
+	private static final String DEFAULT_MAX_RECORDS = "1000000";
+
+	/**
+	 * Configures the capture and starts it if enabled
+	 * @param event servlet context event
+	 */
+	public void contextInitialized(ServletContextEvent event) {
+		ServletContext context = event.getServletContext();
+		try {
+			File directory = new File(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_DIRECTORY), System.getProperty("java.io.tmpdir")).trim());
+			int queueSize = Integer.parseInt(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_QUEUE_SIZE), DEFAULT_QUEUE_SIZE).trim());
+			long maxRecords = Long.parseLong(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_MAX_RECORDS), DEFAULT_MAX_RECORDS).trim());
+			GassiCapture gassiCapture = GassiCapture.getInstance();
+			gassiCapture.configure(directory, queueSize, maxRecords);
+			if (Boolean.parseBoolean(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_ENABLED), "false").trim())) {
+				gassiCapture.start();
+			}
+		} catch (NumberFormatException e) {
+			LOGGER.error(FuncLogging.getLogFormatedMessage("GassiCaptureListener","contextInitialized",
+					FuncLogging.REQUEST_STATUS_FAILED, null,"GASSI capture not configured: " + e.getMessage()), e);
+		} catch (IOException e) {
+			LOGGER.error(FuncLogging.getLogFormatedMessage("GassiCaptureListener","contextInitialized",
+					FuncLogging.REQUEST_STATUS_FAILED, null,"GASSI capture not started: " + e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * Stops the capture in progress
+	 * @param event servlet context event
+	 */
+	public void contextDestroyed(ServletContextEvent event) {
+		GassiCapture.getInstance().stop();
+	}
+}
@@ -0,0 +1,93 @@
+package com.francetelecom.csrtool.gui.authent.capture;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * This bean is a snapshot of the statistics of the {@link GassiCapture}.
+ * @class GassiCaptureStats
+ * @Implements Serializable
+ */
+public class GassiCaptureStats implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 5194730286617402183L;
+
+	/**	trace file of the capture in progress, <code>null</code> if none **/
+	private final String file;
+
+	/**	number of requests captured **/
+	private final long captured;
+
+	/**	number of requests not captured because the writer lagged behind or the trace was full **/
+	private final long dropped;
+
+	/**	number of records which could not be written **/
+	private final long failures;
+
+	/**
+	 * Constructor
+	 * @param file trace file of the capture in progress, <code>null</code> if none
+	 * @param captured number of requests captured
+	 * @param dropped number of requests not captured because the writer lagged behind or the trace was full
+	 * @param failures number of records which could not be written
+	 */
+	public GassiCaptureStats(String file, long captured, long dropped, long failures) {
+		this.file = file;
+		this.captured = captured;
+		this.dropped = dropped;
+		this.failures = failures;
+	}
+
+	/**
+	 * @return details of the statistics
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("file", file);
+		toStringBuilder.append("captured", captured);
+		toStringBuilder.append("dropped", dropped);
+		toStringBuilder.append("failures", failures);
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return whether a capture is in progress
+	 **/
+	public boolean isActive() {
+		return file != null;
+	}
+
+	/**
+	 * @return trace file of the capture in progress, <code>null</code> if none
+	 **/
+	public String getFile() {
+		return file;
+	}
+
+	/**
+	 * @return number of requests captured
+	 **/
+	public long getCaptured() {
+		return captured;
+	}
+
+	/**
+	 * @return number of requests not captured because the writer lagged behind or the trace was full
+	 **/
+	public long getDropped() {
+		return dropped;
+	}
+
+	/**
+	 * @return number of records which could not be written
+	 **/
+	public long getFailures() {
+		return failures;
+	}
+}
@@ -0,0 +1,97 @@
+package com.francetelecom.csrtool.gui.authent.capture;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The binary format of the GASSI traces: a header made of the magic number, the version and the
+ * start time of the capture, then the records until the end of the file. A record holds
+ * <ul>
+ * <li>its arrival, as the zig-zag variable length difference with the arrival of the previous record,</li>
+ * <li>its duration, as a variable length integer,</li>
+ * <li>a flag byte, <code>FLAG_NEW_SESSION</code>,</li>
+ * <li>the method, the path, the credentials and the application roles, as references to a
+ * dictionary of the strings of the trace: 0 for none, 1 for a string added to the dictionary and
+ * written after, <i>n</i> for the string <i>n</i> - 2 of the dictionary,</li>
+ * <li>the user and session pseudonyms, as 8 bytes each.</li>
+ * </ul>
+ * The repeated URIs and headers thus take one or two bytes, a record around 25 bytes.
+ * @class GassiTraceFormat
+ */
+final class GassiTraceFormat {
+
+	/**	magic number of a trace, "GSTR" **/
+	static final int MAGIC = 0x47535452;
+
+	/**	version of the format **/
+	static final int VERSION = 1;
+
+	/**	flag of a record whose session was created by the request **/
+	static final int FLAG_NEW_SESSION = 0x01;
+
+	/**	reference of an absent string **/
+	static final int STRING_NONE = 0;
+
+	/**	reference of a string added to the dictionary **/
+	static final int STRING_NEW = 1;
+
+	/**	offset of the references of the strings of the dictionary **/
+	static final int STRING_INDEX_OFFSET = 2;
+
+	/**
+	 * Constructor
+	 */
+	private GassiTraceFormat() {
+		// constants and helpers only
+	}
+
+	/**
+	 * Writes an unsigned variable length integer, 7 bits per byte
+	 * @param out target
+	 * @param value value, not negative
+	 * @throws IOException if the value could not be written
+	 */
+	static void writeVarLong(DataOutput out, long value) throws IOException {
+		long remaining = value;
+		while ((remaining & ~0x7FL) != 0L) {
+			out.writeByte((int) ((remaining & 0x7FL) | 0x80L));
+			remaining >>>= 7;
+		}
+		out.writeByte((int) remaining);
+	}
+
+	/**
+	 * Reads an unsigned variable length integer, 7 bits per byte
+	 * @param in source
+	 * @return the value
+	 * @throws IOException if the value could not be read
+	 */
+	static long readVarLong(DataInput in) throws IOException {
+		long value = 0L;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("malformed variable length integer");
+	}
+
+	/**
+	 * @param value signed value
+	 * @return the value zig-zag encoded, small for the small negative values too
+	 **/
+	static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	/**
+	 * @param value zig-zag encoded value
+	 * @return the signed value
+	 **/
+	static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1L);
+	}
+}
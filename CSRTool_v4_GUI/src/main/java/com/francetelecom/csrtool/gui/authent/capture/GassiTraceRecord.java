@@ -0,0 +1,149 @@
+package com.francetelecom.csrtool.gui.authent.capture;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * A request captured in a GASSI trace, anonymized: the user and the session are replaced by
+ * pseudonyms which are stable within a capture only, and only the path of the URI is kept since
+ * its parameters hold customer data. The MCO and role names sent by the GASSI are kept as sent,
+ * with their prefix, so that the replay reproduces the header shapes and the role mix.
+ * @class GassiTraceRecord
+ */
+public final class GassiTraceRecord {
+
+	/**	arrival of the request, in milliseconds since the start of the capture **/
+	private final long startOffsetMillis;
+
+	/**	duration of the request, in milliseconds **/
+	private final int durationMillis;
+
+	/**	HTTP method **/
+	private final String method;
+
+	/**	path of the URI, below the context path **/
+	private final String path;
+
+	/**	pseudonym of the <code>sm_universalid</code> header, 0 if absent **/
+	private final long userPseudonym;
+
+	/**	<code>ftusercredentials</code> header, <code>null</code> if absent **/
+	private final String credentials;
+
+	/**	<code>ftapplicationroles</code> header, <code>null</code> if absent **/
+	private final String applicationRoles;
+
+	/**	pseudonym of the session of the request, 0 if it has none **/
+	private final long sessionPseudonym;
+
+	/**	whether the session was created by the request **/
+	private final boolean newSession;
+
+	/**
+	 * Constructor
+	 * @param startOffsetMillis arrival of the request, in milliseconds since the start of the capture
+	 * @param durationMillis duration of the request, in milliseconds
+	 * @param method HTTP method
+	 * @param path path of the URI, below the context path
+	 * @param userPseudonym pseudonym of the <code>sm_universalid</code> header, 0 if absent
+	 * @param credentials <code>ftusercredentials</code> header, <code>null</code> if absent
+	 * @param applicationRoles <code>ftapplicationroles</code> header, <code>null</code> if absent
+	 * @param sessionPseudonym pseudonym of the session of the request, 0 if it has none
+	 * @param newSession whether the session was created by the request
+	 */
+	public GassiTraceRecord(long startOffsetMillis, int durationMillis, String method, String path, long userPseudonym,
+			String credentials, String applicationRoles, long sessionPseudonym, boolean newSession) {
+		this.startOffsetMillis = startOffsetMillis;
+		this.durationMillis = durationMillis;
+		this.method = method;
+		this.path = path;
+		this.userPseudonym = userPseudonym;
+		this.credentials = credentials;
+		this.applicationRoles = applicationRoles;
+		this.sessionPseudonym = sessionPseudonym;
+		this.newSession = newSession;
+	}
+
+	/**
+	 * @return details of the record
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("startOffsetMillis", startOffsetMillis);
+		toStringBuilder.append("durationMillis", durationMillis);
+		toStringBuilder.append("method", method);
+		toStringBuilder.append("path", path);
+		toStringBuilder.append("userPseudonym", Long.toHexString(userPseudonym));
+		toStringBuilder.append("credentials", credentials);
+		toStringBuilder.append("applicationRoles", applicationRoles);
+		toStringBuilder.append("sessionPseudonym", Long.toHexString(sessionPseudonym));
+		toStringBuilder.append("newSession", newSession);
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return arrival of the request, in milliseconds since the start of the capture
+	 **/
+	public long getStartOffsetMillis() {
+		return startOffsetMillis;
+	}
+
+	/**
+	 * @return duration of the request, in milliseconds
+	 **/
+	public int getDurationMillis() {
+		return durationMillis;
+	}
+
+	/**
+	 * @return HTTP method
+	 **/
+	public String getMethod() {
+		return method;
+	}
+
+	/**
+	 * @return path of the URI, below the context path
+	 **/
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * @return pseudonym of the <code>sm_universalid</code> header, 0 if absent
+	 **/
+	public long getUserPseudonym() {
+		return userPseudonym;
+	}
+
+	/**
+	 * @return <code>ftusercredentials</code> header, <code>null</code> if absent
+	 **/
+	public String getCredentials() {
+		return credentials;
+	}
+
+	/**
+	 * @return <code>ftapplicationroles</code> header, <code>null</code> if absent
+	 **/
+	public String getApplicationRoles() {
+		return applicationRoles;
+	}
+
+	/**
+	 * @return pseudonym of the session of the request, 0 if it has none
+	 **/
+	public long getSessionPseudonym() {
+		return sessionPseudonym;
+	}
+
+	/**
+	 * @return whether the session was created by the request
+	 **/
+	public boolean isNewSession() {
+		return newSession;
+	}
+}
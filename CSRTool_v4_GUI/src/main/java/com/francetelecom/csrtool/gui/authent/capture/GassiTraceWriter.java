@@ -0,0 +1,95 @@
+package com.francetelecom.csrtool.gui.authent.capture;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the records of a GASSI trace, in the {@link GassiTraceFormat}. A writer is not thread
+ * safe.
+ * @class GassiTraceWriter
+ * @Implements Closeable
+ */
+public class GassiTraceWriter implements Closeable {
+
+	/**	target of the trace **/
+	private final DataOutputStream out;
+
+	/**	index of the strings of the trace **/
+	private final Map<String, Integer> dictionary = new HashMap<String, Integer>();
+
+	/**	arrival of the last record written, in milliseconds since the start of the capture **/
+	private long lastStartOffsetMillis;
+
+	/**
+	 * Constructor, writes the header of the trace
+	 * @param file trace file, replaced if it exists
+	 * @param captureStartMillis start time of the capture
+	 * @throws IOException if the file could not be created
+	 */
+	public GassiTraceWriter(File file, long captureStartMillis) throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 65536));
+		out.writeInt(GassiTraceFormat.MAGIC);
+		out.writeByte(GassiTraceFormat.VERSION);
+		out.writeLong(captureStartMillis);
+	}
+
+	/**
+	 * Writes a record
+	 * @param record the record
+	 * @throws IOException if the record could not be written
+	 */
+	public void write(GassiTraceRecord record) throws IOException {
+		GassiTraceFormat.writeVarLong(out, GassiTraceFormat.zigZag(record.getStartOffsetMillis() - lastStartOffsetMillis));
+		lastStartOffsetMillis = record.getStartOffsetMillis();
+		GassiTraceFormat.writeVarLong(out, Math.max(0, record.getDurationMillis()));
+		out.writeByte(record.isNewSession() ? GassiTraceFormat.FLAG_NEW_SESSION : 0);
+		writeString(record.getMethod());
+		writeString(record.getPath());
+		writeString(record.getCredentials());
+		writeString(record.getApplicationRoles());
+		out.writeLong(record.getUserPseudonym());
+		out.writeLong(record.getSessionPseudonym());
+	}
+
+	/**
+	 * Writes a string as a reference to the dictionary, adding it if needed
+	 * @param s the string, may be <code>null</code>
+	 * @throws IOException if the string could not be written
+	 */
+	private void writeString(String s) throws IOException {
+		if (s == null) {
+			GassiTraceFormat.writeVarLong(out, GassiTraceFormat.STRING_NONE);
+			return;
+		}
+		Integer index = dictionary.get(s);
+		if (index != null) {
+			GassiTraceFormat.writeVarLong(out, index.intValue() + GassiTraceFormat.STRING_INDEX_OFFSET);
+			return;
+		}
+		GassiTraceFormat.writeVarLong(out, GassiTraceFormat.STRING_NEW);
+		out.writeUTF(s);
+		dictionary.put(s, Integer.valueOf(dictionary.size()));
+	}
+
+	/**
+	 * Writes the records still buffered to the file
+	 * @throws IOException if the records could not be written
+	 */
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	/**
+	 * Closes the trace
+	 * @throws IOException if the records still buffered could not be written
+	 */
+	public void close() throws IOException {
+		out.close();
+	}
+}
@@ -0,0 +1,21 @@
+package com.francetelecom.csrtool.gui.cache;
+
+/**
+ * An exception thrown when a cache entry could not be loaded from its backend.
+ * @class CacheException
+ * @extends Exception
+ */
+public class CacheException extends Exception {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 4187320573393721094L;
+
+	/**
+	 * Constructor
+	 * @param message error message
+	 * @param cause the exception thrown by the loader
+	 */
+	public CacheException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
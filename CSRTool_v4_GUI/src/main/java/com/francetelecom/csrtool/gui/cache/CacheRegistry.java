@@ -0,0 +1,62 @@
+package com.francetelecom.csrtool.gui.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the live {@link RefreshingCache}, so that their statistics can be exported without
+ * knowing the components that own them. A cache registers itself when it is built and
+ * unregisters when it is shut down.
+ * @class CacheRegistry
+ */
+public final class CacheRegistry {
+
+	/**	unique instance **/
+	private static final CacheRegistry INSTANCE = new CacheRegistry();
+
+	/**	live caches **/
+	private final ConcurrentMap<RefreshingCache<?, ?>, Boolean> caches = new ConcurrentHashMap<RefreshingCache<?, ?>, Boolean>();
+
+	/**
+	 * Constructor
+	 */
+	private CacheRegistry() {
+		// singleton
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static CacheRegistry getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Registers a cache
+	 * @param cache the cache
+	 */
+	void register(RefreshingCache<?, ?> cache) {
+		caches.put(cache, Boolean.TRUE);
+	}
+
+	/**
+	 * Unregisters a cache
+	 * @param cache the cache
+	 */
+	void unregister(RefreshingCache<?, ?> cache) {
+		caches.remove(cache);
+	}
+
+	/**
+	 * @return a snapshot of the statistics of all the live caches
+	 **/
+	public List<CacheStats> getStats() {
+		List<CacheStats> stats = new ArrayList<CacheStats>();
+		for (RefreshingCache<?, ?> cache : caches.keySet()) {
+			stats.add(cache.getStats());
+		}
+		return stats;
+	}
+}
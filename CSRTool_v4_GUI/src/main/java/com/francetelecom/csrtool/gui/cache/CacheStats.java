@@ -0,0 +1,134 @@
+package com.francetelecom.csrtool.gui.cache;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * This bean is a snapshot of the statistics of a {@link RefreshingCache}.
+ * @class CacheStats
+ * @Implements Serializable
+ */
+public class CacheStats implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = -1602853412716840985L;
+
+	/**	cache name **/
+	private final String name;
+
+	/**	number of entries **/
+	private final int size;
+
+	/**	number of fresh entries served **/
+	private final long hits;
+
+	/**	number of stale entries served while refreshed **/
+	private final long staleHits;
+
+	/**	number of synchronous loads waited for **/
+	private final long misses;
+
+	/**	number of failed loads **/
+	private final long loadFailures;
+
+	/**	number of evicted entries **/
+	private final long evictions;
+
+	/**
+	 * Constructor
+	 * @param name cache name
+	 * @param size number of entries
+	 * @param hits number of fresh entries served
+	 * @param staleHits number of stale entries served
+	 * @param misses number of synchronous loads
+	 * @param loadFailures number of failed loads
+	 * @param evictions number of evicted entries
+	 */
+	public CacheStats(String name, int size, long hits, long staleHits, long misses, long loadFailures, long evictions) {
+		this.name = name;
+		this.size = size;
+		this.hits = hits;
+		this.staleHits = staleHits;
+		this.misses = misses;
+		this.loadFailures = loadFailures;
+		this.evictions = evictions;
+	}
+
+	/**
+	 * @return ratio of the requests served from the cache, fresh or stale, between 0 and 1
+	 **/
+	public double getHitRatio() {
+		long requests = hits + staleHits + misses;
+		return requests == 0 ? 0d : (double) (hits + staleHits) / requests;
+	}
+
+	/**
+	 * @return details of the statistics
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("name", name);
+		toStringBuilder.append("size", size);
+		toStringBuilder.append("hits", hits);
+		toStringBuilder.append("staleHits", staleHits);
+		toStringBuilder.append("misses", misses);
+		toStringBuilder.append("loadFailures", loadFailures);
+		toStringBuilder.append("evictions", evictions);
+		toStringBuilder.append("hitRatio", getHitRatio());
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return cache name
+	 **/
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return number of entries
+	 **/
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return number of fresh entries served
+	 **/
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return number of stale entries served while refreshed
+	 **/
+	public long getStaleHits() {
+		return staleHits;
+	}
+
+	/**
+	 * @return number of synchronous loads waited for
+	 **/
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return number of failed loads
+	 **/
+	public long getLoadFailures() {
+		return loadFailures;
+	}
+
+	/**
+	 * @return number of evicted entries
+	 **/
+	public long getEvictions() {
+		return evictions;
+	}
+}
@@ -0,0 +1,87 @@
+package com.francetelecom.csrtool.gui.cache;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * A response body serialized once and shared between requests, with its HTTP validators.
+ * @class CachedResponse
+ */
+public class CachedResponse {
+
+	/**	serialized body **/
+	private final byte[] body;
+
+	/**	content type of the body **/
+	private final String contentType;
+
+	/**	entity tag, computed from the body **/
+	private final String etag;
+
+	/**	last modification time, truncated to the second as in the HTTP dates **/
+	private final long lastModified;
+
+	/**
+	 * Constructor
+	 * @param body serialized body
+	 * @param contentType content type of the body
+	 * @param lastModified last modification time
+	 */
+	public CachedResponse(byte[] body, String contentType, long lastModified) {
+		this.body = body;
+		this.contentType = contentType;
+		this.etag = "\"0" + DigestUtils.md5DigestAsHex(body) + "\"";
+		this.lastModified = lastModified / 1000L * 1000L;
+	}
+
+	/**
+	 * Writes this response, or a 304 without body if the validators sent by the client still match
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws IOException input output exception
+	 */
+	public void writeTo(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+			return;
+		}
+		response.setContentType(contentType);
+		response.setContentLength(body.length);
+		response.getOutputStream().write(body);
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return serialized body
+	 **/
+	public byte[] getBody() {
+		return body;
+	}
+
+	/**
+	 * @return content type of the body
+	 **/
+	public String getContentType() {
+		return contentType;
+	}
+
+	/**
+	 * @return entity tag
+	 **/
+	public String getEtag() {
+		return etag;
+	}
+
+	/**
+	 * @return last modification time
+	 **/
+	public long getLastModified() {
+		return lastModified;
+	}
+}
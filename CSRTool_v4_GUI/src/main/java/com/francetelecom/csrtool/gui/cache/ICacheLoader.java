@@ -0,0 +1,16 @@
+package com.francetelecom.csrtool.gui.cache;
+
+/**
+ * Interface for loading the value of a cache entry from its backend.
+ * @param <K> type of the cache key
+ * @param <V> type of the cached value
+ **/
+public interface ICacheLoader<K, V> {
+	/**
+	 * Loads the value associated to a key
+	 * @param key cache key
+	 * @return the loaded value, never <code>null</code>
+	 * @throws Exception if the backend could not provide the value
+	 */
+	V load(K key) throws Exception;
+}
@@ -0,0 +1,410 @@
+package com.francetelecom.csrtool.gui.cache;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.gui.concurrent.DaemonThreadFactory;
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * A cache with a time to live and a stale-while-revalidate window.<br>
+ * An entry younger than the time to live is served as is. An entry older than the time to live
+ * but still within the stale window is served while a background refresh is started. Older or
+ * missing entries are loaded synchronously.<br>
+ * Concurrent loads of the same key are coalesced: only one call to the {@link ICacheLoader} is
+ * made and every caller waits for its result.<br>
+ * When a maximum size is set, the oldest loaded entries are evicted first.
+ * @class RefreshingCache
+ * @param <K> type of the cache key
+ * @param <V> type of the cached value
+ */
+public class RefreshingCache<K, V> {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(RefreshingCache.class);
+
+	/**	cache name, used for logging and thread names **/
+	private final String name;
+
+	/**	loader of the values **/
+	private final ICacheLoader<K, V> loader;
+
+	/**	entries currently cached **/
+	private final ConcurrentMap<K, Entry<K, V>> entries = new ConcurrentHashMap<K, Entry<K, V>>();
+
+	/**	entries in loading order, only maintained when the cache is bounded **/
+	private final Queue<Entry<K, V>> loadingOrder = new ConcurrentLinkedQueue<Entry<K, V>>();
+
+	/**	number of elements in the loading order queue, some of them may have been replaced **/
+	private final AtomicInteger loadingOrderLength = new AtomicInteger();
+
+	/**	loads in progress, used to coalesce concurrent loads of the same key **/
+	private final ConcurrentMap<K, FutureTask<Entry<K, V>>> loading = new ConcurrentHashMap<K, FutureTask<Entry<K, V>>>();
+
+	/**	lock making the storage of a loaded entry atomic with the invalidations **/
+	private final Object storeLock = new Object();
+
+	/**	executor for the background refreshes **/
+	private final ExecutorService refreshExecutor;
+
+	/**	time to live in milliseconds **/
+	private volatile long timeToLive;
+
+	/**	time in milliseconds after the time to live during which a stale entry may be served **/
+	private volatile long staleWhileRevalidate;
+
+	/**	maximum number of entries, <code>0</code> for an unbounded cache **/
+	private volatile int maxSize;
+
+	/**	number of fresh entries served **/
+	private final AtomicLong hits = new AtomicLong();
+
+	/**	number of stale entries served while refreshed **/
+	private final AtomicLong staleHits = new AtomicLong();
+
+	/**	number of synchronous loads waited for **/
+	private final AtomicLong misses = new AtomicLong();
+
+	/**	number of failed loads **/
+	private final AtomicLong loadFailures = new AtomicLong();
+
+	/**	number of entries evicted to respect the maximum size **/
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * A cached value and its loading time.
+	 * @class Entry
+	 * @param <K> type of the cache key
+	 * @param <V> type of the cached value
+	 */
+	private static final class Entry<K, V> {
+		/**	key **/
+		private final K key;
+
+		/**	value **/
+		private final V value;
+
+		/**	loading time **/
+		private final long loadedAt;
+
+		/**
+		 * Constructor
+		 * @param key cache key
+		 * @param value cached value
+		 * @param loadedAt loading time
+		 */
+		private Entry(K key, V value, long loadedAt) {
+			this.key = key;
+			this.value = value;
+			this.loadedAt = loadedAt;
+		}
+	}
+
+	/**
+	 * Constructor
+	 * @param name cache name
+	 * @param loader loader of the values
+	 * @param timeToLive time to live in milliseconds
+	 * @param staleWhileRevalidate stale window in milliseconds
+	 */
+	public RefreshingCache(String name, ICacheLoader<K, V> loader, long timeToLive, long staleWhileRevalidate) {
+		this.name = name;
+		this.loader = loader;
+		this.timeToLive = timeToLive;
+		this.staleWhileRevalidate = staleWhileRevalidate;
+		this.refreshExecutor = Executors.newSingleThreadExecutor(new DaemonThreadFactory(name + "-refresh"));
+		CacheRegistry.getInstance().register(this);
+	}
+
+	/**
+	 * Gets the value associated to a key, loading it if needed
+	 * @param key cache key
+	 * @return the cached value
+	 * @throws CacheException if the value could not be loaded
+	 */
+	public V get(K key) throws CacheException {
+		Entry<K, V> entry = entries.get(key);
+		if (entry != null) {
+			long age = System.currentTimeMillis() - entry.loadedAt;
+			if (age < timeToLive) {
+				hits.incrementAndGet();
+				return entry.value;
+			}
+			if (age < timeToLive + staleWhileRevalidate) {
+				staleHits.incrementAndGet();
+				refreshAsync(key);
+				return entry.value;
+			}
+		}
+		misses.incrementAndGet();
+		return load(key);
+	}
+
+	/**
+	 * Gets the loading time of the value currently cached for a key
+	 * @param key cache key
+	 * @return the loading time or <code>0</code> if nothing is cached
+	 */
+	public long getLoadedAt(K key) {
+		Entry<K, V> entry = entries.get(key);
+		return entry != null ? entry.loadedAt : 0L;
+	}
+
+	/**
+	 * Tells whether a value obtained earlier, for example by a prefetch, may still be served: it must
+	 * be the value cached for the key, neither invalidated nor replaced since, and younger than the
+	 * time to live.
+	 * @param key cache key
+	 * @param value value obtained earlier
+	 * @return <code>true</code> if the value is still the fresh cached value
+	 */
+	public boolean isCurrent(K key, V value) {
+		Entry<K, V> entry = entries.get(key);
+		return entry != null && entry.value == value && System.currentTimeMillis() - entry.loadedAt < timeToLive;
+	}
+
+	/**
+	 * Removes the entry associated to a key. A load in progress for that key is detached from the
+	 * cache, its result will not be stored.
+	 * @param key cache key
+	 */
+	public void invalidate(K key) {
+		synchronized (storeLock) {
+			loading.remove(key);
+			entries.remove(key);
+		}
+	}
+
+	/**
+	 * Removes all the entries
+	 */
+	public void invalidateAll() {
+		synchronized (storeLock) {
+			loading.clear();
+			entries.clear();
+		}
+	}
+
+	/**
+	 * @return a snapshot of the statistics of this cache
+	 **/
+	public CacheStats getStats() {
+		return new CacheStats(name, entries.size(), hits.get(), staleHits.get(), misses.get(), loadFailures.get(), evictions.get());
+	}
+
+	/**
+	 * Stops the background refreshes and removes the cache from the {@link CacheRegistry}. The
+	 * refreshes not started are failed, so that no caller waits for them.
+	 */
+	public void shutdown() {
+		CacheRegistry.getInstance().unregister(this);
+		for (Runnable task : refreshExecutor.shutdownNow()) {
+			((LoadTask) task).reject(new RejectedExecutionException(name + " shut down"));
+		}
+	}
+
+	/**
+	 * Loads synchronously the value of a key, joining the load in progress if any
+	 * @param key cache key
+	 * @return the loaded value
+	 * @throws CacheException if the value could not be loaded
+	 */
+	private V load(K key) throws CacheException {
+		FutureTask<Entry<K, V>> task = loading.get(key);
+		if (task == null) {
+			FutureTask<Entry<K, V>> newTask = new LoadTask(key);
+			task = loading.putIfAbsent(key, newTask);
+			if (task == null) {
+				task = newTask;
+				task.run();
+			}
+		}
+
+		try {
+			return task.get().value;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CacheException("interrupted while loading " + name + " [" + key + "]", e);
+		} catch (ExecutionException e) {
+			throw new CacheException("unable to load " + name + " [" + key + "]", e.getCause());
+		}
+	}
+
+	/**
+	 * Starts a background refresh of a key unless a load is already in progress. When the refresh
+	 * cannot be started, the task is failed so that the callers which joined it meanwhile do not
+	 * wait for it forever.
+	 * @param key cache key
+	 */
+	private void refreshAsync(K key) {
+		LoadTask task = new LoadTask(key);
+		if (loading.putIfAbsent(key, task) != null) {
+			return;
+		}
+		try {
+			refreshExecutor.execute(task);
+		} catch (RejectedExecutionException e) {
+			task.reject(e);
+		}
+	}
+
+	/**
+	 * Records a loaded entry in the loading order then evicts the oldest entries while the cache
+	 * is too large. The queue is also compacted when replaced entries pile up in it.
+	 * @param entry loaded entry
+	 */
+	private void evictIfNeeded(Entry<K, V> entry) {
+		int max = maxSize;
+		if (max <= 0) {
+			return;
+		}
+		loadingOrder.add(entry);
+		loadingOrderLength.incrementAndGet();
+
+		while (entries.size() > max || loadingOrderLength.get() > 2 * max) {
+			Entry<K, V> eldest = loadingOrder.poll();
+			if (eldest == null) {
+				break;
+			}
+			loadingOrderLength.decrementAndGet();
+			if (entries.get(eldest.key) != eldest) {
+				/* replaced or invalidated since, nothing to evict */
+				continue;
+			}
+			if (entries.size() > max) {
+				if (entries.remove(eldest.key, eldest)) {
+					evictions.incrementAndGet();
+				}
+			} else {
+				/* compaction only: keep the current entry */
+				loadingOrder.add(eldest);
+				loadingOrderLength.incrementAndGet();
+			}
+		}
+	}
+
+	/*----------------------------
+	  Getters & Setters
+	  ----------------------------*/
+	/**
+	 * @return time to live in milliseconds
+	 **/
+	public long getTimeToLive() {
+		return timeToLive;
+	}
+
+	/**
+	 * @param timeToLive time to live in milliseconds
+	 **/
+	public void setTimeToLive(long timeToLive) {
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * @return stale window in milliseconds
+	 **/
+	public long getStaleWhileRevalidate() {
+		return staleWhileRevalidate;
+	}
+
+	/**
+	 * @param staleWhileRevalidate stale window in milliseconds
+	 **/
+	public void setStaleWhileRevalidate(long staleWhileRevalidate) {
+		this.staleWhileRevalidate = staleWhileRevalidate;
+	}
+
+	/**
+	 * @return maximum number of entries, <code>0</code> for an unbounded cache
+	 **/
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @param maxSize maximum number of entries, <code>0</code> for an unbounded cache
+	 **/
+	public void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * The task loading a key. It stores the result in the cache, unless it has been detached by an
+	 * invalidation meanwhile, and unregisters itself from the loads in progress once done. The check
+	 * and the storage are made under the lock of the invalidations, so that an invalidated value is
+	 * never stored again.
+	 * @class LoadTask
+	 * @extends FutureTask
+	 */
+	private final class LoadTask extends FutureTask<Entry<K, V>> {
+		/**	cache key **/
+		private final K key;
+
+		/**
+		 * Constructor
+		 * @param key cache key
+		 */
+		private LoadTask(final K key) {
+			super(new Callable<Entry<K, V>>() {
+				public Entry<K, V> call() throws Exception {
+					try {
+						return new Entry<K, V>(key, loader.load(key), System.currentTimeMillis());
+					} catch (Exception e) {
+						loadFailures.incrementAndGet();
+						LOGGER.warn(FuncLogging.getLogFormatedMessage("RefreshingCache","load",
+								FuncLogging.REQUEST_STATUS_FAILED, null,"unable to load " + name + " [" + key + "]: " + e.getMessage()), e);
+						throw e;
+					}
+				}
+			});
+			this.key = key;
+		}
+
+		/**
+		 * Stores the loaded entry in the cache if the task is still attached to it
+		 * @param entry loaded entry
+		 **/
+		@Override
+		protected void set(Entry<K, V> entry) {
+			boolean stored = false;
+			synchronized (storeLock) {
+				if (loading.get(key) == this) {
+					entries.put(key, entry);
+					stored = true;
+				}
+			}
+			if (stored) {
+				evictIfNeeded(entry);
+			}
+			super.set(entry);
+		}
+
+		/**
+		 * Fails the task without running it, and unregisters it from the loads in progress
+		 * @param cause the reason why the task could not run
+		 **/
+		private void reject(Throwable cause) {
+			setException(new CacheException("unable to refresh " + name + " [" + key + "]", cause));
+		}
+
+		/**
+		 * Unregisters the task from the loads in progress
+		 **/
+		@Override
+		protected void done() {
+			loading.remove(key, this);
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.francetelecom.csrtool.gui.coalescing;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * This bean is a snapshot of the statistics of the {@link RequestCoalescer}.
+ * @class CoalescingStats
+ * @Implements Serializable
+ */
+public class CoalescingStats implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = -1542983305617269481L;
+
+	/**	number of requests in progress in the table **/
+	private final int inFlight;
+
+	/**	number of requests processed with their response shared **/
+	private final long leaders;
+
+	/**	number of identical requests answered with a shared response **/
+	private final long coalesced;
+
+	/**	number of identical requests processed, the shared response being late or not shareable **/
+	private final long fallbacks;
+
+	/**	number of requests processed without being in the table, as it was full **/
+	private final long overflows;
+
+	/**
+	 * Constructor
+	 * @param inFlight number of requests in progress in the table
+	 * @param leaders number of requests processed with their response shared
+	 * @param coalesced number of identical requests answered with a shared response
+	 * @param fallbacks number of identical requests processed, the shared response being late or not shareable
+	 * @param overflows number of requests processed without being in the table, as it was full
+	 */
+	public CoalescingStats(int inFlight, long leaders, long coalesced, long fallbacks, long overflows) {
+		this.inFlight = inFlight;
+		this.leaders = leaders;
+		this.coalesced = coalesced;
+		this.fallbacks = fallbacks;
+		this.overflows = overflows;
+	}
+
+	/**
+	 * @return details of the statistics
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("inFlight", inFlight);
+		toStringBuilder.append("leaders", leaders);
+		toStringBuilder.append("coalesced", coalesced);
+		toStringBuilder.append("fallbacks", fallbacks);
+		toStringBuilder.append("overflows", overflows);
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return number of requests in progress in the table
+	 **/
+	public int getInFlight() {
+		return inFlight;
+	}
+
+	/**
+	 * @return number of requests processed with their response shared
+	 **/
+	public long getLeaders() {
+		return leaders;
+	}
+
+	/**
+	 * @return number of identical requests answered with a shared response
+	 **/
+	public long getCoalesced() {
+		return coalesced;
+	}
+
+	/**
+	 * @return number of identical requests processed, the shared response being late or not shareable
+	 **/
+	public long getFallbacks() {
+		return fallbacks;
+	}
+
+	/**
+	 * @return number of requests processed without being in the table, as it was full
+	 **/
+	public long getOverflows() {
+		return overflows;
+	}
+}
@@ -0,0 +1,167 @@
+package com.francetelecom.csrtool.gui.coalescing;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.francetelecom.csrtool.gui.deadline.RequestDeadline;
+
+/**
+ * Coalesces the identical idempotent requests of a session: while a request is in progress, the
+ * identical requests wait for its response and are answered with a copy of it instead of being
+ * processed again.<br>
+ * The requests in progress are kept in a bounded table; when it is full, or when the response
+ * cannot be shared or does not come in time, the identical requests are processed as usual. The
+ * wait never outlasts the {@link RequestDeadline} of the request.
+ * @class RequestCoalescer
+ */
+public final class RequestCoalescer {
+
+	/**	default maximum number of requests in progress in the table **/
+	public static final int DEFAULT_MAX_IN_FLIGHT = 1000;
+
+	/**	default maximum wait of an identical request, in milliseconds **/
+	public static final int DEFAULT_MAX_WAIT_MILLIS = 5000;
+
+	/**	default maximum size of a shared response, in bytes **/
+	public static final int DEFAULT_MAX_BODY_SIZE = 1048576;
+
+	/**	unique instance **/
+	private static final RequestCoalescer INSTANCE = new RequestCoalescer();
+
+	/**	responses of the requests in progress, per request key **/
+	private final ConcurrentMap<String, SharedResponse> inFlight = new ConcurrentHashMap<String, SharedResponse>();
+
+	/**	number of requests in the table **/
+	private final AtomicInteger size = new AtomicInteger();
+
+	/**	maximum number of requests in progress in the table **/
+	private volatile int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+
+	/**	maximum wait of an identical request, in milliseconds **/
+	private volatile long maxWaitMillis = DEFAULT_MAX_WAIT_MILLIS;
+
+	/**	maximum size of a shared response, in bytes **/
+	private volatile int maxBodySize = DEFAULT_MAX_BODY_SIZE;
+
+	/**	number of requests processed with their response shared **/
+	private final AtomicLong leaders = new AtomicLong();
+
+	/**	number of identical requests answered with a shared response **/
+	private final AtomicLong coalesced = new AtomicLong();
+
+	/**	number of identical requests processed, the shared response being late or not shareable **/
+	private final AtomicLong fallbacks = new AtomicLong();
+
+	/**	number of requests processed without being in the table, as it was full **/
+	private final AtomicLong overflows = new AtomicLong();
+
+	/**
+	 * Constructor
+	 */
+	private RequestCoalescer() {
+		// singleton
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static RequestCoalescer getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Configures the coalescing
+	 * @param maxInFlight maximum number of requests in progress in the table
+	 * @param maxWaitMillis maximum wait of an identical request, in milliseconds
+	 * @param maxBodySize maximum size of a shared response, in bytes
+	 */
+	public void configure(int maxInFlight, long maxWaitMillis, int maxBodySize) {
+		this.maxInFlight = maxInFlight;
+		this.maxWaitMillis = maxWaitMillis;
+		this.maxBodySize = maxBodySize;
+	}
+
+	/**
+	 * Processes a request, or answers it with the response of the identical request in progress
+	 * @param key key of the request, identical for the identical requests
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @param chain filter chain processing the request
+	 * @throws IOException input output exception
+	 * @throws ServletException servlet exception
+	 */
+	public void process(String key, HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws IOException, ServletException {
+		SharedResponse leaderResponse = inFlight.get(key);
+		if (leaderResponse == null) {
+			if (size.incrementAndGet() > maxInFlight) {
+				size.decrementAndGet();
+				overflows.incrementAndGet();
+				chain.doFilter(request, response);
+				return;
+			}
+			SharedResponse sharedResponse = new SharedResponse(maxBodySize);
+			leaderResponse = inFlight.putIfAbsent(key, sharedResponse);
+			if (leaderResponse == null) {
+				lead(key, sharedResponse, request, response, chain);
+				return;
+			}
+			size.decrementAndGet();
+		}
+
+		boolean shared;
+		try {
+			shared = leaderResponse.await(RequestDeadline.bound(maxWaitMillis));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			shared = false;
+		}
+		if (shared) {
+			coalesced.incrementAndGet();
+			leaderResponse.replayTo(response);
+			return;
+		}
+		fallbacks.incrementAndGet();
+		chain.doFilter(request, response);
+	}
+
+	/**
+	 * Processes a request, sharing its response with the identical requests arriving meanwhile
+	 * @param key key of the request
+	 * @param sharedResponse copy of the response
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @param chain filter chain processing the request
+	 * @throws IOException input output exception
+	 * @throws ServletException servlet exception
+	 */
+	private void lead(String key, SharedResponse sharedResponse, HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws IOException, ServletException {
+		leaders.incrementAndGet();
+		try {
+			TeeResponseWrapper teeResponse = new TeeResponseWrapper(response, sharedResponse);
+			chain.doFilter(request, teeResponse);
+			teeResponse.finish();
+			sharedResponse.complete(response);
+		} finally {
+			inFlight.remove(key, sharedResponse);
+			size.decrementAndGet();
+			sharedResponse.fail();
+		}
+	}
+
+	/**
+	 * @return a snapshot of the statistics of the coalescing
+	 **/
+	public CoalescingStats getStats() {
+		return new CoalescingStats(size.get(), leaders.get(), coalesced.get(), fallbacks.get(), overflows.get());
+	}
+}
@@ -0,0 +1,130 @@
+package com.francetelecom.csrtool.gui.coalescing;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * Coalesces the identical GET requests of a session arriving while the first one is in progress,
+ * such as double clicks and retries of impatient calls, through the {@link RequestCoalescer}.
+ * The requests are identical when they have the same session, method, URI, parameters and
+ * negotiation headers. The requests other than GET, and the requests without session, are never
+ * coalesced.
+ * @class RequestCoalescingFilter
+ * @Implements Filter
+ */
+public class RequestCoalescingFilter implements Filter {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(RequestCoalescingFilter.class);
+
+	/**	init parameter holding the maximum number of requests in progress in the table **/
+	private static final String PARAM_MAX_IN_FLIGHT = "maxInFlight";
+
+	/**	init parameter holding the maximum wait of an identical request, in milliseconds **/
+	private static final String PARAM_MAX_WAIT_MILLIS = "maxWaitMillis";
+
+	/**	init parameter holding the maximum size of a shared response, in bytes **/
+	private static final String PARAM_MAX_BODY_SIZE = "maxBodySize";
+
+	/**	headers changing the response to a request, part of the key of the request **/
+	private static final String[] KEY_HEADERS = { "Accept", "Accept-Encoding", "Accept-Language", "If-None-Match", "If-Modified-Since", "Range" };
+
+	/**	separator of the parts of the key of a request **/
+	private static final char SEPARATOR = '\u0001';
+
+	/**	the coalescer **/
+	private RequestCoalescer requestCoalescer;
+
+	/**
+	 * Configures the coalescer
+	 * @param config filter config
+	 * @throws ServletException servlet exception
+	 */
+	public void init(FilterConfig config) throws ServletException {
+		int maxInFlight = getIntParameter(config, PARAM_MAX_IN_FLIGHT, RequestCoalescer.DEFAULT_MAX_IN_FLIGHT);
+		int maxWaitMillis = getIntParameter(config, PARAM_MAX_WAIT_MILLIS, RequestCoalescer.DEFAULT_MAX_WAIT_MILLIS);
+		int maxBodySize = getIntParameter(config, PARAM_MAX_BODY_SIZE, RequestCoalescer.DEFAULT_MAX_BODY_SIZE);
+
+		requestCoalescer = RequestCoalescer.getInstance();
+		requestCoalescer.configure(maxInFlight, maxWaitMillis, maxBodySize);
+		LOGGER.info(FuncLogging.getLogFormatedMessage("RequestCoalescingFilter","init",
+				String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,"coalescing of up to " + maxInFlight + " requests, waiting " + maxWaitMillis + " ms"));
+	}
+
+	/**
+	 * Coalesces the request if it is an idempotent request of a session
+	 * @param request servlet request
+	 * @param response servlet response
+	 * @param chain filter chain
+	 * @throws IOException input output exception
+	 * @throws ServletException servlet exception
+	 */
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+		HttpServletRequest httpRequest = (HttpServletRequest) request;
+		HttpSession session = httpRequest.getSession(false);
+		if (!"GET".equals(httpRequest.getMethod()) || session == null) {
+			chain.doFilter(request, response);
+			return;
+		}
+		requestCoalescer.process(getKey(httpRequest, session), httpRequest, (HttpServletResponse) response, chain);
+	}
+
+	/**
+	 * @param request http servlet request
+	 * @param session session of the request
+	 * @return the key of the request, identical for the identical requests
+	 **/
+	private static String getKey(HttpServletRequest request, HttpSession session) {
+		StringBuilder key = new StringBuilder(256);
+		key.append(session.getId()).append(SEPARATOR).append(request.getMethod()).append(SEPARATOR).append(request.getRequestURI());
+		for (Map.Entry<String, String[]> parameter : new TreeMap<String, String[]>(request.getParameterMap()).entrySet()) {
+			for (String value : parameter.getValue()) {
+				key.append(SEPARATOR).append(parameter.getKey()).append('=').append(value);
+			}
+		}
+		for (String header : KEY_HEADERS) {
+			key.append(SEPARATOR).append(StringUtils.defaultString(request.getHeader(header)));
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Reads an integer init parameter
+	 * @param config filter config
+	 * @param name parameter name
+	 * @param defaultValue value when the parameter is blank
+	 * @return the value of the parameter
+	 * @throws ServletException if the parameter is not an integer
+	 */
+	private static int getIntParameter(FilterConfig config, String name, int defaultValue) throws ServletException {
+		try {
+			return Integer.parseInt(StringUtils.defaultIfBlank(config.getInitParameter(name), String.valueOf(defaultValue)).trim());
+		} catch (NumberFormatException e) {
+			throw new ServletException(String.format("invalid init parameter: %s", name), e);
+		}
+	}
+
+	/**
+	 * Finalize the filter
+	 * <BR>Callback method; It is called just before filter destroys.
+	 */
+	public void destroy() {
+		// Do nothing
+	}
+}
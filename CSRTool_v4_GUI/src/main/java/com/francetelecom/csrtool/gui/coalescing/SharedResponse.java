@@ -0,0 +1,200 @@
+package com.francetelecom.csrtool.gui.coalescing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * The response of a request in progress, copied while it is written so that the identical
+ * requests arrived meanwhile can be answered with it.<br>
+ * The response is not shared when it is larger than the maximum size, sets cookies, or when the
+ * request fails.
+ * @class SharedResponse
+ */
+final class SharedResponse {
+
+	/**	headers not replayed, set by the container or from the replayed body **/
+	private static final String[] SKIPPED_HEADERS = { "Content-Length", "Content-Type", "Transfer-Encoding", "Date", "Connection" };
+
+	/**	released when the response is complete **/
+	private final CountDownLatch completed = new CountDownLatch(1);
+
+	/**	maximum size of the body shared, in bytes **/
+	private final int maxBodySize;
+
+	/**	copy of the body **/
+	private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+
+	/**	whether the response can still be shared **/
+	private boolean shareable = true;
+
+	/**	status of the response **/
+	private int status;
+
+	/**	content type of the response **/
+	private String contentType;
+
+	/**	headers of the response, as name and value pairs **/
+	private final List<String[]> headers = new ArrayList<String[]>();
+
+	/**	error status sent, <code>0</code> if none **/
+	private int errorStatus;
+
+	/**	error message sent, may be <code>null</code> **/
+	private String errorMessage;
+
+	/**	redirection location sent, <code>null</code> if none **/
+	private String redirectLocation;
+
+	/**
+	 * Constructor
+	 * @param maxBodySize maximum size of the body shared, in bytes
+	 */
+	SharedResponse(int maxBodySize) {
+		this.maxBodySize = maxBodySize;
+	}
+
+	/**
+	 * Copies a part of the body
+	 * @param bytes the bytes written
+	 * @param offset offset of the part
+	 * @param length length of the part
+	 */
+	void copy(byte[] bytes, int offset, int length) {
+		if (!shareable) {
+			return;
+		}
+		if (body.size() + length > maxBodySize) {
+			unshare();
+			return;
+		}
+		body.write(bytes, offset, length);
+	}
+
+	/**
+	 * Discards the body copied, as the response was reset
+	 */
+	void resetBody() {
+		body.reset();
+	}
+
+	/**
+	 * Records an error sent instead of the body
+	 * @param sc error status
+	 * @param msg error message, may be <code>null</code>
+	 */
+	void error(int sc, String msg) {
+		errorStatus = sc;
+		errorMessage = msg;
+	}
+
+	/**
+	 * Records a redirection sent instead of the body
+	 * @param location redirection location
+	 */
+	void redirect(String location) {
+		redirectLocation = location;
+	}
+
+	/**
+	 * Makes the response private to its request
+	 */
+	void unshare() {
+		shareable = false;
+		body.reset();
+	}
+
+	/**
+	 * Completes the response with its status and headers, and releases the waiting requests
+	 * @param response the response written
+	 */
+	void complete(HttpServletResponse response) {
+		try {
+			if (shareable) {
+				status = response.getStatus();
+				contentType = response.getContentType();
+				for (String name : response.getHeaderNames()) {
+					if ("Set-Cookie".equalsIgnoreCase(name)) {
+						unshare();
+						break;
+					}
+					if (!isSkipped(name)) {
+						for (String value : response.getHeaders(name)) {
+							headers.add(new String[] { name, value });
+						}
+					}
+				}
+			}
+		} finally {
+			completed.countDown();
+		}
+	}
+
+	/**
+	 * Releases the waiting requests without response, as the request failed
+	 */
+	void fail() {
+		if (completed.getCount() > 0) {
+			shareable = false;
+			completed.countDown();
+		}
+	}
+
+	/**
+	 * Waits for the response to complete
+	 * @param maxWaitMillis maximum wait, in milliseconds
+	 * @return <code>true</code> if the response completed and can be shared
+	 * @throws InterruptedException if the thread was interrupted while waiting
+	 */
+	boolean await(long maxWaitMillis) throws InterruptedException {
+		return completed.await(maxWaitMillis, TimeUnit.MILLISECONDS) && shareable;
+	}
+
+	/**
+	 * Writes the response again, to an identical request. To be called once {@link #await(long)}
+	 * returned <code>true</code>.
+	 * @param response http servlet response of the identical request
+	 * @throws IOException input output exception
+	 */
+	void replayTo(HttpServletResponse response) throws IOException {
+		for (String[] header : headers) {
+			response.addHeader(header[0], header[1]);
+		}
+		if (redirectLocation != null) {
+			response.sendRedirect(redirectLocation);
+			return;
+		}
+		if (errorStatus != 0) {
+			if (errorMessage != null) {
+				response.sendError(errorStatus, errorMessage);
+			} else {
+				response.sendError(errorStatus);
+			}
+			return;
+		}
+		response.setStatus(status);
+		if (contentType != null) {
+			response.setContentType(contentType);
+		}
+		response.setContentLength(body.size());
+		body.writeTo(response.getOutputStream());
+	}
+
+	/**
+	 * @param name a header name
+	 * @return whether the header is not replayed
+	 **/
+	private static boolean isSkipped(String name) {
+		for (String skipped : SKIPPED_HEADERS) {
+			if (skipped.equalsIgnoreCase(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,177 @@
+package com.francetelecom.csrtool.gui.coalescing;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Writes the response of a request to its client as usual, copying it into a
+ * {@link SharedResponse} for the identical requests arrived meanwhile.
+ * @class TeeResponseWrapper
+ * @extends HttpServletResponseWrapper
+ */
+final class TeeResponseWrapper extends HttpServletResponseWrapper {
+
+	/**	copy of the response **/
+	private final SharedResponse sharedResponse;
+
+	/**	stream given to the request, <code>null</code> if not asked **/
+	private ServletOutputStream outputStream;
+
+	/**	writer given to the request, <code>null</code> if not asked **/
+	private PrintWriter writer;
+
+	/**
+	 * Constructor
+	 * @param response http servlet response
+	 * @param sharedResponse copy of the response
+	 */
+	TeeResponseWrapper(HttpServletResponse response, SharedResponse sharedResponse) {
+		super(response);
+		this.sharedResponse = sharedResponse;
+	}
+
+	/**
+	 * @return the stream writing to the client and to the copy
+	 * @throws IOException input output exception
+	 **/
+	@Override
+	public ServletOutputStream getOutputStream() throws IOException {
+		if (writer != null) {
+			throw new IllegalStateException("getWriter() has already been called");
+		}
+		if (outputStream == null) {
+			final ServletOutputStream out = super.getOutputStream();
+			outputStream = new ServletOutputStream() {
+				@Override
+				public void write(int b) throws IOException {
+					out.write(b);
+					sharedResponse.copy(new byte[] { (byte) b }, 0, 1);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					out.write(b, off, len);
+					sharedResponse.copy(b, off, len);
+				}
+
+				@Override
+				public void flush() throws IOException {
+					out.flush();
+				}
+
+				@Override
+				public boolean isReady() {
+					return out.isReady();
+				}
+
+				@Override
+				public void setWriteListener(WriteListener writeListener) {
+					out.setWriteListener(writeListener);
+				}
+			};
+		}
+		return outputStream;
+	}
+
+	/**
+	 * @return the writer writing to the client and to the copy, in the character encoding of the
+	 * response
+	 * @throws IOException input output exception
+	 **/
+	@Override
+	public PrintWriter getWriter() throws IOException {
+		if (writer == null) {
+			if (outputStream != null) {
+				throw new IllegalStateException("getOutputStream() has already been called");
+			}
+			String characterEncoding = getCharacterEncoding();
+			writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), characterEncoding));
+		}
+		return writer;
+	}
+
+	/**
+	 * @param sc error status code
+	 * @throws IOException input output exception
+	 **/
+	@Override
+	public void sendError(int sc) throws IOException {
+		sharedResponse.error(sc, null);
+		super.sendError(sc);
+	}
+
+	/**
+	 * @param sc error status code
+	 * @param msg error message
+	 * @throws IOException input output exception
+	 **/
+	@Override
+	public void sendError(int sc, String msg) throws IOException {
+		sharedResponse.error(sc, msg);
+		super.sendError(sc, msg);
+	}
+
+	/**
+	 * @param location redirection location
+	 * @throws IOException input output exception
+	 **/
+	@Override
+	public void sendRedirect(String location) throws IOException {
+		sharedResponse.redirect(location);
+		super.sendRedirect(location);
+	}
+
+	/**
+	 * @param cookie cookie of the client, the response is then not shared
+	 **/
+	@Override
+	public void addCookie(Cookie cookie) {
+		sharedResponse.unshare();
+		super.addCookie(cookie);
+	}
+
+	/**
+	 * @throws IOException input output exception
+	 **/
+	@Override
+	public void flushBuffer() throws IOException {
+		if (writer != null) {
+			writer.flush();
+		}
+		super.flushBuffer();
+	}
+
+	/**
+	 * Clears the body not sent yet, and its copy
+	 **/
+	@Override
+	public void resetBuffer() {
+		super.resetBuffer();
+		sharedResponse.resetBody();
+	}
+
+	/**
+	 * Clears the body not sent yet, the status and the headers, and the copy of the body
+	 **/
+	@Override
+	public void reset() {
+		super.reset();
+		sharedResponse.resetBody();
+	}
+
+	/**
+	 * Flushes the writer given to the request, if any
+	 **/
+	void finish() {
+		if (writer != null) {
+			writer.flush();
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.francetelecom.csrtool.gui.concurrent;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An executor service running its tasks within the {@link RequestContext} of the thread that
+ * submitted them, so that the tasks see the current user and log with the user context.<br>
+ * The context is captured when a task is submitted. The tasks are run by the wrapped executor.
+ * @class ContextAwareExecutorService
+ * @Implements ExecutorService
+ */
+public class ContextAwareExecutorService extends AbstractExecutorService {
+
+	/**	wrapped executor **/
+	private final ExecutorService delegate;
+
+	/**
+	 * Constructor
+	 * @param delegate wrapped executor
+	 */
+	public ContextAwareExecutorService(ExecutorService delegate) {
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Runs a task within the context of the calling thread
+	 * @param command the task
+	 */
+	public void execute(Runnable command) {
+		delegate.execute(RequestContext.capture().wrap(command));
+	}
+
+	/**
+	 * Shuts down the wrapped executor
+	 */
+	public void shutdown() {
+		delegate.shutdown();
+	}
+
+	/**
+	 * Shuts down the wrapped executor, interrupting the running tasks
+	 * @return the tasks never run
+	 */
+	public List<Runnable> shutdownNow() {
+		return delegate.shutdownNow();
+	}
+
+	/**
+	 * @return <code>true</code> if the wrapped executor is shut down
+	 **/
+	public boolean isShutdown() {
+		return delegate.isShutdown();
+	}
+
+	/**
+	 * @return <code>true</code> if the wrapped executor is terminated
+	 **/
+	public boolean isTerminated() {
+		return delegate.isTerminated();
+	}
+
+	/**
+	 * Waits for the termination of the wrapped executor
+	 * @param timeout maximum time to wait
+	 * @param unit unit of the timeout
+	 * @return <code>true</code> if the executor terminated in time
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return delegate.awaitTermination(timeout, unit);
+	}
+}
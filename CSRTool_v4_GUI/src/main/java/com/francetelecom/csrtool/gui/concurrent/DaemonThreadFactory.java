@@ -0,0 +1,51 @@
+package com.francetelecom.csrtool.gui.concurrent;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread factory making named daemon threads, so that the background work of the application
+ * never prevents the container from stopping.
+ * @class DaemonThreadFactory
+ * @implements ThreadFactory
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+	/**	thread name prefix **/
+	private final String prefix;
+
+	/**	thread counter **/
+	private final AtomicInteger count = new AtomicInteger();
+
+	/**	priority of the threads **/
+	private final int priority;
+
+	/**
+	 * Constructor
+	 * @param prefix thread name prefix
+	 */
+	public DaemonThreadFactory(String prefix) {
+		this(prefix, Thread.NORM_PRIORITY);
+	}
+
+	/**
+	 * Constructor
+	 * @param prefix thread name prefix
+	 * @param priority priority of the threads
+	 */
+	public DaemonThreadFactory(String prefix, int priority) {
+		this.prefix = prefix;
+		this.priority = priority;
+	}
+
+	/**
+	 * @param runnable task to run
+	 * @return a new daemon thread
+	 **/
+	public Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+		thread.setDaemon(true);
+		thread.setPriority(priority);
+		return thread;
+	}
+}
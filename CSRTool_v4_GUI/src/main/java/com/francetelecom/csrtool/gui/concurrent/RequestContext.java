@@ -0,0 +1,139 @@
+package com.francetelecom.csrtool.gui.concurrent;
+
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.apache.log4j.MDC;
+
+import com.francetelecom.csrtool.gui.deadline.RequestDeadline;
+import com.francetelecom.csrtool.model.profiles.CSRUser;
+
+/**
+ * A snapshot of the thread bound context of a request: the current {@link CSRUser}, the log4j
+ * {@link MDC} and the {@link RequestDeadline}.<br>
+ * A snapshot is captured on the request thread and attached to the thread running a task on its
+ * behalf. Detaching restores the context the thread had before, so that a pooled thread never
+ * keeps the user of a task once it is done. Only thread locals are involved, nothing relies on
+ * thread inheritance, so the same applies to pooled, newly created or virtual threads.
+ * @class RequestContext
+ */
+public final class RequestContext {
+
+	/**	current user **/
+	private final CSRUser user;
+
+	/**	copy of the log context, <code>null</code> if empty **/
+	private final Map<String, Object> logContext;
+
+	/**	deadline of the request, <code>null</code> if none **/
+	private final RequestDeadline deadline;
+
+	/**
+	 * Constructor
+	 * @param user current user
+	 * @param logContext copy of the log context
+	 * @param deadline deadline of the request
+	 */
+	private RequestContext(CSRUser user, Map<String, Object> logContext, RequestDeadline deadline) {
+		this.user = user;
+		this.logContext = logContext;
+		this.deadline = deadline;
+	}
+
+	/**
+	 * Captures the context of the current thread
+	 * @return the snapshot of the context
+	 */
+	@SuppressWarnings("unchecked")
+	public static RequestContext capture() {
+		Hashtable<String, Object> mdc = MDC.getContext();
+		Map<String, Object> logContext = null;
+		if (mdc != null && !mdc.isEmpty()) {
+			logContext = new HashMap<String, Object>(mdc);
+		}
+		return new RequestContext(CSRUser.getCurrentCSR(), logContext, RequestDeadline.current());
+	}
+
+	/**
+	 * Attaches this context to the current thread
+	 * @return the context the thread had before, to give back to {@link #detach(RequestContext)}
+	 */
+	public RequestContext attach() {
+		RequestContext previous = capture();
+		apply(this);
+		return previous;
+	}
+
+	/**
+	 * Restores the context a thread had before {@link #attach()}
+	 * @param previous context returned by {@link #attach()}
+	 */
+	public static void detach(RequestContext previous) {
+		apply(previous);
+	}
+
+	/**
+	 * Sets a context as the context of the current thread
+	 * @param context the context
+	 */
+	private static void apply(RequestContext context) {
+		if (context.user != null) {
+			CSRUser.setCurrentCSR(context.user);
+		} else {
+			CSRUser.removeCurrentCSR();
+		}
+		MDC.clear();
+		if (context.logContext != null) {
+			for (Map.Entry<String, Object> entry : context.logContext.entrySet()) {
+				MDC.put(entry.getKey(), entry.getValue());
+			}
+		}
+		RequestDeadline.set(context.deadline);
+	}
+
+	/**
+	 * Wraps a task so that it runs within this context
+	 * @param task the task
+	 * @return the wrapped task
+	 */
+	public Runnable wrap(final Runnable task) {
+		return new Runnable() {
+			public void run() {
+				RequestContext previous = attach();
+				try {
+					task.run();
+				} finally {
+					detach(previous);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Wraps a task so that it runs within this context
+	 * @param task the task
+	 * @param <T> type of the result of the task
+	 * @return the wrapped task
+	 */
+	public <T> Callable<T> wrap(final Callable<T> task) {
+		return new Callable<T>() {
+			public T call() throws Exception {
+				RequestContext previous = attach();
+				try {
+					return task.call();
+				} finally {
+					detach(previous);
+				}
+			}
+		};
+	}
+
+	/**
+	 * @return the user of this context, may be <code>null</code>
+	 **/
+	public CSRUser getUser() {
+		return user;
+	}
+}
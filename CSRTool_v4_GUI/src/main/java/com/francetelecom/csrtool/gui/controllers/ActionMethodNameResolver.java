@@ -0,0 +1,30 @@
+package com.francetelecom.csrtool.gui.controllers;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.web.servlet.mvc.multiaction.InternalPathMethodNameResolver;
+import org.springframework.web.servlet.mvc.multiaction.MethodNameResolver;
+import org.springframework.web.servlet.mvc.multiaction.NoSuchRequestHandlingMethodException;
+
+/**
+ * Resolves the action of a request from the route found by the {@link RouteTableHandlerMapping}.
+ * The requests not routed by the table are resolved from the last element of their path, as by
+ * default for a <code>MultiActionController</code>.
+ * @class ActionMethodNameResolver
+ * @Implements MethodNameResolver
+ */
+public class ActionMethodNameResolver implements MethodNameResolver {
+
+	/**	resolver of the requests not routed by the table **/
+	private final MethodNameResolver pathResolver = new InternalPathMethodNameResolver();
+
+	/**
+	 * @param request http servlet request
+	 * @return the name of the action
+	 * @throws NoSuchRequestHandlingMethodException if no action matches the request
+	 **/
+	public String getHandlerMethodName(HttpServletRequest request) throws NoSuchRequestHandlingMethodException {
+		String action = (String) request.getAttribute(RouteTableHandlerMapping.ACTION_ATTRIBUTE);
+		return action != null ? action : pathResolver.getHandlerMethodName(request);
+	}
+}
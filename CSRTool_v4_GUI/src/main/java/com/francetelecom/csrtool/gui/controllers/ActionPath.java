@@ -0,0 +1,22 @@
+package com.francetelecom.csrtool.gui.controllers;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares additional paths of an action of a {@link BaseActionController}, relative to the
+ * dispatcher servlet. Every action is already routed on <code>/&lt;controller&gt;/&lt;action&gt;</code>,
+ * the controller being the lower case class name without the <code>Controller</code> suffix.
+ **/
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ActionPath {
+	/**
+	 * @return the additional paths of the action, starting with a slash
+	 **/
+	String[] value();
+}
@@ -1,10 +1,203 @@
 package com.francetelecom.csrtool.gui.controllers;
 
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.apache.log4j.Logger;
+import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.mvc.multiaction.MultiActionController;
 
+import com.francetelecom.csrtool.gui.authent.PermissionSet;
+import com.francetelecom.csrtool.gui.metrics.ActionMetrics;
+import com.francetelecom.csrtool.gui.metrics.ActionMetricsRegistry;
+import com.francetelecom.csrtool.gui.networkaccess.CustomerChangeRegistry;
+import com.francetelecom.csrtool.gui.prefetch.SpeculativePrefetcher;
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+import com.francetelecom.csrtool.model.profiles.CSRUser;
+import com.francetelecom.csrtool.utils.CSRToolUtil;
+
 public class BaseActionController extends MultiActionController{
 
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(BaseActionController.class);
+
+	/**	action name of the metrics of the requests that do not match any action **/
+	private static final String UNKNOWN_ACTION = "unknown";
+
+	/**	permissions required per action, built once from the {@link RequiresPermissions} annotations **/
+	private final Map<String, PermissionSet> requiredPermissions;
+
+	/**	names of the actions of the controller **/
+	private final Set<String> actions;
+
+	/**	names of the actions modifying a customer, from the {@link ModifiesCustomer} annotations **/
+	private final Set<String> customerModifyingActions;
+
+	/**	controller name used in the metrics **/
+	private final String controllerName = getClass().getSimpleName();
+
+	/**
+	 * Constructor
+	 */
+	public BaseActionController() {
+		Map<String, PermissionSet> permissions = new HashMap<String, PermissionSet>();
+		Set<String> actionNames = new HashSet<String>();
+		Set<String> modifyingActionNames = new HashSet<String>();
+		for (Method method : getClass().getMethods()) {
+			if (!BaseActionController.class.isAssignableFrom(method.getDeclaringClass())) {
+				// declared by Spring, such as handleRequest, not an action
+				continue;
+			}
+			Class<?>[] parameterTypes = method.getParameterTypes();
+			if (parameterTypes.length == 2 && parameterTypes[0] == HttpServletRequest.class && parameterTypes[1] == HttpServletResponse.class) {
+				actionNames.add(method.getName());
+			}
+			RequiresPermissions annotation = method.getAnnotation(RequiresPermissions.class);
+			if (CSRToolUtil.isNotNull(annotation)) {
+				permissions.put(method.getName(), PermissionSet.of(annotation.value()));
+			}
+			if (method.isAnnotationPresent(ModifiesCustomer.class)) {
+				modifyingActionNames.add(method.getName());
+			}
+		}
+		requiredPermissions = permissions;
+		actions = Collections.unmodifiableSet(actionNames);
+		customerModifyingActions = modifyingActionNames;
+		setMethodNameResolver(new ActionMethodNameResolver());
+	}
+
 	public void logs() {
 
 	}
+
+	/**
+	 * Invokes the action, recording its metrics in the {@link ActionMetricsRegistry}. A call fails
+	 * when the action throws an exception or answers a server error status.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @return the model and view of the action
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@Override
+	protected ModelAndView handleRequestInternal(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		String action = getMethodNameResolver().getHandlerMethodName(request);
+		CSRUser currentUser = CSRUser.getCurrentCSR();
+		ActionMetrics metrics = ActionMetricsRegistry.getInstance().get(controllerName,
+				actions.contains(action) ? action : UNKNOWN_ACTION, currentUser != null ? currentUser.getMco() : null);
+
+		metrics.start();
+		long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			ModelAndView modelAndView = invokeAction(action, request, response);
+			failed = response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+			if (response.getStatus() < HttpServletResponse.SC_BAD_REQUEST && actions.contains(action)) {
+				if (customerModifyingActions.contains(action)) {
+					notifyCustomerChanged(action, request, currentUser);
+				}
+				prefetchNext(action, request);
+			}
+			return modelAndView;
+		} finally {
+			metrics.stop(System.nanoTime() - start, failed);
+		}
+	}
+
+	/**
+	 * Notifies the {@link CustomerChangeRegistry} that an action modified the customer of the request,
+	 * so that the data cached for it is not served anymore. Called before the prefetching, which then
+	 * reloads the customer.
+	 * @param action action name
+	 * @param request http servlet request
+	 * @param currentUser current user, whose MCO is the one of the customer
+	 */
+	private void notifyCustomerChanged(String action, HttpServletRequest request, CSRUser currentUser) {
+		String customerId = request.getParameter(SpeculativePrefetcher.CUSTOMER_PARAMETER);
+		if (CSRToolUtil.isNull(currentUser) || CSRToolUtil.isNull(customerId) || customerId.isEmpty()) {
+			return;
+		}
+		CustomerChangeRegistry.getInstance().customerChanged(currentUser.getMco(), customerId);
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug(FuncLogging.getLogFormatedMessage(controllerName,action,
+					String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,"customer " + customerId + " modified"));
+		}
+	}
+
+	/**
+	 * Lets the {@link SpeculativePrefetcher} learn from a customer-scoped action served and prefetch
+	 * the bricks likely to follow. A failure of the prefetching does not fail the action.
+	 * @param action action name
+	 * @param request http servlet request
+	 */
+	private void prefetchNext(String action, HttpServletRequest request) {
+		String[] customerIds = request.getParameterValues(SpeculativePrefetcher.CUSTOMER_PARAMETER);
+		if (customerIds == null || customerIds.length != 1 || customerIds[0].isEmpty()) {
+			return;
+		}
+		try {
+			SpeculativePrefetcher.getInstance().onRequest(request, action, customerIds[0]);
+		} catch (RuntimeException e) {
+			LOGGER.warn(FuncLogging.getLogFormatedMessage(controllerName,action,
+					FuncLogging.REQUEST_STATUS_FAILED, null,"speculative prefetch failed: " + e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * Rejects the request before the action is invoked if the current user does not hold the
+	 * permissions required by the action
+	 * @param action action name
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @return the model and view of the action
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	private ModelAndView invokeAction(String action, HttpServletRequest request, HttpServletResponse response) throws Exception {
+		if (!requiredPermissions.isEmpty()) {
+			PermissionSet required = requiredPermissions.get(action);
+			if (CSRToolUtil.isNotNull(required) && !getPermissions(request).containsAll(required)) {
+				if (LOGGER.isInfoEnabled()) {
+					CSRUser currentUser = CSRUser.getCurrentCSR();
+					LOGGER.info(FuncLogging.getLogFormatedMessage(getClass().getSimpleName(),action,
+							FuncLogging.REQUEST_STATUS_FAILED, null,"permission denied for user : " + (currentUser != null ? currentUser.getLogin() : null)));
+				}
+				response.sendError(HttpServletResponse.SC_FORBIDDEN);
+				return null;
+			}
+		}
+		return super.handleRequestInternal(request, response);
+	}
+
+	/**
+	 * Gets the permissions of the current user, compiled at login. They are compiled now for the
+	 * sessions opened before the permissions were kept in the session.
+	 * @param request http servlet request
+	 * @return the permissions of the current user
+	 */
+	protected PermissionSet getPermissions(HttpServletRequest request) {
+		HttpSession session = request.getSession(false);
+		if (CSRToolUtil.isNull(session)) {
+			return PermissionSet.compile(CSRUser.getCurrentCSR());
+		}
+		PermissionSet permissions = (PermissionSet) session.getAttribute(PermissionSet.SESSION_ATTRIBUTE);
+		if (CSRToolUtil.isNull(permissions)) {
+			permissions = PermissionSet.compile(CSRUser.getCurrentCSR());
+			session.setAttribute(PermissionSet.SESSION_ATTRIBUTE, permissions);
+		}
+		return permissions;
+	}
+
+	/**
+	 * @return the names of the actions of the controller
+	 **/
+	Set<String> getActions() {
+		return actions;
+	}
 }
@@ -0,0 +1,19 @@
+package com.francetelecom.csrtool.gui.controllers;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that an action of a {@link BaseActionController} modifies the customer named by its
+ * <code>customerId</code> parameter. Once the action succeeded, the controller notifies the
+ * {@link com.francetelecom.csrtool.gui.networkaccess.CustomerChangeRegistry} so that the data
+ * cached for the customer is dropped.
+ **/
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ModifiesCustomer {
+}
@@ -0,0 +1,263 @@
+package com.francetelecom.csrtool.gui.controllers;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.francetelecom.csrtool.gui.admission.AdmissionController;
+import com.francetelecom.csrtool.gui.authent.PermissionSet;
+import com.francetelecom.csrtool.gui.authent.capture.GassiCapture;
+import com.francetelecom.csrtool.gui.coalescing.RequestCoalescer;
+import com.francetelecom.csrtool.gui.deadline.DeadlineRegistry;
+import com.francetelecom.csrtool.gui.json.JsonResponseWriter;
+import com.francetelecom.csrtool.gui.pagecache.PageCache;
+import com.francetelecom.csrtool.gui.prefetch.SpeculativePrefetcher;
+import com.francetelecom.csrtool.gui.profiles.ProfilePrefetcher;
+import com.francetelecom.csrtool.gui.profiles.catalogue.RoleCatalogueRegistry;
+import com.francetelecom.csrtool.gui.profiles.store.ProfilesStoreRegistry;
+import com.francetelecom.csrtool.gui.session.SessionStore;
+import com.francetelecom.csrtool.gui.watchdog.InFlightRegistry;
+import com.francetelecom.csrtool.gui.watchdog.SlowRequestWatchdog;
+import com.francetelecom.csrtool.gui.ws.BackendGuardRegistry;
+import com.francetelecom.csrtool.gui.ws.HedgerRegistry;
+import com.francetelecom.csrtool.utils.CSRToolUtil;
+
+
+@RestController
+public class MonitoringController extends BaseActionController {
+
+	/**	request parameter holding the MCO of the pages to invalidate **/
+	private static final String PARAM_MCO = "mco";
+
+	/**	request parameter holding the role of the pages to invalidate **/
+	private static final String PARAM_ROLE = "role";
+
+	/**	JSON serializer **/
+	private JsonResponseWriter jsonResponseWriter = new JsonResponseWriter();
+
+	/**
+	 * Serves the state of the bulkheads and circuit breakers of the web service backends to the
+	 * administrators.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_READ)
+	public void BackendStats(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		jsonResponseWriter.stream(response, BackendGuardRegistry.getInstance().getStats());
+	}
+
+	/**
+	 * Serves the statistics of the profile prefetches to the administrators: connections
+	 * predicted, profiles prefetched and ratio of the connections served by a prefetched profile.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_READ)
+	public void ProfilePrefetchStats(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		jsonResponseWriter.stream(response, ProfilePrefetcher.getInstance().getStats());
+	}
+
+	/**
+	 * Serves the state of the admission control to the administrators: concurrency limit,
+	 * requests in progress and waiting, requests rejected.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_READ)
+	public void AdmissionStats(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		jsonResponseWriter.stream(response, AdmissionController.getInstance().getStats());
+	}
+
+	/**
+	 * Serves the requests in progress on this node to the administrators: thread, URI, user, start
+	 * time and current stage.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_READ)
+	public void InFlightRequests(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		jsonResponseWriter.stream(response, InFlightRegistry.getInstance().getAll());
+	}
+
+	/**
+	 * Serves the last stack samples of the slow requests to the administrators, the newest first.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_READ)
+	public void SlowRequests(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		jsonResponseWriter.stream(response, SlowRequestWatchdog.getInstance().getSamples());
+	}
+
+	/**
+	 * Serves the latency of the profiles store operations and the state of its connection pool to
+	 * the administrators.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_READ)
+	public void ProfilesStoreStats(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		jsonResponseWriter.stream(response, ProfilesStoreRegistry.getInstance().getStats());
+	}
+
+	/**
+	 * Serves the state of the store of the session users restored after a restart to the
+	 * administrators.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_READ)
+	public void SessionStoreStats(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		jsonResponseWriter.stream(response, SessionStore.getInstance().getStats());
+	}
+
+	/**
+	 * Serves the statistics of the speculative prefetch of the bricks to the administrators.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_READ)
+	public void SpeculativePrefetchStats(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		jsonResponseWriter.stream(response, SpeculativePrefetcher.getInstance().getStats());
+	}
+
+	/**
+	 * Serves the statistics of the coalescing of the identical requests of the sessions to the
+	 * administrators.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_READ)
+	public void CoalescingStats(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		jsonResponseWriter.stream(response, RequestCoalescer.getInstance().getStats());
+	}
+
+	/**
+	 * Serves the statistics of the hedged calls of each backend to the administrators.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_READ)
+	public void HedgingStats(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		jsonResponseWriter.stream(response, HedgerRegistry.getInstance().getStats());
+	}
+
+	/**
+	 * Serves the counts of the request deadlines exceeded per stage to the administrators.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_READ)
+	public void DeadlineStats(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		jsonResponseWriter.stream(response, DeadlineRegistry.getInstance().getStats());
+	}
+
+	/**
+	 * Serves the statistics of the cache of the rendered pages to the administrators.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_READ)
+	public void PageCacheStats(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		jsonResponseWriter.stream(response, PageCache.getInstance().getStats());
+	}
+
+	/**
+	 * Serves the statistics of the role catalogue to the administrators.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_READ)
+	public void RoleCatalogueStats(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		jsonResponseWriter.stream(response, RoleCatalogueRegistry.getInstance().getStats());
+	}
+
+	/**
+	 * Invalidates the rendered pages of a role (<code>mco</code> and <code>role</code>), of a MCO
+	 * (<code>mco</code>) or all of them, for the administrators allowed to write, and serves the statistics of the
+	 * cache. To be called when roles are changed outside the administration pages.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_WRITE)
+	public void InvalidatePageCache(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		String mco = StringUtils.trimToNull(request.getParameter(PARAM_MCO));
+		String role = StringUtils.trimToNull(request.getParameter(PARAM_ROLE));
+		PageCache pageCache = PageCache.getInstance();
+		if (CSRToolUtil.isNotNull(role)) {
+			pageCache.invalidateRole(mco, role);
+		} else if (CSRToolUtil.isNotNull(mco)) {
+			pageCache.invalidateMco(mco);
+		} else {
+			pageCache.invalidateAll();
+		}
+		jsonResponseWriter.stream(response, pageCache.getStats());
+	}
+
+	/**
+	 * Serves the statistics of the capture of the GASSI traffic to the administrators.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_READ)
+	public void GassiCaptureStats(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		jsonResponseWriter.stream(response, GassiCapture.getInstance().getStats());
+	}
+
+	/**
+	 * Starts a capture of the GASSI traffic in a new trace of the configured directory, for the
+	 * administrators of the highest level, and serves the statistics of the capture.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_ALL)
+	public void StartGassiCapture(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		GassiCapture gassiCapture = GassiCapture.getInstance();
+		gassiCapture.start();
+		jsonResponseWriter.stream(response, gassiCapture.getStats());
+	}
+
+	/**
+	 * Stops the capture of the GASSI traffic in progress, for the administrators of the highest
+	 * level, and serves the statistics of the capture.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_ALL)
+	public void StopGassiCapture(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		GassiCapture gassiCapture = GassiCapture.getInstance();
+		gassiCapture.stop();
+		jsonResponseWriter.stream(response, gassiCapture.getStats());
+	}
+
+	/*----------------------------
+	  Getters & Setters
+	  ----------------------------*/
+	/**
+	 * @param jsonResponseWriter JSON serializer
+	 **/
+	@Autowired(required = false)
+	public void setJsonResponseWriter(JsonResponseWriter jsonResponseWriter) {
+		this.jsonResponseWriter = jsonResponseWriter;
+	}
+}
@@ -1,16 +1,485 @@
 package com.francetelecom.csrtool.gui.controllers;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.francetelecom.csrtool.gui.authent.PermissionSet;
+import com.francetelecom.csrtool.gui.cache.CacheException;
+import com.francetelecom.csrtool.gui.cache.CacheStats;
+import com.francetelecom.csrtool.gui.cache.CachedResponse;
+import com.francetelecom.csrtool.gui.cache.ICacheLoader;
+import com.francetelecom.csrtool.gui.cache.RefreshingCache;
+import com.francetelecom.csrtool.gui.concurrent.ContextAwareExecutorService;
+import com.francetelecom.csrtool.gui.concurrent.DaemonThreadFactory;
+import com.francetelecom.csrtool.gui.json.JsonResponseWriter;
+import com.francetelecom.csrtool.gui.networkaccess.CustomerBatchLookup;
+import com.francetelecom.csrtool.gui.networkaccess.CustomerIdIndexer;
+import com.francetelecom.csrtool.gui.networkaccess.CustomerIdentifier;
+import com.francetelecom.csrtool.gui.networkaccess.CustomerKey;
+import com.francetelecom.csrtool.gui.networkaccess.CustomerChangeRegistry;
+import com.francetelecom.csrtool.gui.networkaccess.CustomerResult;
+import com.francetelecom.csrtool.gui.networkaccess.ICustomerChangeListener;
+import com.francetelecom.csrtool.gui.networkaccess.ICustomerIdentifierExport;
+import com.francetelecom.csrtool.gui.networkaccess.ICustomerResultHandler;
+import com.francetelecom.csrtool.gui.networkaccess.INetworkAccessService;
+import com.francetelecom.csrtool.gui.networkaccess.NetworkAccessCustomerInfo;
+import com.francetelecom.csrtool.gui.prefetch.IBrickLoader;
+import com.francetelecom.csrtool.gui.prefetch.SpeculativePrefetcher;
+import com.francetelecom.csrtool.gui.ws.BackendUnavailableException;
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+import com.francetelecom.csrtool.model.profiles.CSRUser;
+import com.francetelecom.csrtool.utils.CSRToolUtil;
+
 
 @RestController
-public class NetworkAccessController extends BaseActionController{
+public class NetworkAccessController extends BaseActionController implements DisposableBean {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(NetworkAccessController.class);
+
+	/**	default time to live of the general data, in milliseconds **/
+	private static final long DEFAULT_GENERAL_TTL = 30000L;
+
+	/**	default time during which stale general data may be served while refreshed, in milliseconds **/
+	private static final long DEFAULT_GENERAL_STALE_WHILE_REVALIDATE = 60000L;
+
+	/**	default time to live of the customer data, in milliseconds **/
+	private static final long DEFAULT_CUSTOMER_TTL = 15000L;
+
+	/**	default maximum number of customers cached **/
+	private static final int DEFAULT_CUSTOMER_MAX_SIZE = 10000;
+
+	/**	request parameter holding the MCO name of a customer, for the administrators **/
+	private static final String PARAM_MCO = "mco";
+
+	/**	request parameter holding the customer identifier **/
+	private static final String PARAM_CUSTOMER_ID = "customerId";
+
+	/**	request parameter asking for a streamed, uncached, response **/
+	private static final String PARAM_STREAM = "stream";
+
+	/**	request parameter holding the beginning of a customer identifier typed by the agent **/
+	private static final String PARAM_PREFIX = "prefix";
+
+	/**	action name of the customer data, prefetched when likely to be requested next **/
+	private static final String ACTION_CUSTOMER = "NetworkAccessCustomer";
+
+	/**	maximum number of customer identifiers returned for a prefix **/
+	private static final int MAX_PREFIX_MATCHES = 20;
+
+	/**	maximum number of identifiers read per page of the export of the customer identifiers **/
+	private static final int CUSTOMER_ID_PAGE_SIZE = 5000;
+
+	/**	delay between two refreshes of the customer identifiers, in milliseconds **/
+	private static final long CUSTOMER_ID_REFRESH = 300000L;
+
+	/**	default maximum number of customers in a batch request **/
+	private static final int DEFAULT_BATCH_MAX_CUSTOMERS = 500;
+
+	/**	default maximum number of backend calls in parallel for a batch request **/
+	private static final int DEFAULT_BATCH_PARALLELISM = 4;
+
+	/**	default maximum duration of a batch request, in milliseconds **/
+	private static final long DEFAULT_BATCH_TIMEOUT = 30000L;
+
+	/**	number of threads making the backend calls of the batch requests **/
+	private static final int BATCH_THREADS = 16;
+
+	/**	JSON serializer **/
+	private JsonResponseWriter jsonResponseWriter = new JsonResponseWriter();
+
+	/**	backend services **/
+	private INetworkAccessService networkAccessService;
+
+	/**	index of the customer identifiers, <code>null</code> without export **/
+	private CustomerIdIndexer customerIdIndexer;
+
+	/**	executor of the backend calls of the batch requests, run with the user of the request **/
+	private final ExecutorService batchExecutor = new ContextAwareExecutorService(
+			Executors.newFixedThreadPool(BATCH_THREADS, new DaemonThreadFactory("NetworkAccessBatch")));
+
+	/**	maximum number of customers in a batch request **/
+	private int batchMaxCustomers = DEFAULT_BATCH_MAX_CUSTOMERS;
+
+	/**	maximum number of backend calls in parallel for a batch request **/
+	private int batchParallelism = DEFAULT_BATCH_PARALLELISM;
+
+	/**	maximum duration of a batch request, in milliseconds **/
+	private long batchTimeout = DEFAULT_BATCH_TIMEOUT;
+
+	/**	general data serialized per MCO **/
+	private final RefreshingCache<String, CachedResponse> generalCache = new RefreshingCache<String, CachedResponse>(
+			"NetworkAccessGeneral", new ICacheLoader<String, CachedResponse>() {
+				public CachedResponse load(String mco) throws Exception {
+					return new CachedResponse(jsonResponseWriter.toBytes(networkAccessService.getGeneralInfo(mco)),
+							JsonResponseWriter.CONTENT_TYPE_JSON, System.currentTimeMillis());
+				}
+			}, DEFAULT_GENERAL_TTL, DEFAULT_GENERAL_STALE_WHILE_REVALIDATE);
+
+	/**	customer data serialized per MCO and customer **/
+	private final RefreshingCache<CustomerKey, CachedResponse> customerCache = new RefreshingCache<CustomerKey, CachedResponse>(
+			"NetworkAccessCustomer", new ICacheLoader<CustomerKey, CachedResponse>() {
+				public CachedResponse load(CustomerKey key) throws Exception {
+					return new CachedResponse(jsonResponseWriter.toBytes(networkAccessService.getCustomerInfo(key.getMco(), key.getCustomerId())),
+							JsonResponseWriter.CONTENT_TYPE_JSON, System.currentTimeMillis());
+				}
+			}, DEFAULT_CUSTOMER_TTL, 0L);
+
+	/**	drops the cached data of the customers modified **/
+	private final ICustomerChangeListener customerChangeListener = new ICustomerChangeListener() {
+		public void customerChanged(String mco, String customerId) {
+			customerCache.invalidate(new CustomerKey(mco, customerId));
+		}
+	};
+
+	/**
+	 * Constructor
+	 */
+	public NetworkAccessController() {
+		customerCache.setMaxSize(DEFAULT_CUSTOMER_MAX_SIZE);
+		/* prefetched through the cache, so that the other agents of the customer benefit too */
+		SpeculativePrefetcher.getInstance().register(ACTION_CUSTOMER, new IBrickLoader() {
+			public Object load(String mco, String customerId) throws Exception {
+				return customerCache.get(new CustomerKey(mco, customerId));
+			}
+		});
+		CustomerChangeRegistry.getInstance().register(customerChangeListener);
+	}
+
+	/**
+	 * Serves the network access data shared by all the agents of the MCO of the current user.
+	 * The data is cached per MCO and revalidated by the browsers using ETag and Last-Modified.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	public void NetworkAccessGeneral(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		CSRUser currentUser = CSRUser.getCurrentCSR();
+		if (CSRToolUtil.isNull(currentUser) || CSRToolUtil.isNull(currentUser.getMco())) {
+			/* admin_allmco users have no MCO to serve the data of */
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return;
+		}
+		if (CSRToolUtil.isNull(networkAccessService)) {
+			response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			return;
+		}
+
+		try {
+			generalCache.get(currentUser.getMco()).writeTo(request, response);
+		} catch (CacheException e) {
+			sendBackendError(response, "NetworkAccessGeneral", e.getCause());
+		}
+	}
 
-	public void NetworkAccessGeneral() {
+	/**
+	 * Serves the network access data of a customer of the MCO of the current user.
+	 * The data is cached for a short time per MCO and customer, unless the request asks for a
+	 * streamed response (<code>stream=true</code>), used for the large results such as long line
+	 * histories: the data is then read from the backend and written incrementally, chunked.<br>
+	 * Given a <code>prefix</code> instead of a customer, serves the customer identifiers starting
+	 * with it, from the index of the MCO: used as the agent types.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	public void NetworkAccessCustomer(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		CSRUser currentUser = CSRUser.getCurrentCSR();
+		if (CSRToolUtil.isNull(currentUser) || CSRToolUtil.isNull(currentUser.getMco())) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return;
+		}
+		String prefix = StringUtils.trimToNull(request.getParameter(PARAM_PREFIX));
+		if (CSRToolUtil.isNotNull(prefix)) {
+			findCustomerIdentifiers(response, currentUser.getMco(), prefix);
+			return;
+		}
+		String customerId = StringUtils.trimToNull(request.getParameter(PARAM_CUSTOMER_ID));
+		if (CSRToolUtil.isNull(customerId)) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, "missing parameter: " + PARAM_CUSTOMER_ID);
+			return;
+		}
+		if (CSRToolUtil.isNull(networkAccessService)) {
+			response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			return;
+		}
+
+		if (Boolean.parseBoolean(request.getParameter(PARAM_STREAM))) {
+			NetworkAccessCustomerInfo customerInfo;
+			try {
+				customerInfo = networkAccessService.getCustomerInfo(currentUser.getMco(), customerId);
+			} catch (Exception e) {
+				sendBackendError(response, "NetworkAccessCustomer", e);
+				return;
+			}
+			jsonResponseWriter.stream(response, customerInfo);
+			return;
+		}
+
+		CustomerKey key = new CustomerKey(currentUser.getMco(), customerId);
+		Object prefetched = SpeculativePrefetcher.getInstance().take(request, ACTION_CUSTOMER, customerId);
+		/* the prefetched copy is served only while the cache still holds it: not invalidated nor expired since */
+		if (prefetched instanceof CachedResponse && customerCache.isCurrent(key, (CachedResponse) prefetched)) {
+			((CachedResponse) prefetched).writeTo(request, response);
+			return;
+		}
+		try {
+			customerCache.get(key).writeTo(request, response);
+		} catch (CacheException e) {
+			sendBackendError(response, "NetworkAccessCustomer", e.getCause());
+		}
+	}
+
+	/**
+	 * Answers the customer identifiers of a MCO starting with a prefix, 503 while the index of
+	 * the MCO is loading
+	 * @param response http servlet response
+	 * @param mco MCO name
+	 * @param prefix the prefix
+	 * @throws IOException input output exception
+	 */
+	private void findCustomerIdentifiers(HttpServletResponse response, String mco, String prefix) throws IOException {
+		if (CSRToolUtil.isNull(customerIdIndexer)) {
+			response.sendError(HttpServletResponse.SC_NOT_IMPLEMENTED);
+			return;
+		}
+		List<CustomerIdentifier> identifiers = customerIdIndexer.find(mco, prefix, MAX_PREFIX_MATCHES);
+		if (CSRToolUtil.isNull(identifiers)) {
+			response.setHeader("Retry-After", "1");
+			response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			return;
+		}
+		jsonResponseWriter.stream(response, identifiers);
+	}
+
+	/**
+	 * Serves the network access data of many customers of the MCO of the current user, given as
+	 * repeated <code>customerId</code> parameters. The customers are looked up with batched and
+	 * parallel backend calls, and the response is a JSON array streamed as each customer
+	 * completes.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	public void NetworkAccessCustomers(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		CSRUser currentUser = CSRUser.getCurrentCSR();
+		if (CSRToolUtil.isNull(currentUser) || CSRToolUtil.isNull(currentUser.getMco())) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return;
+		}
+		String[] values = request.getParameterValues(PARAM_CUSTOMER_ID);
+		Set<String> customerIds = new LinkedHashSet<String>();
+		if (CSRToolUtil.isNotNull(values)) {
+			for (String value : values) {
+				String customerId = StringUtils.trimToNull(value);
+				if (CSRToolUtil.isNotNull(customerId)) {
+					customerIds.add(customerId);
+				}
+			}
+		}
+		if (customerIds.isEmpty()) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, "missing parameter: " + PARAM_CUSTOMER_ID);
+			return;
+		}
+		if (customerIds.size() > batchMaxCustomers) {
+			response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "too many customers, maximum is " + batchMaxCustomers);
+			return;
+		}
+		if (CSRToolUtil.isNull(networkAccessService)) {
+			response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			return;
+		}
+
+		final SequenceWriter results = jsonResponseWriter.streamArray(response, CustomerResult.class);
+		try {
+			CustomerBatchLookup batchLookup = new CustomerBatchLookup(networkAccessService, batchExecutor, batchParallelism, batchTimeout);
+			batchLookup.lookup(currentUser.getMco(), new ArrayList<String>(customerIds), new ICustomerResultHandler() {
+				public void onResult(CustomerResult result) throws IOException {
+					results.write(result);
+					results.flush();
+				}
+			});
+		} finally {
+			results.close();
+		}
+	}
+
+	/**
+	 * Serves the statistics of the network access caches to the administrators.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_READ)
+	public void NetworkAccessCacheStats(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		jsonResponseWriter.stream(response, Arrays.asList(new CacheStats[] { generalCache.getStats(), customerCache.getStats() }));
+	}
+
+	/**
+	 * Serves the state of the customer identifier index of each MCO to the administrators.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_READ)
+	public void NetworkAccessCustomerIndexStats(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		if (CSRToolUtil.isNull(customerIdIndexer)) {
+			response.sendError(HttpServletResponse.SC_NOT_IMPLEMENTED);
+			return;
+		}
+		jsonResponseWriter.stream(response, customerIdIndexer.getStats());
+	}
+
+	/**
+	 * Removes the cached data of a customer (<code>mco</code> and <code>customerId</code>), for the
+	 * administrators allowed to write, and serves the statistics of the caches. To be called when a
+	 * customer is modified outside the application, so that the next view shows the change. The
+	 * modifications made by the actions of the application are notified by the controllers.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_WRITE)
+	public void InvalidateNetworkAccessCustomer(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		String mco = StringUtils.trimToNull(request.getParameter(PARAM_MCO));
+		String customerId = StringUtils.trimToNull(request.getParameter(PARAM_CUSTOMER_ID));
+		if (CSRToolUtil.isNull(mco) || CSRToolUtil.isNull(customerId)) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, "missing parameter: " + PARAM_MCO + ", " + PARAM_CUSTOMER_ID);
+			return;
+		}
+		CustomerChangeRegistry.getInstance().customerChanged(mco, customerId);
+		LOGGER.info(FuncLogging.getLogFormatedMessage("NetworkAccessController","InvalidateNetworkAccessCustomer",
+				String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,"customer " + customerId + " of " + mco + " invalidated"));
+		jsonResponseWriter.stream(response, Arrays.asList(new CacheStats[] { generalCache.getStats(), customerCache.getStats() }));
+	}
+
+	/**
+	 * Answers a request whose backend call failed: 503 when the backend is known to be
+	 * unavailable, so that the browser may retry later, 502 otherwise.
+	 * @param response http servlet response
+	 * @param action name of the action
+	 * @param cause failure of the backend call
+	 * @throws IOException input output exception
+	 */
+	private void sendBackendError(HttpServletResponse response, String action, Throwable cause) throws IOException {
+		if (cause instanceof BackendUnavailableException) {
+			LOGGER.warn(FuncLogging.getLogFormatedMessage("NetworkAccessController",action,
+					FuncLogging.REQUEST_STATUS_FAILED, null,cause.getMessage()));
+			response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+		} else {
+			LOGGER.error(FuncLogging.getLogFormatedMessage("NetworkAccessController",action,
+					FuncLogging.REQUEST_STATUS_FAILED, null,String.valueOf(cause)), cause);
+			response.sendError(HttpServletResponse.SC_BAD_GATEWAY);
+		}
+	}
+
+	/**
+	 * Stops the background refreshes of the caches
+	 */
+	public void destroy() {
+		SpeculativePrefetcher.getInstance().unregister(ACTION_CUSTOMER);
+		CustomerChangeRegistry.getInstance().unregister(customerChangeListener);
+		generalCache.shutdown();
+		customerCache.shutdown();
+		batchExecutor.shutdownNow();
+		if (CSRToolUtil.isNotNull(customerIdIndexer)) {
+			customerIdIndexer.shutdown();
+		}
+	}
+
+	/*----------------------------
+	  Getters & Setters
+	  ----------------------------*/
+	/**
+	 * @param networkAccessService backend services
+	 **/
+	@Autowired(required = false)
+	public void setNetworkAccessService(INetworkAccessService networkAccessService) {
+		this.networkAccessService = networkAccessService;
+	}
+
+	/**
+	 * @param customerIdentifierExport backend export of the customer identifiers, indexed for the
+	 * searches by prefix
+	 **/
+	@Autowired(required = false)
+	public void setCustomerIdentifierExport(ICustomerIdentifierExport customerIdentifierExport) {
+		if (CSRToolUtil.isNotNull(customerIdIndexer)) {
+			customerIdIndexer.shutdown();
+		}
+		this.customerIdIndexer = new CustomerIdIndexer(customerIdentifierExport, CUSTOMER_ID_PAGE_SIZE, CUSTOMER_ID_REFRESH);
+	}
+
+	/**
+	 * @param jsonResponseWriter JSON serializer shared with the HTTP message converter
+	 **/
+	@Autowired(required = false)
+	public void setJsonResponseWriter(JsonResponseWriter jsonResponseWriter) {
+		this.jsonResponseWriter = jsonResponseWriter;
+	}
+
+	/**
+	 * @param generalTimeToLive time to live of the general data, in milliseconds
+	 **/
+	public void setGeneralTimeToLive(long generalTimeToLive) {
+		generalCache.setTimeToLive(generalTimeToLive);
+	}
+
+	/**
+	 * @param generalStaleWhileRevalidate time during which stale general data may be served while refreshed, in milliseconds
+	 **/
+	public void setGeneralStaleWhileRevalidate(long generalStaleWhileRevalidate) {
+		generalCache.setStaleWhileRevalidate(generalStaleWhileRevalidate);
+	}
+
+	/**
+	 * @param customerTimeToLive time to live of the customer data, in milliseconds
+	 **/
+	public void setCustomerTimeToLive(long customerTimeToLive) {
+		customerCache.setTimeToLive(customerTimeToLive);
+	}
+
+	/**
+	 * @param customerMaxSize maximum number of customers cached
+	 **/
+	public void setCustomerMaxSize(int customerMaxSize) {
+		customerCache.setMaxSize(customerMaxSize);
+	}
+
+	/**
+	 * @param batchMaxCustomers maximum number of customers in a batch request
+	 **/
+	public void setBatchMaxCustomers(int batchMaxCustomers) {
+		this.batchMaxCustomers = batchMaxCustomers;
+	}
 
+	/**
+	 * @param batchParallelism maximum number of backend calls in parallel for a batch request
+	 **/
+	public void setBatchParallelism(int batchParallelism) {
+		this.batchParallelism = batchParallelism;
 	}
-	
-	public void NetworkAccessCustomer() {
 
+	/**
+	 * @param batchTimeout maximum duration of a batch request, in milliseconds
+	 **/
+	public void setBatchTimeout(long batchTimeout) {
+		this.batchTimeout = batchTimeout;
 	}
 }
@@ -0,0 +1,21 @@
+package com.francetelecom.csrtool.gui.controllers;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the permissions a user must hold to call an action of a {@link BaseActionController}.
+ * The check is made by the controller before the action is invoked.
+ **/
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RequiresPermissions {
+	/**
+	 * @return names of the required permissions, all of them must be held
+	 **/
+	String[] value();
+}
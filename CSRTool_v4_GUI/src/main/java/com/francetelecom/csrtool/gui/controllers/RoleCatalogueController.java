@@ -0,0 +1,112 @@
+package com.francetelecom.csrtool.gui.controllers;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.francetelecom.csrtool.gui.authent.PermissionSet;
+import com.francetelecom.csrtool.gui.json.JsonResponseWriter;
+import com.francetelecom.csrtool.gui.profiles.catalogue.RoleCatalogue;
+import com.francetelecom.csrtool.gui.profiles.catalogue.RoleCatalogueRegistry;
+import com.francetelecom.csrtool.gui.profiles.catalogue.RoleSort;
+import com.francetelecom.csrtool.utils.CSRToolUtil;
+
+
+@RestController
+public class RoleCatalogueController extends BaseActionController {
+
+	/**	request parameter holding the MCO of the roles listed **/
+	private static final String PARAM_MCO = "mco";
+
+	/**	request parameter holding the text searched in the roles listed **/
+	private static final String PARAM_FILTER = "filter";
+
+	/**	request parameter holding the order of the roles: mco, name or permissions **/
+	private static final String PARAM_SORT = "sort";
+
+	/**	request parameter holding the direction of the order: asc or desc **/
+	private static final String PARAM_ORDER = "order";
+
+	/**	request parameter holding the number of the page, from 1 **/
+	private static final String PARAM_PAGE = "page";
+
+	/**	request parameter holding the number of roles per page **/
+	private static final String PARAM_PAGE_SIZE = "pageSize";
+
+	/**	descending direction of the order **/
+	private static final String ORDER_DESC = "desc";
+
+	/**	default number of roles per page **/
+	private static final int DEFAULT_PAGE_SIZE = 50;
+
+	/**	maximum number of roles per page **/
+	private static final int MAX_PAGE_SIZE = 500;
+
+	/**	JSON serializer **/
+	private JsonResponseWriter jsonResponseWriter = new JsonResponseWriter();
+
+	/**
+	 * Serves a page of the roles and permissions of the MCOs to the administrators allowed to
+	 * write, read from the snapshot of the {@link RoleCatalogueRegistry} instead of the database.
+	 * The roles may be restricted to a MCO (<code>mco</code>) and to a text contained in their name,
+	 * description or permissions (<code>filter</code>), sorted (<code>sort</code> and
+	 * <code>order</code>) and paged (<code>page</code> and <code>pageSize</code>).
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_WRITE)
+	public void Roles(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		RoleSort sort;
+		int page;
+		int pageSize;
+		try {
+			sort = RoleSort.valueOf(StringUtils.defaultIfBlank(request.getParameter(PARAM_SORT), RoleSort.MCO.name()).trim().toUpperCase());
+			page = Integer.parseInt(StringUtils.defaultIfBlank(request.getParameter(PARAM_PAGE), "1").trim());
+			pageSize = Integer.parseInt(StringUtils.defaultIfBlank(request.getParameter(PARAM_PAGE_SIZE), String.valueOf(DEFAULT_PAGE_SIZE)).trim());
+		} catch (IllegalArgumentException e) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, "invalid parameter: " + e.getMessage());
+			return;
+		}
+		if (page < 1 || pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, "invalid page, at most " + MAX_PAGE_SIZE + " roles per page");
+			return;
+		}
+		RoleCatalogue catalogue = RoleCatalogueRegistry.getInstance().getCatalogue();
+		if (CSRToolUtil.isNull(catalogue)) {
+			response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			return;
+		}
+		boolean descending = ORDER_DESC.equalsIgnoreCase(StringUtils.trim(request.getParameter(PARAM_ORDER)));
+		jsonResponseWriter.stream(response, catalogue.list(StringUtils.trimToNull(request.getParameter(PARAM_MCO)),
+				request.getParameter(PARAM_FILTER), sort, descending, page, pageSize));
+	}
+
+	/**
+	 * Rebuilds the role catalogue in the background, for the administrators allowed to write, and
+	 * serves its statistics. To be called when roles are changed outside the administration pages.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws Exception exception and its sub class of exceptions
+	 */
+	@RequiresPermissions(PermissionSet.ADMINISTRATION_WRITE)
+	public void RefreshRoles(HttpServletRequest request, HttpServletResponse response) throws Exception {
+		RoleCatalogueRegistry roleCatalogueRegistry = RoleCatalogueRegistry.getInstance();
+		roleCatalogueRegistry.rolesChanged();
+		jsonResponseWriter.stream(response, roleCatalogueRegistry.getStats());
+	}
+
+	/*----------------------------
+	  Getters & Setters
+	  ----------------------------*/
+	/**
+	 * @param jsonResponseWriter JSON serializer
+	 **/
+	@Autowired(required = false)
+	public void setJsonResponseWriter(JsonResponseWriter jsonResponseWriter) {
+		this.jsonResponseWriter = jsonResponseWriter;
+	}
+}
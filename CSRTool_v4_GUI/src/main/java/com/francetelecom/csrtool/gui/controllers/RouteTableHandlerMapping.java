@@ -0,0 +1,155 @@
+package com.francetelecom.csrtool.gui.controllers;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.context.ApplicationContextException;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.servlet.handler.AbstractHandlerMapping;
+
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * Routes the requests to the actions of the {@link BaseActionController} beans through a table
+ * built once at startup.<br>
+ * Each action is routed on <code>/&lt;controller&gt;/&lt;action&gt;</code>, the same path as
+ * with the <code>ControllerClassNameHandlerMapping</code>, and on the paths of its
+ * {@link ActionPath} annotation. Routing a request is then a single exact-match lookup, and the
+ * action found is handed over to the {@link ActionMethodNameResolver} of the controller.<br>
+ * The requests not found in the table are left to the next handler mappings, so that the URL
+ * variants still resolve as before.
+ * @class RouteTableHandlerMapping
+ */
+public class RouteTableHandlerMapping extends AbstractHandlerMapping {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(RouteTableHandlerMapping.class);
+
+	/**	request attribute holding the name of the action routed **/
+	public static final String ACTION_ATTRIBUTE = RouteTableHandlerMapping.class.getName() + ".action";
+
+	/**	suffix removed from the controller class names **/
+	private static final String CONTROLLER_SUFFIX = "Controller";
+
+	/**	routes per lookup path **/
+	private Map<String, Route> routes = Collections.emptyMap();
+
+	/**
+	 * An action of a controller.
+	 * @class Route
+	 */
+	private static final class Route {
+		/**	controller **/
+		private final BaseActionController controller;
+
+		/**	action name **/
+		private final String action;
+
+		/**
+		 * Constructor
+		 * @param controller controller
+		 * @param action action name
+		 */
+		private Route(BaseActionController controller, String action) {
+			this.controller = controller;
+			this.action = action;
+		}
+	}
+
+	/**
+	 * Constructor
+	 */
+	public RouteTableHandlerMapping() {
+		// before the class name and annotation driven mappings
+		setOrder(-1);
+	}
+
+	/**
+	 * Builds the route table from the controllers of the application context
+	 * @throws ApplicationContextException if two actions have the same path
+	 */
+	@Override
+	protected void initApplicationContext() {
+		super.initApplicationContext();
+
+		Map<String, Route> table = new HashMap<String, Route>();
+		for (BaseActionController controller : BeanFactoryUtils.beansOfTypeIncludingAncestors(getApplicationContext(),
+				BaseActionController.class, true, false).values()) {
+			Class<?> controllerClass = ClassUtils.getUserClass(controller);
+			String basePath = "/" + getControllerName(controllerClass);
+			for (String action : controller.getActions()) {
+				addRoute(table, basePath + "/" + action, new Route(controller, action));
+			}
+			for (Method method : controllerClass.getMethods()) {
+				ActionPath actionPath = method.getAnnotation(ActionPath.class);
+				if (actionPath != null && controller.getActions().contains(method.getName())) {
+					for (String path : actionPath.value()) {
+						addRoute(table, path, new Route(controller, method.getName()));
+					}
+				}
+			}
+		}
+		routes = table;
+
+		if (LOGGER.isInfoEnabled()) {
+			LOGGER.info(FuncLogging.getLogFormatedMessage("RouteTableHandlerMapping","initApplicationContext",
+					String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,"routes: " + table.keySet()));
+		}
+	}
+
+	/**
+	 * Adds a route to the table
+	 * @param table route table
+	 * @param path path of the route
+	 * @param route the route
+	 * @throws ApplicationContextException if the path is already routed to another action
+	 */
+	private void addRoute(Map<String, Route> table, String path, Route route) {
+		Route existing = table.put(path, route);
+		if (existing != null && (existing.controller != route.controller || !existing.action.equals(route.action))) {
+			throw new ApplicationContextException("path " + path + " is routed to both " + existing.action + " and " + route.action);
+		}
+	}
+
+	/**
+	 * Gets the path element of a controller, as the <code>ControllerClassNameHandlerMapping</code> does
+	 * @param controllerClass class of the controller
+	 * @return the lower case class name without the controller suffix
+	 */
+	private static String getControllerName(Class<?> controllerClass) {
+		String name = ClassUtils.getShortName(controllerClass);
+		if (name.endsWith(CONTROLLER_SUFFIX)) {
+			name = name.substring(0, name.length() - CONTROLLER_SUFFIX.length());
+		}
+		return name.toLowerCase();
+	}
+
+	/**
+	 * Looks up the route of a request
+	 * @param request http servlet request
+	 * @return the controller of the action, or <code>null</code> if the request is not routed
+	 */
+	@Override
+	protected Object getHandlerInternal(HttpServletRequest request) {
+		Route route = routes.get(getUrlPathHelper().getLookupPathForRequest(request));
+		if (route == null) {
+			request.removeAttribute(ACTION_ATTRIBUTE);
+			return null;
+		}
+		request.setAttribute(ACTION_ATTRIBUTE, route.action);
+		return route.controller;
+	}
+
+	/**
+	 * @return the number of routes
+	 **/
+	public int getRouteCount() {
+		return routes.size();
+	}
+}
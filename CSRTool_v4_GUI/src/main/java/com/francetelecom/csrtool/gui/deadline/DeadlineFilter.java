@@ -0,0 +1,178 @@
+package com.francetelecom.csrtool.gui.deadline;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * Gives each request a {@link RequestDeadline}: the budget configured for the longest route
+ * prefix matching its path, or the default budget, shortened by the budget the client sends in
+ * the deadline header, which can never extend it. A request arriving with its budget already
+ * spent is answered 503 without any work.<br>
+ * The filter must be mapped before the authentication filter so that the login work is within the
+ * budget.
+ * @class DeadlineFilter
+ * @Implements Filter
+ */
+public class DeadlineFilter implements Filter {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(DeadlineFilter.class);
+
+	/**	init parameter holding the name of the header of the budget given by the client, in milliseconds **/
+	private static final String PARAM_HEADER = "header";
+
+	/**	init parameter holding the budget of the requests without route, in milliseconds, 0 for none **/
+	private static final String PARAM_DEFAULT_BUDGET_MILLIS = "defaultBudgetMillis";
+
+	/**	init parameter holding the maximum budget a client may ask for a request without budget, in milliseconds **/
+	private static final String PARAM_MAX_BUDGET_MILLIS = "maxBudgetMillis";
+
+	/**	init parameter holding the budgets per path prefix, as comma separated <code>prefix=milliseconds</code> **/
+	private static final String PARAM_ROUTES = "routes";
+
+	/**	default name of the header of the budget given by the client **/
+	private static final String DEFAULT_HEADER = "X-Request-Budget-Millis";
+
+	/**	default maximum budget a client may ask for, in milliseconds **/
+	private static final int DEFAULT_MAX_BUDGET_MILLIS = 30000;
+
+	/**	stage of the requests arriving with their budget spent **/
+	private static final String STAGE_ARRIVAL = "arrival";
+
+	/**	name of the header of the budget given by the client **/
+	private String header;
+
+	/**	budget of the requests without route, in milliseconds, 0 for none **/
+	private long defaultBudgetMillis;
+
+	/**	maximum budget a client may ask for a request without budget, in milliseconds **/
+	private long maxBudgetMillis;
+
+	/**	budgets per path prefix, the longest prefixes last **/
+	private final TreeMap<String, Long> routes = new TreeMap<String, Long>();
+
+	/**
+	 * Reads the budgets
+	 * @param config filter config
+	 * @throws ServletException if a budget is not a number
+	 */
+	public void init(FilterConfig config) throws ServletException {
+		header = StringUtils.defaultIfBlank(config.getInitParameter(PARAM_HEADER), DEFAULT_HEADER).trim();
+		defaultBudgetMillis = getIntParameter(config, PARAM_DEFAULT_BUDGET_MILLIS, 0);
+		maxBudgetMillis = getIntParameter(config, PARAM_MAX_BUDGET_MILLIS, DEFAULT_MAX_BUDGET_MILLIS);
+		String routeList = config.getInitParameter(PARAM_ROUTES);
+		if (StringUtils.isNotBlank(routeList)) {
+			for (String route : StringUtils.split(routeList, ", ")) {
+				String prefix = StringUtils.substringBefore(route, "=");
+				try {
+					routes.put(prefix, Long.valueOf(StringUtils.substringAfter(route, "=")));
+				} catch (NumberFormatException e) {
+					throw new ServletException(String.format("invalid route budget: %s", route), e);
+				}
+			}
+		}
+		LOGGER.info(FuncLogging.getLogFormatedMessage("DeadlineFilter","init",
+				String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,"default budget " + defaultBudgetMillis + " ms, route budgets " + routes));
+	}
+
+	/**
+	 * Runs the request within its deadline
+	 * @param request servlet request
+	 * @param response servlet response
+	 * @param chain filter chain
+	 * @throws IOException input output exception
+	 * @throws ServletException servlet exception
+	 */
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+		HttpServletRequest httpRequest = (HttpServletRequest) request;
+		long budgetMillis = getBudgetMillis(httpRequest);
+		if (RequestDeadline.current() != null || budgetMillis == 0L) {
+			chain.doFilter(request, response);
+			return;
+		}
+		DeadlineRegistry deadlineRegistry = DeadlineRegistry.getInstance();
+		deadlineRegistry.started();
+		if (budgetMillis < 0L) {
+			deadlineRegistry.exceeded(STAGE_ARRIVAL);
+			((HttpServletResponse) response).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "request budget spent");
+			return;
+		}
+		RequestDeadline deadline = new RequestDeadline(budgetMillis);
+		RequestDeadline.set(deadline);
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			RequestDeadline.set(null);
+			if (deadline.isExpired()) {
+				deadlineRegistry.exceeded(DeadlineRegistry.STAGE_REQUEST);
+			}
+		}
+	}
+
+	/**
+	 * @param request http servlet request
+	 * @return the budget of the request in milliseconds, 0 for none, negative if already spent
+	 **/
+	private long getBudgetMillis(HttpServletRequest request) {
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		long budget = defaultBudgetMillis;
+		for (Map.Entry<String, Long> route : routes.entrySet()) {
+			if (path.startsWith(route.getKey())) {
+				// the longest matching prefix is the last one
+				budget = route.getValue().longValue();
+			}
+		}
+		String clientBudget = StringUtils.trimToNull(request.getHeader(header));
+		if (clientBudget == null) {
+			return budget;
+		}
+		try {
+			long asked = Long.parseLong(clientBudget);
+			if (asked <= 0L) {
+				return -1L;
+			}
+			return Math.min(asked, budget > 0L ? budget : maxBudgetMillis);
+		} catch (NumberFormatException e) {
+			return budget;
+		}
+	}
+
+	/**
+	 * Reads an integer init parameter
+	 * @param config filter config
+	 * @param name parameter name
+	 * @param defaultValue value when the parameter is blank
+	 * @return the value of the parameter
+	 * @throws ServletException if the parameter is not an integer
+	 */
+	private static int getIntParameter(FilterConfig config, String name, int defaultValue) throws ServletException {
+		try {
+			return Integer.parseInt(StringUtils.defaultIfBlank(config.getInitParameter(name), String.valueOf(defaultValue)).trim());
+		} catch (NumberFormatException e) {
+			throw new ServletException(String.format("invalid init parameter: %s", name), e);
+		}
+	}
+
+	/**
+	 * Finalize the filter
+	 * <BR>Callback method; It is called just before filter destroys.
+	 */
+	public void destroy() {
+		// Do nothing
+	}
+}
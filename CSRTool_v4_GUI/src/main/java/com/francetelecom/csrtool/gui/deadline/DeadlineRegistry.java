@@ -0,0 +1,76 @@
+package com.francetelecom.csrtool.gui.deadline;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the requests given a deadline and, per stage, the work refused or the requests
+ * completed once their budget was spent. The stages are bounded by the code: the request
+ * stages and the names of the backends and connection pools.
+ * @class DeadlineRegistry
+ */
+public final class DeadlineRegistry {
+
+	/**	stage of the requests completed after their deadline **/
+	public static final String STAGE_REQUEST = "request";
+
+	/**	unique instance **/
+	private static final DeadlineRegistry INSTANCE = new DeadlineRegistry();
+
+	/**	number of requests given a deadline **/
+	private final AtomicLong requests = new AtomicLong();
+
+	/**	number of deadlines exceeded per stage **/
+	private final ConcurrentMap<String, AtomicLong> exceeded = new ConcurrentHashMap<String, AtomicLong>();
+
+	/**
+	 * Constructor
+	 */
+	private DeadlineRegistry() {
+		// singleton
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static DeadlineRegistry getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Counts a request given a deadline
+	 */
+	void started() {
+		requests.incrementAndGet();
+	}
+
+	/**
+	 * Counts a deadline exceeded
+	 * @param stage stage of the request when the deadline was found exceeded
+	 */
+	public void exceeded(String stage) {
+		AtomicLong count = exceeded.get(stage);
+		if (count == null) {
+			count = new AtomicLong();
+			AtomicLong existing = exceeded.putIfAbsent(stage, count);
+			if (existing != null) {
+				count = existing;
+			}
+		}
+		count.incrementAndGet();
+	}
+
+	/**
+	 * @return a snapshot of the counts
+	 **/
+	public DeadlineStats getStats() {
+		Map<String, Long> exceededPerStage = new TreeMap<String, Long>();
+		for (Map.Entry<String, AtomicLong> entry : exceeded.entrySet()) {
+			exceededPerStage.put(entry.getKey(), entry.getValue().get());
+		}
+		return new DeadlineStats(requests.get(), exceededPerStage);
+	}
+}
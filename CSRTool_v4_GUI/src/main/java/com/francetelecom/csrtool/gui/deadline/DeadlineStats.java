@@ -0,0 +1,61 @@
+package com.francetelecom.csrtool.gui.deadline;
+
+import java.io.Serializable;
+import java.util.Map;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * This bean is a snapshot of the counts of the {@link DeadlineRegistry}.
+ * @class DeadlineStats
+ * @Implements Serializable
+ */
+public class DeadlineStats implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 6017263904381552907L;
+
+	/**	number of requests given a deadline **/
+	private final long requests;
+
+	/**	number of deadlines exceeded per stage, sorted by stage **/
+	private final Map<String, Long> exceeded;
+
+	/**
+	 * Constructor
+	 * @param requests number of requests given a deadline
+	 * @param exceeded number of deadlines exceeded per stage, sorted by stage
+	 */
+	public DeadlineStats(long requests, Map<String, Long> exceeded) {
+		this.requests = requests;
+		this.exceeded = exceeded;
+	}
+
+	/**
+	 * @return details of the statistics
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("requests", requests);
+		toStringBuilder.append("exceeded", exceeded);
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return number of requests given a deadline
+	 **/
+	public long getRequests() {
+		return requests;
+	}
+
+	/**
+	 * @return number of deadlines exceeded per stage, sorted by stage
+	 **/
+	public Map<String, Long> getExceeded() {
+		return exceeded;
+	}
+}
@@ -0,0 +1,99 @@
+package com.francetelecom.csrtool.gui.deadline;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time budget of the request in progress on the current thread, set by the
+ * {@link DeadlineFilter} and carried to the tasks run on its behalf by the request context.<br>
+ * The waits and timeouts of the profile store and of the backends are shrunk to the remaining
+ * budget, and no such work starts once the budget is spent. Without deadline, the configured
+ * timeouts apply unchanged.
+ * @class RequestDeadline
+ */
+public final class RequestDeadline {
+
+	/**	deadline of the request in progress on the current thread **/
+	private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<RequestDeadline>();
+
+	/**	budget of the request, in milliseconds **/
+	private final long budgetMillis;
+
+	/**	expiry, in the time of {@link System#nanoTime()} **/
+	private final long expiresAt;
+
+	/**
+	 * Constructor
+	 * @param budgetMillis budget of the request from now, in milliseconds
+	 */
+	public RequestDeadline(long budgetMillis) {
+		this.budgetMillis = budgetMillis;
+		this.expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+	}
+
+	/**
+	 * @return the deadline of the request in progress on the current thread, <code>null</code> if none
+	 **/
+	public static RequestDeadline current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Sets the deadline of the request in progress on the current thread
+	 * @param deadline the deadline, <code>null</code> to remove it
+	 */
+	public static void set(RequestDeadline deadline) {
+		if (deadline != null) {
+			CURRENT.set(deadline);
+		} else {
+			CURRENT.remove();
+		}
+	}
+
+	/**
+	 * Shrinks a timeout to the remaining budget of the current request
+	 * @param timeoutMillis configured timeout, in milliseconds
+	 * @return the timeout, or the remaining budget if shorter, never negative
+	 */
+	public static long bound(long timeoutMillis) {
+		RequestDeadline deadline = CURRENT.get();
+		if (deadline == null) {
+			return timeoutMillis;
+		}
+		return Math.max(0L, Math.min(timeoutMillis, deadline.remainingMillis()));
+	}
+
+	/**
+	 * Tells whether the budget of the current request is spent, counting it for a stage if so
+	 * @param stage stage of the request about to start some work
+	 * @return <code>true</code> if the work must not start
+	 */
+	public static boolean isExceeded(String stage) {
+		RequestDeadline deadline = CURRENT.get();
+		if (deadline == null || !deadline.isExpired()) {
+			return false;
+		}
+		DeadlineRegistry.getInstance().exceeded(stage);
+		return true;
+	}
+
+	/**
+	 * @return the remaining budget, in milliseconds, negative once expired
+	 **/
+	public long remainingMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(expiresAt - System.nanoTime());
+	}
+
+	/**
+	 * @return whether the budget is spent
+	 **/
+	public boolean isExpired() {
+		return expiresAt - System.nanoTime() <= 0L;
+	}
+
+	/**
+	 * @return budget of the request, in milliseconds
+	 **/
+	public long getBudgetMillis() {
+		return budgetMillis;
+	}
+}
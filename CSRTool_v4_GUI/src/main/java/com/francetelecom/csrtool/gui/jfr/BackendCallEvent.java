@@ -0,0 +1,63 @@
+package com.francetelecom.csrtool.gui.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a call to a web service backend, including the wait for its bulkhead.
+ * @class BackendCallEvent
+ * @extends Event
+ */
+@Name("com.francetelecom.csrtool.BackendCall")
+@Label("Backend Call")
+@Category({ "CSRTool", "Backend" })
+@Description("Call to a web service backend, including the wait for its bulkhead")
+public class BackendCallEvent extends Event {
+
+	/**	outcome: the backend answered **/
+	public static final String OUTCOME_SUCCESS = "success";
+
+	/**	outcome: the backend failed **/
+	public static final String OUTCOME_FAILURE = "failure";
+
+	/**	outcome: refused by the bulkhead or the circuit without reaching the backend **/
+	public static final String OUTCOME_REJECTED = "rejected";
+
+	/**	backend name **/
+	@Label("Backend")
+	private final String backend;
+
+	/**	login of the current user **/
+	@Label("Login")
+	private final String login;
+
+	/**	MCO of the current user **/
+	@Label("MCO")
+	private final String mco;
+
+	/**	outcome of the call **/
+	@Label("Outcome")
+	private String outcome;
+
+	/**
+	 * Constructor
+	 * @param backend backend name
+	 * @param login login of the current user
+	 * @param mco MCO of the current user
+	 */
+	public BackendCallEvent(String backend, String login, String mco) {
+		this.backend = backend;
+		this.login = login;
+		this.mco = mco;
+	}
+
+	/**
+	 * @param outcome outcome of the call
+	 **/
+	public void setOutcome(String outcome) {
+		this.outcome = outcome;
+	}
+}
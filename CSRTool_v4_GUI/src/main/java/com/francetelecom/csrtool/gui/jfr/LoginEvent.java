@@ -0,0 +1,51 @@
+package com.francetelecom.csrtool.gui.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of the login of a user: from the validation of the data of the
+ * authentication plugin until the user is stored in the session. Only the successful logins are
+ * committed, the others are recorded as {@link LoginRejectedEvent}.
+ * @class LoginEvent
+ * @extends Event
+ */
+@Name("com.francetelecom.csrtool.Login")
+@Label("Login")
+@Category({ "CSRTool", "Authentication" })
+@Description("Login of a user, from the validation of the authentication data to the user stored in the session")
+public class LoginEvent extends Event {
+
+	/**	login of the user **/
+	@Label("Login")
+	private final String login;
+
+	/**	MCO of the user **/
+	@Label("MCO")
+	private final String mco;
+
+	/**	administration level of the user **/
+	@Label("Admin Level")
+	private final int adminLevel;
+
+	/**	service role of the user **/
+	@Label("Service Role")
+	private final String serviceRole;
+
+	/**
+	 * Constructor
+	 * @param login login of the user
+	 * @param mco MCO of the user
+	 * @param adminLevel administration level of the user
+	 * @param serviceRole service role of the user
+	 */
+	public LoginEvent(String login, String mco, int adminLevel, String serviceRole) {
+		this.login = login;
+		this.mco = mco;
+		this.adminLevel = adminLevel;
+		this.serviceRole = serviceRole;
+	}
+}
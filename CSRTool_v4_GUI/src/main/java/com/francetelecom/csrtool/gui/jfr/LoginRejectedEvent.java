@@ -0,0 +1,59 @@
+package com.francetelecom.csrtool.gui.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a request rejected by the authentication filter.
+ * @class LoginRejectedEvent
+ * @extends Event
+ */
+@Name("com.francetelecom.csrtool.LoginRejected")
+@Label("Login Rejected")
+@Category({ "CSRTool", "Authentication" })
+@Description("Request rejected by the authentication filter")
+public class LoginRejectedEvent extends Event {
+
+	/**	reason: no user could be authenticated **/
+	public static final String REASON_NOT_AUTHENTICATED = "not_authenticated";
+
+	/**	reason: the data of the authentication plugin are not coherent **/
+	public static final String REASON_INVALID_DATA = "invalid_data";
+
+	/**	reason: the service role of the user does not exist **/
+	public static final String REASON_ROLE_NOT_FOUND = "role_not_found";
+
+	/**	reason: the profile database failed **/
+	public static final String REASON_PROFILES_ERROR = "profiles_error";
+
+	/**	login of the user, <code>null</code> if not authenticated **/
+	@Label("Login")
+	private String login;
+
+	/**	MCO of the user, <code>null</code> if not authenticated **/
+	@Label("MCO")
+	private String mco;
+
+	/**	reason of the rejection **/
+	@Label("Reason")
+	private String reason;
+
+	/**
+	 * Records a rejection
+	 * @param login login of the user, <code>null</code> if not authenticated
+	 * @param mco MCO of the user, <code>null</code> if not authenticated
+	 * @param reason reason of the rejection
+	 */
+	public static void record(String login, String mco, String reason) {
+		LoginRejectedEvent event = new LoginRejectedEvent();
+		if (event.shouldCommit()) {
+			event.login = login;
+			event.mco = mco;
+			event.reason = reason;
+			event.commit();
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package com.francetelecom.csrtool.gui.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of an access to the profile database at login: loading or creation of
+ * the profile of the user, loading of the service role, loading of the MCO.
+ * @class ProfileDatabaseEvent
+ * @extends Event
+ */
+@Name("com.francetelecom.csrtool.ProfileDatabase")
+@Label("Profile Database")
+@Category({ "CSRTool", "Authentication" })
+@Description("Access to the profile database at login")
+public class ProfileDatabaseEvent extends Event {
+
+	/**	operation: loading or creation of the profile, recording of the connection **/
+	public static final String OPERATION_NOTIFY_CONNECTION = "notifyConnection";
+
+	/**	operation: loading of the service role **/
+	public static final String OPERATION_LOAD_ROLES = "loadRoles";
+
+	/**	operation: loading of the MCO **/
+	public static final String OPERATION_MCO_FACADE = "McoFacade.get";
+
+	/**	operation **/
+	@Label("Operation")
+	private final String operation;
+
+	/**	login of the user **/
+	@Label("Login")
+	private final String login;
+
+	/**	MCO of the user **/
+	@Label("MCO")
+	private final String mco;
+
+	/**	whether the operation succeeded **/
+	@Label("Succeeded")
+	private boolean succeeded;
+
+	/**
+	 * Constructor
+	 * @param operation operation
+	 * @param login login of the user
+	 * @param mco MCO of the user
+	 */
+	public ProfileDatabaseEvent(String operation, String login, String mco) {
+		this.operation = operation;
+		this.login = login;
+		this.mco = mco;
+	}
+
+	/**
+	 * Marks the operation as succeeded
+	 */
+	public void setSucceeded() {
+		this.succeeded = true;
+	}
+}
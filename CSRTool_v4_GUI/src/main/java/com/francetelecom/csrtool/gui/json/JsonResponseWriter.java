@@ -0,0 +1,128 @@
+package com.francetelecom.csrtool.gui.json;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.servlet.http.HttpServletResponse;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.francetelecom.csrtool.gui.networkaccess.CustomerResult;
+import com.francetelecom.csrtool.gui.networkaccess.Equipment;
+import com.francetelecom.csrtool.gui.networkaccess.LineEvent;
+import com.francetelecom.csrtool.gui.networkaccess.NetworkAccessCustomerInfo;
+import com.francetelecom.csrtool.gui.networkaccess.NetworkAccessGeneralInfo;
+
+/**
+ * Serializes the Bricks responses to JSON.<br>
+ * The writers of the network access beans are built once, at construction, so that their
+ * serializers are resolved before the first request. Responses may either be serialized to a
+ * byte array, to be cached, or streamed: the JSON is then written directly to the response
+ * output stream through the generator buffers recycled by Jackson, without any Content-Length,
+ * so that the container sends it chunked and never holds the whole body.
+ * @class JsonResponseWriter
+ */
+public class JsonResponseWriter {
+
+	/**	content type of the JSON responses **/
+	public static final String CONTENT_TYPE_JSON = "application/json;charset=UTF-8";
+
+	/**	types whose writer is built at construction **/
+	private static final Class<?>[] PRECOMPILED_TYPES = {
+		NetworkAccessGeneralInfo.class, NetworkAccessCustomerInfo.class, LineEvent.class, Equipment.class, CustomerResult.class
+	};
+
+	/**	shared object mapper, also used by the HTTP message converter **/
+	private final ObjectMapper objectMapper;
+
+	/**	writers per type **/
+	private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<Class<?>, ObjectWriter>();
+
+	/**
+	 * Constructor
+	 */
+	public JsonResponseWriter() {
+		JsonFactory jsonFactory = new JsonFactory();
+		/* the response stream belongs to the container */
+		jsonFactory.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		objectMapper = new ObjectMapper(jsonFactory);
+		objectMapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+		for (Class<?> type : PRECOMPILED_TYPES) {
+			writers.put(type, objectMapper.writerFor(type));
+		}
+	}
+
+	/**
+	 * Gets the writer of a type, building it on first use for the types not precompiled
+	 * @param type type of the values to write
+	 * @return the writer
+	 */
+	public ObjectWriter getWriter(Class<?> type) {
+		ObjectWriter writer = writers.get(type);
+		if (writer == null) {
+			ObjectWriter newWriter = objectMapper.writerFor(type);
+			writer = writers.putIfAbsent(type, newWriter);
+			if (writer == null) {
+				writer = newWriter;
+			}
+		}
+		return writer;
+	}
+
+	/**
+	 * Serializes a value to a byte array
+	 * @param value value to serialize, <code>null</code> is written as the JSON <code>null</code>
+	 * @return the JSON bytes, encoded in UTF-8
+	 * @throws IOException if the value could not be serialized
+	 */
+	public byte[] toBytes(Object value) throws IOException {
+		return writerOf(value).writeValueAsBytes(value);
+	}
+
+	/**
+	 * Streams a value to the response, without buffering the whole body
+	 * @param response http servlet response
+	 * @param value value to serialize, <code>null</code> is written as the JSON <code>null</code>
+	 * @throws IOException input output exception
+	 */
+	public void stream(HttpServletResponse response, Object value) throws IOException {
+		response.setContentType(CONTENT_TYPE_JSON);
+		writerOf(value).writeValue(response.getOutputStream(), value);
+	}
+
+	/**
+	 * Gets the writer of a value, the writer of the mapper for <code>null</code> which has no type
+	 * @param value value to serialize
+	 * @return the writer
+	 */
+	private ObjectWriter writerOf(Object value) {
+		return value != null ? getWriter(value.getClass()) : objectMapper.writer();
+	}
+
+	/**
+	 * Starts streaming a JSON array to the response. Each element written to the returned writer
+	 * may be flushed to the client as soon as it is available; the writer must be closed to end
+	 * the array.
+	 * @param response http servlet response
+	 * @param elementType type of the elements
+	 * @return the writer of the elements
+	 * @throws IOException input output exception
+	 */
+	public SequenceWriter streamArray(HttpServletResponse response, Class<?> elementType) throws IOException {
+		response.setContentType(CONTENT_TYPE_JSON);
+		return getWriter(elementType).writeValuesAsArray(response.getOutputStream());
+	}
+
+	/**
+	 * @return shared object mapper
+	 **/
+	public ObjectMapper getObjectMapper() {
+		return objectMapper;
+	}
+}
@@ -0,0 +1,140 @@
+package com.francetelecom.csrtool.gui.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The counters of one controller action for one MCO: number of calls, number of failed calls,
+ * calls in progress and a latency histogram.<br>
+ * Recording a call only updates a few atomic counters, it does not allocate nor lock.
+ * @class ActionMetrics
+ */
+public final class ActionMetrics {
+
+	/**	upper bounds of the latency buckets in microseconds, the last bucket is unbounded **/
+	static final long[] BUCKET_BOUNDS_MICROS = { 5000L, 10000L, 25000L, 50000L, 100000L, 250000L, 500000L,
+			1000000L, 2500000L, 5000000L, 10000000L };
+
+	/**	controller name **/
+	private final String controller;
+
+	/**	action name **/
+	private final String action;
+
+	/**	MCO name **/
+	private final String mco;
+
+	/**	number of completed calls **/
+	private final AtomicLong calls = new AtomicLong();
+
+	/**	number of failed calls **/
+	private final AtomicLong errors = new AtomicLong();
+
+	/**	number of calls in progress **/
+	private final AtomicLong inFlight = new AtomicLong();
+
+	/**	total duration of the completed calls in microseconds **/
+	private final AtomicLong totalMicros = new AtomicLong();
+
+	/**	number of calls per latency bucket, not cumulated **/
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MICROS.length + 1);
+
+	/**
+	 * Constructor
+	 * @param controller controller name
+	 * @param action action name
+	 * @param mco MCO name
+	 */
+	ActionMetrics(String controller, String action, String mco) {
+		this.controller = controller;
+		this.action = action;
+		this.mco = mco;
+	}
+
+	/**
+	 * Records the start of a call
+	 */
+	public void start() {
+		inFlight.incrementAndGet();
+	}
+
+	/**
+	 * Records the end of a call
+	 * @param durationNanos duration of the call in nanoseconds
+	 * @param failed whether the call failed
+	 */
+	public void stop(long durationNanos, boolean failed) {
+		long micros = durationNanos / 1000L;
+		int bucket = 0;
+		while (bucket < BUCKET_BOUNDS_MICROS.length && micros > BUCKET_BOUNDS_MICROS[bucket]) {
+			bucket++;
+		}
+		buckets.incrementAndGet(bucket);
+		totalMicros.addAndGet(micros);
+		if (failed) {
+			errors.incrementAndGet();
+		}
+		calls.incrementAndGet();
+		inFlight.decrementAndGet();
+	}
+
+	/**
+	 * @param bucket index of the bucket
+	 * @return number of calls in the bucket, not cumulated
+	 **/
+	long getBucket(int bucket) {
+		return buckets.get(bucket);
+	}
+
+	/*----------------------------
+	  Getters & Setters
+	  ----------------------------*/
+	/**
+	 * @return the controller
+	 **/
+	public String getController() {
+		return controller;
+	}
+
+	/**
+	 * @return the action
+	 **/
+	public String getAction() {
+		return action;
+	}
+
+	/**
+	 * @return the mco
+	 **/
+	public String getMco() {
+		return mco;
+	}
+
+	/**
+	 * @return the calls
+	 **/
+	public long getCalls() {
+		return calls.get();
+	}
+
+	/**
+	 * @return the errors
+	 **/
+	public long getErrors() {
+		return errors.get();
+	}
+
+	/**
+	 * @return the inFlight
+	 **/
+	public long getInFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * @return the totalMicros
+	 **/
+	public long getTotalMicros() {
+		return totalMicros.get();
+	}
+}
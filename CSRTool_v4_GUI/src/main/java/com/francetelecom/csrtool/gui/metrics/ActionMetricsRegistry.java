@@ -0,0 +1,92 @@
+package com.francetelecom.csrtool.gui.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the {@link ActionMetrics} of the controller actions, per controller, action and MCO.<br>
+ * The metrics are kept in nested maps so that finding the metrics of a call does not build any
+ * key. The callers are expected to bound the action names to the actions that exist, and the MCO
+ * names to the MCO of the authenticated users.
+ * @class ActionMetricsRegistry
+ */
+public final class ActionMetricsRegistry {
+
+	/**	MCO name of the calls made without an authenticated user **/
+	public static final String NO_MCO = "none";
+
+	/**	unique instance **/
+	private static final ActionMetricsRegistry INSTANCE = new ActionMetricsRegistry();
+
+	/**	metrics per controller, action and MCO **/
+	private final ConcurrentMap<String, ConcurrentMap<String, ConcurrentMap<String, ActionMetrics>>> metrics =
+			new ConcurrentHashMap<String, ConcurrentMap<String, ConcurrentMap<String, ActionMetrics>>>();
+
+	/**
+	 * Constructor
+	 */
+	private ActionMetricsRegistry() {
+		// singleton
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static ActionMetricsRegistry getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Gets the metrics of an action for an MCO, creating them on first use
+	 * @param controller controller name
+	 * @param action action name
+	 * @param mco MCO name, <code>null</code> if there is no authenticated user
+	 * @return the metrics
+	 */
+	public ActionMetrics get(String controller, String action, String mco) {
+		String mcoName = mco != null ? mco : NO_MCO;
+
+		ConcurrentMap<String, ConcurrentMap<String, ActionMetrics>> actions = metrics.get(controller);
+		if (actions == null) {
+			actions = new ConcurrentHashMap<String, ConcurrentMap<String, ActionMetrics>>();
+			ConcurrentMap<String, ConcurrentMap<String, ActionMetrics>> existing = metrics.putIfAbsent(controller, actions);
+			if (existing != null) {
+				actions = existing;
+			}
+		}
+
+		ConcurrentMap<String, ActionMetrics> mcos = actions.get(action);
+		if (mcos == null) {
+			mcos = new ConcurrentHashMap<String, ActionMetrics>();
+			ConcurrentMap<String, ActionMetrics> existing = actions.putIfAbsent(action, mcos);
+			if (existing != null) {
+				mcos = existing;
+			}
+		}
+
+		ActionMetrics actionMetrics = mcos.get(mcoName);
+		if (actionMetrics == null) {
+			actionMetrics = new ActionMetrics(controller, action, mcoName);
+			ActionMetrics existing = mcos.putIfAbsent(mcoName, actionMetrics);
+			if (existing != null) {
+				actionMetrics = existing;
+			}
+		}
+		return actionMetrics;
+	}
+
+	/**
+	 * @return all the metrics recorded so far
+	 **/
+	public List<ActionMetrics> getAll() {
+		List<ActionMetrics> all = new ArrayList<ActionMetrics>();
+		for (ConcurrentMap<String, ConcurrentMap<String, ActionMetrics>> actions : metrics.values()) {
+			for (ConcurrentMap<String, ActionMetrics> mcos : actions.values()) {
+				all.addAll(mcos.values());
+			}
+		}
+		return all;
+	}
+}
@@ -0,0 +1,109 @@
+package com.francetelecom.csrtool.gui.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.francetelecom.csrtool.gui.admission.AdmissionController;
+import com.francetelecom.csrtool.gui.authent.capture.GassiCapture;
+import com.francetelecom.csrtool.gui.cache.CacheRegistry;
+import com.francetelecom.csrtool.gui.coalescing.RequestCoalescer;
+import com.francetelecom.csrtool.gui.deadline.DeadlineRegistry;
+import com.francetelecom.csrtool.gui.pagecache.PageCache;
+import com.francetelecom.csrtool.gui.prefetch.SpeculativePrefetcher;
+import com.francetelecom.csrtool.gui.profiles.ProfilePrefetcher;
+import com.francetelecom.csrtool.gui.profiles.catalogue.RoleCatalogueRegistry;
+import com.francetelecom.csrtool.gui.profiles.store.ProfilesStoreRegistry;
+import com.francetelecom.csrtool.gui.session.SessionStore;
+import com.francetelecom.csrtool.gui.watchdog.InFlightRegistry;
+import com.francetelecom.csrtool.gui.watchdog.SlowRequestWatchdog;
+import com.francetelecom.csrtool.gui.ws.BackendGuardRegistry;
+import com.francetelecom.csrtool.gui.ws.HedgerRegistry;
+
+/**
+ * Exposes the metrics of the application in the Prometheus text format.<br>
+ * The servlet is mapped outside of the Bricks dispatcher so that the scraper does not go through
+ * the user authentication: only the scrapers whose address is listed in the
+ * <code>allowedAddresses</code> init parameter, a comma separated list, may read them. Without the
+ * parameter, only the local host may read them.
+ * @class MetricsServlet
+ */
+public class MetricsServlet extends HttpServlet {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 2931785641907433187L;
+
+	/**	init parameter holding the addresses allowed to read the metrics **/
+	private static final String PARAM_ALLOWED_ADDRESSES = "allowedAddresses";
+
+	/**	addresses of the local host, allowed by default **/
+	private static final Set<String> LOOPBACK_ADDRESSES = Collections.unmodifiableSet(new HashSet<String>(
+			Arrays.asList("127.0.0.1", "0:0:0:0:0:0:0:1", "::1")));
+
+	/**	addresses allowed to read the metrics **/
+	private Set<String> allowedAddresses = LOOPBACK_ADDRESSES;
+
+	/**
+	 * Reads the addresses allowed to read the metrics
+	 * @param config servlet config
+	 * @throws ServletException servlet exception
+	 */
+	@Override
+	public void init(ServletConfig config) throws ServletException {
+		super.init(config);
+		String addresses = StringUtils.trimToNull(config.getInitParameter(PARAM_ALLOWED_ADDRESSES));
+		if (addresses != null) {
+			Set<String> allowed = new HashSet<String>();
+			for (String address : StringUtils.split(addresses, ", ")) {
+				allowed.add(address);
+			}
+			allowedAddresses = allowed;
+		}
+	}
+
+	/**
+	 * Writes the metrics
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws IOException if the metrics could not be written
+	 */
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		if (!allowedAddresses.contains(request.getRemoteAddr())) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return;
+		}
+		response.setContentType(PrometheusTextWriter.CONTENT_TYPE);
+		response.setHeader("Cache-Control", "no-cache");
+
+		Writer writer = response.getWriter();
+		PrometheusTextWriter prometheusWriter = new PrometheusTextWriter(writer);
+		prometheusWriter.writeActions(ActionMetricsRegistry.getInstance().getAll());
+		prometheusWriter.writeCaches(CacheRegistry.getInstance().getStats());
+		prometheusWriter.writeBackendGuards(BackendGuardRegistry.getInstance().getStats());
+		prometheusWriter.writeHedging(HedgerRegistry.getInstance().getStats());
+		prometheusWriter.writeProfilePrefetch(ProfilePrefetcher.getInstance().getStats());
+		prometheusWriter.writeProfilesStore(ProfilesStoreRegistry.getInstance().getStats());
+		prometheusWriter.writeSessionStore(SessionStore.getInstance().getStats());
+		prometheusWriter.writePageCache(PageCache.getInstance().getStats());
+		prometheusWriter.writeRoleCatalogue(RoleCatalogueRegistry.getInstance().getStats());
+		prometheusWriter.writeSpeculativePrefetch(SpeculativePrefetcher.getInstance().getStats());
+		prometheusWriter.writeAdmission(AdmissionController.getInstance().getStats());
+		prometheusWriter.writeCoalescing(RequestCoalescer.getInstance().getStats());
+		prometheusWriter.writeDeadlines(DeadlineRegistry.getInstance().getStats());
+		prometheusWriter.writeGassiCapture(GassiCapture.getInstance().getStats());
+		prometheusWriter.writeSlowRequests(InFlightRegistry.getInstance().size(), SlowRequestWatchdog.getInstance().getSlowRequests());
+		writer.flush();
+	}
+}
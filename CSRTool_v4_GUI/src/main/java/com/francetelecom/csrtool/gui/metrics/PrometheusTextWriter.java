@@ -0,0 +1,453 @@
+package com.francetelecom.csrtool.gui.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+import com.francetelecom.csrtool.gui.admission.AdmissionStats;
+import com.francetelecom.csrtool.gui.authent.capture.GassiCaptureStats;
+import com.francetelecom.csrtool.gui.cache.CacheStats;
+import com.francetelecom.csrtool.gui.coalescing.CoalescingStats;
+import com.francetelecom.csrtool.gui.deadline.DeadlineStats;
+import com.francetelecom.csrtool.gui.pagecache.PageCacheStats;
+import com.francetelecom.csrtool.gui.prefetch.SpeculativePrefetchStats;
+import com.francetelecom.csrtool.gui.profiles.PrefetchStats;
+import com.francetelecom.csrtool.gui.profiles.catalogue.RoleCatalogueStats;
+import com.francetelecom.csrtool.gui.profiles.store.ConnectionPoolStats;
+import com.francetelecom.csrtool.gui.profiles.store.ProfilesStoreStats;
+import com.francetelecom.csrtool.gui.profiles.store.StoreOperationStats;
+import com.francetelecom.csrtool.gui.session.SessionStoreStats;
+import com.francetelecom.csrtool.gui.ws.BackendGuardStats;
+import com.francetelecom.csrtool.gui.ws.HedgerStats;
+
+/**
+ * Writes the metrics of the application in the Prometheus text exposition format (version 0.0.4).
+ * @class PrometheusTextWriter
+ */
+public class PrometheusTextWriter {
+
+	/**	content type of the Prometheus text format **/
+	public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	/**	target of the text **/
+	private final Writer writer;
+
+	/**
+	 * Constructor
+	 * @param writer target of the text
+	 */
+	public PrometheusTextWriter(Writer writer) {
+		this.writer = writer;
+	}
+
+	/**
+	 * Writes the metrics of the controller actions
+	 * @param metrics metrics of the actions
+	 * @throws IOException if the text could not be written
+	 */
+	public void writeActions(List<ActionMetrics> metrics) throws IOException {
+		header("csrtool_action_requests_total", "counter", "Number of completed calls of a controller action");
+		for (ActionMetrics actionMetrics : metrics) {
+			sample("csrtool_action_requests_total", actionLabels(actionMetrics), actionMetrics.getCalls());
+		}
+		header("csrtool_action_errors_total", "counter", "Number of calls of a controller action that failed");
+		for (ActionMetrics actionMetrics : metrics) {
+			sample("csrtool_action_errors_total", actionLabels(actionMetrics), actionMetrics.getErrors());
+		}
+		header("csrtool_action_in_flight", "gauge", "Number of calls of a controller action in progress");
+		for (ActionMetrics actionMetrics : metrics) {
+			sample("csrtool_action_in_flight", actionLabels(actionMetrics), actionMetrics.getInFlight());
+		}
+		header("csrtool_action_duration_seconds", "histogram", "Duration of the calls of a controller action");
+		for (ActionMetrics actionMetrics : metrics) {
+			String labels = actionLabels(actionMetrics);
+			long cumulated = 0L;
+			for (int i = 0; i < ActionMetrics.BUCKET_BOUNDS_MICROS.length; i++) {
+				cumulated += actionMetrics.getBucket(i);
+				sample("csrtool_action_duration_seconds_bucket", labels + ",le=\"" + seconds(ActionMetrics.BUCKET_BOUNDS_MICROS[i]) + "\"", cumulated);
+			}
+			cumulated += actionMetrics.getBucket(ActionMetrics.BUCKET_BOUNDS_MICROS.length);
+			sample("csrtool_action_duration_seconds_bucket", labels + ",le=\"+Inf\"", cumulated);
+			writer.write("csrtool_action_duration_seconds_sum{" + labels + "} " + seconds(actionMetrics.getTotalMicros()) + "\n");
+			sample("csrtool_action_duration_seconds_count", labels, cumulated);
+		}
+	}
+
+	/**
+	 * Writes the statistics of the caches
+	 * @param stats statistics of the caches
+	 * @throws IOException if the text could not be written
+	 */
+	public void writeCaches(List<CacheStats> stats) throws IOException {
+		header("csrtool_cache_size", "gauge", "Number of entries of a cache");
+		for (CacheStats cacheStats : stats) {
+			sample("csrtool_cache_size", nameLabel("cache", cacheStats.getName()), cacheStats.getSize());
+		}
+		header("csrtool_cache_requests_total", "counter", "Number of reads of a cache by result");
+		for (CacheStats cacheStats : stats) {
+			String labels = nameLabel("cache", cacheStats.getName());
+			sample("csrtool_cache_requests_total", labels + ",result=\"hit\"", cacheStats.getHits());
+			sample("csrtool_cache_requests_total", labels + ",result=\"stale\"", cacheStats.getStaleHits());
+			sample("csrtool_cache_requests_total", labels + ",result=\"miss\"", cacheStats.getMisses());
+		}
+		header("csrtool_cache_load_failures_total", "counter", "Number of failed loads of a cache");
+		for (CacheStats cacheStats : stats) {
+			sample("csrtool_cache_load_failures_total", nameLabel("cache", cacheStats.getName()), cacheStats.getLoadFailures());
+		}
+		header("csrtool_cache_evictions_total", "counter", "Number of entries evicted from a cache");
+		for (CacheStats cacheStats : stats) {
+			sample("csrtool_cache_evictions_total", nameLabel("cache", cacheStats.getName()), cacheStats.getEvictions());
+		}
+	}
+
+	/**
+	 * Writes the statistics of the backend guards
+	 * @param stats statistics of the guards
+	 * @throws IOException if the text could not be written
+	 */
+	public void writeBackendGuards(List<BackendGuardStats> stats) throws IOException {
+		header("csrtool_backend_calls_total", "counter", "Number of calls made to a backend");
+		for (BackendGuardStats guardStats : stats) {
+			sample("csrtool_backend_calls_total", nameLabel("backend", guardStats.getName()), guardStats.getCalls());
+		}
+		header("csrtool_backend_failures_total", "counter", "Number of calls to a backend that failed");
+		for (BackendGuardStats guardStats : stats) {
+			sample("csrtool_backend_failures_total", nameLabel("backend", guardStats.getName()), guardStats.getFailures());
+		}
+		header("csrtool_backend_rejected_calls_total", "counter", "Number of calls rejected by the bulkhead of a backend");
+		for (BackendGuardStats guardStats : stats) {
+			sample("csrtool_backend_rejected_calls_total", nameLabel("backend", guardStats.getName()), guardStats.getRejectedCalls());
+		}
+		header("csrtool_backend_short_circuited_calls_total", "counter", "Number of calls refused by the open circuit of a backend");
+		for (BackendGuardStats guardStats : stats) {
+			sample("csrtool_backend_short_circuited_calls_total", nameLabel("backend", guardStats.getName()), guardStats.getShortCircuitedCalls());
+		}
+		header("csrtool_backend_active_calls", "gauge", "Number of calls to a backend in progress");
+		for (BackendGuardStats guardStats : stats) {
+			sample("csrtool_backend_active_calls", nameLabel("backend", guardStats.getName()), guardStats.getActiveCalls());
+		}
+		header("csrtool_backend_waiting_calls", "gauge", "Number of calls waiting for the bulkhead of a backend");
+		for (BackendGuardStats guardStats : stats) {
+			sample("csrtool_backend_waiting_calls", nameLabel("backend", guardStats.getName()), guardStats.getWaitingCalls());
+		}
+		header("csrtool_backend_circuit_open", "gauge", "Whether the circuit of a backend is open, 1 if open, 0.5 if half open");
+		for (BackendGuardStats guardStats : stats) {
+			String state = guardStats.getCircuitState();
+			double open = "OPEN".equals(state) ? 1d : "HALF_OPEN".equals(state) ? 0.5d : 0d;
+			writer.write("csrtool_backend_circuit_open{" + nameLabel("backend", guardStats.getName()) + "} " + open + "\n");
+		}
+	}
+
+	/**
+	 * Writes the statistics of the profile prefetches
+	 * @param stats statistics of the prefetches
+	 * @throws IOException if the text could not be written
+	 */
+	public void writeProfilePrefetch(PrefetchStats stats) throws IOException {
+		header("csrtool_profile_prefetch_predicted_total", "counter", "Number of agent connections predicted");
+		writer.write("csrtool_profile_prefetch_predicted_total " + stats.getPredicted() + "\n");
+		header("csrtool_profile_prefetch_loaded_total", "counter", "Number of profiles and roles prefetched");
+		writer.write("csrtool_profile_prefetch_loaded_total " + stats.getPrefetched() + "\n");
+		header("csrtool_profile_prefetch_failures_total", "counter", "Number of profile prefetches that failed");
+		writer.write("csrtool_profile_prefetch_failures_total " + stats.getFailures() + "\n");
+		header("csrtool_profile_prefetch_expired_total", "counter", "Number of prefetched profiles expired unused");
+		writer.write("csrtool_profile_prefetch_expired_total " + stats.getExpired() + "\n");
+		header("csrtool_profile_prefetch_lookups_total", "counter", "Number of profile and role lookups at connection by result");
+		sample("csrtool_profile_prefetch_lookups_total", "type=\"userInfo\",result=\"hit\"", stats.getUserInfoHits());
+		sample("csrtool_profile_prefetch_lookups_total", "type=\"userInfo\",result=\"miss\"", stats.getUserInfoMisses());
+		sample("csrtool_profile_prefetch_lookups_total", "type=\"role\",result=\"hit\"", stats.getRoleHits());
+		sample("csrtool_profile_prefetch_lookups_total", "type=\"role\",result=\"miss\"", stats.getRoleMisses());
+	}
+
+	/**
+	 * Writes the state of the admission control
+	 * @param stats state of the admission control
+	 * @throws IOException if the text could not be written
+	 */
+	public void writeAdmission(AdmissionStats stats) throws IOException {
+		header("csrtool_admission_limit", "gauge", "Current concurrency limit of the node");
+		writer.write("csrtool_admission_limit " + stats.getLimit() + "\n");
+		header("csrtool_admission_in_flight", "gauge", "Number of admitted requests in progress by priority");
+		sample("csrtool_admission_in_flight", "priority=\"interactive\"", stats.getInFlight() - stats.getBackgroundInFlight());
+		sample("csrtool_admission_in_flight", "priority=\"background\"", stats.getBackgroundInFlight());
+		header("csrtool_admission_waiting", "gauge", "Number of requests waiting to be admitted by priority");
+		sample("csrtool_admission_waiting", "priority=\"interactive\"", stats.getInteractiveWaiting());
+		sample("csrtool_admission_waiting", "priority=\"background\"", stats.getBackgroundWaiting());
+		header("csrtool_admission_requests_total", "counter", "Number of requests by admission result");
+		sample("csrtool_admission_requests_total", "result=\"admitted\"", stats.getAdmitted());
+		sample("csrtool_admission_requests_total", "result=\"queued\"", stats.getAdmittedAfterWait());
+		sample("csrtool_admission_requests_total", "result=\"shed\"", stats.getShed());
+		sample("csrtool_admission_requests_total", "result=\"timeout\"", stats.getTimedOut());
+		header("csrtool_admission_rtt_seconds", "gauge", "Averages of the response time used by the concurrency limit");
+		writer.write("csrtool_admission_rtt_seconds{average=\"short\"} " + seconds(stats.getShortRttMicros()) + "\n");
+		writer.write("csrtool_admission_rtt_seconds{average=\"long\"} " + seconds(stats.getLongRttMicros()) + "\n");
+	}
+
+	/**
+	 * Writes the state of the slow request watchdog
+	 * @param inFlight number of requests in progress
+	 * @param slowRequests number of slow requests detected
+	 * @throws IOException if the text could not be written
+	 */
+	public void writeSlowRequests(int inFlight, long slowRequests) throws IOException {
+		header("csrtool_requests_in_flight", "gauge", "Number of authenticated requests in progress");
+		writer.write("csrtool_requests_in_flight " + inFlight + "\n");
+		header("csrtool_slow_requests_total", "counter", "Number of requests detected over the threshold of the watchdog");
+		writer.write("csrtool_slow_requests_total " + slowRequests + "\n");
+	}
+
+	/**
+	 * Writes the metrics of the profiles store and, for a database store, of its connection pool
+	 * @param stats statistics of the profiles store
+	 * @throws IOException if the text could not be written
+	 */
+	public void writeProfilesStore(ProfilesStoreStats stats) throws IOException {
+		header("csrtool_profiles_store_calls_total", "counter", "Number of calls to the profiles store by operation");
+		for (StoreOperationStats operationStats : stats.getOperations()) {
+			sample("csrtool_profiles_store_calls_total", nameLabel("operation", operationStats.getOperation()), operationStats.getCalls());
+		}
+		header("csrtool_profiles_store_errors_total", "counter", "Number of calls to the profiles store that failed by operation");
+		for (StoreOperationStats operationStats : stats.getOperations()) {
+			sample("csrtool_profiles_store_errors_total", nameLabel("operation", operationStats.getOperation()), operationStats.getErrors());
+		}
+		header("csrtool_profiles_store_duration_seconds_sum", "counter", "Total duration of the calls to the profiles store by operation");
+		for (StoreOperationStats operationStats : stats.getOperations()) {
+			writer.write("csrtool_profiles_store_duration_seconds_sum{" + nameLabel("operation", operationStats.getOperation()) + "} "
+					+ seconds(operationStats.getTotalMicros()) + "\n");
+		}
+		header("csrtool_profiles_store_duration_seconds_max", "gauge", "Longest call to the profiles store by operation");
+		for (StoreOperationStats operationStats : stats.getOperations()) {
+			writer.write("csrtool_profiles_store_duration_seconds_max{" + nameLabel("operation", operationStats.getOperation()) + "} "
+					+ seconds(operationStats.getMaxMicros()) + "\n");
+		}
+		header("csrtool_profiles_store_pending_connections", "gauge", "Number of user connections waiting to be written");
+		writer.write("csrtool_profiles_store_pending_connections " + stats.getPendingConnections() + "\n");
+		header("csrtool_profiles_store_batches_total", "counter", "Number of batches of user connections written");
+		writer.write("csrtool_profiles_store_batches_total " + stats.getBatches() + "\n");
+		header("csrtool_profiles_store_lost_connections_total", "counter", "Number of user connections lost because their batch failed");
+		writer.write("csrtool_profiles_store_lost_connections_total " + stats.getLostConnections() + "\n");
+
+		ConnectionPoolStats poolStats = stats.getPool();
+		if (poolStats == null) {
+			return;
+		}
+		String pool = nameLabel("pool", poolStats.getName());
+		header("csrtool_db_pool_max", "gauge", "Maximum number of connections of the pool");
+		sample("csrtool_db_pool_max", pool, poolStats.getMaxSize());
+		header("csrtool_db_pool_leased", "gauge", "Number of connections leased");
+		sample("csrtool_db_pool_leased", pool, poolStats.getLeased());
+		header("csrtool_db_pool_idle", "gauge", "Number of idle connections");
+		sample("csrtool_db_pool_idle", pool, poolStats.getIdle());
+		header("csrtool_db_pool_waiting", "gauge", "Number of callers waiting for a connection");
+		sample("csrtool_db_pool_waiting", pool, poolStats.getWaiting());
+		header("csrtool_db_pool_timeouts_total", "counter", "Number of waits for a connection that timed out");
+		sample("csrtool_db_pool_timeouts_total", pool, poolStats.getTimeouts());
+		header("csrtool_db_pool_wait_seconds_total", "counter", "Total time spent waiting for a connection");
+		writer.write("csrtool_db_pool_wait_seconds_total{" + pool + "} " + seconds(poolStats.getTotalWaitMicros()) + "\n");
+		header("csrtool_db_statement_cache_total", "counter", "Number of prepared statement lookups by result");
+		sample("csrtool_db_statement_cache_total", pool + ",result=\"hit\"", poolStats.getStatementHits());
+		sample("csrtool_db_statement_cache_total", pool + ",result=\"miss\"", poolStats.getStatementMisses());
+	}
+
+	/**
+	 * Writes the state of the session store
+	 * @param stats state of the session store
+	 * @throws IOException if the text could not be written
+	 */
+	public void writeSessionStore(SessionStoreStats stats) throws IOException {
+		header("csrtool_session_store_records", "gauge", "Number of session users kept to be restored");
+		writer.write("csrtool_session_store_records " + stats.getRecords() + "\n");
+		header("csrtool_session_store_used_bytes", "gauge", "Number of bytes of the session file used");
+		writer.write("csrtool_session_store_used_bytes " + stats.getUsedBytes() + "\n");
+		header("csrtool_session_store_capacity_bytes", "gauge", "Size of the session file");
+		writer.write("csrtool_session_store_capacity_bytes " + stats.getCapacity() + "\n");
+		header("csrtool_session_store_users_total", "counter", "Number of session users by operation");
+		sample("csrtool_session_store_users_total", "operation=\"saved\"", stats.getSaved());
+		sample("csrtool_session_store_users_total", "operation=\"restored\"", stats.getRestored());
+		sample("csrtool_session_store_users_total", "operation=\"dropped\"", stats.getDropped());
+		header("csrtool_session_store_compactions_total", "counter", "Number of rewrites of the session file");
+		writer.write("csrtool_session_store_compactions_total " + stats.getCompactions() + "\n");
+	}
+
+	/**
+	 * Writes the statistics of the coalescing of the identical requests
+	 * @param stats statistics of the coalescing
+	 * @throws IOException if the text could not be written
+	 */
+	public void writeCoalescing(CoalescingStats stats) throws IOException {
+		header("csrtool_coalescing_in_flight", "gauge", "Number of requests in progress whose response may be shared");
+		writer.write("csrtool_coalescing_in_flight " + stats.getInFlight() + "\n");
+		header("csrtool_coalescing_requests_total", "counter", "Number of idempotent requests by coalescing result");
+		sample("csrtool_coalescing_requests_total", "result=\"leader\"", stats.getLeaders());
+		sample("csrtool_coalescing_requests_total", "result=\"coalesced\"", stats.getCoalesced());
+		sample("csrtool_coalescing_requests_total", "result=\"fallback\"", stats.getFallbacks());
+		sample("csrtool_coalescing_requests_total", "result=\"overflow\"", stats.getOverflows());
+	}
+
+	/**
+	 * Writes the statistics of the page cache
+	 * @param stats statistics of the page cache
+	 * @throws IOException if the text could not be written
+	 */
+	public void writePageCache(PageCacheStats stats) throws IOException {
+		header("csrtool_page_cache_size", "gauge", "Number of rendered pages kept");
+		writer.write("csrtool_page_cache_size " + stats.getSize() + "\n");
+		header("csrtool_page_cache_bytes", "gauge", "Size of the rendered pages kept by encoding");
+		sample("csrtool_page_cache_bytes", "encoding=\"gzip\"", stats.getCompressedBytes());
+		sample("csrtool_page_cache_bytes", "encoding=\"identity\"", stats.getBytes());
+		header("csrtool_page_cache_requests_total", "counter", "Number of pages requested by result");
+		sample("csrtool_page_cache_requests_total", "result=\"hit\"", stats.getHits());
+		sample("csrtool_page_cache_requests_total", "result=\"miss\"", stats.getMisses());
+		header("csrtool_page_cache_uncacheable_total", "counter", "Number of pages rendered which could not be kept");
+		writer.write("csrtool_page_cache_uncacheable_total " + stats.getUncacheable() + "\n");
+		header("csrtool_page_cache_removals_total", "counter", "Number of pages removed by cause");
+		sample("csrtool_page_cache_removals_total", "cause=\"eviction\"", stats.getEvictions());
+		sample("csrtool_page_cache_removals_total", "cause=\"invalidation\"", stats.getInvalidations());
+	}
+
+	/**
+	 * Writes the counts of the request deadlines
+	 * @param stats counts of the deadlines
+	 * @throws IOException if the text could not be written
+	 */
+	public void writeDeadlines(DeadlineStats stats) throws IOException {
+		header("csrtool_deadline_requests_total", "counter", "Number of requests given a deadline");
+		writer.write("csrtool_deadline_requests_total " + stats.getRequests() + "\n");
+		header("csrtool_deadline_exceeded_total", "counter", "Number of deadlines exceeded by stage of the request");
+		for (Map.Entry<String, Long> exceeded : stats.getExceeded().entrySet()) {
+			sample("csrtool_deadline_exceeded_total", nameLabel("stage", exceeded.getKey()), exceeded.getValue().longValue());
+		}
+	}
+
+	/**
+	 * Writes the statistics of the hedged calls of the backends
+	 * @param stats statistics of the hedger of each backend
+	 * @throws IOException if the text could not be written
+	 */
+	public void writeHedging(List<HedgerStats> stats) throws IOException {
+		header("csrtool_hedge_calls_total", "counter", "Number of hedged calls made to a backend");
+		for (HedgerStats hedgerStats : stats) {
+			sample("csrtool_hedge_calls_total", nameLabel("backend", hedgerStats.getName()), hedgerStats.getCalls());
+		}
+		header("csrtool_hedges_total", "counter", "Number of hedges of the slow calls to a backend by result");
+		for (HedgerStats hedgerStats : stats) {
+			String backendLabel = nameLabel("backend", hedgerStats.getName());
+			sample("csrtool_hedges_total", backendLabel + ",result=\"won\"", hedgerStats.getWins());
+			sample("csrtool_hedges_total", backendLabel + ",result=\"lost\"", hedgerStats.getHedges() - hedgerStats.getWins());
+			sample("csrtool_hedges_total", backendLabel + ",result=\"denied\"", hedgerStats.getDenied());
+		}
+		header("csrtool_hedge_delay_milliseconds", "gauge", "Delay after which a call to a backend is hedged, -1 until known");
+		for (HedgerStats hedgerStats : stats) {
+			sample("csrtool_hedge_delay_milliseconds", nameLabel("backend", hedgerStats.getName()), hedgerStats.getHedgeDelayMillis());
+		}
+	}
+
+	/**
+	 * Writes the statistics of the capture of the GASSI traffic
+	 * @param stats statistics of the capture
+	 * @throws IOException if the text could not be written
+	 */
+	public void writeGassiCapture(GassiCaptureStats stats) throws IOException {
+		header("csrtool_gassi_capture_active", "gauge", "Whether a capture of the GASSI traffic is in progress");
+		writer.write("csrtool_gassi_capture_active " + (stats.isActive() ? 1 : 0) + "\n");
+		header("csrtool_gassi_capture_requests_total", "counter", "Number of requests seen by the capture of the GASSI traffic by outcome");
+		sample("csrtool_gassi_capture_requests_total", "outcome=\"captured\"", stats.getCaptured());
+		sample("csrtool_gassi_capture_requests_total", "outcome=\"dropped\"", stats.getDropped());
+		sample("csrtool_gassi_capture_requests_total", "outcome=\"failed\"", stats.getFailures());
+	}
+
+	/**
+	 * Writes the statistics of the role catalogue
+	 * @param stats statistics of the role catalogue
+	 * @throws IOException if the text could not be written
+	 */
+	public void writeRoleCatalogue(RoleCatalogueStats stats) throws IOException {
+		header("csrtool_role_catalogue_roles", "gauge", "Number of roles of the role catalogue listed");
+		writer.write("csrtool_role_catalogue_roles " + stats.getRoles() + "\n");
+		header("csrtool_role_catalogue_version", "gauge", "Version of the role catalogue listed");
+		writer.write("csrtool_role_catalogue_version " + stats.getVersion() + "\n");
+		header("csrtool_role_catalogue_build_milliseconds", "gauge", "Duration of the last build of the role catalogue");
+		writer.write("csrtool_role_catalogue_build_milliseconds " + stats.getLastBuildMillis() + "\n");
+		header("csrtool_role_catalogue_build_failures_total", "counter", "Number of builds of the role catalogue which failed");
+		writer.write("csrtool_role_catalogue_build_failures_total " + stats.getFailures() + "\n");
+	}
+
+	/**
+	 * Writes the statistics of the speculative prefetch of the bricks
+	 * @param stats statistics of the prefetches
+	 * @throws IOException if the text could not be written
+	 */
+	public void writeSpeculativePrefetch(SpeculativePrefetchStats stats) throws IOException {
+		header("csrtool_speculative_prefetches_total", "counter", "Number of bricks prefetched by outcome");
+		sample("csrtool_speculative_prefetches_total", "outcome=\"issued\"", stats.getIssued());
+		sample("csrtool_speculative_prefetches_total", "outcome=\"wasted\"", stats.getWasted());
+		sample("csrtool_speculative_prefetches_total", "outcome=\"throttled\"", stats.getThrottled());
+		sample("csrtool_speculative_prefetches_total", "outcome=\"failed\"", stats.getFailures());
+		header("csrtool_speculative_prefetch_requests_total", "counter", "Number of requests of a prefetchable brick by result");
+		sample("csrtool_speculative_prefetch_requests_total", "result=\"hit\"", stats.getHits());
+		sample("csrtool_speculative_prefetch_requests_total", "result=\"late\"", stats.getLate());
+		sample("csrtool_speculative_prefetch_requests_total", "result=\"miss\"", stats.getMisses());
+	}
+
+	/**
+	 * Writes the help and type lines of a metric
+	 * @param name metric name
+	 * @param type metric type
+	 * @param help description of the metric
+	 * @throws IOException if the text could not be written
+	 */
+	private void header(String name, String type, String help) throws IOException {
+		writer.write("# HELP " + name + " " + help + "\n");
+		writer.write("# TYPE " + name + " " + type + "\n");
+	}
+
+	/**
+	 * Writes a sample
+	 * @param name metric name
+	 * @param labels labels of the sample, without braces
+	 * @param value value of the sample
+	 * @throws IOException if the text could not be written
+	 */
+	private void sample(String name, String labels, long value) throws IOException {
+		writer.write(name + "{" + labels + "} " + value + "\n");
+	}
+
+	/**
+	 * @param actionMetrics metrics of an action
+	 * @return the labels of the action
+	 **/
+	private static String actionLabels(ActionMetrics actionMetrics) {
+		return "controller=\"" + escape(actionMetrics.getController()) + "\",action=\"" + escape(actionMetrics.getAction())
+				+ "\",mco=\"" + escape(actionMetrics.getMco()) + "\"";
+	}
+
+	/**
+	 * @param label label name
+	 * @param value label value
+	 * @return the label
+	 **/
+	private static String nameLabel(String label, String value) {
+		return label + "=\"" + escape(value) + "\"";
+	}
+
+	/**
+	 * @param micros duration in microseconds
+	 * @return the duration in seconds
+	 **/
+	private static String seconds(long micros) {
+		return String.valueOf(micros / 1000000d);
+	}
+
+	/**
+	 * Escapes a label value
+	 * @param value label value
+	 * @return the escaped value
+	 */
+	private static String escape(String value) {
+		if (value == null) {
+			return "";
+		}
+		return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+}
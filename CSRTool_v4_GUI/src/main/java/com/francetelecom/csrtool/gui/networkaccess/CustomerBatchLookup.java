@@ -0,0 +1,210 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.gui.deadline.RequestDeadline;
+import com.francetelecom.csrtool.gui.ws.BackendUnavailableException;
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * Looks up the network access data of many customers at once.<br>
+ * The customers are grouped into batch calls when the backend supports them, single calls
+ * otherwise. At most a given number of calls run in parallel for one lookup, and the results are
+ * handed over as soon as each call completes, so that they can be streamed to the client.
+ * @class CustomerBatchLookup
+ */
+public class CustomerBatchLookup {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(CustomerBatchLookup.class);
+
+	/**	backend services **/
+	private final INetworkAccessService networkAccessService;
+
+	/**	executor of the backend calls, shared by all the lookups **/
+	private final Executor executor;
+
+	/**	maximum number of backend calls in parallel for one lookup **/
+	private final int parallelism;
+
+	/**	maximum duration of one lookup in milliseconds **/
+	private final long timeoutMillis;
+
+	/**
+	 * Constructor
+	 * @param networkAccessService backend services
+	 * @param executor executor of the backend calls
+	 * @param parallelism maximum number of backend calls in parallel for one lookup
+	 * @param timeoutMillis maximum duration of one lookup in milliseconds, shortened to the deadline of the request
+	 */
+	public CustomerBatchLookup(INetworkAccessService networkAccessService, Executor executor, int parallelism, long timeoutMillis) {
+		this.networkAccessService = networkAccessService;
+		this.executor = executor;
+		this.parallelism = parallelism;
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * Looks up customers. Every customer gets exactly one result, in completion order.
+	 * @param mco MCO name of the customers
+	 * @param customerIds customer identifiers, without duplicates
+	 * @param handler receiver of the results
+	 * @throws IOException if a result could not be handed over
+	 */
+	public void lookup(String mco, List<String> customerIds, ICustomerResultHandler handler) throws IOException {
+		List<List<String>> chunks = partition(customerIds, Math.max(1, networkAccessService.getMaxBatchSize()));
+		CompletionService<List<CustomerResult>> completionService = new ExecutorCompletionService<List<CustomerResult>>(executor);
+		Map<Future<List<CustomerResult>>, List<String>> pending = new IdentityHashMap<Future<List<CustomerResult>>, List<String>>();
+		long deadline = System.currentTimeMillis() + RequestDeadline.bound(timeoutMillis);
+		int next = 0;
+
+		try {
+			while (next < chunks.size() || !pending.isEmpty()) {
+				/*
+				 * Keep up to 'parallelism' calls running.
+				 */
+				while (next < chunks.size() && pending.size() < parallelism) {
+					List<String> chunk = chunks.get(next++);
+					try {
+						pending.put(completionService.submit(new ChunkCall(mco, chunk)), chunk);
+					} catch (RejectedExecutionException e) {
+						emitAll(chunk, CustomerResult.STATUS_UNAVAILABLE, handler);
+					}
+				}
+				if (pending.isEmpty()) {
+					continue;
+				}
+
+				Future<List<CustomerResult>> done = completionService.poll(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+				if (done == null) {
+					LOGGER.warn(FuncLogging.getLogFormatedMessage("CustomerBatchLookup","lookup",
+							FuncLogging.REQUEST_STATUS_FAILED, null,"lookup of " + customerIds.size() + " customers timed out"));
+					break;
+				}
+				List<String> chunk = pending.remove(done);
+				try {
+					for (CustomerResult result : done.get()) {
+						handler.onResult(result);
+					}
+				} catch (ExecutionException e) {
+					emitAll(chunk, CustomerResult.STATUS_ERROR, handler);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			for (Future<List<CustomerResult>> future : pending.keySet()) {
+				future.cancel(true);
+			}
+		}
+
+		/*
+		 * The calls not done in time, or not started, get an error result.
+		 */
+		for (List<String> chunk : pending.values()) {
+			emitAll(chunk, CustomerResult.STATUS_ERROR, handler);
+		}
+		while (next < chunks.size()) {
+			emitAll(chunks.get(next++), CustomerResult.STATUS_ERROR, handler);
+		}
+	}
+
+	/**
+	 * Hands over the same status for all the customers of a chunk
+	 * @param chunk customer identifiers
+	 * @param status status of the results
+	 * @param handler receiver of the results
+	 * @throws IOException if a result could not be handed over
+	 */
+	private void emitAll(List<String> chunk, String status, ICustomerResultHandler handler) throws IOException {
+		for (String customerId : chunk) {
+			handler.onResult(new CustomerResult(customerId, status, null));
+		}
+	}
+
+	/**
+	 * Splits a list into chunks
+	 * @param customerIds customer identifiers
+	 * @param size maximum size of a chunk
+	 * @return the chunks
+	 */
+	private static List<List<String>> partition(List<String> customerIds, int size) {
+		List<List<String>> chunks = new ArrayList<List<String>>((customerIds.size() + size - 1) / size);
+		for (int i = 0; i < customerIds.size(); i += size) {
+			chunks.add(customerIds.subList(i, Math.min(customerIds.size(), i + size)));
+		}
+		return chunks;
+	}
+
+	/**
+	 * The backend call of one chunk of customers. Failures are turned into results so that each
+	 * customer of the chunk is always answered.
+	 * @class ChunkCall
+	 * @implements Callable
+	 */
+	private final class ChunkCall implements Callable<List<CustomerResult>> {
+		/**	MCO name of the customers **/
+		private final String mco;
+
+		/**	customer identifiers **/
+		private final List<String> chunk;
+
+		/**
+		 * Constructor
+		 * @param mco MCO name of the customers
+		 * @param chunk customer identifiers
+		 */
+		private ChunkCall(String mco, List<String> chunk) {
+			this.mco = mco;
+			this.chunk = chunk;
+		}
+
+		/**
+		 * @return the results of the customers of the chunk
+		 **/
+		public List<CustomerResult> call() {
+			List<CustomerResult> results = new ArrayList<CustomerResult>(chunk.size());
+			try {
+				Map<String, NetworkAccessCustomerInfo> found = new HashMap<String, NetworkAccessCustomerInfo>();
+				if (chunk.size() == 1) {
+					NetworkAccessCustomerInfo customerInfo = networkAccessService.getCustomerInfo(mco, chunk.get(0));
+					if (customerInfo != null) {
+						found.put(chunk.get(0), customerInfo);
+					}
+				} else {
+					for (NetworkAccessCustomerInfo customerInfo : networkAccessService.getCustomerInfos(mco, chunk)) {
+						found.put(customerInfo.getCustomerId(), customerInfo);
+					}
+				}
+				for (String customerId : chunk) {
+					NetworkAccessCustomerInfo customerInfo = found.get(customerId);
+					results.add(new CustomerResult(customerId, customerInfo != null ? CustomerResult.STATUS_OK : CustomerResult.STATUS_NOT_FOUND, customerInfo));
+				}
+			} catch (Exception e) {
+				String status = e instanceof BackendUnavailableException ? CustomerResult.STATUS_UNAVAILABLE : CustomerResult.STATUS_ERROR;
+				LOGGER.warn(FuncLogging.getLogFormatedMessage("CustomerBatchLookup","call",
+						FuncLogging.REQUEST_STATUS_FAILED, null,e.getMessage()), e);
+				results.clear();
+				for (String customerId : chunk) {
+					results.add(new CustomerResult(customerId, status, null));
+				}
+			}
+			return results;
+		}
+	}
+}
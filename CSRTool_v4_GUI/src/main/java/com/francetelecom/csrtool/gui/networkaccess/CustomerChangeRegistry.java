@@ -0,0 +1,72 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * Dispatches the modifications of the customers to the components caching their data, such as the
+ * caches of the network access controller. A listener failing does not prevent the others from
+ * being notified.
+ * @class CustomerChangeRegistry
+ */
+public final class CustomerChangeRegistry {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(CustomerChangeRegistry.class);
+
+	/**	unique instance **/
+	private static final CustomerChangeRegistry INSTANCE = new CustomerChangeRegistry();
+
+	/**	listeners notified **/
+	private final List<ICustomerChangeListener> listeners = new CopyOnWriteArrayList<ICustomerChangeListener>();
+
+	/**
+	 * Constructor
+	 */
+	private CustomerChangeRegistry() {
+		// singleton
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static CustomerChangeRegistry getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Registers a listener
+	 * @param listener the listener
+	 */
+	public void register(ICustomerChangeListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Unregisters a listener
+	 * @param listener the listener
+	 */
+	public void unregister(ICustomerChangeListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Notifies that a customer was modified
+	 * @param mco MCO name of the customer
+	 * @param customerId customer identifier
+	 */
+	public void customerChanged(String mco, String customerId) {
+		for (ICustomerChangeListener listener : listeners) {
+			try {
+				listener.customerChanged(mco, customerId);
+			} catch (RuntimeException e) {
+				LOGGER.warn(FuncLogging.getLogFormatedMessage("CustomerChangeRegistry","customerChanged",
+						FuncLogging.REQUEST_STATUS_FAILED, null,"customer " + customerId + " of " + mco + ": " + e.getMessage()), e);
+			}
+		}
+	}
+}
@@ -0,0 +1,385 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An immutable index of the customer identifiers of a MCO, searched by prefix.<br>
+ * The identifiers are kept sorted in a few primitive arrays rather than as objects: the UTF-8
+ * bytes of all the identifiers in one array with the end offset of each in another, and likewise
+ * for the customer identifiers. A prefix is found by binary search, the matching identifiers
+ * being the ones following it. Changes are applied by merging them into a new index, so that the
+ * index in use is never modified.
+ * @class CustomerIdIndex
+ */
+public final class CustomerIdIndex {
+
+	/**	encoding of the identifiers, whose byte order is the order of the characters **/
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/**	the empty index **/
+	public static final CustomerIdIndex EMPTY = new CustomerIdIndex(new byte[0], new int[0], new byte[0], new int[0], new byte[0], new String[0], 0);
+
+	/**	orders the changes as the entries of the index **/
+	private static final Comparator<Entry> ENTRY_ORDER = new Comparator<Entry>() {
+		public int compare(Entry entry1, Entry entry2) {
+			int result = compareBytes(entry1.identifier, 0, entry1.identifier.length, entry2.identifier, 0, entry2.identifier.length);
+			if (result == 0) {
+				result = entry1.type.compareTo(entry2.type);
+			}
+			if (result == 0) {
+				result = compareBytes(entry1.customerId, 0, entry1.customerId.length, entry2.customerId, 0, entry2.customerId.length);
+			}
+			return result;
+		}
+	};
+
+	/**	identifiers, concatenated **/
+	private final byte[] identifiers;
+
+	/**	end of each identifier in {@link #identifiers} **/
+	private final int[] identifierEnds;
+
+	/**	customer identifiers, concatenated **/
+	private final byte[] customerIds;
+
+	/**	end of each customer identifier in {@link #customerIds} **/
+	private final int[] customerIdEnds;
+
+	/**	type of each identifier, as an index in {@link #typeNames} **/
+	private final byte[] types;
+
+	/**	names of the types **/
+	private final String[] typeNames;
+
+	/**	number of entries **/
+	private final int size;
+
+	/**
+	 * An identifier being merged.
+	 * @class Entry
+	 */
+	private static final class Entry {
+		/**	the identifier **/
+		private final byte[] identifier;
+
+		/**	type of the identifier **/
+		private final String type;
+
+		/**	identifier of the customer **/
+		private final byte[] customerId;
+
+		/**	whether the identifier was removed **/
+		private final boolean removed;
+
+		/**
+		 * Constructor
+		 * @param customerIdentifier the identifier
+		 */
+		private Entry(CustomerIdentifier customerIdentifier) {
+			this.identifier = customerIdentifier.getIdentifier().getBytes(UTF8);
+			this.type = customerIdentifier.getType() != null ? customerIdentifier.getType() : "";
+			this.customerId = customerIdentifier.getCustomerId() != null ? customerIdentifier.getCustomerId().getBytes(UTF8) : new byte[0];
+			this.removed = customerIdentifier.isRemoved();
+		}
+	}
+
+	/**
+	 * Appends the entries of a new index.
+	 * @class Builder
+	 */
+	private static final class Builder {
+		/**	identifiers **/
+		private byte[] identifiers;
+
+		/**	ends of the identifiers **/
+		private int[] identifierEnds;
+
+		/**	customer identifiers **/
+		private byte[] customerIds;
+
+		/**	ends of the customer identifiers **/
+		private int[] customerIdEnds;
+
+		/**	types **/
+		private byte[] types;
+
+		/**	names of the types **/
+		private final List<String> typeNames = new ArrayList<String>();
+
+		/**	number of entries **/
+		private int size;
+
+		/**	bytes of identifiers used **/
+		private int identifiersLength;
+
+		/**	bytes of customer identifiers used **/
+		private int customerIdsLength;
+
+		/**
+		 * Constructor
+		 * @param expectedSize expected number of entries
+		 * @param expectedBytes expected bytes of identifiers and of customer identifiers
+		 */
+		private Builder(int expectedSize, int expectedBytes) {
+			identifiers = new byte[Math.max(expectedBytes, 16)];
+			customerIds = new byte[Math.max(expectedBytes, 16)];
+			identifierEnds = new int[Math.max(expectedSize, 4)];
+			customerIdEnds = new int[Math.max(expectedSize, 4)];
+			types = new byte[Math.max(expectedSize, 4)];
+		}
+
+		/**
+		 * Appends an entry
+		 * @param identifier bytes holding the identifier
+		 * @param identifierStart start of the identifier
+		 * @param identifierEnd end of the identifier
+		 * @param type type of the identifier
+		 * @param customerId bytes holding the customer identifier
+		 * @param customerIdStart start of the customer identifier
+		 * @param customerIdEnd end of the customer identifier
+		 */
+		private void add(byte[] identifier, int identifierStart, int identifierEnd, String type, byte[] customerId, int customerIdStart,
+				int customerIdEnd) {
+			if (size == types.length) {
+				int capacity = size + (size >> 1) + 1;
+				identifierEnds = Arrays.copyOf(identifierEnds, capacity);
+				customerIdEnds = Arrays.copyOf(customerIdEnds, capacity);
+				types = Arrays.copyOf(types, capacity);
+			}
+			identifiers = append(identifiers, identifiersLength, identifier, identifierStart, identifierEnd);
+			identifiersLength += identifierEnd - identifierStart;
+			customerIds = append(customerIds, customerIdsLength, customerId, customerIdStart, customerIdEnd);
+			customerIdsLength += customerIdEnd - customerIdStart;
+			int typeIndex = typeNames.indexOf(type);
+			if (typeIndex < 0) {
+				if (typeNames.size() > Byte.MAX_VALUE) {
+					throw new IllegalStateException("too many identifier types");
+				}
+				typeNames.add(type);
+				typeIndex = typeNames.size() - 1;
+			}
+			identifierEnds[size] = identifiersLength;
+			customerIdEnds[size] = customerIdsLength;
+			types[size] = (byte) typeIndex;
+			size++;
+		}
+
+		/**
+		 * @param array array to append to
+		 * @param length bytes of the array used
+		 * @param bytes bytes to append
+		 * @param start start of the bytes to append
+		 * @param end end of the bytes to append
+		 * @return the array, enlarged if needed
+		 */
+		private static byte[] append(byte[] array, int length, byte[] bytes, int start, int end) {
+			byte[] result = array;
+			if (length + end - start > result.length) {
+				result = Arrays.copyOf(result, Math.max(length + end - start, result.length + (result.length >> 1)));
+			}
+			System.arraycopy(bytes, start, result, length, end - start);
+			return result;
+		}
+
+		/**
+		 * @return the index
+		 **/
+		private CustomerIdIndex build() {
+			return new CustomerIdIndex(Arrays.copyOf(identifiers, identifiersLength), Arrays.copyOf(identifierEnds, size),
+					Arrays.copyOf(customerIds, customerIdsLength), Arrays.copyOf(customerIdEnds, size), Arrays.copyOf(types, size),
+					typeNames.toArray(new String[typeNames.size()]), size);
+		}
+	}
+
+	/**
+	 * Constructor
+	 * @param identifiers identifiers, concatenated
+	 * @param identifierEnds end of each identifier
+	 * @param customerIds customer identifiers, concatenated
+	 * @param customerIdEnds end of each customer identifier
+	 * @param types type of each identifier
+	 * @param typeNames names of the types
+	 * @param size number of entries
+	 */
+	private CustomerIdIndex(byte[] identifiers, int[] identifierEnds, byte[] customerIds, int[] customerIdEnds, byte[] types,
+			String[] typeNames, int size) {
+		this.identifiers = identifiers;
+		this.identifierEnds = identifierEnds;
+		this.customerIds = customerIds;
+		this.customerIdEnds = customerIdEnds;
+		this.types = types;
+		this.typeNames = typeNames;
+		this.size = size;
+	}
+
+	/**
+	 * Finds the identifiers starting with a prefix
+	 * @param prefix the prefix
+	 * @param maxCount maximum number of identifiers returned
+	 * @return the identifiers, in their order
+	 */
+	public List<CustomerIdentifier> find(String prefix, int maxCount) {
+		byte[] prefixBytes = prefix.getBytes(UTF8);
+		// first identifier not lower than the prefix
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (compareBytes(identifiers, identifierStart(middle), identifierEnds[middle], prefixBytes, 0, prefixBytes.length) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		List<CustomerIdentifier> result = new ArrayList<CustomerIdentifier>(Math.min(maxCount, 16));
+		for (int i = low; i < size && result.size() < maxCount && startsWith(i, prefixBytes); i++) {
+			result.add(get(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Makes a new index with changes applied: the identifiers removed are dropped, the others are
+	 * added if missing
+	 * @param changes the changes, in any order
+	 * @return the new index
+	 */
+	public CustomerIdIndex merge(List<CustomerIdentifier> changes) {
+		List<Entry> entries = new ArrayList<Entry>(changes.size());
+		int changedBytes = 0;
+		for (CustomerIdentifier change : changes) {
+			if (change.getIdentifier() != null) {
+				Entry entry = new Entry(change);
+				entries.add(entry);
+				changedBytes += entry.identifier.length;
+			}
+		}
+		// stable: of the changes of a same entry, the last one wins
+		Collections.sort(entries, ENTRY_ORDER);
+
+		Builder builder = new Builder(size + entries.size(), identifiers.length + changedBytes);
+		int i = 0;
+		int j = 0;
+		while (i < size || j < entries.size()) {
+			Entry entry = j < entries.size() ? entries.get(j) : null;
+			if (entry != null && j + 1 < entries.size() && ENTRY_ORDER.compare(entry, entries.get(j + 1)) == 0) {
+				j++;
+				continue;
+			}
+			int order = i >= size ? 1 : entry == null ? -1 : compare(i, entry);
+			if (order < 0) {
+				builder.add(identifiers, identifierStart(i), identifierEnds[i], typeNames[types[i]], customerIds, customerIdStart(i),
+						customerIdEnds[i]);
+				i++;
+			} else {
+				if (!entry.removed) {
+					builder.add(entry.identifier, 0, entry.identifier.length, entry.type, entry.customerId, 0, entry.customerId.length);
+				}
+				if (order == 0) {
+					i++;
+				}
+				j++;
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * @return the number of identifiers
+	 **/
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the approximate memory used, in bytes
+	 **/
+	public long getMemoryBytes() {
+		return identifiers.length + customerIds.length + 9L * size;
+	}
+
+	/**
+	 * @param i index of an entry
+	 * @return the entry
+	 */
+	private CustomerIdentifier get(int i) {
+		return new CustomerIdentifier(new String(identifiers, identifierStart(i), identifierEnds[i] - identifierStart(i), UTF8),
+				typeNames[types[i]], new String(customerIds, customerIdStart(i), customerIdEnds[i] - customerIdStart(i), UTF8), false);
+	}
+
+	/**
+	 * @param i index of an entry
+	 * @param prefix bytes of a prefix
+	 * @return whether the identifier of the entry starts with the prefix
+	 */
+	private boolean startsWith(int i, byte[] prefix) {
+		int start = identifierStart(i);
+		if (identifierEnds[i] - start < prefix.length) {
+			return false;
+		}
+		for (int k = 0; k < prefix.length; k++) {
+			if (identifiers[start + k] != prefix[k]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param i index of an entry
+	 * @param entry a change
+	 * @return the order of the entry and the change
+	 */
+	private int compare(int i, Entry entry) {
+		int result = compareBytes(identifiers, identifierStart(i), identifierEnds[i], entry.identifier, 0, entry.identifier.length);
+		if (result == 0) {
+			result = typeNames[types[i]].compareTo(entry.type);
+		}
+		if (result == 0) {
+			result = compareBytes(customerIds, customerIdStart(i), customerIdEnds[i], entry.customerId, 0, entry.customerId.length);
+		}
+		return result;
+	}
+
+	/**
+	 * @param i index of an entry
+	 * @return start of its identifier
+	 */
+	private int identifierStart(int i) {
+		return i == 0 ? 0 : identifierEnds[i - 1];
+	}
+
+	/**
+	 * @param i index of an entry
+	 * @return start of its customer identifier
+	 */
+	private int customerIdStart(int i) {
+		return i == 0 ? 0 : customerIdEnds[i - 1];
+	}
+
+	/**
+	 * Compares two byte ranges as unsigned bytes
+	 * @param bytes1 first bytes
+	 * @param start1 start of the first range
+	 * @param end1 end of the first range
+	 * @param bytes2 second bytes
+	 * @param start2 start of the second range
+	 * @param end2 end of the second range
+	 * @return the order of the ranges
+	 */
+	private static int compareBytes(byte[] bytes1, int start1, int end1, byte[] bytes2, int start2, int end2) {
+		int length = Math.min(end1 - start1, end2 - start2);
+		for (int k = 0; k < length; k++) {
+			int result = (bytes1[start1 + k] & 0xFF) - (bytes2[start2 + k] & 0xFF);
+			if (result != 0) {
+				return result;
+			}
+		}
+		return (end1 - start1) - (end2 - start2);
+	}
+}
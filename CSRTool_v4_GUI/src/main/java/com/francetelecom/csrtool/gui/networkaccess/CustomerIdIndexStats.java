@@ -0,0 +1,125 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * This bean is a snapshot of the state of the customer identifier index of a MCO.
+ * @class CustomerIdIndexStats
+ * @Implements Serializable
+ */
+public class CustomerIdIndexStats implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = -5390816224437290168L;
+
+	/**	MCO name **/
+	private final String mco;
+
+	/**	whether the index is loaded **/
+	private final boolean loaded;
+
+	/**	number of identifiers **/
+	private final int size;
+
+	/**	approximate memory used, in bytes **/
+	private final long memoryBytes;
+
+	/**	time of the last load or refresh **/
+	private final long refreshTime;
+
+	/**	number of refreshes **/
+	private final long refreshes;
+
+	/**	number of failed loads or refreshes **/
+	private final long failures;
+
+	/**
+	 * Constructor
+	 * @param mco MCO name
+	 * @param loaded whether the index is loaded
+	 * @param size number of identifiers
+	 * @param memoryBytes approximate memory used, in bytes
+	 * @param refreshTime time of the last load or refresh
+	 * @param refreshes number of refreshes
+	 * @param failures number of failed loads or refreshes
+	 */
+	public CustomerIdIndexStats(String mco, boolean loaded, int size, long memoryBytes, long refreshTime, long refreshes, long failures) {
+		this.mco = mco;
+		this.loaded = loaded;
+		this.size = size;
+		this.memoryBytes = memoryBytes;
+		this.refreshTime = refreshTime;
+		this.refreshes = refreshes;
+		this.failures = failures;
+	}
+
+	/**
+	 * @return details of the statistics
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("mco", mco);
+		toStringBuilder.append("loaded", loaded);
+		toStringBuilder.append("size", size);
+		toStringBuilder.append("memoryBytes", memoryBytes);
+		toStringBuilder.append("refreshTime", refreshTime);
+		toStringBuilder.append("refreshes", refreshes);
+		toStringBuilder.append("failures", failures);
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return MCO name
+	 **/
+	public String getMco() {
+		return mco;
+	}
+
+	/**
+	 * @return whether the index is loaded
+	 **/
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	/**
+	 * @return number of identifiers
+	 **/
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return approximate memory used, in bytes
+	 **/
+	public long getMemoryBytes() {
+		return memoryBytes;
+	}
+
+	/**
+	 * @return time of the last load or refresh
+	 **/
+	public long getRefreshTime() {
+		return refreshTime;
+	}
+
+	/**
+	 * @return number of refreshes
+	 **/
+	public long getRefreshes() {
+		return refreshes;
+	}
+
+	/**
+	 * @return number of failed loads or refreshes
+	 **/
+	public long getFailures() {
+		return failures;
+	}
+}
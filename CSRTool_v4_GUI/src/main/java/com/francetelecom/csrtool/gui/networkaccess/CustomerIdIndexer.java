@@ -0,0 +1,185 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.gui.concurrent.DaemonThreadFactory;
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * Maintains a {@link CustomerIdIndex} per MCO from the backend export of the customer
+ * identifiers.<br>
+ * The index of a MCO is loaded in the background on its first search, by pages of the export.
+ * It is then refreshed periodically with the changes of the export since the last refresh,
+ * merged into a new index which replaces the previous one: the searches never wait for a load.
+ * @class CustomerIdIndexer
+ */
+public class CustomerIdIndexer {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(CustomerIdIndexer.class);
+
+	/**	backend export **/
+	private final ICustomerIdentifierExport export;
+
+	/**	maximum number of identifiers read per page of the export **/
+	private final int pageSize;
+
+	/**	index of each MCO **/
+	private final ConcurrentMap<String, MCOIndex> indexes = new ConcurrentHashMap<String, MCOIndex>();
+
+	/**	loader of the indexes **/
+	private final ScheduledExecutorService loader;
+
+	/**
+	 * The index of a MCO.
+	 * @class MCOIndex
+	 */
+	private static final class MCOIndex {
+		/**	MCO name **/
+		private final String mco;
+
+		/**	index in use, <code>null</code> until loaded **/
+		private volatile CustomerIdIndex index;
+
+		/**	position in the export of the next changes **/
+		private volatile String marker;
+
+		/**	time of the last load or refresh **/
+		private volatile long refreshTime;
+
+		/**	number of refreshes **/
+		private final AtomicLong refreshes = new AtomicLong();
+
+		/**	number of failed loads or refreshes **/
+		private final AtomicLong failures = new AtomicLong();
+
+		/**
+		 * Constructor
+		 * @param mco MCO name
+		 */
+		private MCOIndex(String mco) {
+			this.mco = mco;
+		}
+	}
+
+	/**
+	 * Constructor
+	 * @param export backend export
+	 * @param pageSize maximum number of identifiers read per page of the export
+	 * @param refreshMillis delay between two refreshes of an index, in milliseconds
+	 */
+	public CustomerIdIndexer(ICustomerIdentifierExport export, int pageSize, long refreshMillis) {
+		this.export = export;
+		this.pageSize = pageSize;
+		this.loader = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("CustomerIdIndexer"));
+		this.loader.scheduleWithFixedDelay(new Runnable() {
+			public void run() {
+				for (MCOIndex mcoIndex : indexes.values()) {
+					if (mcoIndex.index != null) {
+						load(mcoIndex);
+					}
+				}
+			}
+		}, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Finds the identifiers of the customers of a MCO starting with a prefix
+	 * @param mco MCO name
+	 * @param prefix the prefix
+	 * @param maxCount maximum number of identifiers returned
+	 * @return the identifiers, <code>null</code> while the index of the MCO is loading
+	 */
+	public List<CustomerIdentifier> find(String mco, String prefix, int maxCount) {
+		MCOIndex mcoIndex = indexes.get(mco);
+		if (mcoIndex == null) {
+			final MCOIndex newIndex = new MCOIndex(mco);
+			mcoIndex = indexes.putIfAbsent(mco, newIndex);
+			if (mcoIndex == null) {
+				mcoIndex = newIndex;
+				try {
+					loader.execute(new Runnable() {
+						public void run() {
+							load(newIndex);
+						}
+					});
+				} catch (RejectedExecutionException e) {
+					// shut down
+					indexes.remove(mco, newIndex);
+				}
+			}
+		}
+		CustomerIdIndex index = mcoIndex.index;
+		if (index == null) {
+			return null;
+		}
+		return index.find(prefix, maxCount);
+	}
+
+	/**
+	 * Loads or refreshes the index of a MCO. Until the first load succeeds, the complete export
+	 * is read again.
+	 * @param mcoIndex index of the MCO
+	 */
+	private void load(MCOIndex mcoIndex) {
+		String marker = mcoIndex.marker;
+		List<CustomerIdentifier> changes = new ArrayList<CustomerIdentifier>();
+		try {
+			CustomerIdentifierPage page;
+			do {
+				page = export.exportIdentifiers(mcoIndex.mco, marker, pageSize);
+				changes.addAll(page.getIdentifiers());
+				marker = page.getMarker();
+			} while (!page.isLast());
+		} catch (Exception e) {
+			mcoIndex.failures.incrementAndGet();
+			LOGGER.warn(FuncLogging.getLogFormatedMessage("CustomerIdIndexer","load",
+					FuncLogging.REQUEST_STATUS_FAILED, null,"customer identifiers of " + mcoIndex.mco + " not loaded: " + e.getMessage()), e);
+			if (mcoIndex.index == null) {
+				// loaded again on the next search
+				indexes.remove(mcoIndex.mco, mcoIndex);
+			}
+			return;
+		}
+		CustomerIdIndex index = mcoIndex.index;
+		mcoIndex.index = (index != null ? index : CustomerIdIndex.EMPTY).merge(changes);
+		mcoIndex.marker = marker;
+		mcoIndex.refreshTime = System.currentTimeMillis();
+		if (index == null && LOGGER.isInfoEnabled()) {
+			LOGGER.info(FuncLogging.getLogFormatedMessage("CustomerIdIndexer","load",
+					String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,mcoIndex.index.size() + " customer identifiers of " + mcoIndex.mco + " loaded"));
+		} else {
+			mcoIndex.refreshes.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Stops the loads and the refreshes
+	 */
+	public void shutdown() {
+		loader.shutdownNow();
+	}
+
+	/**
+	 * @return a snapshot of the state of the index of each MCO
+	 **/
+	public List<CustomerIdIndexStats> getStats() {
+		List<CustomerIdIndexStats> stats = new ArrayList<CustomerIdIndexStats>(indexes.size());
+		for (MCOIndex mcoIndex : indexes.values()) {
+			CustomerIdIndex index = mcoIndex.index;
+			stats.add(new CustomerIdIndexStats(mcoIndex.mco, index != null, index != null ? index.size() : 0,
+					index != null ? index.getMemoryBytes() : 0L, mcoIndex.refreshTime, mcoIndex.refreshes.get(), mcoIndex.failures.get()));
+		}
+		return stats;
+	}
+}
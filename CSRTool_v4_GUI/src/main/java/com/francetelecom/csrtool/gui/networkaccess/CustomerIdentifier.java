@@ -0,0 +1,81 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.io.Serializable;
+
+/**
+ * This bean represents an identifier under which agents search a customer: a phone number, a
+ * line identifier or a contract number.
+ * @class CustomerIdentifier
+ * @Implements Serializable
+ */
+public class CustomerIdentifier implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 3349710286021538946L;
+
+	/**	phone number **/
+	public static final String TYPE_PHONE = "PHONE";
+
+	/**	line identifier **/
+	public static final String TYPE_LINE = "LINE";
+
+	/**	contract number **/
+	public static final String TYPE_CONTRACT = "CONTRACT";
+
+	/**	the identifier **/
+	private final String identifier;
+
+	/**	type of the identifier **/
+	private final String type;
+
+	/**	identifier of the customer, as expected by {@link INetworkAccessService} **/
+	private final String customerId;
+
+	/**	whether the identifier was removed, in the changes of an export **/
+	private final boolean removed;
+
+	/**
+	 * Constructor
+	 * @param identifier the identifier
+	 * @param type type of the identifier
+	 * @param customerId identifier of the customer
+	 * @param removed whether the identifier was removed
+	 */
+	public CustomerIdentifier(String identifier, String type, String customerId, boolean removed) {
+		this.identifier = identifier;
+		this.type = type;
+		this.customerId = customerId;
+		this.removed = removed;
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return the identifier
+	 **/
+	public String getIdentifier() {
+		return identifier;
+	}
+
+	/**
+	 * @return type of the identifier
+	 **/
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 * @return identifier of the customer
+	 **/
+	public String getCustomerId() {
+		return customerId;
+	}
+
+	/**
+	 * @return whether the identifier was removed
+	 **/
+	public boolean isRemoved() {
+		return removed;
+	}
+}
@@ -0,0 +1,60 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * This bean represents a page of the export of the customer identifiers of a MCO.
+ * @class CustomerIdentifierPage
+ * @Implements Serializable
+ */
+public class CustomerIdentifierPage implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = -2176529403348147716L;
+
+	/**	identifiers of the page **/
+	private final List<CustomerIdentifier> identifiers;
+
+	/**	position in the export following the page **/
+	private final String marker;
+
+	/**	whether the page is the last one available **/
+	private final boolean last;
+
+	/**
+	 * Constructor
+	 * @param identifiers identifiers of the page
+	 * @param marker position in the export following the page
+	 * @param last whether the page is the last one available
+	 */
+	public CustomerIdentifierPage(List<CustomerIdentifier> identifiers, String marker, boolean last) {
+		this.identifiers = identifiers;
+		this.marker = marker;
+		this.last = last;
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return identifiers of the page
+	 **/
+	public List<CustomerIdentifier> getIdentifiers() {
+		return identifiers;
+	}
+
+	/**
+	 * @return position in the export following the page
+	 **/
+	public String getMarker() {
+		return marker;
+	}
+
+	/**
+	 * @return whether the page is the last one available
+	 **/
+	public boolean isLast() {
+		return last;
+	}
+}
@@ -0,0 +1,94 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+import com.francetelecom.csrtool.utils.CSRToolUtil;
+
+/**
+ * Identifies a customer within a MCO. Used as cache key so that the data of a customer is never
+ * shared between MCOs.
+ * @class CustomerKey
+ * @Implements Serializable
+ */
+public final class CustomerKey implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 5525829187006370147L;
+
+	/**	mco **/
+	private final String mco;
+
+	/**	customer identifier **/
+	private final String customerId;
+
+	/**
+	 * Constructor
+	 * @param mco MCO name
+	 * @param customerId customer identifier
+	 */
+	public CustomerKey(String mco, String customerId) {
+		this.mco = mco;
+		this.customerId = customerId;
+	}
+
+	/**
+	 * @return details of key
+	 **/
+	@Override
+	public String toString() {
+		return mco + "/" + customerId;
+	}
+
+	/**
+	 *  @param obj of Object type
+	 *  @return whether objects are equal or not
+	 * **/
+	@Override
+	public boolean equals(Object obj) {
+		if (CSRToolUtil.isNull(obj)) {
+			return false;
+		}
+		if (obj == this) {
+			return true;
+		}
+		if (obj.getClass() != getClass()) {
+			return false;
+		}
+		CustomerKey rhs = (CustomerKey) obj;
+		EqualsBuilder equalsBuilder = new EqualsBuilder();
+		equalsBuilder.append(mco, rhs.mco);
+		equalsBuilder.append(customerId, rhs.customerId);
+		return equalsBuilder.isEquals();
+	}
+
+	/**
+	 * @return hashcoded integer value
+	 **/
+	@Override
+	public int hashCode() {
+		HashCodeBuilder hashCodeBuilder = new HashCodeBuilder();
+		hashCodeBuilder.append(mco);
+		hashCodeBuilder.append(customerId);
+		return hashCodeBuilder.toHashCode();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return mco
+	 **/
+	public String getMco() {
+		return mco;
+	}
+
+	/**
+	 * @return customer identifier
+	 **/
+	public String getCustomerId() {
+		return customerId;
+	}
+}
@@ -0,0 +1,71 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.io.Serializable;
+
+/**
+ * This bean represents the outcome of the lookup of one customer in a batch request.
+ * @class CustomerResult
+ * @Implements Serializable
+ */
+public class CustomerResult implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = -7152307291624985263L;
+
+	/**	the data of the customer was found **/
+	public static final String STATUS_OK = "OK";
+
+	/**	the backend does not know the customer **/
+	public static final String STATUS_NOT_FOUND = "NOT_FOUND";
+
+	/**	the backend is unavailable, the lookup may be retried later **/
+	public static final String STATUS_UNAVAILABLE = "UNAVAILABLE";
+
+	/**	the backend failed or did not answer in time **/
+	public static final String STATUS_ERROR = "ERROR";
+
+	/**	customer identifier **/
+	private final String customerId;
+
+	/**	status of the lookup **/
+	private final String status;
+
+	/**	network access data, only when the status is OK **/
+	private final NetworkAccessCustomerInfo customerInfo;
+
+	/**
+	 * Constructor
+	 * @param customerId customer identifier
+	 * @param status status of the lookup
+	 * @param customerInfo network access data, <code>null</code> unless the status is OK
+	 */
+	public CustomerResult(String customerId, String status, NetworkAccessCustomerInfo customerInfo) {
+		this.customerId = customerId;
+		this.status = status;
+		this.customerInfo = customerInfo;
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return customer identifier
+	 **/
+	public String getCustomerId() {
+		return customerId;
+	}
+
+	/**
+	 * @return status of the lookup
+	 **/
+	public String getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return network access data
+	 **/
+	public NetworkAccessCustomerInfo getCustomerInfo() {
+		return customerInfo;
+	}
+}
@@ -0,0 +1,68 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.io.Serializable;
+
+/**
+ * This bean represents an equipment of a customer.
+ * @class Equipment
+ * @Implements Serializable
+ */
+public class Equipment implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = -884231772680015944L;
+
+	/**	serial number **/
+	private String serialNumber;
+
+	/**	model **/
+	private String model;
+
+	/**	status **/
+	private String status;
+
+	/*----------------------------
+	  Getters & Setters
+	  ----------------------------*/
+	/**
+	 * @return serial number
+	 **/
+	public String getSerialNumber() {
+		return serialNumber;
+	}
+
+	/**
+	 * @param serialNumber serial number
+	 **/
+	public void setSerialNumber(String serialNumber) {
+		this.serialNumber = serialNumber;
+	}
+
+	/**
+	 * @return model
+	 **/
+	public String getModel() {
+		return model;
+	}
+
+	/**
+	 * @param model model
+	 **/
+	public void setModel(String model) {
+		this.model = model;
+	}
+
+	/**
+	 * @return status
+	 **/
+	public String getStatus() {
+		return status;
+	}
+
+	/**
+	 * @param status status
+	 **/
+	public void setStatus(String status) {
+		this.status = status;
+	}
+}
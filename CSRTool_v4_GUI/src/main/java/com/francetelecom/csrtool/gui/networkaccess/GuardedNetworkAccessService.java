@@ -0,0 +1,80 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.util.List;
+
+import com.francetelecom.csrtool.gui.ws.BackendGuard;
+import com.francetelecom.csrtool.gui.ws.BackendGuardRegistry;
+import com.francetelecom.csrtool.gui.ws.IBackendCall;
+
+/**
+ * Decorates a {@link INetworkAccessService} so that all its calls go through the
+ * {@link BackendGuard} of its backend.
+ * @class GuardedNetworkAccessService
+ * @implements INetworkAccessService
+ */
+public class GuardedNetworkAccessService implements INetworkAccessService {
+
+	/**	decorated service **/
+	private final INetworkAccessService delegate;
+
+	/**	guard of the backend **/
+	private final BackendGuard guard;
+
+	/**
+	 * Constructor
+	 * @param delegate decorated service
+	 * @param backend name of the backend, used to share its guard with the other clients
+	 */
+	public GuardedNetworkAccessService(INetworkAccessService delegate, String backend) {
+		this.delegate = delegate;
+		this.guard = BackendGuardRegistry.getInstance().get(backend);
+	}
+
+	/**
+	 * @param mco MCO name
+	 * @return general network access data
+	 * @throws Exception if the backend is unavailable or could not provide the data
+	 **/
+	public NetworkAccessGeneralInfo getGeneralInfo(final String mco) throws Exception {
+		return guard.execute(new IBackendCall<NetworkAccessGeneralInfo>() {
+			public NetworkAccessGeneralInfo call() throws Exception {
+				return delegate.getGeneralInfo(mco);
+			}
+		});
+	}
+
+	/**
+	 * @param mco MCO name of the customer
+	 * @param customerId customer identifier
+	 * @return network access data of the customer
+	 * @throws Exception if the backend is unavailable or could not provide the data
+	 **/
+	public NetworkAccessCustomerInfo getCustomerInfo(final String mco, final String customerId) throws Exception {
+		return guard.execute(new IBackendCall<NetworkAccessCustomerInfo>() {
+			public NetworkAccessCustomerInfo call() throws Exception {
+				return delegate.getCustomerInfo(mco, customerId);
+			}
+		});
+	}
+
+	/**
+	 * @param mco MCO name of the customers
+	 * @param customerIds customer identifiers
+	 * @return network access data of the customers found
+	 * @throws Exception if the backend is unavailable or could not provide the data
+	 **/
+	public List<NetworkAccessCustomerInfo> getCustomerInfos(final String mco, final List<String> customerIds) throws Exception {
+		return guard.execute(new IBackendCall<List<NetworkAccessCustomerInfo>>() {
+			public List<NetworkAccessCustomerInfo> call() throws Exception {
+				return delegate.getCustomerInfos(mco, customerIds);
+			}
+		});
+	}
+
+	/**
+	 * @return maximum number of customers per batch call of the decorated service
+	 **/
+	public int getMaxBatchSize() {
+		return delegate.getMaxBatchSize();
+	}
+}
@@ -0,0 +1,124 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.util.List;
+
+import com.francetelecom.csrtool.gui.ws.Hedger;
+import com.francetelecom.csrtool.gui.ws.HedgerRegistry;
+import com.francetelecom.csrtool.gui.ws.IBackendCall;
+
+/**
+ * Decorates a {@link INetworkAccessService} so that its read-only calls are hedged by the
+ * {@link Hedger} of its backend: a call slower than the usual latencies is sent again to the
+ * secondary service and the first answer is returned.<br>
+ * The secondary service must be another client of the backend, bound to another endpoint, so
+ * that a hedge does not queue behind the slow call it replaces. To keep the hedges within the
+ * bulkhead of the backend, both services are expected to be {@link GuardedNetworkAccessService}.
+ * @class HedgedNetworkAccessService
+ * @implements INetworkAccessService
+ */
+public class HedgedNetworkAccessService implements INetworkAccessService {
+
+	/**	decorated service **/
+	private final INetworkAccessService primary;
+
+	/**	service receiving the hedges **/
+	private final INetworkAccessService secondary;
+
+	/**	hedger of the backend **/
+	private final Hedger hedger;
+
+	/**
+	 * Constructor
+	 * @param primary decorated service
+	 * @param secondary service receiving the hedges, bound to another endpoint of the backend
+	 * @param backend name of the backend, used to share its latencies with the other clients
+	 * @throws IllegalArgumentException if the secondary service is missing or is the decorated one
+	 */
+	public HedgedNetworkAccessService(INetworkAccessService primary, INetworkAccessService secondary, String backend) {
+		if (secondary == null || secondary == primary) {
+			throw new IllegalArgumentException("the hedges of " + backend + " need a secondary service bound to another endpoint");
+		}
+		this.primary = primary;
+		this.secondary = secondary;
+		this.hedger = HedgerRegistry.getInstance().get(backend);
+	}
+
+	/**
+	 * @param mco MCO name
+	 * @return general network access data
+	 * @throws Exception if the backend is unavailable or could not provide the data
+	 **/
+	public NetworkAccessGeneralInfo getGeneralInfo(String mco) throws Exception {
+		return hedger.execute(generalInfo(primary, mco), generalInfo(secondary, mco));
+	}
+
+	/**
+	 * @param mco MCO name of the customer
+	 * @param customerId customer identifier
+	 * @return network access data of the customer
+	 * @throws Exception if the backend is unavailable or could not provide the data
+	 **/
+	public NetworkAccessCustomerInfo getCustomerInfo(String mco, String customerId) throws Exception {
+		return hedger.execute(customerInfo(primary, mco, customerId), customerInfo(secondary, mco, customerId));
+	}
+
+	/**
+	 * @param mco MCO name of the customers
+	 * @param customerIds customer identifiers
+	 * @return network access data of the customers found
+	 * @throws Exception if the backend is unavailable or could not provide the data
+	 **/
+	public List<NetworkAccessCustomerInfo> getCustomerInfos(String mco, List<String> customerIds) throws Exception {
+		return hedger.execute(customerInfos(primary, mco, customerIds), customerInfos(secondary, mco, customerIds));
+	}
+
+	/**
+	 * @return maximum number of customers per batch call of the decorated service
+	 **/
+	public int getMaxBatchSize() {
+		return primary.getMaxBatchSize();
+	}
+
+	/**
+	 * @param service service called
+	 * @param mco MCO name
+	 * @return the call of the general data
+	 **/
+	private static IBackendCall<NetworkAccessGeneralInfo> generalInfo(final INetworkAccessService service, final String mco) {
+		return new IBackendCall<NetworkAccessGeneralInfo>() {
+			public NetworkAccessGeneralInfo call() throws Exception {
+				return service.getGeneralInfo(mco);
+			}
+		};
+	}
+
+	/**
+	 * @param service service called
+	 * @param mco MCO name of the customer
+	 * @param customerId customer identifier
+	 * @return the call of the data of the customer
+	 **/
+	private static IBackendCall<NetworkAccessCustomerInfo> customerInfo(final INetworkAccessService service, final String mco,
+			final String customerId) {
+		return new IBackendCall<NetworkAccessCustomerInfo>() {
+			public NetworkAccessCustomerInfo call() throws Exception {
+				return service.getCustomerInfo(mco, customerId);
+			}
+		};
+	}
+
+	/**
+	 * @param service service called
+	 * @param mco MCO name of the customers
+	 * @param customerIds customer identifiers
+	 * @return the call of the data of the customers
+	 **/
+	private static IBackendCall<List<NetworkAccessCustomerInfo>> customerInfos(final INetworkAccessService service, final String mco,
+			final List<String> customerIds) {
+		return new IBackendCall<List<NetworkAccessCustomerInfo>>() {
+			public List<NetworkAccessCustomerInfo> call() throws Exception {
+				return service.getCustomerInfos(mco, customerIds);
+			}
+		};
+	}
+}
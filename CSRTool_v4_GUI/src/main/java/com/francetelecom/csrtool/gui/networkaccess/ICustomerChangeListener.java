@@ -0,0 +1,13 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+/**
+ * Interface for being notified of the customers modified, through the {@link CustomerChangeRegistry}.
+ * **/
+public interface ICustomerChangeListener {
+	/**
+	 * Receives the modification of a customer. Called on the thread of the request which modified it.
+	 * @param mco MCO name of the customer
+	 * @param customerId customer identifier
+	 */
+	void customerChanged(String mco, String customerId);
+}
@@ -0,0 +1,18 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+/**
+ * Interface of the backend export of the customer identifiers of a MCO.<br>
+ * The export is read by pages, each page giving the marker of the next one. After the last page,
+ * its marker gives the identifiers added or removed since.
+ * **/
+public interface ICustomerIdentifierExport {
+	/**
+	 * Gets a page of the export
+	 * @param mco MCO name
+	 * @param marker marker of the page, <code>null</code> for the first page of a complete export
+	 * @param maxCount maximum number of identifiers of the page
+	 * @return the page
+	 * @throws Exception if the backend could not provide the page
+	 */
+	CustomerIdentifierPage exportIdentifiers(String mco, String marker, int maxCount) throws Exception;
+}
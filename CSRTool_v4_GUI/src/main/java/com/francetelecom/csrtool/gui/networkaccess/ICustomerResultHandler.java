@@ -0,0 +1,16 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.io.IOException;
+
+/**
+ * Interface for receiving the results of a {@link CustomerBatchLookup} as soon as each customer
+ * is complete.
+ * **/
+public interface ICustomerResultHandler {
+	/**
+	 * Receives the result of one customer. Called on the thread which started the lookup.
+	 * @param result result of the customer
+	 * @throws IOException if the result could not be written
+	 */
+	void onResult(CustomerResult result) throws IOException;
+}
@@ -0,0 +1,41 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.util.List;
+
+/**
+ * Interface of the backend services providing the network access data of the Bricks.
+ * **/
+public interface INetworkAccessService {
+	/**
+	 * Gets the network access data shared by all the agents of a MCO: status of the network
+	 * elements, access technologies and outages.
+	 * @param mco MCO name
+	 * @return general network access data
+	 * @throws Exception if the backend could not provide the data
+	 */
+	NetworkAccessGeneralInfo getGeneralInfo(String mco) throws Exception;
+
+	/**
+	 * Gets the network access data of a customer: lines, line history and equipments.
+	 * @param mco MCO name of the customer
+	 * @param customerId customer identifier
+	 * @return network access data of the customer
+	 * @throws Exception if the backend could not provide the data
+	 */
+	NetworkAccessCustomerInfo getCustomerInfo(String mco, String customerId) throws Exception;
+
+	/**
+	 * Gets the network access data of several customers in a single backend call.
+	 * @param mco MCO name of the customers
+	 * @param customerIds customer identifiers, at most {@link #getMaxBatchSize()}
+	 * @return network access data of the customers found, in any order
+	 * @throws Exception if the backend could not provide the data
+	 */
+	List<NetworkAccessCustomerInfo> getCustomerInfos(String mco, List<String> customerIds) throws Exception;
+
+	/**
+	 * @return maximum number of customers per call to {@link #getCustomerInfos(String, List)},
+	 * <code>1</code> if the backend has no batch operation
+	 **/
+	int getMaxBatchSize();
+}
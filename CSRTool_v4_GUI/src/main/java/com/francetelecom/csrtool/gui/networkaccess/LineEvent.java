@@ -0,0 +1,69 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * This bean represents an event in the history of a customer line.
+ * @class LineEvent
+ * @Implements Serializable
+ */
+public class LineEvent implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 3391950472203378116L;
+
+	/**	event date **/
+	private Date date;
+
+	/**	event type **/
+	private String type;
+
+	/**	description **/
+	private String description;
+
+	/*----------------------------
+	  Getters & Setters
+	  ----------------------------*/
+	/**
+	 * @return event date
+	 **/
+	public Date getDate() {
+		return date;
+	}
+
+	/**
+	 * @param date event date
+	 **/
+	public void setDate(Date date) {
+		this.date = date;
+	}
+
+	/**
+	 * @return event type
+	 **/
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 * @param type event type
+	 **/
+	public void setType(String type) {
+		this.type = type;
+	}
+
+	/**
+	 * @return description
+	 **/
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * @param description description
+	 **/
+	public void setDescription(String description) {
+		this.description = description;
+	}
+}
@@ -0,0 +1,121 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This bean represents the network access data of a customer.
+ * @class NetworkAccessCustomerInfo
+ * @Implements Serializable
+ */
+public class NetworkAccessCustomerInfo implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = -6248018839117430362L;
+
+	/**	customer identifier **/
+	private String customerId;
+
+	/**	mco **/
+	private String mco;
+
+	/**	access technology of the customer line **/
+	private String accessTechnology;
+
+	/**	status of the customer line **/
+	private String lineStatus;
+
+	/**	history of the customer line **/
+	private List<LineEvent> lineHistory = new ArrayList<LineEvent>();
+
+	/**	equipments of the customer **/
+	private List<Equipment> equipments = new ArrayList<Equipment>();
+
+	/*----------------------------
+	  Getters & Setters
+	  ----------------------------*/
+	/**
+	 * @return customer identifier
+	 **/
+	public String getCustomerId() {
+		return customerId;
+	}
+
+	/**
+	 * @param customerId customer identifier
+	 **/
+	public void setCustomerId(String customerId) {
+		this.customerId = customerId;
+	}
+
+	/**
+	 * @return mco
+	 **/
+	public String getMco() {
+		return mco;
+	}
+
+	/**
+	 * @param mco mco
+	 **/
+	public void setMco(String mco) {
+		this.mco = mco;
+	}
+
+	/**
+	 * @return access technology of the customer line
+	 **/
+	public String getAccessTechnology() {
+		return accessTechnology;
+	}
+
+	/**
+	 * @param accessTechnology access technology of the customer line
+	 **/
+	public void setAccessTechnology(String accessTechnology) {
+		this.accessTechnology = accessTechnology;
+	}
+
+	/**
+	 * @return status of the customer line
+	 **/
+	public String getLineStatus() {
+		return lineStatus;
+	}
+
+	/**
+	 * @param lineStatus status of the customer line
+	 **/
+	public void setLineStatus(String lineStatus) {
+		this.lineStatus = lineStatus;
+	}
+
+	/**
+	 * @return history of the customer line
+	 **/
+	public List<LineEvent> getLineHistory() {
+		return lineHistory;
+	}
+
+	/**
+	 * @param lineHistory history of the customer line
+	 **/
+	public void setLineHistory(List<LineEvent> lineHistory) {
+		this.lineHistory = lineHistory;
+	}
+
+	/**
+	 * @return equipments of the customer
+	 **/
+	public List<Equipment> getEquipments() {
+		return equipments;
+	}
+
+	/**
+	 * @param equipments equipments of the customer
+	 **/
+	public void setEquipments(List<Equipment> equipments) {
+		this.equipments = equipments;
+	}
+}
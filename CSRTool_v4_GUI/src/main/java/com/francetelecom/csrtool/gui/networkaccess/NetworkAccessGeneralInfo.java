@@ -0,0 +1,102 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * This bean represents the network access data shared by all the agents of a MCO.
+ * @class NetworkAccessGeneralInfo
+ * @Implements Serializable
+ */
+public class NetworkAccessGeneralInfo implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 2716455240921735128L;
+
+	/**	mco **/
+	private String mco;
+
+	/**	status of the network elements **/
+	private List<NetworkElementStatus> networkElements = new ArrayList<NetworkElementStatus>();
+
+	/**	access technologies available in the MCO **/
+	private List<String> accessTechnologies = new ArrayList<String>();
+
+	/**	current outages **/
+	private List<Outage> outages = new ArrayList<Outage>();
+
+	/**
+	 * @return details of the network access data
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("mco", mco);
+		toStringBuilder.append("networkElements", networkElements.size());
+		toStringBuilder.append("accessTechnologies", accessTechnologies);
+		toStringBuilder.append("outages", outages.size());
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters & Setters
+	  ----------------------------*/
+	/**
+	 * @return mco
+	 **/
+	public String getMco() {
+		return mco;
+	}
+
+	/**
+	 * @param mco mco
+	 **/
+	public void setMco(String mco) {
+		this.mco = mco;
+	}
+
+	/**
+	 * @return status of the network elements
+	 **/
+	public List<NetworkElementStatus> getNetworkElements() {
+		return networkElements;
+	}
+
+	/**
+	 * @param networkElements status of the network elements
+	 **/
+	public void setNetworkElements(List<NetworkElementStatus> networkElements) {
+		this.networkElements = networkElements;
+	}
+
+	/**
+	 * @return access technologies
+	 **/
+	public List<String> getAccessTechnologies() {
+		return accessTechnologies;
+	}
+
+	/**
+	 * @param accessTechnologies access technologies
+	 **/
+	public void setAccessTechnologies(List<String> accessTechnologies) {
+		this.accessTechnologies = accessTechnologies;
+	}
+
+	/**
+	 * @return current outages
+	 **/
+	public List<Outage> getOutages() {
+		return outages;
+	}
+
+	/**
+	 * @param outages current outages
+	 **/
+	public void setOutages(List<Outage> outages) {
+		this.outages = outages;
+	}
+}
@@ -0,0 +1,68 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.io.Serializable;
+
+/**
+ * This bean represents the status of a network element.
+ * @class NetworkElementStatus
+ * @Implements Serializable
+ */
+public class NetworkElementStatus implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = -5307121968471550731L;
+
+	/**	network element identifier **/
+	private String id;
+
+	/**	network element type **/
+	private String type;
+
+	/**	status **/
+	private String status;
+
+	/*----------------------------
+	  Getters & Setters
+	  ----------------------------*/
+	/**
+	 * @return network element identifier
+	 **/
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * @param id network element identifier
+	 **/
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	/**
+	 * @return network element type
+	 **/
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 * @param type network element type
+	 **/
+	public void setType(String type) {
+		this.type = type;
+	}
+
+	/**
+	 * @return status
+	 **/
+	public String getStatus() {
+		return status;
+	}
+
+	/**
+	 * @param status status
+	 **/
+	public void setStatus(String status) {
+		this.status = status;
+	}
+}
@@ -0,0 +1,103 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * This bean represents a network outage.
+ * @class Outage
+ * @Implements Serializable
+ */
+public class Outage implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 8811370260345017482L;
+
+	/**	outage identifier **/
+	private String id;
+
+	/**	impacted area **/
+	private String area;
+
+	/**	description **/
+	private String description;
+
+	/**	start date **/
+	private Date start;
+
+	/**	expected end date **/
+	private Date expectedEnd;
+
+	/*----------------------------
+	  Getters & Setters
+	  ----------------------------*/
+	/**
+	 * @return outage identifier
+	 **/
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * @param id outage identifier
+	 **/
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	/**
+	 * @return impacted area
+	 **/
+	public String getArea() {
+		return area;
+	}
+
+	/**
+	 * @param area impacted area
+	 **/
+	public void setArea(String area) {
+		this.area = area;
+	}
+
+	/**
+	 * @return description
+	 **/
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * @param description description
+	 **/
+	public void setDescription(String description) {
+		this.description = description;
+	}
+
+	/**
+	 * @return start date
+	 **/
+	public Date getStart() {
+		return start;
+	}
+
+	/**
+	 * @param start start date
+	 **/
+	public void setStart(Date start) {
+		this.start = start;
+	}
+
+	/**
+	 * @return expected end date
+	 **/
+	public Date getExpectedEnd() {
+		return expectedEnd;
+	}
+
+	/**
+	 * @param expectedEnd expected end date
+	 **/
+	public void setExpectedEnd(Date expectedEnd) {
+		this.expectedEnd = expectedEnd;
+	}
+}
@@ -0,0 +1,128 @@
+package com.francetelecom.csrtool.gui.pagecache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.francetelecom.csrtool.gui.assets.StaticAsset;
+
+/**
+ * A rendered page kept gzip compressed. It is sent compressed to the clients accepting gzip and
+ * inflated while written for the others.
+ * @class CachedPage
+ */
+final class CachedPage {
+
+	/**	cache control of the pages: private to the user, revalidated on each use **/
+	private static final String CACHE_CONTROL = "private, no-cache";
+
+	/**	size of the buffer inflating the pages **/
+	private static final int BUFFER_SIZE = 8192;
+
+	/**	compressed body **/
+	private final byte[] compressed;
+
+	/**	length of the body **/
+	private final int length;
+
+	/**	content type of the body, with its charset **/
+	private final String contentType;
+
+	/**	entity tag of the body, quoted without the closing quote **/
+	private final String etag;
+
+	/**	rendering time **/
+	private final long renderedAt;
+
+	/**
+	 * Constructor
+	 * @param body rendered body
+	 * @param contentType content type of the body, with its charset
+	 * @param renderedAt rendering time
+	 * @throws IOException if the body could not be compressed
+	 */
+	CachedPage(byte[] body, String contentType, long renderedAt) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+		GZIPOutputStream gzipOut = new GZIPOutputStream(out);
+		try {
+			gzipOut.write(body);
+		} finally {
+			gzipOut.close();
+		}
+		this.compressed = out.toByteArray();
+		this.length = body.length;
+		this.contentType = contentType;
+		this.etag = "\"" + DigestUtils.md5DigestAsHex(body);
+		this.renderedAt = renderedAt;
+	}
+
+	/**
+	 * Writes this page, or a 304 without body if the entity tag sent by the client still matches
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @throws IOException input output exception
+	 */
+	void writeTo(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		boolean gzip = StaticAsset.accepts(request.getHeader("Accept-Encoding"), "gzip");
+		response.setHeader("Cache-Control", CACHE_CONTROL);
+		response.setHeader("Vary", "Accept-Encoding");
+		if (new ServletWebRequest(request, response).checkNotModified(gzip ? etag + "-gz\"" : etag + "\"")) {
+			return;
+		}
+		response.setContentType(contentType);
+		OutputStream out = response.getOutputStream();
+		if (gzip) {
+			response.setHeader("Content-Encoding", "gzip");
+			response.setContentLength(compressed.length);
+			out.write(compressed);
+			return;
+		}
+		response.setContentLength(length);
+		InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed), BUFFER_SIZE);
+		try {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * @param now current time
+	 * @param timeToLive time to live of the pages, in milliseconds
+	 * @return whether the page is older than its time to live
+	 **/
+	boolean isExpired(long now, long timeToLive) {
+		return now - renderedAt > timeToLive;
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return size of the compressed body
+	 **/
+	int getCompressedLength() {
+		return compressed.length;
+	}
+
+	/**
+	 * @return length of the body
+	 **/
+	int getLength() {
+		return length;
+	}
+}
@@ -0,0 +1,221 @@
+package com.francetelecom.csrtool.gui.pagecache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Captures the body rendered for a page, so that it can be kept by the {@link PageCache} before
+ * being written to the client. The headers go to the response; the errors and redirections are
+ * sent to the client as they occur, and make the page uncacheable, as do the cookies.
+ * @class CapturingResponseWrapper
+ * @extends HttpServletResponseWrapper
+ */
+final class CapturingResponseWrapper extends HttpServletResponseWrapper {
+
+	/**	initial size of the buffer **/
+	private static final int BUFFER_SIZE = 8192;
+
+	/**	captured body **/
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(BUFFER_SIZE);
+
+	/**	stream given to the page, <code>null</code> if not asked **/
+	private ServletOutputStream outputStream;
+
+	/**	writer given to the page, <code>null</code> if not asked **/
+	private PrintWriter writer;
+
+	/**	status set by the page **/
+	private int status = HttpServletResponse.SC_OK;
+
+	/**	whether an error or a redirection was sent to the client **/
+	private boolean sent;
+
+	/**	whether the page set a cookie **/
+	private boolean cookies;
+
+	/**
+	 * Constructor
+	 * @param response http servlet response
+	 */
+	CapturingResponseWrapper(HttpServletResponse response) {
+		super(response);
+	}
+
+	/**
+	 * @return the stream capturing the body
+	 **/
+	@Override
+	public ServletOutputStream getOutputStream() {
+		if (writer != null) {
+			throw new IllegalStateException("getWriter() has already been called");
+		}
+		if (outputStream == null) {
+			outputStream = new ServletOutputStream() {
+				@Override
+				public void write(int b) {
+					buffer.write(b);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) {
+					buffer.write(b, off, len);
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setWriteListener(WriteListener writeListener) {
+					throw new UnsupportedOperationException("captured pages are rendered synchronously");
+				}
+			};
+		}
+		return outputStream;
+	}
+
+	/**
+	 * @return the writer capturing the body, in the character encoding of the response
+	 * @throws IOException if the character encoding is not supported
+	 **/
+	@Override
+	public PrintWriter getWriter() throws IOException {
+		if (outputStream != null) {
+			throw new IllegalStateException("getOutputStream() has already been called");
+		}
+		if (writer == null) {
+			writer = new PrintWriter(new OutputStreamWriter(buffer, getCharacterEncoding()));
+		}
+		return writer;
+	}
+
+	/**
+	 * @param sc status code
+	 **/
+	@Override
+	public void setStatus(int sc) {
+		status = sc;
+		super.setStatus(sc);
+	}
+
+	/**
+	 * @param sc error status code
+	 * @throws IOException input output exception
+	 **/
+	@Override
+	public void sendError(int sc) throws IOException {
+		status = sc;
+		sent = true;
+		super.sendError(sc);
+	}
+
+	/**
+	 * @param sc error status code
+	 * @param msg error message
+	 * @throws IOException input output exception
+	 **/
+	@Override
+	public void sendError(int sc, String msg) throws IOException {
+		status = sc;
+		sent = true;
+		super.sendError(sc, msg);
+	}
+
+	/**
+	 * @param location redirection location
+	 * @throws IOException input output exception
+	 **/
+	@Override
+	public void sendRedirect(String location) throws IOException {
+		status = HttpServletResponse.SC_FOUND;
+		sent = true;
+		super.sendRedirect(location);
+	}
+
+	/**
+	 * @param cookie cookie of the user
+	 **/
+	@Override
+	public void addCookie(Cookie cookie) {
+		cookies = true;
+		super.addCookie(cookie);
+	}
+
+	/**
+	 * @param len ignored, the length is set when the captured body is written
+	 **/
+	@Override
+	public void setContentLength(int len) {
+		// Do nothing
+	}
+
+	/**
+	 * @param len ignored, the length is set when the captured body is written
+	 **/
+	@Override
+	public void setContentLengthLong(long len) {
+		// Do nothing
+	}
+
+	/**
+	 * Flushes the writer into the buffer, nothing is sent to the client
+	 **/
+	@Override
+	public void flushBuffer() {
+		if (writer != null) {
+			writer.flush();
+		}
+	}
+
+	/**
+	 * Clears the captured body
+	 **/
+	@Override
+	public void resetBuffer() {
+		flushBuffer();
+		buffer.reset();
+	}
+
+	/**
+	 * Clears the captured body, the status and the headers
+	 **/
+	@Override
+	public void reset() {
+		super.reset();
+		resetBuffer();
+		status = HttpServletResponse.SC_OK;
+		cookies = false;
+	}
+
+	/**
+	 * @return the captured body
+	 **/
+	byte[] getBody() {
+		flushBuffer();
+		return buffer.toByteArray();
+	}
+
+	/**
+	 * @return whether an error or a redirection was sent to the client, the body is then ignored
+	 **/
+	boolean isSent() {
+		return sent;
+	}
+
+	/**
+	 * @return whether the page is the same for all the users of its key: rendered successfully
+	 * without cookie
+	 **/
+	boolean isCacheable() {
+		return !sent && !cookies && status == HttpServletResponse.SC_OK && getContentType() != null;
+	}
+}
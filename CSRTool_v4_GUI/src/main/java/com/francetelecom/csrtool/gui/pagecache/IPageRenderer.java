@@ -0,0 +1,21 @@
+package com.francetelecom.csrtool.gui.pagecache;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Renders a page missing from the {@link PageCache}: the rest of the filter chain, or a forward.
+ * **/
+public interface IPageRenderer {
+	/**
+	 * Renders the page
+	 * @param request http servlet request
+	 * @param response http servlet response capturing the page
+	 * @throws IOException input output exception
+	 * @throws ServletException servlet exception
+	 */
+	void render(HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException;
+}
@@ -0,0 +1,361 @@
+package com.francetelecom.csrtool.gui.pagecache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+import com.francetelecom.csrtool.model.profiles.CSRRole;
+import com.francetelecom.csrtool.model.profiles.CSRUser;
+import com.francetelecom.csrtool.utils.CSRToolUtil;
+
+/**
+ * Keeps the pages which are the same for all the users of a MCO having the same role and
+ * language, such as the menus, the toolbars of the roles and the home page of the administrators.
+ * The pages are rendered once per {@link PageKey}, kept gzip compressed and served from memory
+ * until they expire or are invalidated, when the roles change.<br>
+ * The least recently used pages are evicted first to respect the maximum number of pages and the
+ * maximum compressed size. Until configured, the cache is disabled and the pages are rendered
+ * for each request.
+ * @class PageCache
+ */
+public final class PageCache {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(PageCache.class);
+
+	/**	unique instance **/
+	private static final PageCache INSTANCE = new PageCache();
+
+	/**	path prefix of the pages requested through the mapping of the Bricks dispatcher **/
+	private static final String DISPATCHER_PREFIX = "/csrtoolv4/Bricks/";
+
+	/**	path prefix of the same pages forwarded to within the context **/
+	private static final String FORWARD_PREFIX = "/Bricks/";
+
+	/**	pages kept, the least recently used first **/
+	private final LinkedHashMap<PageKey, CachedPage> pages = new LinkedHashMap<PageKey, CachedPage>(64, 0.75f, true);
+
+	/**	compressed size of the pages kept, guarded by the cache **/
+	private long compressedBytes;
+
+	/**	size of the pages kept, guarded by the cache **/
+	private long bytes;
+
+	/**	incremented by each invalidation, so that a page rendered meanwhile is not kept **/
+	private final AtomicLong generation = new AtomicLong();
+
+	/**	whether the cache is enabled **/
+	private volatile boolean enabled;
+
+	/**	maximum number of pages kept **/
+	private volatile int maxEntries;
+
+	/**	maximum compressed size of the pages kept, in bytes **/
+	private volatile long maxBytes;
+
+	/**	maximum size of a page kept, in bytes **/
+	private volatile int maxPageSize;
+
+	/**	time to live of the pages, in milliseconds **/
+	private volatile long timeToLive;
+
+	/**	number of pages served from the cache **/
+	private final AtomicLong hits = new AtomicLong();
+
+	/**	number of pages rendered **/
+	private final AtomicLong misses = new AtomicLong();
+
+	/**	number of pages rendered which could not be kept **/
+	private final AtomicLong uncacheable = new AtomicLong();
+
+	/**	number of pages evicted to respect the limits **/
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**	number of pages invalidated **/
+	private final AtomicLong invalidations = new AtomicLong();
+
+	/**
+	 * Constructor
+	 */
+	private PageCache() {
+		// singleton
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static PageCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Gets the path identifying a page in the cache, the same whether the page is requested
+	 * through the mapping of the Bricks dispatcher or forwarded to within the context
+	 * @param path path of the page within the context
+	 * @param queryString query string of the request, <code>null</code> if none
+	 * @return the path of the page, with its query string
+	 */
+	public static String getPage(String path, String queryString) {
+		String page = path.startsWith(DISPATCHER_PREFIX) ? FORWARD_PREFIX + path.substring(DISPATCHER_PREFIX.length()) : path;
+		return queryString == null ? page : page + "?" + queryString;
+	}
+
+	/**
+	 * Enables the cache
+	 * @param maxEntries maximum number of pages kept
+	 * @param maxBytes maximum compressed size of the pages kept, in bytes
+	 * @param maxPageSize maximum size of a page kept, in bytes
+	 * @param timeToLive time to live of the pages, in milliseconds
+	 */
+	public synchronized void configure(int maxEntries, long maxBytes, int maxPageSize, long timeToLive) {
+		this.maxEntries = maxEntries;
+		this.maxBytes = maxBytes;
+		this.maxPageSize = maxPageSize;
+		this.timeToLive = timeToLive;
+		this.enabled = true;
+		evictIfNeeded();
+	}
+
+	/**
+	 * Disables the cache, the pages kept are dropped
+	 */
+	public void disable() {
+		enabled = false;
+		invalidateAll();
+	}
+
+	/**
+	 * Serves a page from the cache for the current user, or renders it and keeps it if it is
+	 * cacheable. The pages are rendered for each request when the cache is disabled, without user
+	 * or for the requests other than GET.
+	 * @param request http servlet request
+	 * @param response http servlet response
+	 * @param page page path, with its query string, as given by {@link #getPage(String, String)}
+	 * @param renderer renderer of the page
+	 * @throws IOException input output exception
+	 * @throws ServletException servlet exception
+	 */
+	public void serve(HttpServletRequest request, HttpServletResponse response, String page, IPageRenderer renderer)
+			throws IOException, ServletException {
+		CSRUser currentUser = CSRUser.getCurrentCSR();
+		if (!enabled || currentUser == null || !"GET".equals(request.getMethod())) {
+			renderer.render(request, response);
+			return;
+		}
+		PageKey key = new PageKey(page, currentUser.getMco(), getRoleKey(currentUser), getLanguage(currentUser, request));
+		CachedPage cachedPage = get(key, System.currentTimeMillis());
+		if (cachedPage != null) {
+			hits.incrementAndGet();
+			cachedPage.writeTo(request, response);
+			return;
+		}
+
+		misses.incrementAndGet();
+		long renderGeneration = generation.get();
+		CapturingResponseWrapper capture = new CapturingResponseWrapper(response);
+		renderer.render(request, capture);
+		if (capture.isSent()) {
+			uncacheable.incrementAndGet();
+			return;
+		}
+		byte[] body = capture.getBody();
+		if (!capture.isCacheable() || body.length > maxPageSize) {
+			uncacheable.incrementAndGet();
+			response.setContentLength(body.length);
+			response.getOutputStream().write(body);
+			return;
+		}
+		cachedPage = new CachedPage(body, capture.getContentType(), System.currentTimeMillis());
+		put(key, cachedPage, renderGeneration);
+		cachedPage.writeTo(request, response);
+	}
+
+	/**
+	 * Invalidates the pages rendered for a role
+	 * @param mco MCO of the role
+	 * @param roleName role name
+	 * @return the number of pages invalidated
+	 */
+	public synchronized int invalidateRole(String mco, String roleName) {
+		int count = 0;
+		for (Iterator<Map.Entry<PageKey, CachedPage>> iterator = pages.entrySet().iterator(); iterator.hasNext();) {
+			Map.Entry<PageKey, CachedPage> entry = iterator.next();
+			if (StringUtils.equals(mco, entry.getKey().getMco()) && entry.getKey().hasRole(roleName)) {
+				iterator.remove();
+				removed(entry.getValue());
+				count++;
+			}
+		}
+		return invalidated(count, "role " + roleName + " of " + mco);
+	}
+
+	/**
+	 * Invalidates the pages rendered for the users of a MCO
+	 * @param mco MCO name
+	 * @return the number of pages invalidated
+	 */
+	public synchronized int invalidateMco(String mco) {
+		int count = 0;
+		for (Iterator<Map.Entry<PageKey, CachedPage>> iterator = pages.entrySet().iterator(); iterator.hasNext();) {
+			Map.Entry<PageKey, CachedPage> entry = iterator.next();
+			if (StringUtils.equals(mco, entry.getKey().getMco())) {
+				iterator.remove();
+				removed(entry.getValue());
+				count++;
+			}
+		}
+		return invalidated(count, "MCO " + mco);
+	}
+
+	/**
+	 * Invalidates the pages rendered for the administrators, such as the list of the roles
+	 * @return the number of pages invalidated
+	 */
+	public synchronized int invalidateAdministration() {
+		int count = 0;
+		for (Iterator<Map.Entry<PageKey, CachedPage>> iterator = pages.entrySet().iterator(); iterator.hasNext();) {
+			Map.Entry<PageKey, CachedPage> entry = iterator.next();
+			if (entry.getKey().isAdministration()) {
+				iterator.remove();
+				removed(entry.getValue());
+				count++;
+			}
+		}
+		return invalidated(count, "the administrators");
+	}
+
+	/**
+	 * Invalidates all the pages
+	 * @return the number of pages invalidated
+	 */
+	public synchronized int invalidateAll() {
+		int count = pages.size();
+		pages.clear();
+		compressedBytes = 0L;
+		bytes = 0L;
+		return invalidated(count, "all the pages");
+	}
+
+	/**
+	 * @return a snapshot of the statistics of the cache
+	 **/
+	public synchronized PageCacheStats getStats() {
+		return new PageCacheStats(enabled, pages.size(), compressedBytes, bytes, hits.get(), misses.get(), uncacheable.get(), evictions.get(),
+				invalidations.get());
+	}
+
+	/**
+	 * Gets a page which has not expired
+	 * @param key key of the page
+	 * @param now current time
+	 * @return the page or <code>null</code>
+	 */
+	private synchronized CachedPage get(PageKey key, long now) {
+		CachedPage cachedPage = pages.get(key);
+		if (cachedPage != null && cachedPage.isExpired(now, timeToLive)) {
+			pages.remove(key);
+			removed(cachedPage);
+			return null;
+		}
+		return cachedPage;
+	}
+
+	/**
+	 * Keeps a page unless the cache was invalidated since it started rendering
+	 * @param key key of the page
+	 * @param cachedPage the page
+	 * @param renderGeneration generation of the cache when the page started rendering
+	 */
+	private synchronized void put(PageKey key, CachedPage cachedPage, long renderGeneration) {
+		if (!enabled || generation.get() != renderGeneration) {
+			return;
+		}
+		CachedPage previous = pages.put(key, cachedPage);
+		if (previous != null) {
+			removed(previous);
+		}
+		compressedBytes += cachedPage.getCompressedLength();
+		bytes += cachedPage.getLength();
+		evictIfNeeded();
+	}
+
+	/**
+	 * Evicts the least recently used pages while the limits are exceeded
+	 */
+	private synchronized void evictIfNeeded() {
+		Iterator<CachedPage> iterator = pages.values().iterator();
+		while (iterator.hasNext() && (pages.size() > maxEntries || compressedBytes > maxBytes)) {
+			CachedPage eldest = iterator.next();
+			iterator.remove();
+			removed(eldest);
+			evictions.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Accounts for a page removed
+	 * @param cachedPage the page
+	 */
+	private void removed(CachedPage cachedPage) {
+		compressedBytes -= cachedPage.getCompressedLength();
+		bytes -= cachedPage.getLength();
+	}
+
+	/**
+	 * Accounts for an invalidation
+	 * @param count number of pages invalidated
+	 * @param scope description of the pages invalidated
+	 * @return the number of pages invalidated
+	 */
+	private int invalidated(int count, String scope) {
+		generation.incrementAndGet();
+		invalidations.addAndGet(count);
+		if (LOGGER.isInfoEnabled()) {
+			LOGGER.info(FuncLogging.getLogFormatedMessage("PageCache","invalidate",
+					String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,count + " pages invalidated for " + scope));
+		}
+		return count;
+	}
+
+	/**
+	 * @param user a user
+	 * @return the sorted names of the roles of the user, or the admin level of an administrator
+	 **/
+	private static String getRoleKey(CSRUser user) {
+		List<CSRRole> roles = user.getRoles();
+		if (CSRToolUtil.isNull(roles) || roles.isEmpty()) {
+			return PageKey.ADMIN_ROLE_PREFIX + user.getAdminLevel();
+		}
+		List<String> roleNames = new ArrayList<String>(roles.size());
+		for (CSRRole role : roles) {
+			roleNames.add(role.getName());
+		}
+		Collections.sort(roleNames);
+		return StringUtils.join(roleNames, PageKey.ROLE_SEPARATOR);
+	}
+
+	/**
+	 * @param user a user
+	 * @param request http servlet request
+	 * @return the language of the user, or of the browser if the user has none
+	 **/
+	private static String getLanguage(CSRUser user, HttpServletRequest request) {
+		if (CSRToolUtil.isNotNull(user.getUserInfo()) && StringUtils.isNotBlank(user.getUserInfo().getLanguage())) {
+			return user.getUserInfo().getLanguage();
+		}
+		return request.getLocale().getLanguage();
+	}
+}
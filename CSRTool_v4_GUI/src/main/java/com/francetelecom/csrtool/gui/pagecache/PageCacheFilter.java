@@ -0,0 +1,168 @@
+package com.francetelecom.csrtool.gui.pagecache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.gui.profiles.ProfilePrefetcher;
+import com.francetelecom.csrtool.gui.profiles.catalogue.RoleCatalogueRegistry;
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * Serves the pages whose path starts with one of the configured prefixes from the
+ * {@link PageCache}. The requests other than GET to the paths modifying the roles invalidate the
+ * cache and the prefetched roles, and rebuild the role catalogue, once processed successfully. The other requests go through the chain.
+ * @class PageCacheFilter
+ * @Implements Filter
+ */
+public class PageCacheFilter implements Filter {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(PageCacheFilter.class);
+
+	/**	init parameter holding the path prefixes of the cached pages, comma separated **/
+	private static final String PARAM_PAGES = "pages";
+
+	/**	init parameter holding the path prefixes of the pages modifying the roles, comma separated **/
+	private static final String PARAM_INVALIDATING_PATHS = "invalidatingPaths";
+
+	/**	init parameter holding the maximum number of pages kept **/
+	private static final String PARAM_MAX_ENTRIES = "maxEntries";
+
+	/**	init parameter holding the maximum compressed size of the pages kept, in bytes **/
+	private static final String PARAM_MAX_BYTES = "maxBytes";
+
+	/**	init parameter holding the maximum size of a page kept, in bytes **/
+	private static final String PARAM_MAX_PAGE_SIZE = "maxPageSize";
+
+	/**	init parameter holding the time to live of the pages, in milliseconds **/
+	private static final String PARAM_TIME_TO_LIVE_MILLIS = "timeToLiveMillis";
+
+	/**	default maximum number of pages kept **/
+	private static final String DEFAULT_MAX_ENTRIES = "2000";
+
+	/**	default maximum compressed size of the pages kept, in bytes **/
+	private static final String DEFAULT_MAX_BYTES = "16777216";
+
+	/**	default maximum size of a page kept, in bytes **/
+	private static final String DEFAULT_MAX_PAGE_SIZE = "1048576";
+
+	/**	default time to live of the pages, in milliseconds **/
+	private static final String DEFAULT_TIME_TO_LIVE_MILLIS = "600000";
+
+	/**	path prefixes of the cached pages, without the context path **/
+	private final List<String> pages = new ArrayList<String>();
+
+	/**	path prefixes of the pages modifying the roles, without the context path **/
+	private final List<String> invalidatingPaths = new ArrayList<String>();
+
+	/**	the cache **/
+	private PageCache pageCache;
+
+	/**
+	 * Configures the page cache
+	 * @param config filter config
+	 * @throws ServletException servlet exception
+	 */
+	public void init(FilterConfig config) throws ServletException {
+		addPaths(pages, config.getInitParameter(PARAM_PAGES));
+		addPaths(invalidatingPaths, config.getInitParameter(PARAM_INVALIDATING_PATHS));
+		int maxEntries;
+		long maxBytes;
+		int maxPageSize;
+		long timeToLive;
+		try {
+			maxEntries = Integer.parseInt(StringUtils.defaultIfBlank(config.getInitParameter(PARAM_MAX_ENTRIES), DEFAULT_MAX_ENTRIES).trim());
+			maxBytes = Long.parseLong(StringUtils.defaultIfBlank(config.getInitParameter(PARAM_MAX_BYTES), DEFAULT_MAX_BYTES).trim());
+			maxPageSize = Integer.parseInt(StringUtils.defaultIfBlank(config.getInitParameter(PARAM_MAX_PAGE_SIZE), DEFAULT_MAX_PAGE_SIZE).trim());
+			timeToLive = Long.parseLong(StringUtils.defaultIfBlank(config.getInitParameter(PARAM_TIME_TO_LIVE_MILLIS), DEFAULT_TIME_TO_LIVE_MILLIS).trim());
+		} catch (NumberFormatException e) {
+			throw new ServletException("invalid init parameter of the page cache", e);
+		}
+
+		pageCache = PageCache.getInstance();
+		pageCache.configure(maxEntries, maxBytes, maxPageSize, timeToLive);
+		LOGGER.info(FuncLogging.getLogFormatedMessage("PageCacheFilter","init",
+				String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,"page cache enabled for " + pages));
+	}
+
+	/**
+	 * Serves the cached pages from the cache
+	 * @param request servlet request
+	 * @param response servlet response
+	 * @param chain filter chain
+	 * @throws IOException input output exception
+	 * @throws ServletException servlet exception
+	 */
+	public void doFilter(ServletRequest request, ServletResponse response, final FilterChain chain) throws IOException, ServletException {
+		HttpServletRequest httpRequest = (HttpServletRequest) request;
+		HttpServletResponse httpResponse = (HttpServletResponse) response;
+		String path = httpRequest.getRequestURI().substring(httpRequest.getContextPath().length());
+
+		if (!"GET".equals(httpRequest.getMethod())) {
+			chain.doFilter(request, response);
+			if (startsWithAny(path, invalidatingPaths) && httpResponse.getStatus() < HttpServletResponse.SC_BAD_REQUEST) {
+				pageCache.invalidateAll();
+				ProfilePrefetcher.getInstance().invalidateRoles();
+				RoleCatalogueRegistry.getInstance().rolesChanged();
+			}
+			return;
+		}
+		if (!startsWithAny(path, pages)) {
+			chain.doFilter(request, response);
+			return;
+		}
+		pageCache.serve(httpRequest, httpResponse, PageCache.getPage(path, httpRequest.getQueryString()), new IPageRenderer() {
+			public void render(HttpServletRequest renderRequest, HttpServletResponse renderResponse) throws IOException, ServletException {
+				chain.doFilter(renderRequest, renderResponse);
+			}
+		});
+	}
+
+	/**
+	 * @param path a path
+	 * @param prefixes path prefixes
+	 * @return whether the path starts with one of the prefixes
+	 **/
+	private static boolean startsWithAny(String path, List<String> prefixes) {
+		for (String prefix : prefixes) {
+			if (path.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the paths of an init parameter
+	 * @param paths the paths
+	 * @param value value of the init parameter, comma separated
+	 */
+	private static void addPaths(List<String> paths, String value) {
+		if (StringUtils.isNotBlank(value)) {
+			for (String path : StringUtils.split(value, ", ")) {
+				paths.add(path);
+			}
+		}
+	}
+
+	/**
+	 * Disables the cache
+	 * <BR>Callback method; It is called just before filter destroys.
+	 */
+	public void destroy() {
+		pageCache.disable();
+	}
+}
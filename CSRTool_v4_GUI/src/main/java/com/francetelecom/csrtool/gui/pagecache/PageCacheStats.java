@@ -0,0 +1,160 @@
+package com.francetelecom.csrtool.gui.pagecache;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * This bean is a snapshot of the statistics of the {@link PageCache}.
+ * @class PageCacheStats
+ * @Implements Serializable
+ */
+public class PageCacheStats implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 2187429902645870213L;
+
+	/**	whether the cache is enabled **/
+	private final boolean enabled;
+
+	/**	number of pages kept **/
+	private final int size;
+
+	/**	compressed size of the pages kept, in bytes **/
+	private final long compressedBytes;
+
+	/**	size of the pages kept, in bytes **/
+	private final long bytes;
+
+	/**	number of pages served from the cache **/
+	private final long hits;
+
+	/**	number of pages rendered **/
+	private final long misses;
+
+	/**	number of pages rendered which could not be kept **/
+	private final long uncacheable;
+
+	/**	number of pages evicted to respect the limits **/
+	private final long evictions;
+
+	/**	number of pages invalidated **/
+	private final long invalidations;
+
+	/**
+	 * Constructor
+	 * @param enabled whether the cache is enabled
+	 * @param size number of pages kept
+	 * @param compressedBytes compressed size of the pages kept, in bytes
+	 * @param bytes size of the pages kept, in bytes
+	 * @param hits number of pages served from the cache
+	 * @param misses number of pages rendered
+	 * @param uncacheable number of pages rendered which could not be kept
+	 * @param evictions number of pages evicted to respect the limits
+	 * @param invalidations number of pages invalidated
+	 */
+	public PageCacheStats(boolean enabled, int size, long compressedBytes, long bytes, long hits, long misses, long uncacheable,
+			long evictions, long invalidations) {
+		this.enabled = enabled;
+		this.size = size;
+		this.compressedBytes = compressedBytes;
+		this.bytes = bytes;
+		this.hits = hits;
+		this.misses = misses;
+		this.uncacheable = uncacheable;
+		this.evictions = evictions;
+		this.invalidations = invalidations;
+	}
+
+	/**
+	 * @return the ratio of the pages served from the cache
+	 **/
+	public double getHitRatio() {
+		long requests = hits + misses;
+		return requests == 0 ? 0d : (double) hits / requests;
+	}
+
+	/**
+	 * @return details of the statistics
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("enabled", enabled);
+		toStringBuilder.append("size", size);
+		toStringBuilder.append("compressedBytes", compressedBytes);
+		toStringBuilder.append("bytes", bytes);
+		toStringBuilder.append("hits", hits);
+		toStringBuilder.append("misses", misses);
+		toStringBuilder.append("uncacheable", uncacheable);
+		toStringBuilder.append("evictions", evictions);
+		toStringBuilder.append("invalidations", invalidations);
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return whether the cache is enabled
+	 **/
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @return number of pages kept
+	 **/
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return compressed size of the pages kept, in bytes
+	 **/
+	public long getCompressedBytes() {
+		return compressedBytes;
+	}
+
+	/**
+	 * @return size of the pages kept, in bytes
+	 **/
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * @return number of pages served from the cache
+	 **/
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return number of pages rendered
+	 **/
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return number of pages rendered which could not be kept
+	 **/
+	public long getUncacheable() {
+		return uncacheable;
+	}
+
+	/**
+	 * @return number of pages evicted to respect the limits
+	 **/
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * @return number of pages invalidated
+	 **/
+	public long getInvalidations() {
+		return invalidations;
+	}
+}
@@ -0,0 +1,144 @@
+package com.francetelecom.csrtool.gui.pagecache;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+import com.francetelecom.csrtool.utils.CSRToolUtil;
+
+/**
+ * Identifies a rendered page shared by the users of a MCO having the same role and language.
+ * @class PageKey
+ * @Implements Serializable
+ */
+public final class PageKey implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = -3349526270916824305L;
+
+	/**	separator of the role names of a user having several roles **/
+	static final String ROLE_SEPARATOR = ",";
+
+	/**	prefix of the admin level in the role of the pages of the administrators **/
+	static final String ADMIN_ROLE_PREFIX = "admin";
+
+	/**	page path, with its query string **/
+	private final String page;
+
+	/**	mco, <code>null</code> for the users of all the MCOs **/
+	private final String mco;
+
+	/**	role names, sorted and separated by {@link #ROLE_SEPARATOR}, or admin level of the administrators **/
+	private final String role;
+
+	/**	language **/
+	private final String language;
+
+	/**
+	 * Constructor
+	 * @param page page path, with its query string
+	 * @param mco MCO name
+	 * @param role role names, sorted and separated by {@link #ROLE_SEPARATOR}
+	 * @param language language
+	 */
+	public PageKey(String page, String mco, String role, String language) {
+		this.page = page;
+		this.mco = mco;
+		this.role = role;
+		this.language = language;
+	}
+
+	/**
+	 * @param roleName a role name
+	 * @return whether the page was rendered for a user having this role
+	 **/
+	public boolean hasRole(String roleName) {
+		return role != null && Arrays.asList(role.split(ROLE_SEPARATOR)).contains(roleName);
+	}
+
+	/**
+	 * @return whether the page was rendered for an administrator, who has no role
+	 **/
+	public boolean isAdministration() {
+		return role != null && role.startsWith(ADMIN_ROLE_PREFIX) && StringUtils.isNumeric(role.substring(ADMIN_ROLE_PREFIX.length()));
+	}
+
+	/**
+	 * @return details of key
+	 **/
+	@Override
+	public String toString() {
+		return page + " [" + mco + "/" + role + "/" + language + "]";
+	}
+
+	/**
+	 *  @param obj of Object type
+	 *  @return whether objects are equal or not
+	 * **/
+	@Override
+	public boolean equals(Object obj) {
+		if (CSRToolUtil.isNull(obj)) {
+			return false;
+		}
+		if (obj == this) {
+			return true;
+		}
+		if (obj.getClass() != getClass()) {
+			return false;
+		}
+		PageKey rhs = (PageKey) obj;
+		EqualsBuilder equalsBuilder = new EqualsBuilder();
+		equalsBuilder.append(page, rhs.page);
+		equalsBuilder.append(mco, rhs.mco);
+		equalsBuilder.append(role, rhs.role);
+		equalsBuilder.append(language, rhs.language);
+		return equalsBuilder.isEquals();
+	}
+
+	/**
+	 * @return hashcoded integer value
+	 **/
+	@Override
+	public int hashCode() {
+		HashCodeBuilder hashCodeBuilder = new HashCodeBuilder();
+		hashCodeBuilder.append(page);
+		hashCodeBuilder.append(mco);
+		hashCodeBuilder.append(role);
+		hashCodeBuilder.append(language);
+		return hashCodeBuilder.toHashCode();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return page path, with its query string
+	 **/
+	public String getPage() {
+		return page;
+	}
+
+	/**
+	 * @return mco
+	 **/
+	public String getMco() {
+		return mco;
+	}
+
+	/**
+	 * @return role names, or admin level of the administrators
+	 **/
+	public String getRole() {
+		return role;
+	}
+
+	/**
+	 * @return language
+	 **/
+	public String getLanguage() {
+		return language;
+	}
+}
@@ -0,0 +1,15 @@
+package com.francetelecom.csrtool.gui.prefetch;
+
+/**
+ * Interface of the loading of the data of a customer-scoped brick ahead of its request.
+ * **/
+public interface IBrickLoader {
+	/**
+	 * Loads the data of the brick for a customer, as the action would serve it
+	 * @param mco MCO name of the customer
+	 * @param customerId customer identifier
+	 * @return the data of the brick
+	 * @throws Exception if the backend could not provide the data
+	 */
+	Object load(String mco, String customerId) throws Exception;
+}
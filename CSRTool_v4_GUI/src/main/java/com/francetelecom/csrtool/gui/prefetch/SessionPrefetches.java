@@ -0,0 +1,160 @@
+package com.francetelecom.csrtool.gui.prefetch;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import javax.servlet.http.HttpSessionBindingEvent;
+import javax.servlet.http.HttpSessionBindingListener;
+
+/**
+ * The bricks prefetched for the current customer of a session, kept in the session.<br>
+ * The prefetches are not replicated with the session, and are cancelled when the session ends.
+ * @class SessionPrefetches
+ * @Implements Serializable, HttpSessionBindingListener
+ */
+final class SessionPrefetches implements Serializable, HttpSessionBindingListener {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = -6902273117406218849L;
+
+	/**	customer of the prefetches **/
+	private transient String customerId;
+
+	/**	last brick requested for the customer **/
+	private transient String lastAction;
+
+	/**	prefetches per brick **/
+	private transient Map<String, Prefetch> prefetches;
+
+	/**
+	 * The prefetch of a brick.
+	 * @class Prefetch
+	 */
+	static final class Prefetch {
+		/**	result of the loading **/
+		private final Future<Object> future;
+
+		/**	expiration time **/
+		private final long expiresAt;
+
+		/**
+		 * Constructor
+		 * @param future result of the loading
+		 * @param expiresAt expiration time
+		 */
+		Prefetch(Future<Object> future, long expiresAt) {
+			this.future = future;
+			this.expiresAt = expiresAt;
+		}
+
+		/**
+		 * @return result of the loading
+		 **/
+		Future<Object> getFuture() {
+			return future;
+		}
+
+		/**
+		 * @return expiration time
+		 **/
+		long getExpiresAt() {
+			return expiresAt;
+		}
+	}
+
+	/**
+	 * Moves to a customer, the prefetches of the previous customer are cancelled
+	 * @param newCustomerId the customer
+	 * @param action the brick requested
+	 * @return the previous brick requested for the customer, <code>null</code> if the customer
+	 * changed
+	 */
+	synchronized String moveTo(String newCustomerId, String action) {
+		String previousAction = lastAction;
+		if (!newCustomerId.equals(customerId)) {
+			SpeculativePrefetcher.getInstance().wasted(cancelAll());
+			customerId = newCustomerId;
+			previousAction = null;
+		}
+		lastAction = action;
+		return previousAction;
+	}
+
+	/**
+	 * @param forCustomerId a customer
+	 * @param action a brick
+	 * @param now current time
+	 * @return whether the brick is being or was prefetched for the customer and has not expired
+	 */
+	synchronized boolean contains(String forCustomerId, String action, long now) {
+		Prefetch prefetch = forCustomerId.equals(customerId) && prefetches != null ? prefetches.get(action) : null;
+		return prefetch != null && prefetch.expiresAt >= now;
+	}
+
+	/**
+	 * Keeps a prefetch unless the customer changed meanwhile
+	 * @param forCustomerId customer of the prefetch
+	 * @param action the brick
+	 * @param prefetch the prefetch
+	 * @return <code>false</code> if the customer changed
+	 */
+	synchronized boolean put(String forCustomerId, String action, Prefetch prefetch) {
+		if (!forCustomerId.equals(customerId)) {
+			return false;
+		}
+		if (prefetches == null) {
+			prefetches = new HashMap<String, Prefetch>(4);
+		}
+		Prefetch previous = prefetches.put(action, prefetch);
+		if (previous != null) {
+			previous.future.cancel(true);
+		}
+		return true;
+	}
+
+	/**
+	 * Takes the prefetch of a brick
+	 * @param forCustomerId the customer
+	 * @param action the brick
+	 * @return the prefetch or <code>null</code>
+	 */
+	synchronized Prefetch take(String forCustomerId, String action) {
+		if (!forCustomerId.equals(customerId) || prefetches == null) {
+			return null;
+		}
+		return prefetches.remove(action);
+	}
+
+	/**
+	 * Cancels the prefetches
+	 * @return the number of prefetches cancelled unused
+	 */
+	synchronized int cancelAll() {
+		if (prefetches == null) {
+			return 0;
+		}
+		int count = prefetches.size();
+		for (Prefetch prefetch : prefetches.values()) {
+			prefetch.future.cancel(true);
+		}
+		prefetches.clear();
+		return count;
+	}
+
+	/**
+	 * @param event session binding event
+	 **/
+	public void valueBound(HttpSessionBindingEvent event) {
+		// Do nothing
+	}
+
+	/**
+	 * Cancels the prefetches when the session ends
+	 * @param event session binding event
+	 **/
+	public void valueUnbound(HttpSessionBindingEvent event) {
+		SpeculativePrefetcher.getInstance().wasted(cancelAll());
+	}
+}
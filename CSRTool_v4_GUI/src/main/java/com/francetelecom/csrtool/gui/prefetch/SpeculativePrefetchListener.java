@@ -0,0 +1,78 @@
+package com.francetelecom.csrtool.gui.prefetch;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * Starts the {@link SpeculativePrefetcher} with the application and stops it with the application.
+ * @class SpeculativePrefetchListener
+ * @Implements ServletContextListener
+ */
+public class SpeculativePrefetchListener implements ServletContextListener {
+
+	/** Logger **/
+	private static Logger LOGGER = Logger.getLogger(SpeculativePrefetchListener.class);
+
+	/** context parameter enabling the prefetching **/
+	private static final String PARAM_ENABLED = "speculativePrefetch.enabled";
+
+	/** context parameter holding the number of threads loading the bricks **/
+	private static final String PARAM_THREADS = "speculativePrefetch.threads";
+
+	/** context parameter holding the maximum number of prefetches waiting for a thread **/
+	private static final String PARAM_QUEUE_SIZE = "speculativePrefetch.queueSize";
+
+	/** context parameter holding the maximum number of prefetches issued per second **/
+	private static final String PARAM_MAX_PER_SECOND = "speculativePrefetch.maxPerSecond";
+
+	/** context parameter holding the minimum probability of a brick to be prefetched **/
+	private static final String PARAM_MIN_PROBABILITY = "speculativePrefetch.minProbability";
+
+	/** context parameter holding the maximum number of bricks prefetched per request **/
+	private static final String PARAM_MAX_PER_REQUEST = "speculativePrefetch.maxPerRequest";
+
+	/** context parameter holding the time a prefetched brick is kept, in milliseconds **/
+	private static final String PARAM_TIME_TO_LIVE_MILLIS = "speculativePrefetch.timeToLiveMillis";
+
+	/**
+	 * Starts the prefetching unless disabled
+	 * @param event servlet context event
+	 */
+	public void contextInitialized(ServletContextEvent event) {
+		ServletContext context = event.getServletContext();
+		if (!Boolean.parseBoolean(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_ENABLED), "true").trim())) {
+			return;
+		}
+		try {
+			int threads = Integer.parseInt(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_THREADS), "2").trim());
+			int queueSize = Integer.parseInt(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_QUEUE_SIZE), "100").trim());
+			int maxPerSecond = Integer.parseInt(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_MAX_PER_SECOND), "20").trim());
+			double minProbability = Double.parseDouble(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_MIN_PROBABILITY), "0.3").trim());
+			int maxPerRequest = Integer.parseInt(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_MAX_PER_REQUEST), "2").trim());
+			long timeToLive = Long.parseLong(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_TIME_TO_LIVE_MILLIS), "15000").trim());
+			SpeculativePrefetcher.getInstance().start(threads, queueSize, maxPerSecond, minProbability, maxPerRequest, timeToLive);
+
+			if (LOGGER.isInfoEnabled()) {
+				LOGGER.info(FuncLogging.getLogFormatedMessage("SpeculativePrefetchListener","contextInitialized",
+						String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,"speculative prefetch started, " + maxPerSecond + " per second"));
+			}
+		} catch (NumberFormatException e) {
+			LOGGER.error(FuncLogging.getLogFormatedMessage("SpeculativePrefetchListener","contextInitialized",
+					FuncLogging.REQUEST_STATUS_FAILED, null,"speculative prefetch not started: " + e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * Stops the prefetching
+	 * @param event servlet context event
+	 */
+	public void contextDestroyed(ServletContextEvent event) {
+		SpeculativePrefetcher.getInstance().stop();
+	}
+}
@@ -0,0 +1,147 @@
+package com.francetelecom.csrtool.gui.prefetch;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * This bean is a snapshot of the statistics of the {@link SpeculativePrefetcher}.
+ * @class SpeculativePrefetchStats
+ * @Implements Serializable
+ */
+public class SpeculativePrefetchStats implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 8843160227519004736L;
+
+	/**	whether the prefetching is started **/
+	private final boolean started;
+
+	/**	number of prefetches issued **/
+	private final long issued;
+
+	/**	number of requests served by a prefetch **/
+	private final long hits;
+
+	/**	number of requests whose prefetch was not loaded yet **/
+	private final long late;
+
+	/**	number of requests of a prefetchable brick without prefetch **/
+	private final long misses;
+
+	/**	number of prefetches cancelled or expired unused **/
+	private final long wasted;
+
+	/**	number of prefetches skipped by the rate limit or the full queue **/
+	private final long throttled;
+
+	/**	number of prefetches which failed **/
+	private final long failures;
+
+	/**
+	 * Constructor
+	 * @param started whether the prefetching is started
+	 * @param issued number of prefetches issued
+	 * @param hits number of requests served by a prefetch
+	 * @param late number of requests whose prefetch was not loaded yet
+	 * @param misses number of requests of a prefetchable brick without prefetch
+	 * @param wasted number of prefetches cancelled or expired unused
+	 * @param throttled number of prefetches skipped by the rate limit or the full queue
+	 * @param failures number of prefetches which failed
+	 */
+	public SpeculativePrefetchStats(boolean started, long issued, long hits, long late, long misses, long wasted, long throttled,
+			long failures) {
+		this.started = started;
+		this.issued = issued;
+		this.hits = hits;
+		this.late = late;
+		this.misses = misses;
+		this.wasted = wasted;
+		this.throttled = throttled;
+		this.failures = failures;
+	}
+
+	/**
+	 * @return the ratio of the requests of a prefetchable brick served by a prefetch
+	 **/
+	public double getHitRate() {
+		long requests = hits + late + misses;
+		return requests == 0 ? 0d : (double) hits / requests;
+	}
+
+	/**
+	 * @return details of the statistics
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("started", started);
+		toStringBuilder.append("issued", issued);
+		toStringBuilder.append("hits", hits);
+		toStringBuilder.append("late", late);
+		toStringBuilder.append("misses", misses);
+		toStringBuilder.append("wasted", wasted);
+		toStringBuilder.append("throttled", throttled);
+		toStringBuilder.append("failures", failures);
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return whether the prefetching is started
+	 **/
+	public boolean isStarted() {
+		return started;
+	}
+
+	/**
+	 * @return number of prefetches issued
+	 **/
+	public long getIssued() {
+		return issued;
+	}
+
+	/**
+	 * @return number of requests served by a prefetch
+	 **/
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return number of requests whose prefetch was not loaded yet
+	 **/
+	public long getLate() {
+		return late;
+	}
+
+	/**
+	 * @return number of requests of a prefetchable brick without prefetch
+	 **/
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return number of prefetches cancelled or expired unused
+	 **/
+	public long getWasted() {
+		return wasted;
+	}
+
+	/**
+	 * @return number of prefetches skipped by the rate limit or the full queue
+	 **/
+	public long getThrottled() {
+		return throttled;
+	}
+
+	/**
+	 * @return number of prefetches which failed
+	 **/
+	public long getFailures() {
+		return failures;
+	}
+}
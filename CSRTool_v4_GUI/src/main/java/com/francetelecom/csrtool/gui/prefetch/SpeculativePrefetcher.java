@@ -0,0 +1,313 @@
+package com.francetelecom.csrtool.gui.prefetch;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.gui.concurrent.ContextAwareExecutorService;
+import com.francetelecom.csrtool.gui.concurrent.DaemonThreadFactory;
+import com.francetelecom.csrtool.gui.deadline.RequestDeadline;
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+import com.francetelecom.csrtool.model.profiles.CSRUser;
+
+/**
+ * Prefetches the bricks an agent is likely to request next for the customer being served.<br>
+ * Each customer-scoped request is counted as a transition from the previous brick requested for
+ * the same customer in the {@link WorkflowModel} of the MCO. The bricks likely to follow, having
+ * an {@link IBrickLoader}, are then loaded by low priority background threads into the session,
+ * for a short time. The action of such a brick takes the prefetched data, if loaded, instead of
+ * calling the backend.<br>
+ * The prefetches are limited per second and by a bounded queue, and are cancelled when the agent
+ * moves to another customer.
+ * @class SpeculativePrefetcher
+ */
+public final class SpeculativePrefetcher {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(SpeculativePrefetcher.class);
+
+	/**	request parameter holding the customer of a customer-scoped brick **/
+	public static final String CUSTOMER_PARAMETER = "customerId";
+
+	/**	session attribute holding the prefetches of the session **/
+	private static final String SESSION_ATTRIBUTE = "csrtool.speculativePrefetches";
+
+	/**	unique instance **/
+	private static final SpeculativePrefetcher INSTANCE = new SpeculativePrefetcher();
+
+	/**	loaders per brick **/
+	private final ConcurrentMap<String, IBrickLoader> loaders = new ConcurrentHashMap<String, IBrickLoader>();
+
+	/**	transitions between the bricks **/
+	private final WorkflowModel workflowModel = new WorkflowModel();
+
+	/**	lock of the rate limit **/
+	private final Object rateLock = new Object();
+
+	/**	second of the current rate limit window **/
+	private long rateSecond;
+
+	/**	number of prefetches issued in the current window **/
+	private int rateCount;
+
+	/**	executor of the prefetches, run with the user of the request; <code>null</code> when stopped **/
+	private volatile ExecutorService executor;
+
+	/**	maximum number of prefetches issued per second **/
+	private volatile int maxPerSecond;
+
+	/**	minimum probability of a brick to be prefetched **/
+	private volatile double minProbability;
+
+	/**	maximum number of bricks prefetched per request **/
+	private volatile int maxPerRequest;
+
+	/**	time a prefetched brick is kept, in milliseconds **/
+	private volatile long timeToLive;
+
+	/**	number of prefetches issued **/
+	private final AtomicLong issued = new AtomicLong();
+
+	/**	number of requests served by a prefetch **/
+	private final AtomicLong hits = new AtomicLong();
+
+	/**	number of requests whose prefetch was not loaded yet **/
+	private final AtomicLong late = new AtomicLong();
+
+	/**	number of requests of a prefetchable brick without prefetch **/
+	private final AtomicLong misses = new AtomicLong();
+
+	/**	number of prefetches cancelled or expired unused **/
+	private final AtomicLong wasted = new AtomicLong();
+
+	/**	number of prefetches skipped by the rate limit or the full queue **/
+	private final AtomicLong throttled = new AtomicLong();
+
+	/**	number of prefetches which failed **/
+	private final AtomicLong failures = new AtomicLong();
+
+	/**
+	 * Constructor
+	 */
+	private SpeculativePrefetcher() {
+		// singleton
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static SpeculativePrefetcher getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Starts the prefetching
+	 * @param threads number of threads loading the bricks
+	 * @param queueSize maximum number of prefetches waiting for a thread
+	 * @param maxPerSecond maximum number of prefetches issued per second
+	 * @param minProbability minimum probability of a brick to be prefetched
+	 * @param maxPerRequest maximum number of bricks prefetched per request
+	 * @param timeToLive time a prefetched brick is kept, in milliseconds
+	 */
+	public synchronized void start(int threads, int queueSize, int maxPerSecond, double minProbability, int maxPerRequest, long timeToLive) {
+		if (executor != null) {
+			return;
+		}
+		this.maxPerSecond = maxPerSecond;
+		this.minProbability = minProbability;
+		this.maxPerRequest = maxPerRequest;
+		this.timeToLive = timeToLive;
+		executor = new ContextAwareExecutorService(new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(queueSize), new DaemonThreadFactory("SpeculativePrefetch", Thread.MIN_PRIORITY)));
+	}
+
+	/**
+	 * Stops the prefetching, the prefetches in progress are interrupted
+	 */
+	public synchronized void stop() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	/**
+	 * Registers the loader of a brick, so that the brick may be prefetched
+	 * @param action action name of the brick
+	 * @param loader the loader
+	 */
+	public void register(String action, IBrickLoader loader) {
+		loaders.put(action, loader);
+	}
+
+	/**
+	 * Unregisters the loader of a brick
+	 * @param action action name of the brick
+	 */
+	public void unregister(String action) {
+		loaders.remove(action);
+	}
+
+	/**
+	 * Learns from a customer-scoped request served, and prefetches the bricks likely to follow
+	 * @param request http servlet request
+	 * @param action action name of the brick served
+	 * @param customerId the customer
+	 */
+	public void onRequest(HttpServletRequest request, String action, final String customerId) {
+		ExecutorService prefetchExecutor = executor;
+		CSRUser currentUser = CSRUser.getCurrentCSR();
+		HttpSession session = request.getSession(false);
+		if (prefetchExecutor == null || currentUser == null || currentUser.getMco() == null || session == null) {
+			return;
+		}
+		final String mco = currentUser.getMco();
+		SessionPrefetches sessionPrefetches = (SessionPrefetches) session.getAttribute(SESSION_ATTRIBUTE);
+		if (sessionPrefetches == null) {
+			sessionPrefetches = new SessionPrefetches();
+			session.setAttribute(SESSION_ATTRIBUTE, sessionPrefetches);
+		}
+		String previousAction = sessionPrefetches.moveTo(customerId, action);
+		if (previousAction != null) {
+			workflowModel.record(mco, previousAction, action);
+		}
+
+		long now = System.currentTimeMillis();
+		for (String next : workflowModel.predict(mco, action, minProbability, maxPerRequest)) {
+			final IBrickLoader loader = loaders.get(next);
+			if (loader == null || sessionPrefetches.contains(customerId, next, now)) {
+				continue;
+			}
+			if (!acquirePermit(now)) {
+				throttled.incrementAndGet();
+				break;
+			}
+			Future<Object> future;
+			try {
+				future = prefetchExecutor.submit(new Callable<Object>() {
+					public Object call() throws Exception {
+						// a prefetch outlives the request that triggered it, it is not bound by its deadline
+						RequestDeadline.set(null);
+						try {
+							return loader.load(mco, customerId);
+						} catch (Exception e) {
+							failures.incrementAndGet();
+							throw e;
+						}
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				throttled.incrementAndGet();
+				break;
+			}
+			if (sessionPrefetches.put(customerId, next, new SessionPrefetches.Prefetch(future, now + timeToLive))) {
+				issued.incrementAndGet();
+			} else {
+				// the agent moved to another customer meanwhile
+				future.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Takes the prefetched data of a brick
+	 * @param request http servlet request
+	 * @param action action name of the brick
+	 * @param customerId the customer
+	 * @return the prefetched data, <code>null</code> if it was not prefetched, not loaded yet or
+	 * expired
+	 */
+	public Object take(HttpServletRequest request, String action, String customerId) {
+		HttpSession session = request.getSession(false);
+		if (executor == null || session == null || !loaders.containsKey(action)) {
+			return null;
+		}
+		SessionPrefetches sessionPrefetches = (SessionPrefetches) session.getAttribute(SESSION_ATTRIBUTE);
+		SessionPrefetches.Prefetch prefetch = sessionPrefetches != null ? sessionPrefetches.take(customerId, action) : null;
+		if (prefetch == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+		Future<Object> future = prefetch.getFuture();
+		if (prefetch.getExpiresAt() < System.currentTimeMillis()) {
+			future.cancel(true);
+			wasted.incrementAndGet();
+			misses.incrementAndGet();
+			return null;
+		}
+		if (!future.isDone()) {
+			// not worth waiting for a thread of low priority; left running since the loader may fill a cache
+			future.cancel(false);
+			late.incrementAndGet();
+			return null;
+		}
+		try {
+			Object data = future.get();
+			hits.incrementAndGet();
+			return data;
+		} catch (ExecutionException e) {
+			misses.incrementAndGet();
+			if (LOGGER.isDebugEnabled()) {
+				LOGGER.debug(FuncLogging.getLogFormatedMessage("SpeculativePrefetcher","take",
+						FuncLogging.REQUEST_STATUS_FAILED, null,"prefetch of " + action + " failed: " + e.getCause()));
+			}
+			return null;
+		} catch (CancellationException e) {
+			misses.incrementAndGet();
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	/**
+	 * Counts prefetches cancelled unused
+	 * @param count number of prefetches
+	 */
+	void wasted(int count) {
+		wasted.addAndGet(count);
+	}
+
+	/**
+	 * Takes a permit of the rate limit
+	 * @param now current time
+	 * @return <code>false</code> if the prefetches of the current second are exhausted
+	 */
+	private boolean acquirePermit(long now) {
+		long second = now / 1000L;
+		synchronized (rateLock) {
+			if (second != rateSecond) {
+				rateSecond = second;
+				rateCount = 0;
+			}
+			if (rateCount >= maxPerSecond) {
+				return false;
+			}
+			rateCount++;
+			return true;
+		}
+	}
+
+	/**
+	 * @return a snapshot of the statistics of the prefetches
+	 **/
+	public SpeculativePrefetchStats getStats() {
+		return new SpeculativePrefetchStats(executor != null, issued.get(), hits.get(), late.get(), misses.get(), wasted.get(), throttled.get(),
+				failures.get());
+	}
+}
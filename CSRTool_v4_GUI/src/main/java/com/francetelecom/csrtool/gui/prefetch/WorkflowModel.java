@@ -0,0 +1,118 @@
+package com.francetelecom.csrtool.gui.prefetch;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Learns, per MCO, which brick the agents request after another one for the same customer.<br>
+ * The transitions are counted; when the transitions from a brick reach a maximum their counts
+ * are halved, so that the model follows the changes of the workflow.
+ * @class WorkflowModel
+ */
+final class WorkflowModel {
+
+	/**	number of transitions from a brick over which the counts are halved **/
+	private static final long MAX_TRANSITIONS = 10000L;
+
+	/**	transitions from each brick, per MCO and brick **/
+	private final ConcurrentMap<String, ConcurrentMap<String, Transitions>> transitions = new ConcurrentHashMap<String, ConcurrentMap<String, Transitions>>();
+
+	/**
+	 * The transitions from a brick.
+	 * @class Transitions
+	 */
+	private static final class Transitions {
+		/**	number of transitions **/
+		private final AtomicLong total = new AtomicLong();
+
+		/**	number of transitions to each brick **/
+		private final ConcurrentMap<String, AtomicLong> counts = new ConcurrentHashMap<String, AtomicLong>();
+	}
+
+	/**
+	 * Counts a transition
+	 * @param mco MCO name
+	 * @param from brick requested first
+	 * @param to brick requested next
+	 */
+	void record(String mco, String from, String to) {
+		ConcurrentMap<String, Transitions> mcoTransitions = transitions.get(mco);
+		if (mcoTransitions == null) {
+			ConcurrentMap<String, Transitions> newTransitions = new ConcurrentHashMap<String, Transitions>();
+			mcoTransitions = transitions.putIfAbsent(mco, newTransitions);
+			if (mcoTransitions == null) {
+				mcoTransitions = newTransitions;
+			}
+		}
+		Transitions fromTransitions = mcoTransitions.get(from);
+		if (fromTransitions == null) {
+			Transitions newTransitions = new Transitions();
+			fromTransitions = mcoTransitions.putIfAbsent(from, newTransitions);
+			if (fromTransitions == null) {
+				fromTransitions = newTransitions;
+			}
+		}
+		AtomicLong count = fromTransitions.counts.get(to);
+		if (count == null) {
+			AtomicLong newCount = new AtomicLong();
+			count = fromTransitions.counts.putIfAbsent(to, newCount);
+			if (count == null) {
+				count = newCount;
+			}
+		}
+		count.incrementAndGet();
+		if (fromTransitions.total.incrementAndGet() >= MAX_TRANSITIONS) {
+			synchronized (fromTransitions) {
+				if (fromTransitions.total.get() >= MAX_TRANSITIONS) {
+					long total = 0L;
+					for (AtomicLong transitionCount : fromTransitions.counts.values()) {
+						total += transitionCount.addAndGet(-transitionCount.get() / 2);
+					}
+					fromTransitions.total.set(total);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Predicts the bricks likely to be requested after a brick
+	 * @param mco MCO name
+	 * @param from the brick requested
+	 * @param minProbability minimum probability of a predicted brick
+	 * @param maxCount maximum number of bricks predicted
+	 * @return the predicted bricks, the most likely first
+	 */
+	List<String> predict(String mco, String from, double minProbability, int maxCount) {
+		ConcurrentMap<String, Transitions> mcoTransitions = transitions.get(mco);
+		Transitions fromTransitions = mcoTransitions != null ? mcoTransitions.get(from) : null;
+		if (fromTransitions == null) {
+			return Collections.emptyList();
+		}
+		long total = fromTransitions.total.get();
+		// counts copied, since they change while sorted
+		List<Map.Entry<String, Long>> likely = new ArrayList<Map.Entry<String, Long>>();
+		for (Map.Entry<String, AtomicLong> entry : fromTransitions.counts.entrySet()) {
+			long count = entry.getValue().get();
+			if (total > 0 && count >= minProbability * total) {
+				likely.add(new AbstractMap.SimpleImmutableEntry<String, Long>(entry.getKey(), Long.valueOf(count)));
+			}
+		}
+		Collections.sort(likely, new Comparator<Map.Entry<String, Long>>() {
+			public int compare(Map.Entry<String, Long> entry1, Map.Entry<String, Long> entry2) {
+				return entry2.getValue().compareTo(entry1.getValue());
+			}
+		});
+		List<String> bricks = new ArrayList<String>(Math.min(maxCount, likely.size()));
+		for (int i = 0; i < likely.size() && i < maxCount; i++) {
+			bricks.add(likely.get(i).getKey());
+		}
+		return bricks;
+	}
+}
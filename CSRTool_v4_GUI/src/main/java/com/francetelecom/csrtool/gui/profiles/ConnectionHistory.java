@@ -0,0 +1,209 @@
+package com.francetelecom.csrtool.gui.profiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The time of day of the first connection of each agent over the last days, kept on this node.<br>
+ * The agents work on fixed shifts, so the median of their recent first connection times predicts
+ * when they will connect next. The history only lives in memory: it is rebuilt over the first
+ * days after a restart.
+ * @class ConnectionHistory
+ */
+public class ConnectionHistory {
+
+	/**	number of days of history kept per agent **/
+	static final int DAYS_KEPT = 7;
+
+	/**	minimum number of days observed before predicting the connection of an agent **/
+	static final int MIN_OBSERVATIONS = 2;
+
+	/**	milliseconds per day **/
+	private static final long DAY_MILLIS = 24L * 60L * 60L * 1000L;
+
+	/**	milliseconds per minute **/
+	private static final long MINUTE_MILLIS = 60L * 1000L;
+
+	/**	minutes per day **/
+	private static final int DAY_MINUTES = 24 * 60;
+
+	/**	history per agent **/
+	private final ConcurrentMap<ProfileKey, AgentHistory> agents = new ConcurrentHashMap<ProfileKey, AgentHistory>();
+
+	/**	maximum number of agents followed **/
+	private final int maxAgents;
+
+	/**
+	 * The first connection times of an agent.
+	 * @class AgentHistory
+	 */
+	private static final class AgentHistory {
+		/**	service role of the last connection **/
+		private String serviceRoleName;
+
+		/**	minute of the day of the first connection, per day, in a ring **/
+		private final int[] minutes = new int[DAYS_KEPT];
+
+		/**	number of days observed, at most the size of the ring **/
+		private int count;
+
+		/**	next slot of the ring **/
+		private int next;
+
+		/**	last day observed, in days since the epoch **/
+		private long lastDay = -1L;
+	}
+
+	/**
+	 * A connection expected soon.
+	 * @class PredictedConnection
+	 */
+	public static final class PredictedConnection {
+		/**	the agent **/
+		private final ProfileKey agent;
+
+		/**	service role of the last connection of the agent **/
+		private final String serviceRoleName;
+
+		/**	expected minute of the day of the connection **/
+		private final int expectedMinute;
+
+		/**
+		 * Constructor
+		 * @param agent the agent
+		 * @param serviceRoleName service role of the agent
+		 * @param expectedMinute expected minute of the day of the connection
+		 */
+		private PredictedConnection(ProfileKey agent, String serviceRoleName, int expectedMinute) {
+			this.agent = agent;
+			this.serviceRoleName = serviceRoleName;
+			this.expectedMinute = expectedMinute;
+		}
+
+		/**
+		 * @return the agent
+		 **/
+		public ProfileKey getAgent() {
+			return agent;
+		}
+
+		/**
+		 * @return service role of the last connection of the agent, <code>null</code> for the administrators
+		 **/
+		public String getServiceRoleName() {
+			return serviceRoleName;
+		}
+
+		/**
+		 * @return expected minute of the day of the connection
+		 **/
+		public int getExpectedMinute() {
+			return expectedMinute;
+		}
+	}
+
+	/**
+	 * Constructor
+	 * @param maxAgents maximum number of agents followed
+	 */
+	public ConnectionHistory(int maxAgents) {
+		this.maxAgents = maxAgents;
+	}
+
+	/**
+	 * Records a connection. Only the first connection of the day of an agent is kept.
+	 * @param agent the agent
+	 * @param serviceRoleName service role of the agent, <code>null</code> for the administrators
+	 * @param time time of the connection
+	 */
+	public void record(ProfileKey agent, String serviceRoleName, long time) {
+		AgentHistory history = agents.get(agent);
+		if (history == null) {
+			if (agents.size() >= maxAgents) {
+				return;
+			}
+			history = new AgentHistory();
+			AgentHistory existing = agents.putIfAbsent(agent, history);
+			if (existing != null) {
+				history = existing;
+			}
+		}
+
+		long localTime = toLocalTime(time);
+		long day = localTime / DAY_MILLIS;
+		synchronized (history) {
+			history.serviceRoleName = serviceRoleName;
+			if (history.lastDay == day) {
+				return;
+			}
+			history.lastDay = day;
+			history.minutes[history.next] = (int) (localTime % DAY_MILLIS / MINUTE_MILLIS);
+			history.next = (history.next + 1) % DAYS_KEPT;
+			history.count = Math.min(history.count + 1, DAYS_KEPT);
+		}
+	}
+
+	/**
+	 * Predicts the agents who will connect within a period of the current day, leaving out the
+	 * agents already connected today
+	 * @param from start of the period
+	 * @param to end of the period, excluded
+	 * @return the connections expected, the soonest first
+	 */
+	public List<PredictedConnection> predict(long from, long to) {
+		long localFrom = toLocalTime(from);
+		long today = localFrom / DAY_MILLIS;
+		final int fromMinute = (int) (localFrom % DAY_MILLIS / MINUTE_MILLIS);
+		int length = (int) Math.min(DAY_MINUTES, Math.max(0L, (to - from) / MINUTE_MILLIS));
+
+		List<PredictedConnection> predictions = new ArrayList<PredictedConnection>();
+		for (Map.Entry<ProfileKey, AgentHistory> entry : agents.entrySet()) {
+			AgentHistory history = entry.getValue();
+			int expectedMinute;
+			String serviceRoleName;
+			synchronized (history) {
+				if (history.count < MIN_OBSERVATIONS || history.lastDay == today) {
+					continue;
+				}
+				int[] observed = Arrays.copyOf(history.minutes, history.count);
+				Arrays.sort(observed);
+				expectedMinute = observed[observed.length / 2];
+				serviceRoleName = history.serviceRoleName;
+			}
+			if ((expectedMinute - fromMinute + DAY_MINUTES) % DAY_MINUTES < length) {
+				predictions.add(new PredictedConnection(entry.getKey(), serviceRoleName, expectedMinute));
+			}
+		}
+
+		Collections.sort(predictions, new Comparator<PredictedConnection>() {
+			public int compare(PredictedConnection o1, PredictedConnection o2) {
+				int delay1 = (o1.expectedMinute - fromMinute + DAY_MINUTES) % DAY_MINUTES;
+				int delay2 = (o2.expectedMinute - fromMinute + DAY_MINUTES) % DAY_MINUTES;
+				return delay1 < delay2 ? -1 : delay1 == delay2 ? 0 : 1;
+			}
+		});
+		return predictions;
+	}
+
+	/**
+	 * @return number of agents followed
+	 **/
+	public int size() {
+		return agents.size();
+	}
+
+	/**
+	 * @param time a time
+	 * @return the time shifted to the local time zone, so that days start at local midnight
+	 **/
+	private static long toLocalTime(long time) {
+		return time + TimeZone.getDefault().getOffset(time);
+	}
+}
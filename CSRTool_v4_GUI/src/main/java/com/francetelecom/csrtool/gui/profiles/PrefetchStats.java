@@ -0,0 +1,161 @@
+package com.francetelecom.csrtool.gui.profiles;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * This bean is a snapshot of the statistics of the {@link ProfilePrefetcher}.
+ * @class PrefetchStats
+ * @Implements Serializable
+ */
+public class PrefetchStats implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 7105472836104946512L;
+
+	/**	number of agents followed by the connection history **/
+	private final int agents;
+
+	/**	number of connections predicted **/
+	private final long predicted;
+
+	/**	number of profiles and roles prefetched **/
+	private final long prefetched;
+
+	/**	number of prefetches that failed **/
+	private final long failures;
+
+	/**	number of connections served by a prefetched profile **/
+	private final long userInfoHits;
+
+	/**	number of connections that loaded their profile **/
+	private final long userInfoMisses;
+
+	/**	number of connections served by a prefetched role **/
+	private final long roleHits;
+
+	/**	number of connections that loaded their role **/
+	private final long roleMisses;
+
+	/**	number of prefetched profiles expired unused **/
+	private final long expired;
+
+	/**
+	 * Constructor
+	 * @param agents number of agents followed
+	 * @param predicted number of connections predicted
+	 * @param prefetched number of profiles and roles prefetched
+	 * @param failures number of prefetches that failed
+	 * @param userInfoHits number of connections served by a prefetched profile
+	 * @param userInfoMisses number of connections that loaded their profile
+	 * @param roleHits number of connections served by a prefetched role
+	 * @param roleMisses number of connections that loaded their role
+	 * @param expired number of prefetched profiles expired unused
+	 */
+	public PrefetchStats(int agents, long predicted, long prefetched, long failures, long userInfoHits, long userInfoMisses,
+			long roleHits, long roleMisses, long expired) {
+		this.agents = agents;
+		this.predicted = predicted;
+		this.prefetched = prefetched;
+		this.failures = failures;
+		this.userInfoHits = userInfoHits;
+		this.userInfoMisses = userInfoMisses;
+		this.roleHits = roleHits;
+		this.roleMisses = roleMisses;
+		this.expired = expired;
+	}
+
+	/**
+	 * @return ratio of the connections served by a prefetched profile, between 0 and 1
+	 **/
+	public double getHitRatio() {
+		long connections = userInfoHits + userInfoMisses;
+		return connections == 0 ? 0d : (double) userInfoHits / connections;
+	}
+
+	/**
+	 * @return details of the statistics
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("agents", agents);
+		toStringBuilder.append("predicted", predicted);
+		toStringBuilder.append("prefetched", prefetched);
+		toStringBuilder.append("failures", failures);
+		toStringBuilder.append("userInfoHits", userInfoHits);
+		toStringBuilder.append("userInfoMisses", userInfoMisses);
+		toStringBuilder.append("roleHits", roleHits);
+		toStringBuilder.append("roleMisses", roleMisses);
+		toStringBuilder.append("expired", expired);
+		toStringBuilder.append("hitRatio", getHitRatio());
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return number of agents followed by the connection history
+	 **/
+	public int getAgents() {
+		return agents;
+	}
+
+	/**
+	 * @return number of connections predicted
+	 **/
+	public long getPredicted() {
+		return predicted;
+	}
+
+	/**
+	 * @return number of profiles and roles prefetched
+	 **/
+	public long getPrefetched() {
+		return prefetched;
+	}
+
+	/**
+	 * @return number of prefetches that failed
+	 **/
+	public long getFailures() {
+		return failures;
+	}
+
+	/**
+	 * @return number of connections served by a prefetched profile
+	 **/
+	public long getUserInfoHits() {
+		return userInfoHits;
+	}
+
+	/**
+	 * @return number of connections that loaded their profile
+	 **/
+	public long getUserInfoMisses() {
+		return userInfoMisses;
+	}
+
+	/**
+	 * @return number of connections served by a prefetched role
+	 **/
+	public long getRoleHits() {
+		return roleHits;
+	}
+
+	/**
+	 * @return number of connections that loaded their role
+	 **/
+	public long getRoleMisses() {
+		return roleMisses;
+	}
+
+	/**
+	 * @return number of prefetched profiles expired unused
+	 **/
+	public long getExpired() {
+		return expired;
+	}
+}
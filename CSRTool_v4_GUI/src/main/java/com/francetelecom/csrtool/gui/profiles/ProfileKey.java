@@ -0,0 +1,94 @@
+package com.francetelecom.csrtool.gui.profiles;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+import com.francetelecom.csrtool.utils.CSRToolUtil;
+
+/**
+ * Identifies a user or a role within a MCO. Used as key of the connection history and of the
+ * prefetched profiles.
+ * @class ProfileKey
+ * @Implements Serializable
+ */
+public final class ProfileKey implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = -3308512406695519213L;
+
+	/**	mco **/
+	private final String mco;
+
+	/**	login of the user or name of the role **/
+	private final String name;
+
+	/**
+	 * Constructor
+	 * @param mco MCO name
+	 * @param name login of the user or name of the role
+	 */
+	public ProfileKey(String mco, String name) {
+		this.mco = mco;
+		this.name = name;
+	}
+
+	/**
+	 * @return details of key
+	 **/
+	@Override
+	public String toString() {
+		return mco + "/" + name;
+	}
+
+	/**
+	 *  @param obj of Object type
+	 *  @return whether objects are equal or not
+	 * **/
+	@Override
+	public boolean equals(Object obj) {
+		if (CSRToolUtil.isNull(obj)) {
+			return false;
+		}
+		if (obj == this) {
+			return true;
+		}
+		if (obj.getClass() != getClass()) {
+			return false;
+		}
+		ProfileKey rhs = (ProfileKey) obj;
+		EqualsBuilder equalsBuilder = new EqualsBuilder();
+		equalsBuilder.append(mco, rhs.mco);
+		equalsBuilder.append(name, rhs.name);
+		return equalsBuilder.isEquals();
+	}
+
+	/**
+	 * @return hashcoded integer value
+	 **/
+	@Override
+	public int hashCode() {
+		HashCodeBuilder hashCodeBuilder = new HashCodeBuilder();
+		hashCodeBuilder.append(mco);
+		hashCodeBuilder.append(name);
+		return hashCodeBuilder.toHashCode();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return mco
+	 **/
+	public String getMco() {
+		return mco;
+	}
+
+	/**
+	 * @return login of the user or name of the role
+	 **/
+	public String getName() {
+		return name;
+	}
+}
@@ -0,0 +1,68 @@
+package com.francetelecom.csrtool.gui.profiles;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * Starts the {@link ProfilePrefetcher} with the application and stops it with the application.
+ * @class ProfilePrefetchListener
+ * @Implements ServletContextListener
+ */
+public class ProfilePrefetchListener implements ServletContextListener {
+
+	/** Logger **/
+	private static Logger LOGGER = Logger.getLogger(ProfilePrefetchListener.class);
+
+	/** context parameter enabling the prefetches **/
+	private static final String PARAM_ENABLED = "profiles.prefetch.enabled";
+
+	/** context parameter holding the look-ahead period, in minutes **/
+	private static final String PARAM_LOOK_AHEAD_MINUTES = "profiles.prefetch.lookAheadMinutes";
+
+	/** context parameter holding the maximum number of prefetches per second **/
+	private static final String PARAM_MAX_PER_SECOND = "profiles.prefetch.maxPerSecond";
+
+	/** default look-ahead period, in minutes **/
+	private static final String DEFAULT_LOOK_AHEAD_MINUTES = "15";
+
+	/** default maximum number of prefetches per second **/
+	private static final String DEFAULT_MAX_PER_SECOND = "10";
+
+	/**
+	 * Starts the prefetches unless disabled
+	 * @param event servlet context event
+	 */
+	public void contextInitialized(ServletContextEvent event) {
+		ServletContext context = event.getServletContext();
+		if (!Boolean.parseBoolean(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_ENABLED), "true").trim())) {
+			return;
+		}
+		try {
+			long lookAheadMinutes = Long.parseLong(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_LOOK_AHEAD_MINUTES), DEFAULT_LOOK_AHEAD_MINUTES).trim());
+			int maxPerSecond = Integer.parseInt(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_MAX_PER_SECOND), DEFAULT_MAX_PER_SECOND).trim());
+			ProfilePrefetcher.getInstance().start(lookAheadMinutes * 60000L, maxPerSecond);
+
+			if (LOGGER.isInfoEnabled()) {
+				LOGGER.info(FuncLogging.getLogFormatedMessage("ProfilePrefetchListener","contextInitialized",
+						String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,"profile prefetch started, look-ahead " + lookAheadMinutes + " min, " + maxPerSecond + "/s"));
+			}
+		} catch (NumberFormatException e) {
+			LOGGER.error(FuncLogging.getLogFormatedMessage("ProfilePrefetchListener","contextInitialized",
+					FuncLogging.REQUEST_STATUS_FAILED, null,"profile prefetch not started: " + e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * Stops the prefetches
+	 * @param event servlet context event
+	 */
+	public void contextDestroyed(ServletContextEvent event) {
+		ProfilePrefetcher.getInstance().stop();
+	}
+}
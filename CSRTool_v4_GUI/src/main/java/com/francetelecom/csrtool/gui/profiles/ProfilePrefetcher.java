@@ -0,0 +1,303 @@
+package com.francetelecom.csrtool.gui.profiles;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.gui.concurrent.DaemonThreadFactory;
+import com.francetelecom.csrtool.gui.profiles.ConnectionHistory.PredictedConnection;
+import com.francetelecom.csrtool.gui.profiles.store.IProfilesStore;
+import com.francetelecom.csrtool.gui.profiles.store.ProfilesStoreException;
+import com.francetelecom.csrtool.gui.profiles.store.ProfilesStoreRegistry;
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+import com.francetelecom.csrtool.model.profiles.CSRRole;
+import com.francetelecom.csrtool.model.profiles.CSRUserInfo;
+import com.francetelecom.csrtool.model.profiles.ProfilesException;
+
+/**
+ * Loads the profile and the service role of the agents shortly before they connect.<br>
+ * The connections are recorded in a {@link ConnectionHistory}. Periodically, the agents expected
+ * to connect within the look-ahead period get their {@link CSRUserInfo} and {@link CSRRole}
+ * loaded from the {@link IProfilesStore} and kept on this node until they connect, or until the
+ * prefetched data expires. A prefetched profile is used once, by the next connection of the
+ * agent, so that an agent never gets a profile older than the expiry delay. A prefetched role is
+ * dropped as soon as the role is known to have changed.<br>
+ * The prefetches run one at a time and are paced to a maximum rate, so that they do not compete
+ * with the connections for the database.
+ * @class ProfilePrefetcher
+ */
+public final class ProfilePrefetcher {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(ProfilePrefetcher.class);
+
+	/**	maximum number of agents followed by the connection history **/
+	private static final int MAX_AGENTS = 100000;
+
+	/**	delay between two predictions, in milliseconds **/
+	private static final long PERIOD_MILLIS = 60000L;
+
+	/**	unique instance **/
+	private static final ProfilePrefetcher INSTANCE = new ProfilePrefetcher();
+
+	/**	connection history **/
+	private final ConnectionHistory history = new ConnectionHistory(MAX_AGENTS);
+
+	/**	prefetched profiles per agent **/
+	private final ConcurrentMap<ProfileKey, Prefetched<CSRUserInfo>> userInfos = new ConcurrentHashMap<ProfileKey, Prefetched<CSRUserInfo>>();
+
+	/**	prefetched roles per role name **/
+	private final ConcurrentMap<ProfileKey, Prefetched<CSRRole>> roles = new ConcurrentHashMap<ProfileKey, Prefetched<CSRRole>>();
+
+	/**	scheduler of the predictions, <code>null</code> when stopped **/
+	private volatile ScheduledExecutorService scheduler;
+
+	/**	look-ahead period, in milliseconds **/
+	private volatile long lookAheadMillis;
+
+	/**	minimum delay between two prefetches, in milliseconds **/
+	private volatile long pauseMillis;
+
+	/**	number of connections predicted, each counted once until its profile is used or expires **/
+	private final AtomicLong predicted = new AtomicLong();
+
+	/**	number of profiles and roles prefetched **/
+	private final AtomicLong prefetched = new AtomicLong();
+
+	/**	number of prefetches that failed **/
+	private final AtomicLong failures = new AtomicLong();
+
+	/**	number of connections served by a prefetched profile **/
+	private final AtomicLong userInfoHits = new AtomicLong();
+
+	/**	number of connections that loaded their profile **/
+	private final AtomicLong userInfoMisses = new AtomicLong();
+
+	/**	number of connections served by a prefetched role **/
+	private final AtomicLong roleHits = new AtomicLong();
+
+	/**	number of connections that loaded their role **/
+	private final AtomicLong roleMisses = new AtomicLong();
+
+	/**	number of prefetched profiles expired unused **/
+	private final AtomicLong expired = new AtomicLong();
+
+	/**
+	 * Prefetched data and its expiry time.
+	 * @class Prefetched
+	 * @param <V> type of the data
+	 */
+	private static final class Prefetched<V> {
+		/**	data **/
+		private final V value;
+
+		/**	expiry time **/
+		private final long expiresAt;
+
+		/**
+		 * Constructor
+		 * @param value data
+		 * @param expiresAt expiry time
+		 */
+		private Prefetched(V value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	/**
+	 * Constructor
+	 */
+	private ProfilePrefetcher() {
+		// singleton
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static ProfilePrefetcher getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Starts the predictions
+	 * @param lookAheadMillis look-ahead period, in milliseconds
+	 * @param maxPerSecond maximum number of prefetches per second
+	 */
+	public synchronized void start(long lookAheadMillis, int maxPerSecond) {
+		if (scheduler != null) {
+			return;
+		}
+		this.lookAheadMillis = lookAheadMillis;
+		this.pauseMillis = 1000L / Math.max(1, maxPerSecond);
+		scheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("ProfilePrefetch"));
+		scheduler.scheduleWithFixedDelay(new Runnable() {
+			public void run() {
+				prefetch();
+			}
+		}, PERIOD_MILLIS, PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the predictions and drops the prefetched data
+	 */
+	public synchronized void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+		userInfos.clear();
+		roles.clear();
+	}
+
+	/**
+	 * Records the connection of an agent
+	 * @param login login of the agent
+	 * @param mco MCO of the agent
+	 * @param serviceRoleName service role of the agent, <code>null</code> for the administrators
+	 */
+	public void recordConnection(String login, String mco, String serviceRoleName) {
+		history.record(new ProfileKey(mco, login), serviceRoleName, System.currentTimeMillis());
+	}
+
+	/**
+	 * Takes the prefetched profile of an agent. The profile is removed, the next connection will
+	 * load it again unless prefetched again.
+	 * @param login login of the agent
+	 * @param mco MCO of the agent
+	 * @return the prefetched profile or <code>null</code>
+	 */
+	public CSRUserInfo takeUserInfo(String login, String mco) {
+		if (scheduler == null) {
+			return null;
+		}
+		Prefetched<CSRUserInfo> userInfo = userInfos.remove(new ProfileKey(mco, login));
+		if (userInfo == null || userInfo.expiresAt < System.currentTimeMillis()) {
+			userInfoMisses.incrementAndGet();
+			return null;
+		}
+		userInfoHits.incrementAndGet();
+		return userInfo.value;
+	}
+
+	/**
+	 * Gets a prefetched role
+	 * @param roleName name of the role
+	 * @param mco MCO of the role
+	 * @return the prefetched role or <code>null</code>
+	 */
+	public CSRRole getRole(String roleName, String mco) {
+		if (scheduler == null) {
+			return null;
+		}
+		Prefetched<CSRRole> role = roles.get(new ProfileKey(mco, roleName));
+		if (role == null || role.expiresAt < System.currentTimeMillis()) {
+			roleMisses.incrementAndGet();
+			return null;
+		}
+		roleHits.incrementAndGet();
+		return role.value;
+	}
+
+	/**
+	 * Drops a prefetched role changed, so that the next connections read it again
+	 * @param mco MCO of the role
+	 * @param roleName name of the role
+	 */
+	public void invalidateRole(String mco, String roleName) {
+		roles.remove(new ProfileKey(mco, roleName));
+	}
+
+	/**
+	 * Drops all the prefetched roles, when roles changed without being known
+	 */
+	public void invalidateRoles() {
+		roles.clear();
+	}
+
+	/**
+	 * Prefetches the data of the agents expected to connect within the look-ahead period
+	 */
+	private void prefetch() {
+		long now = System.currentTimeMillis();
+		long expiresAt = now + lookAheadMillis + PERIOD_MILLIS;
+		purge(now);
+
+		List<PredictedConnection> predictions = history.predict(now, now + lookAheadMillis);
+		IProfilesStore profilesStore = ProfilesStoreRegistry.getInstance().getStore();
+		try {
+			for (PredictedConnection prediction : predictions) {
+				ProfileKey agent = prediction.getAgent();
+				ProfileKey roleKey = new ProfileKey(agent.getMco(), prediction.getServiceRoleName());
+				try {
+					if (!userInfos.containsKey(agent)) {
+						predicted.incrementAndGet();
+						CSRUserInfo userInfo = profilesStore.getUserInfo(agent.getName(), agent.getMco());
+						if (userInfo != null) {
+							userInfos.put(agent, new Prefetched<CSRUserInfo>(userInfo, expiresAt));
+							prefetched.incrementAndGet();
+						}
+						Thread.sleep(pauseMillis);
+					}
+					if (prediction.getServiceRoleName() != null && !roles.containsKey(roleKey)) {
+						CSRRole role = profilesStore.getRole(prediction.getServiceRoleName(), agent.getMco());
+						if (role != null) {
+							roles.put(roleKey, new Prefetched<CSRRole>(role, expiresAt));
+							prefetched.incrementAndGet();
+						}
+						Thread.sleep(pauseMillis);
+					}
+				} catch (ProfilesException e) {
+					failures.incrementAndGet();
+					LOGGER.warn(FuncLogging.getLogFormatedMessage("ProfilePrefetcher","prefetch",
+							FuncLogging.REQUEST_STATUS_FAILED, null,"prefetch of " + agent + " failed: " + e.getMessage()), e);
+					Thread.sleep(pauseMillis);
+				} catch (ProfilesStoreException e) {
+					failures.incrementAndGet();
+					LOGGER.warn(FuncLogging.getLogFormatedMessage("ProfilePrefetcher","prefetch",
+							FuncLogging.REQUEST_STATUS_FAILED, null,"prefetch of " + agent + " failed: " + e.getMessage()), e);
+					Thread.sleep(pauseMillis);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (RuntimeException e) {
+			failures.incrementAndGet();
+			LOGGER.warn(FuncLogging.getLogFormatedMessage("ProfilePrefetcher","prefetch",
+					FuncLogging.REQUEST_STATUS_FAILED, null,e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * Drops the expired data
+	 * @param now current time
+	 */
+	private void purge(long now) {
+		for (Iterator<Prefetched<CSRUserInfo>> it = userInfos.values().iterator(); it.hasNext();) {
+			if (it.next().expiresAt < now) {
+				it.remove();
+				expired.incrementAndGet();
+			}
+		}
+		for (Iterator<Prefetched<CSRRole>> it = roles.values().iterator(); it.hasNext();) {
+			if (it.next().expiresAt < now) {
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * @return a snapshot of the statistics of the prefetches
+	 **/
+	public PrefetchStats getStats() {
+		return new PrefetchStats(history.size(), predicted.get(), prefetched.get(), failures.get(), userInfoHits.get(),
+				userInfoMisses.get(), roleHits.get(), roleMisses.get(), expired.get());
+	}
+}
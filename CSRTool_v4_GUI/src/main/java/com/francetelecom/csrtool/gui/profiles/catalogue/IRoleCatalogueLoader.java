@@ -0,0 +1,18 @@
+package com.francetelecom.csrtool.gui.profiles.catalogue;
+
+import java.util.List;
+
+import com.francetelecom.csrtool.gui.profiles.store.ProfilesStoreException;
+
+/**
+ * Reads the service roles of all the MCOs with their permissions, to build the {@link RoleCatalogue}.
+ * @class IRoleCatalogueLoader
+ */
+public interface IRoleCatalogueLoader {
+
+	/**
+	 * @return the roles of all the MCOs
+	 * @throws ProfilesStoreException if the roles could not be read
+	 **/
+	List<RoleSummary> load() throws ProfilesStoreException;
+}
@@ -0,0 +1,96 @@
+package com.francetelecom.csrtool.gui.profiles.catalogue;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.francetelecom.csrtool.gui.profiles.store.IConnectionCall;
+import com.francetelecom.csrtool.gui.profiles.store.JdbcConnectionPool;
+import com.francetelecom.csrtool.gui.profiles.store.PooledConnection;
+import com.francetelecom.csrtool.gui.profiles.store.ProfilesStoreException;
+
+/**
+ * Reads the whole catalogue with a single query joining the roles and their permissions, instead of
+ * a query per role, on the connections of a {@link JdbcConnectionPool}.
+ * @class JdbcRoleCatalogueLoader
+ * @implements IRoleCatalogueLoader
+ */
+public class JdbcRoleCatalogueLoader implements IRoleCatalogueLoader {
+
+	/**	default query of the catalogue: columns MCO, role name, role description and permission name, the rows of a role together **/
+	public static final String DEFAULT_SELECT_ROLES_SQL = "SELECT R.MCO, R.NAME, R.DESCRIPTION, P.NAME FROM CSR_ROLE R"
+			+ " LEFT JOIN CSR_ROLE_PERMISSION RP ON RP.ROLE_ID = R.ID LEFT JOIN CSR_PERMISSION P ON P.ID = RP.PERMISSION_ID"
+			+ " ORDER BY R.MCO, R.NAME";
+
+	/**	connection pool **/
+	private final JdbcConnectionPool pool;
+
+	/**	query of the catalogue **/
+	private final String selectRolesSql;
+
+	/**
+	 * Constructor
+	 * @param pool connection pool
+	 * @param selectRolesSql query of the catalogue
+	 */
+	public JdbcRoleCatalogueLoader(JdbcConnectionPool pool, String selectRolesSql) {
+		this.pool = pool;
+		this.selectRolesSql = selectRolesSql;
+	}
+
+	/**
+	 * @return the roles of all the MCOs
+	 * @throws ProfilesStoreException if the database failed
+	 **/
+	public List<RoleSummary> load() throws ProfilesStoreException {
+		try {
+			return pool.execute(new IConnectionCall<List<RoleSummary>>() {
+				public List<RoleSummary> call(PooledConnection connection) throws SQLException {
+					PreparedStatement statement = connection.prepare(selectRolesSql);
+					ResultSet resultSet = statement.executeQuery();
+					try {
+						List<RoleSummary> roles = new ArrayList<RoleSummary>();
+						String mco = null;
+						String name = null;
+						String description = null;
+						List<String> permissions = null;
+						while (resultSet.next()) {
+							String rowMco = resultSet.getString(1);
+							String rowName = resultSet.getString(2);
+							if (permissions == null || !rowMco.equals(mco) || !rowName.equals(name)) {
+								if (permissions != null) {
+									roles.add(new RoleSummary(mco, name, description, permissions));
+								}
+								mco = rowMco;
+								name = rowName;
+								description = resultSet.getString(3);
+								permissions = new ArrayList<String>();
+							}
+							String permission = resultSet.getString(4);
+							if (permission != null) {
+								permissions.add(permission);
+							}
+						}
+						if (permissions != null) {
+							roles.add(new RoleSummary(mco, name, description, permissions));
+						}
+						return roles;
+					} finally {
+						resultSet.close();
+					}
+				}
+			});
+		} catch (SQLException e) {
+			throw new ProfilesStoreException("role catalogue not read", e);
+		}
+	}
+
+	/**
+	 * Closes the connections of the pool
+	 */
+	public void close() {
+		pool.close();
+	}
+}
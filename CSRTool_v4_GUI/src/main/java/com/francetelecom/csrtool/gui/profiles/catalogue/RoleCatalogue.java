@@ -0,0 +1,132 @@
+package com.francetelecom.csrtool.gui.profiles.catalogue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * An immutable snapshot of the service roles of all the MCOs with their permissions.<br>
+ * The roles are sorted once per {@link RoleSort} when the snapshot is built, so that a listing
+ * only filters and pages: it neither sorts nor reads the database.
+ * @class RoleCatalogue
+ */
+public final class RoleCatalogue {
+
+	/**	version of the snapshot, incremented by each build **/
+	private final long version;
+
+	/**	building time of the snapshot **/
+	private final long loadedAt;
+
+	/**	roles sorted in each order **/
+	private final Map<RoleSort, List<RoleSummary>> sortedRoles = new EnumMap<RoleSort, List<RoleSummary>>(RoleSort.class);
+
+	/**	roles per MCO and name **/
+	private final Map<String, RoleSummary> rolesByKey;
+
+	/**
+	 * Constructor
+	 * @param version version of the snapshot
+	 * @param loadedAt building time of the snapshot
+	 * @param roles roles of all the MCOs
+	 */
+	public RoleCatalogue(long version, long loadedAt, List<RoleSummary> roles) {
+		this.version = version;
+		this.loadedAt = loadedAt;
+		for (RoleSort sort : RoleSort.values()) {
+			List<RoleSummary> sorted = new ArrayList<RoleSummary>(roles);
+			Collections.sort(sorted, sort.comparator());
+			sortedRoles.put(sort, Collections.unmodifiableList(sorted));
+		}
+		rolesByKey = new HashMap<String, RoleSummary>(roles.size() * 2);
+		for (RoleSummary role : roles) {
+			rolesByKey.put(key(role), role);
+		}
+	}
+
+	/**
+	 * Lists the roles added, removed or changed since a previous snapshot
+	 * @param previous previous snapshot
+	 * @return the roles changed, as in this snapshot, and the roles removed, as in the previous one
+	 */
+	public List<RoleSummary> getChangedRoles(RoleCatalogue previous) {
+		List<RoleSummary> changed = new ArrayList<RoleSummary>();
+		for (Map.Entry<String, RoleSummary> entry : rolesByKey.entrySet()) {
+			if (!entry.getValue().equals(previous.rolesByKey.get(entry.getKey()))) {
+				changed.add(entry.getValue());
+			}
+		}
+		for (Map.Entry<String, RoleSummary> entry : previous.rolesByKey.entrySet()) {
+			if (!rolesByKey.containsKey(entry.getKey())) {
+				changed.add(entry.getValue());
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * @param role a role
+	 * @return the key of the role
+	 **/
+	private static String key(RoleSummary role) {
+		return role.getMco() + '\u0000' + role.getName();
+	}
+
+	/**
+	 * Lists a page of the roles
+	 * @param mco MCO of the roles listed, all the MCOs if blank
+	 * @param filter text contained in the name, the description or a permission of the roles listed, ignoring the case, all the roles if blank
+	 * @param sort order of the roles
+	 * @param descending whether the order is reversed
+	 * @param page number of the page, from 1
+	 * @param pageSize maximum number of roles per page
+	 * @return the page, empty after the last one
+	 */
+	public RolePage list(String mco, String filter, RoleSort sort, boolean descending, int page, int pageSize) {
+		String lowerCaseFilter = StringUtils.isBlank(filter) ? null : filter.trim().toLowerCase();
+		boolean allMcos = StringUtils.isBlank(mco);
+		List<RoleSummary> roles = sortedRoles.get(sort);
+		int first = (page - 1) * pageSize;
+		List<RoleSummary> pageRoles = new ArrayList<RoleSummary>(Math.min(pageSize, roles.size()));
+		int total = 0;
+		for (int i = 0; i < roles.size(); i++) {
+			RoleSummary role = roles.get(descending ? roles.size() - 1 - i : i);
+			if ((allMcos || mco.equals(role.getMco())) && (lowerCaseFilter == null || role.matches(lowerCaseFilter))) {
+				if (total >= first && pageRoles.size() < pageSize) {
+					pageRoles.add(role);
+				}
+				total++;
+			}
+		}
+		return new RolePage(version, loadedAt, total, page, pageSize, pageRoles);
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return version of the snapshot
+	 **/
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return building time of the snapshot
+	 **/
+	public long getLoadedAt() {
+		return loadedAt;
+	}
+
+	/**
+	 * @return number of roles of the snapshot
+	 **/
+	public int size() {
+		return sortedRoles.get(RoleSort.MCO).size();
+	}
+}
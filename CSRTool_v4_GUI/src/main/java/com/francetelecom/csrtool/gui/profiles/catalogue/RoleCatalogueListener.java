@@ -0,0 +1,80 @@
+package com.francetelecom.csrtool.gui.profiles.catalogue;
+
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.sql.DataSource;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.gui.profiles.store.JdbcConnectionPool;
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * Starts the {@link RoleCatalogueRegistry} with the application when the data source of the
+ * profiles, <code>profiles.store.jdbc.dataSource</code>, is configured, and stops it with the
+ * application. Without data source the catalogue is not built.
+ * @class RoleCatalogueListener
+ * @Implements ServletContextListener
+ */
+public class RoleCatalogueListener implements ServletContextListener {
+
+	/** Logger **/
+	private static Logger LOGGER = Logger.getLogger(RoleCatalogueListener.class);
+
+	/** context parameter holding the JNDI name of the data source **/
+	private static final String PARAM_DATA_SOURCE = "profiles.store.jdbc.dataSource";
+
+	/** context parameter holding the period of the rebuilds of the catalogue, in milliseconds **/
+	private static final String PARAM_REFRESH_MILLIS = "roles.catalogue.refreshMillis";
+
+	/** context parameter holding the query of the catalogue **/
+	private static final String PARAM_SELECT_ROLES_SQL = "roles.catalogue.selectRolesSql";
+
+	/** loader of the catalogue, closed with the application **/
+	private JdbcRoleCatalogueLoader loader;
+
+	/**
+	 * Starts the catalogue
+	 * @param event servlet context event
+	 */
+	public void contextInitialized(ServletContextEvent event) {
+		ServletContext context = event.getServletContext();
+		String dataSourceName = context.getInitParameter(PARAM_DATA_SOURCE);
+		if (StringUtils.isBlank(dataSourceName)) {
+			LOGGER.info(FuncLogging.getLogFormatedMessage("RoleCatalogueListener","contextInitialized",
+					String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,"no data source, the role catalogue is not built"));
+			return;
+		}
+		try {
+			long refreshMillis = Long.parseLong(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_REFRESH_MILLIS), "600000").trim());
+			DataSource dataSource = (DataSource) new InitialContext().lookup(dataSourceName.trim());
+			JdbcConnectionPool pool = new JdbcConnectionPool("roles", dataSource, 1, 5000L, 1);
+			loader = new JdbcRoleCatalogueLoader(pool,
+					StringUtils.defaultIfBlank(context.getInitParameter(PARAM_SELECT_ROLES_SQL), JdbcRoleCatalogueLoader.DEFAULT_SELECT_ROLES_SQL));
+			RoleCatalogueRegistry.getInstance().start(loader, refreshMillis);
+			LOGGER.info(FuncLogging.getLogFormatedMessage("RoleCatalogueListener","contextInitialized",
+					String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,"role catalogue rebuilt every " + refreshMillis + " ms"));
+		} catch (NamingException e) {
+			LOGGER.error(FuncLogging.getLogFormatedMessage("RoleCatalogueListener","contextInitialized",
+					FuncLogging.REQUEST_STATUS_FAILED, null,"data source not found, the role catalogue is not built: " + e.getMessage()), e);
+		} catch (NumberFormatException e) {
+			LOGGER.error(FuncLogging.getLogFormatedMessage("RoleCatalogueListener","contextInitialized",
+					FuncLogging.REQUEST_STATUS_FAILED, null,"invalid parameter, the role catalogue is not built: " + e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * Stops the catalogue and closes its connection
+	 * @param event servlet context event
+	 */
+	public void contextDestroyed(ServletContextEvent event) {
+		RoleCatalogueRegistry.getInstance().stop();
+		if (loader != null) {
+			loader.close();
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package com.francetelecom.csrtool.gui.profiles.catalogue;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.gui.authent.RolePermissions;
+import com.francetelecom.csrtool.gui.concurrent.DaemonThreadFactory;
+import com.francetelecom.csrtool.gui.pagecache.PageCache;
+import com.francetelecom.csrtool.gui.profiles.ProfilePrefetcher;
+import com.francetelecom.csrtool.gui.profiles.store.ProfilesStoreException;
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * Holds the {@link RoleCatalogue} listed by the administration pages.<br>
+ * The catalogue is rebuilt in the background when the roles change, and periodically for the
+ * changes made outside the application. One build runs at a time and the changes notified during
+ * a build are gathered in the next one; meanwhile the listings keep reading the previous snapshot.
+ * Until started, there is no catalogue.
+ * @class RoleCatalogueRegistry
+ */
+public final class RoleCatalogueRegistry {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(RoleCatalogueRegistry.class);
+
+	/**	unique instance **/
+	private static final RoleCatalogueRegistry INSTANCE = new RoleCatalogueRegistry();
+
+	/**	catalogue listed, <code>null</code> until the first build **/
+	private volatile RoleCatalogue catalogue;
+
+	/**	reader of the roles, <code>null</code> until started **/
+	private volatile IRoleCatalogueLoader loader;
+
+	/**	builder of the catalogue, <code>null</code> until started **/
+	private ScheduledExecutorService builder;
+
+	/**	lock of the builds, so that one runs at a time without blocking the notifications **/
+	private final Object buildLock = new Object();
+
+	/**	whether a build is requested and not started yet **/
+	private final AtomicBoolean buildRequested = new AtomicBoolean();
+
+	/**	version of the last catalogue built **/
+	private final AtomicLong version = new AtomicLong();
+
+	/**	number of builds which failed **/
+	private final AtomicLong failures = new AtomicLong();
+
+	/**	duration of the last build, in milliseconds **/
+	private volatile long lastBuildMillis;
+
+	/**
+	 * Constructor
+	 */
+	private RoleCatalogueRegistry() {
+		// singleton
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static RoleCatalogueRegistry getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Starts building the catalogue
+	 * @param newLoader reader of the roles
+	 * @param refreshMillis period of the rebuilds, in milliseconds
+	 */
+	public synchronized void start(IRoleCatalogueLoader newLoader, long refreshMillis) {
+		stop();
+		loader = newLoader;
+		builder = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("RoleCatalogue"));
+		builder.scheduleWithFixedDelay(new Runnable() {
+			public void run() {
+				build();
+			}
+		}, 0L, refreshMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops building the catalogue, the last one built is dropped
+	 */
+	public synchronized void stop() {
+		if (builder != null) {
+			builder.shutdownNow();
+			builder = null;
+		}
+		loader = null;
+		catalogue = null;
+	}
+
+	/**
+	 * Notifies that roles or permissions changed: the catalogue is rebuilt in the background
+	 */
+	public synchronized void rolesChanged() {
+		if (builder == null || !buildRequested.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			builder.execute(new Runnable() {
+				public void run() {
+					build();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			buildRequested.set(false);
+		}
+	}
+
+	/**
+	 * @return the catalogue, built by the caller if no build was tried yet, <code>null</code> if not
+	 * started or if the roles could not be read
+	 **/
+	public RoleCatalogue getCatalogue() {
+		RoleCatalogue current = catalogue;
+		if (current == null && loader != null) {
+			synchronized (buildLock) {
+				if (catalogue == null && version.get() == 0L) {
+					build();
+				}
+				current = catalogue;
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Builds the catalogue; the pages of the roles changed since the previous build are invalidated
+	 */
+	private void build() {
+		synchronized (buildLock) {
+			IRoleCatalogueLoader currentLoader = loader;
+			if (currentLoader == null) {
+				return;
+			}
+			buildRequested.set(false);
+			long start = System.currentTimeMillis();
+			try {
+				RoleCatalogue built = new RoleCatalogue(version.incrementAndGet(), start, currentLoader.load());
+				lastBuildMillis = System.currentTimeMillis() - start;
+				RoleCatalogue previous = catalogue;
+				catalogue = built;
+				if (previous != null) {
+					invalidateChangedRoles(built.getChangedRoles(previous));
+				}
+				if (LOGGER.isDebugEnabled()) {
+					LOGGER.debug(FuncLogging.getLogFormatedMessage("RoleCatalogueRegistry","build",
+							String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,built.size() + " roles read in " + lastBuildMillis + " ms"));
+				}
+			} catch (ProfilesStoreException e) {
+				failures.incrementAndGet();
+				LOGGER.error(FuncLogging.getLogFormatedMessage("RoleCatalogueRegistry","build",
+						FuncLogging.REQUEST_STATUS_FAILED, null,"role catalogue not rebuilt, the previous one is kept: " + e.getMessage()), e);
+			}
+		}
+	}
+
+	/**
+	 * Invalidates the compiled permissions, the prefetched roles and the pages of the roles changed
+	 * since the previous snapshot, and the pages of the administrators listing them
+	 * @param changedRoles roles added, removed or changed
+	 */
+	private static void invalidateChangedRoles(List<RoleSummary> changedRoles) {
+		if (changedRoles.isEmpty()) {
+			return;
+		}
+		RolePermissions rolePermissions = RolePermissions.getInstance();
+		ProfilePrefetcher profilePrefetcher = ProfilePrefetcher.getInstance();
+		PageCache pageCache = PageCache.getInstance();
+		for (RoleSummary role : changedRoles) {
+			rolePermissions.invalidate(role.getMco(), role.getName());
+			profilePrefetcher.invalidateRole(role.getMco(), role.getName());
+			pageCache.invalidateRole(role.getMco(), role.getName());
+		}
+		pageCache.invalidateAdministration();
+	}
+
+	/**
+	 * @return a snapshot of the statistics of the catalogue
+	 **/
+	public RoleCatalogueStats getStats() {
+		RoleCatalogue current = catalogue;
+		return new RoleCatalogueStats(current == null ? 0L : current.getVersion(), current == null ? 0 : current.size(),
+				current == null ? 0L : current.getLoadedAt(), lastBuildMillis, failures.get());
+	}
+}
@@ -0,0 +1,99 @@
+package com.francetelecom.csrtool.gui.profiles.catalogue;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * This bean is a snapshot of the statistics of the {@link RoleCatalogueRegistry}.
+ * @class RoleCatalogueStats
+ * @Implements Serializable
+ */
+public class RoleCatalogueStats implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 2193774010628195561L;
+
+	/**	version of the catalogue listed, 0 if none **/
+	private final long version;
+
+	/**	number of roles of the catalogue listed **/
+	private final int roles;
+
+	/**	building time of the catalogue listed, 0 if none **/
+	private final long loadedAt;
+
+	/**	duration of the last build, in milliseconds **/
+	private final long lastBuildMillis;
+
+	/**	number of builds which failed **/
+	private final long failures;
+
+	/**
+	 * Constructor
+	 * @param version version of the catalogue listed, 0 if none
+	 * @param roles number of roles of the catalogue listed
+	 * @param loadedAt building time of the catalogue listed, 0 if none
+	 * @param lastBuildMillis duration of the last build, in milliseconds
+	 * @param failures number of builds which failed
+	 */
+	public RoleCatalogueStats(long version, int roles, long loadedAt, long lastBuildMillis, long failures) {
+		this.version = version;
+		this.roles = roles;
+		this.loadedAt = loadedAt;
+		this.lastBuildMillis = lastBuildMillis;
+		this.failures = failures;
+	}
+
+	/**
+	 * @return details of the statistics
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("version", version);
+		toStringBuilder.append("roles", roles);
+		toStringBuilder.append("loadedAt", loadedAt);
+		toStringBuilder.append("lastBuildMillis", lastBuildMillis);
+		toStringBuilder.append("failures", failures);
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return version of the catalogue listed, 0 if none
+	 **/
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return number of roles of the catalogue listed
+	 **/
+	public int getRoles() {
+		return roles;
+	}
+
+	/**
+	 * @return building time of the catalogue listed, 0 if none
+	 **/
+	public long getLoadedAt() {
+		return loadedAt;
+	}
+
+	/**
+	 * @return duration of the last build, in milliseconds
+	 **/
+	public long getLastBuildMillis() {
+		return lastBuildMillis;
+	}
+
+	/**
+	 * @return number of builds which failed
+	 **/
+	public long getFailures() {
+		return failures;
+	}
+}
@@ -0,0 +1,112 @@
+package com.francetelecom.csrtool.gui.profiles.catalogue;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * A page of the roles of the {@link RoleCatalogue} matching a listing.
+ * @class RolePage
+ * @Implements Serializable
+ */
+public class RolePage implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = -7728016359413385270L;
+
+	/**	version of the catalogue listed **/
+	private final long version;
+
+	/**	loading time of the catalogue listed **/
+	private final long loadedAt;
+
+	/**	number of roles matching the listing **/
+	private final int total;
+
+	/**	number of the page, from 1 **/
+	private final int page;
+
+	/**	maximum number of roles per page **/
+	private final int pageSize;
+
+	/**	roles of the page **/
+	private final List<RoleSummary> roles;
+
+	/**
+	 * Constructor
+	 * @param version version of the catalogue listed
+	 * @param loadedAt loading time of the catalogue listed
+	 * @param total number of roles matching the listing
+	 * @param page number of the page, from 1
+	 * @param pageSize maximum number of roles per page
+	 * @param roles roles of the page
+	 */
+	public RolePage(long version, long loadedAt, int total, int page, int pageSize, List<RoleSummary> roles) {
+		this.version = version;
+		this.loadedAt = loadedAt;
+		this.total = total;
+		this.page = page;
+		this.pageSize = pageSize;
+		this.roles = roles;
+	}
+
+	/**
+	 * @return details of the page
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("version", version);
+		toStringBuilder.append("total", total);
+		toStringBuilder.append("page", page);
+		toStringBuilder.append("pageSize", pageSize);
+		toStringBuilder.append("roles", roles.size());
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return version of the catalogue listed
+	 **/
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return loading time of the catalogue listed
+	 **/
+	public long getLoadedAt() {
+		return loadedAt;
+	}
+
+	/**
+	 * @return number of roles matching the listing
+	 **/
+	public int getTotal() {
+		return total;
+	}
+
+	/**
+	 * @return number of the page, from 1
+	 **/
+	public int getPage() {
+		return page;
+	}
+
+	/**
+	 * @return maximum number of roles per page
+	 **/
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * @return roles of the page
+	 **/
+	public List<RoleSummary> getRoles() {
+		return roles;
+	}
+}
@@ -0,0 +1,71 @@
+package com.francetelecom.csrtool.gui.profiles.catalogue;
+
+import java.util.Comparator;
+
+/**
+ * The orders of the roles of the {@link RoleCatalogue}. Each order breaks its ties with the MCO
+ * and the name of the roles, so that the pages of a listing are stable.
+ * @class RoleSort
+ */
+public enum RoleSort {
+
+	/**	by MCO, then name **/
+	MCO {
+		@Override
+		int compare(RoleSummary role1, RoleSummary role2) {
+			int result = compareText(role1.getMco(), role2.getMco());
+			return result != 0 ? result : compareText(role1.getName(), role2.getName());
+		}
+	},
+
+	/**	by name, then MCO **/
+	NAME {
+		@Override
+		int compare(RoleSummary role1, RoleSummary role2) {
+			int result = compareText(role1.getName(), role2.getName());
+			return result != 0 ? result : compareText(role1.getMco(), role2.getMco());
+		}
+	},
+
+	/**	by number of permissions, then MCO and name **/
+	PERMISSIONS {
+		@Override
+		int compare(RoleSummary role1, RoleSummary role2) {
+			int result = role1.getPermissions().size() - role2.getPermissions().size();
+			return result != 0 ? result : MCO.compare(role1, role2);
+		}
+	};
+
+	/**
+	 * Compares two roles in this order
+	 * @param role1 a role
+	 * @param role2 another role
+	 * @return a negative integer, zero, or a positive integer as the first role is before, at the
+	 * same place or after the second one
+	 */
+	abstract int compare(RoleSummary role1, RoleSummary role2);
+
+	/**
+	 * @return a comparator of the roles in this order
+	 **/
+	Comparator<RoleSummary> comparator() {
+		return new Comparator<RoleSummary>() {
+			public int compare(RoleSummary role1, RoleSummary role2) {
+				return RoleSort.this.compare(role1, role2);
+			}
+		};
+	}
+
+	/**
+	 * Compares two texts ignoring the case, <code>null</code> first
+	 * @param text1 a text, may be <code>null</code>
+	 * @param text2 another text, may be <code>null</code>
+	 * @return the result of the comparison
+	 */
+	private static int compareText(String text1, String text2) {
+		if (text1 == null) {
+			return text2 == null ? 0 : -1;
+		}
+		return text2 == null ? 1 : text1.compareToIgnoreCase(text2);
+	}
+}
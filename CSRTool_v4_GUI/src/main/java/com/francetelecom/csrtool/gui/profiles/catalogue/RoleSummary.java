@@ -0,0 +1,145 @@
+package com.francetelecom.csrtool.gui.profiles.catalogue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import com.francetelecom.csrtool.utils.CSRToolUtil;
+
+/**
+ * A service role of the {@link RoleCatalogue} with the names of its permissions.
+ * @class RoleSummary
+ * @Implements Serializable
+ */
+public final class RoleSummary implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 4410827743091157318L;
+
+	/**	MCO of the role **/
+	private final String mco;
+
+	/**	name of the role **/
+	private final String name;
+
+	/**	description of the role, may be <code>null</code> **/
+	private final String description;
+
+	/**	names of the permissions of the role, sorted **/
+	private final List<String> permissions;
+
+	/**	text searched by the filters: name, description and permissions, in lower case **/
+	private final String searchText;
+
+	/**
+	 * Constructor
+	 * @param mco MCO of the role
+	 * @param name name of the role
+	 * @param description description of the role, may be <code>null</code>
+	 * @param permissions names of the permissions of the role
+	 */
+	public RoleSummary(String mco, String name, String description, List<String> permissions) {
+		this.mco = mco;
+		this.name = name;
+		this.description = description;
+		List<String> sortedPermissions = new ArrayList<String>(permissions);
+		Collections.sort(sortedPermissions);
+		this.permissions = Collections.unmodifiableList(sortedPermissions);
+		this.searchText = (StringUtils.defaultString(name) + '\u0001' + StringUtils.defaultString(description) + '\u0001'
+				+ StringUtils.join(sortedPermissions, '\u0001')).toLowerCase();
+	}
+
+	/**
+	 * @param lowerCaseText a text in lower case
+	 * @return whether the name, the description or a permission of the role contains the text
+	 **/
+	boolean matches(String lowerCaseText) {
+		return searchText.contains(lowerCaseText);
+	}
+
+	/**
+	 * @return details of the role
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("mco", mco);
+		toStringBuilder.append("name", name);
+		toStringBuilder.append("permissions", permissions.size());
+		return toStringBuilder.toString();
+	}
+
+	/**
+	 *  @param obj of Object type
+	 *  @return whether objects are equal or not
+	 * **/
+	@Override
+	public boolean equals(Object obj) {
+		if (CSRToolUtil.isNull(obj)) {
+			return false;
+		}
+		if (obj == this) {
+			return true;
+		}
+		if (obj.getClass() != getClass()) {
+			return false;
+		}
+		RoleSummary rhs = (RoleSummary) obj;
+		EqualsBuilder equalsBuilder = new EqualsBuilder();
+		equalsBuilder.append(mco, rhs.mco);
+		equalsBuilder.append(name, rhs.name);
+		equalsBuilder.append(description, rhs.description);
+		equalsBuilder.append(permissions, rhs.permissions);
+		return equalsBuilder.isEquals();
+	}
+
+	/**
+	 * @return hashcoded integer value
+	 **/
+	@Override
+	public int hashCode() {
+		HashCodeBuilder hashCodeBuilder = new HashCodeBuilder();
+		hashCodeBuilder.append(mco);
+		hashCodeBuilder.append(name);
+		hashCodeBuilder.append(description);
+		hashCodeBuilder.append(permissions);
+		return hashCodeBuilder.toHashCode();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return MCO of the role
+	 **/
+	public String getMco() {
+		return mco;
+	}
+
+	/**
+	 * @return name of the role
+	 **/
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return description of the role
+	 **/
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * @return names of the permissions of the role, sorted
+	 **/
+	public List<String> getPermissions() {
+		return permissions;
+	}
+}
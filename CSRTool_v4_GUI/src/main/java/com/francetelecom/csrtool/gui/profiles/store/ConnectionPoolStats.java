@@ -0,0 +1,191 @@
+package com.francetelecom.csrtool.gui.profiles.store;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * This bean is a snapshot of the state of a {@link JdbcConnectionPool}.
+ * @class ConnectionPoolStats
+ * @Implements Serializable
+ */
+public class ConnectionPoolStats implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = -4717342980951266325L;
+
+	/**	pool name **/
+	private final String name;
+
+	/**	maximum number of connections **/
+	private final int maxSize;
+
+	/**	number of connections leased **/
+	private final int leased;
+
+	/**	number of connections available **/
+	private final int idle;
+
+	/**	number of callers waiting for a connection **/
+	private final int waiting;
+
+	/**	number of connections opened **/
+	private final long created;
+
+	/**	number of connections closed after a failure **/
+	private final long discarded;
+
+	/**	number of leases **/
+	private final long leases;
+
+	/**	number of leases which timed out **/
+	private final long timeouts;
+
+	/**	total time spent waiting for a connection, in microseconds **/
+	private final long totalWaitMicros;
+
+	/**	number of statements found in the caches **/
+	private final long statementHits;
+
+	/**	number of statements prepared **/
+	private final long statementMisses;
+
+	/**
+	 * Constructor
+	 * @param name pool name
+	 * @param maxSize maximum number of connections
+	 * @param leased number of connections leased
+	 * @param idle number of connections available
+	 * @param waiting number of callers waiting for a connection
+	 * @param created number of connections opened
+	 * @param discarded number of connections closed after a failure
+	 * @param leases number of leases
+	 * @param timeouts number of leases which timed out
+	 * @param totalWaitMicros total time spent waiting for a connection, in microseconds
+	 * @param statementHits number of statements found in the caches
+	 * @param statementMisses number of statements prepared
+	 */
+	public ConnectionPoolStats(String name, int maxSize, int leased, int idle, int waiting, long created, long discarded, long leases,
+			long timeouts, long totalWaitMicros, long statementHits, long statementMisses) {
+		this.name = name;
+		this.maxSize = maxSize;
+		this.leased = leased;
+		this.idle = idle;
+		this.waiting = waiting;
+		this.created = created;
+		this.discarded = discarded;
+		this.leases = leases;
+		this.timeouts = timeouts;
+		this.totalWaitMicros = totalWaitMicros;
+		this.statementHits = statementHits;
+		this.statementMisses = statementMisses;
+	}
+
+	/**
+	 * @return details of the statistics
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("name", name);
+		toStringBuilder.append("maxSize", maxSize);
+		toStringBuilder.append("leased", leased);
+		toStringBuilder.append("idle", idle);
+		toStringBuilder.append("waiting", waiting);
+		toStringBuilder.append("created", created);
+		toStringBuilder.append("discarded", discarded);
+		toStringBuilder.append("leases", leases);
+		toStringBuilder.append("timeouts", timeouts);
+		toStringBuilder.append("totalWaitMicros", totalWaitMicros);
+		toStringBuilder.append("statementHits", statementHits);
+		toStringBuilder.append("statementMisses", statementMisses);
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return pool name
+	 **/
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return maximum number of connections
+	 **/
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return number of connections leased
+	 **/
+	public int getLeased() {
+		return leased;
+	}
+
+	/**
+	 * @return number of connections available
+	 **/
+	public int getIdle() {
+		return idle;
+	}
+
+	/**
+	 * @return number of callers waiting for a connection
+	 **/
+	public int getWaiting() {
+		return waiting;
+	}
+
+	/**
+	 * @return number of connections opened
+	 **/
+	public long getCreated() {
+		return created;
+	}
+
+	/**
+	 * @return number of connections closed after a failure
+	 **/
+	public long getDiscarded() {
+		return discarded;
+	}
+
+	/**
+	 * @return number of leases
+	 **/
+	public long getLeases() {
+		return leases;
+	}
+
+	/**
+	 * @return number of leases which timed out
+	 **/
+	public long getTimeouts() {
+		return timeouts;
+	}
+
+	/**
+	 * @return total time spent waiting for a connection, in microseconds
+	 **/
+	public long getTotalWaitMicros() {
+		return totalWaitMicros;
+	}
+
+	/**
+	 * @return number of statements found in the caches
+	 **/
+	public long getStatementHits() {
+		return statementHits;
+	}
+
+	/**
+	 * @return number of statements prepared
+	 **/
+	public long getStatementMisses() {
+		return statementMisses;
+	}
+}
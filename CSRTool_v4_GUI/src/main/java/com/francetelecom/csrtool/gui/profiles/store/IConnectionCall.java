@@ -0,0 +1,17 @@
+package com.francetelecom.csrtool.gui.profiles.store;
+
+import java.sql.SQLException;
+
+/**
+ * Interface of a database call made with a connection leased from a {@link JdbcConnectionPool}.
+ * @param <R> type of the result
+ **/
+public interface IConnectionCall<R> {
+	/**
+	 * Calls the database
+	 * @param connection leased connection, used by the current thread only for the duration of the call
+	 * @return result of the call
+	 * @throws SQLException if the call failed
+	 */
+	R call(PooledConnection connection) throws SQLException;
+}
@@ -0,0 +1,52 @@
+package com.francetelecom.csrtool.gui.profiles.store;
+
+import com.francetelecom.csrtool.model.profiles.CSRRole;
+import com.francetelecom.csrtool.model.profiles.CSRUserInfo;
+import com.francetelecom.csrtool.model.profiles.ProfilesException;
+
+/**
+ * Interface of the stores of the profiles and service roles of the users, read and written at
+ * login by the authentication filter and by the profile prefetcher.
+ * **/
+public interface IProfilesStore {
+	/**
+	 * Gets the profile of a user
+	 * @param login login of the user
+	 * @param mco MCO of the user
+	 * @return the profile, <code>null</code> if the user never connected
+	 * @throws ProfilesException if the profile could not be read
+	 * @throws ProfilesStoreException if the store failed
+	 */
+	CSRUserInfo getUserInfo(String login, String mco) throws ProfilesException, ProfilesStoreException;
+
+	/**
+	 * Creates the profile of a user connecting for the first time
+	 * @param userInfo profile of the user
+	 * @throws ProfilesException if the profile could not be created
+	 * @throws ProfilesStoreException if the store failed
+	 */
+	void createUserInfo(CSRUserInfo userInfo) throws ProfilesException, ProfilesStoreException;
+
+	/**
+	 * Records a connection of a user
+	 * @param userInfo profile of the user
+	 * @throws ProfilesException if the connection could not be recorded
+	 * @throws ProfilesStoreException if the store failed
+	 */
+	void notifyConnection(CSRUserInfo userInfo) throws ProfilesException, ProfilesStoreException;
+
+	/**
+	 * Gets a service role with its permissions
+	 * @param roleName name of the role
+	 * @param mco MCO of the role
+	 * @return the role, <code>null</code> if it does not exist
+	 * @throws ProfilesException if the role could not be read
+	 * @throws ProfilesStoreException if the store failed
+	 */
+	CSRRole getRole(String roleName, String mco) throws ProfilesException, ProfilesStoreException;
+
+	/**
+	 * Releases the resources of the store, pending writes are completed first
+	 */
+	void shutdown();
+}
@@ -0,0 +1,83 @@
+package com.francetelecom.csrtool.gui.profiles.store;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.francetelecom.csrtool.gui.profiles.ProfileKey;
+import com.francetelecom.csrtool.model.profiles.CSRRole;
+import com.francetelecom.csrtool.model.profiles.CSRUserInfo;
+
+/**
+ * A store keeping the profiles and roles in memory, for the tests and the benchmarks of the login
+ * path without a database. The roles are loaded with {@link #putRole(CSRRole)}.
+ * @class InMemoryProfilesStore
+ * @implements IProfilesStore
+ */
+public class InMemoryProfilesStore implements IProfilesStore {
+
+	/**	profiles per user **/
+	private final ConcurrentMap<ProfileKey, CSRUserInfo> userInfos = new ConcurrentHashMap<ProfileKey, CSRUserInfo>();
+
+	/**	roles per role name **/
+	private final ConcurrentMap<ProfileKey, CSRRole> roles = new ConcurrentHashMap<ProfileKey, CSRRole>();
+
+	/**	number of connections recorded **/
+	private final AtomicLong connections = new AtomicLong();
+
+	/**
+	 * @param login login of the user
+	 * @param mco MCO of the user
+	 * @return the profile, <code>null</code> if the user never connected
+	 **/
+	public CSRUserInfo getUserInfo(String login, String mco) {
+		return userInfos.get(new ProfileKey(mco, login));
+	}
+
+	/**
+	 * @param userInfo profile of the user
+	 **/
+	public void createUserInfo(CSRUserInfo userInfo) {
+		userInfos.put(new ProfileKey(userInfo.getMco(), userInfo.getLogin()), userInfo);
+		connections.incrementAndGet();
+	}
+
+	/**
+	 * @param userInfo profile of the user
+	 **/
+	public void notifyConnection(CSRUserInfo userInfo) {
+		connections.incrementAndGet();
+	}
+
+	/**
+	 * @param roleName name of the role
+	 * @param mco MCO of the role
+	 * @return the role, <code>null</code> if it does not exist
+	 **/
+	public CSRRole getRole(String roleName, String mco) {
+		return roles.get(new ProfileKey(mco, roleName));
+	}
+
+	/**
+	 * Adds or replaces a role
+	 * @param role the role
+	 */
+	public void putRole(CSRRole role) {
+		roles.put(new ProfileKey(role.getMco(), role.getName()), role);
+	}
+
+	/**
+	 * Drops the profiles and roles
+	 */
+	public void shutdown() {
+		userInfos.clear();
+		roles.clear();
+	}
+
+	/**
+	 * @return the number of connections recorded
+	 **/
+	public long getConnections() {
+		return connections.get();
+	}
+}
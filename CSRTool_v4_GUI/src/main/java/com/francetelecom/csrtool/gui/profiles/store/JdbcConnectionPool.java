@@ -0,0 +1,216 @@
+package com.francetelecom.csrtool.gui.profiles.store;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import com.francetelecom.csrtool.gui.deadline.RequestDeadline;
+
+/**
+ * A bounded pool of database connections with their prepared statements.<br>
+ * At most <code>maxSize</code> connections are in use at once, the other callers wait up to
+ * <code>maxWaitMillis</code> and then fail, so that a slow database stalls a bounded number of
+ * request threads. A connection whose call failed is closed, since it may be in an unknown state.<br>
+ * Within a {@link RequestDeadline} the wait is shortened to the remaining budget, the statements
+ * get it as query timeout, and no connection is leased once it is spent.
+ * @class JdbcConnectionPool
+ */
+public class JdbcConnectionPool {
+
+	/**	pool name **/
+	private final String name;
+
+	/**	stage of the requests using the pool, for the deadlines **/
+	private final String stage;
+
+	/**	source of the connections **/
+	private final DataSource dataSource;
+
+	/**	maximum number of connections **/
+	private final int maxSize;
+
+	/**	maximum time in milliseconds to wait for a connection **/
+	private final long maxWaitMillis;
+
+	/**	maximum number of prepared statements kept per connection **/
+	private final int statementCacheSize;
+
+	/**	permits of the leases **/
+	private final Semaphore permits;
+
+	/**	connections available **/
+	private final Queue<PooledConnection> idle = new ConcurrentLinkedQueue<PooledConnection>();
+
+	/**	number of connections available **/
+	private final AtomicInteger idleCount = new AtomicInteger();
+
+	/**	number of callers waiting for a connection **/
+	private final AtomicInteger waiting = new AtomicInteger();
+
+	/**	number of connections opened **/
+	private final AtomicLong created = new AtomicLong();
+
+	/**	number of connections closed after a failure **/
+	private final AtomicLong discarded = new AtomicLong();
+
+	/**	number of leases **/
+	private final AtomicLong leases = new AtomicLong();
+
+	/**	number of leases which timed out **/
+	private final AtomicLong timeouts = new AtomicLong();
+
+	/**	total time spent waiting for a connection, in microseconds **/
+	private final AtomicLong totalWaitMicros = new AtomicLong();
+
+	/**	number of statements found in the caches **/
+	private final AtomicLong statementHits = new AtomicLong();
+
+	/**	number of statements prepared **/
+	private final AtomicLong statementMisses = new AtomicLong();
+
+	/**	whether the pool is closed **/
+	private volatile boolean closed;
+
+	/**
+	 * Constructor
+	 * @param name pool name
+	 * @param dataSource source of the connections
+	 * @param maxSize maximum number of connections
+	 * @param maxWaitMillis maximum time in milliseconds to wait for a connection
+	 * @param statementCacheSize maximum number of prepared statements kept per connection
+	 */
+	public JdbcConnectionPool(String name, DataSource dataSource, int maxSize, long maxWaitMillis, int statementCacheSize) {
+		this.name = name;
+		this.stage = "database " + name;
+		this.dataSource = dataSource;
+		this.maxSize = maxSize;
+		this.maxWaitMillis = maxWaitMillis;
+		this.statementCacheSize = statementCacheSize;
+		this.permits = new Semaphore(maxSize, true);
+	}
+
+	/**
+	 * Executes a call with a leased connection
+	 * @param call the call
+	 * @param <R> type of the result
+	 * @return result of the call
+	 * @throws SQLTransientConnectionException if no connection could be leased in time
+	 * @throws SQLTimeoutException if the deadline of the request is exceeded
+	 * @throws SQLException the exception thrown by the call
+	 */
+	public <R> R execute(IConnectionCall<R> call) throws SQLException {
+		PooledConnection connection = lease();
+		boolean reusable = false;
+		try {
+			R result = call.call(connection);
+			reusable = true;
+			return result;
+		} finally {
+			release(connection, reusable);
+		}
+	}
+
+	/**
+	 * Leases a connection, waiting if all the connections are in use
+	 * @return the connection
+	 * @throws SQLException if no connection could be leased in time or opened
+	 */
+	private PooledConnection lease() throws SQLException {
+		if (closed) {
+			throw new SQLTransientConnectionException("connection pool [" + name + "] closed");
+		}
+		if (RequestDeadline.isExceeded(stage)) {
+			throw new SQLTimeoutException("deadline of the request exceeded before [" + name + "]");
+		}
+		long start = System.nanoTime();
+		waiting.incrementAndGet();
+		try {
+			if (!permits.tryAcquire(RequestDeadline.bound(maxWaitMillis), TimeUnit.MILLISECONDS)) {
+				timeouts.incrementAndGet();
+				throw new SQLTransientConnectionException("connection pool [" + name + "] exhausted");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("interrupted while waiting for a connection of [" + name + "]");
+		} finally {
+			waiting.decrementAndGet();
+		}
+		totalWaitMicros.addAndGet((System.nanoTime() - start) / 1000L);
+		leases.incrementAndGet();
+
+		PooledConnection connection;
+		while ((connection = idle.poll()) != null) {
+			idleCount.decrementAndGet();
+			if (!connection.getConnection().isClosed()) {
+				return connection;
+			}
+			discarded.incrementAndGet();
+			connection.close();
+		}
+		try {
+			connection = new PooledConnection(dataSource.getConnection(), statementCacheSize, statementHits, statementMisses);
+			created.incrementAndGet();
+			return connection;
+		} catch (SQLException e) {
+			permits.release();
+			throw e;
+		} catch (RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Gives a leased connection back
+	 * @param connection the connection
+	 * @param reusable <code>false</code> to close the connection
+	 */
+	private void release(PooledConnection connection, boolean reusable) {
+		if (reusable && !closed) {
+			idle.offer(connection);
+			idleCount.incrementAndGet();
+		} else {
+			if (!reusable) {
+				discarded.incrementAndGet();
+			}
+			connection.close();
+		}
+		permits.release();
+	}
+
+	/**
+	 * Closes the idle connections, the leased ones are closed when released
+	 */
+	public void close() {
+		closed = true;
+		PooledConnection connection;
+		while ((connection = idle.poll()) != null) {
+			idleCount.decrementAndGet();
+			connection.close();
+		}
+	}
+
+	/**
+	 * @return a snapshot of the state of this pool
+	 **/
+	public ConnectionPoolStats getStats() {
+		return new ConnectionPoolStats(name, maxSize, maxSize - permits.availablePermits(), idleCount.get(), waiting.get(),
+				created.get(), discarded.get(), leases.get(), timeouts.get(), totalWaitMicros.get(), statementHits.get(),
+				statementMisses.get());
+	}
+
+	/**
+	 * @return pool name
+	 **/
+	public String getName() {
+		return name;
+	}
+}
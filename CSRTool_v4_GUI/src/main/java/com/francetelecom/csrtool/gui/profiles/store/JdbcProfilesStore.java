@@ -0,0 +1,333 @@
+package com.francetelecom.csrtool.gui.profiles.store;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.gui.concurrent.DaemonThreadFactory;
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+import com.francetelecom.csrtool.model.profiles.CSRRole;
+import com.francetelecom.csrtool.model.profiles.CSRUserInfo;
+import com.francetelecom.csrtool.model.profiles.ProfilesException;
+import com.francetelecom.csrtool.model.profiles.ProfilesRegistry;
+
+/**
+ * A store reading and writing the profiles with prepared statements on the connections of a
+ * {@link JdbcConnectionPool}.<br>
+ * The connections of the users are not written one by one: they are queued and written in batches
+ * by a background thread, at the latest <code>flushMillis</code> after the login. When the queue is
+ * full the connection is written by the login thread.<br>
+ * The roles and their permissions keep being read through the {@link ProfilesRegistry}, which
+ * maps them with the model.
+ * @class JdbcProfilesStore
+ * @implements IProfilesStore
+ */
+public class JdbcProfilesStore implements IProfilesStore {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(JdbcProfilesStore.class);
+
+	/**	default query of a profile: parameters login and MCO, columns login, MCO, first name, last name and language **/
+	public static final String DEFAULT_SELECT_USER_INFO_SQL = "SELECT LOGIN, MCO, FIRSTNAME, LASTNAME, LANGUAGE FROM CSR_USER_INFO WHERE LOGIN = ? AND MCO = ?";
+
+	/**	default insert of a profile: parameters login, MCO, first name, last name, language and connection time **/
+	public static final String DEFAULT_INSERT_USER_INFO_SQL = "INSERT INTO CSR_USER_INFO (LOGIN, MCO, FIRSTNAME, LASTNAME, LANGUAGE, LAST_CONNECTION) VALUES (?, ?, ?, ?, ?, ?)";
+
+	/**	default update of a connection: parameters connection time, login and MCO **/
+	public static final String DEFAULT_UPDATE_CONNECTION_SQL = "UPDATE CSR_USER_INFO SET LAST_CONNECTION = ? WHERE LOGIN = ? AND MCO = ?";
+
+	/**	maximum number of connections waiting to be written **/
+	private static final int MAX_PENDING_CONNECTIONS = 10000;
+
+	/**	connection pool **/
+	private final JdbcConnectionPool pool;
+
+	/**	query of a profile **/
+	private final String selectUserInfoSql;
+
+	/**	insert of a profile **/
+	private final String insertUserInfoSql;
+
+	/**	update of a connection **/
+	private final String updateConnectionSql;
+
+	/**	maximum number of connections written per batch **/
+	private final int batchSize;
+
+	/**	connections waiting to be written **/
+	private final BlockingQueue<PendingConnection> pendingConnections = new LinkedBlockingQueue<PendingConnection>(MAX_PENDING_CONNECTIONS);
+
+	/**	writer of the connections **/
+	private final ScheduledExecutorService flusher;
+
+	/**	whether a flush is requested **/
+	private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+	/**	number of batches written **/
+	private final AtomicLong batches = new AtomicLong();
+
+	/**	number of connections lost because their batch failed **/
+	private final AtomicLong lostConnections = new AtomicLong();
+
+	/**
+	 * A connection waiting to be written.
+	 * @class PendingConnection
+	 */
+	private static final class PendingConnection {
+		/**	login of the user **/
+		private final String login;
+
+		/**	MCO of the user **/
+		private final String mco;
+
+		/**	connection time **/
+		private final long time;
+
+		/**
+		 * Constructor
+		 * @param login login of the user
+		 * @param mco MCO of the user
+		 * @param time connection time
+		 */
+		private PendingConnection(String login, String mco, long time) {
+			this.login = login;
+			this.mco = mco;
+			this.time = time;
+		}
+	}
+
+	/**
+	 * Constructor
+	 * @param pool connection pool
+	 * @param selectUserInfoSql query of a profile
+	 * @param insertUserInfoSql insert of a profile
+	 * @param updateConnectionSql update of a connection
+	 * @param batchSize maximum number of connections written per batch
+	 * @param flushMillis maximum delay before a connection is written, in milliseconds
+	 */
+	public JdbcProfilesStore(JdbcConnectionPool pool, String selectUserInfoSql, String insertUserInfoSql, String updateConnectionSql,
+			int batchSize, long flushMillis) {
+		this.pool = pool;
+		this.selectUserInfoSql = selectUserInfoSql;
+		this.insertUserInfoSql = insertUserInfoSql;
+		this.updateConnectionSql = updateConnectionSql;
+		this.batchSize = batchSize;
+		this.flusher = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("ProfilesStoreFlush"));
+		this.flusher.scheduleWithFixedDelay(new Runnable() {
+			public void run() {
+				flush();
+			}
+		}, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @param login login of the user
+	 * @param mco MCO of the user
+	 * @return the profile, <code>null</code> if the user never connected
+	 * @throws ProfilesStoreException if the database failed
+	 **/
+	public CSRUserInfo getUserInfo(final String login, final String mco) throws ProfilesStoreException {
+		try {
+			return pool.execute(new IConnectionCall<CSRUserInfo>() {
+				public CSRUserInfo call(PooledConnection connection) throws SQLException {
+					PreparedStatement statement = connection.prepare(selectUserInfoSql);
+					statement.setString(1, login);
+					statement.setString(2, mco);
+					ResultSet resultSet = statement.executeQuery();
+					try {
+						if (!resultSet.next()) {
+							return null;
+						}
+						CSRUserInfo userInfo = new CSRUserInfo();
+						userInfo.setLogin(resultSet.getString(1));
+						userInfo.setMco(resultSet.getString(2));
+						userInfo.setFirstname(resultSet.getString(3));
+						userInfo.setLastname(resultSet.getString(4));
+						userInfo.setLanguage(resultSet.getString(5));
+						return userInfo;
+					} finally {
+						resultSet.close();
+					}
+				}
+			});
+		} catch (SQLException e) {
+			throw new ProfilesStoreException("profile of " + login + "/" + mco + " could not be read", e);
+		}
+	}
+
+	/**
+	 * @param userInfo profile of the user
+	 * @throws ProfilesStoreException if the database failed
+	 **/
+	public void createUserInfo(final CSRUserInfo userInfo) throws ProfilesStoreException {
+		try {
+			pool.execute(new IConnectionCall<Void>() {
+				public Void call(PooledConnection connection) throws SQLException {
+					PreparedStatement statement = connection.prepare(insertUserInfoSql);
+					statement.setString(1, userInfo.getLogin());
+					statement.setString(2, userInfo.getMco());
+					statement.setString(3, userInfo.getFirstname());
+					statement.setString(4, userInfo.getLastname());
+					statement.setString(5, userInfo.getLanguage());
+					statement.setTimestamp(6, new Timestamp(System.currentTimeMillis()));
+					statement.executeUpdate();
+					return null;
+				}
+			});
+		} catch (SQLException e) {
+			throw new ProfilesStoreException("profile of " + userInfo.getLogin() + "/" + userInfo.getMco() + " could not be created", e);
+		}
+	}
+
+	/**
+	 * Queues the connection for the next batch, or writes it at once if the queue is full
+	 * @param userInfo profile of the user
+	 * @throws ProfilesStoreException if the database failed
+	 **/
+	public void notifyConnection(CSRUserInfo userInfo) throws ProfilesStoreException {
+		PendingConnection pendingConnection = new PendingConnection(userInfo.getLogin(), userInfo.getMco(), System.currentTimeMillis());
+		if (!pendingConnections.offer(pendingConnection)) {
+			List<PendingConnection> batch = new ArrayList<PendingConnection>(1);
+			batch.add(pendingConnection);
+			try {
+				write(batch);
+			} catch (SQLException e) {
+				throw new ProfilesStoreException("connection of " + userInfo.getLogin() + "/" + userInfo.getMco() + " could not be recorded", e);
+			}
+			return;
+		}
+		if (pendingConnections.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+			try {
+				flusher.execute(new Runnable() {
+					public void run() {
+						flush();
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				// shut down, the pending connections are written by the shutdown
+				flushRequested.set(false);
+			}
+		}
+	}
+
+	/**
+	 * @param roleName name of the role
+	 * @param mco MCO of the role
+	 * @return the role, <code>null</code> if it does not exist
+	 * @throws ProfilesException if the role could not be read
+	 **/
+	public CSRRole getRole(String roleName, String mco) throws ProfilesException {
+		return ProfilesRegistry.getInstance().getRole(roleName, mco);
+	}
+
+	/**
+	 * Writes the pending connections, in batches
+	 */
+	private void flush() {
+		flushRequested.set(false);
+		List<PendingConnection> batch = new ArrayList<PendingConnection>(batchSize);
+		while (pendingConnections.drainTo(batch, batchSize) > 0) {
+			try {
+				write(batch);
+			} catch (SQLException e) {
+				lostConnections.addAndGet(batch.size());
+				LOGGER.warn(FuncLogging.getLogFormatedMessage("JdbcProfilesStore","flush",
+						FuncLogging.REQUEST_STATUS_FAILED, null,batch.size() + " connections could not be recorded: " + e.getMessage()), e);
+			} catch (RuntimeException e) {
+				lostConnections.addAndGet(batch.size());
+				LOGGER.warn(FuncLogging.getLogFormatedMessage("JdbcProfilesStore","flush",
+						FuncLogging.REQUEST_STATUS_FAILED, null,batch.size() + " connections could not be recorded: " + e.getMessage()), e);
+			}
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Writes connections in one batch and one transaction
+	 * @param batch the connections
+	 * @throws SQLException if the database failed
+	 */
+	private void write(final List<PendingConnection> batch) throws SQLException {
+		pool.execute(new IConnectionCall<Void>() {
+			public Void call(PooledConnection connection) throws SQLException {
+				Connection jdbcConnection = connection.getConnection();
+				boolean autoCommit = jdbcConnection.getAutoCommit();
+				jdbcConnection.setAutoCommit(false);
+				try {
+					PreparedStatement statement = connection.prepare(updateConnectionSql);
+					for (PendingConnection pendingConnection : batch) {
+						statement.setTimestamp(1, new Timestamp(pendingConnection.time));
+						statement.setString(2, pendingConnection.login);
+						statement.setString(3, pendingConnection.mco);
+						statement.addBatch();
+					}
+					statement.executeBatch();
+					jdbcConnection.commit();
+				} catch (SQLException e) {
+					jdbcConnection.rollback();
+					throw e;
+				} finally {
+					jdbcConnection.setAutoCommit(autoCommit);
+				}
+				return null;
+			}
+		});
+		batches.incrementAndGet();
+	}
+
+	/**
+	 * Writes the pending connections and closes the pool
+	 */
+	public void shutdown() {
+		flusher.shutdown();
+		try {
+			flusher.awaitTermination(5L, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		flush();
+		pool.close();
+	}
+
+	/**
+	 * @return the connection pool
+	 **/
+	public JdbcConnectionPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * @return the number of connections waiting to be written
+	 **/
+	public int getPendingConnections() {
+		return pendingConnections.size();
+	}
+
+	/**
+	 * @return the number of batches written
+	 **/
+	public long getBatches() {
+		return batches.get();
+	}
+
+	/**
+	 * @return the number of connections lost because their batch failed
+	 **/
+	public long getLostConnections() {
+		return lostConnections.get();
+	}
+}
@@ -0,0 +1,212 @@
+package com.francetelecom.csrtool.gui.profiles.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.francetelecom.csrtool.gui.deadline.RequestDeadline;
+import com.francetelecom.csrtool.model.profiles.CSRRole;
+import com.francetelecom.csrtool.model.profiles.CSRUserInfo;
+import com.francetelecom.csrtool.model.profiles.ProfilesException;
+
+/**
+ * Decorates a {@link IProfilesStore} so that the number, the failures and the duration of its
+ * calls are measured per operation. No call starts once the deadline of the request is exceeded.
+ * @class MeasuredProfilesStore
+ * @implements IProfilesStore
+ */
+public class MeasuredProfilesStore implements IProfilesStore {
+
+	/**	decorated store **/
+	private final IProfilesStore delegate;
+
+	/**	metrics of the profile queries **/
+	private final OperationMetrics getUserInfoMetrics = new OperationMetrics("getUserInfo");
+
+	/**	metrics of the profile creations **/
+	private final OperationMetrics createUserInfoMetrics = new OperationMetrics("createUserInfo");
+
+	/**	metrics of the connection records **/
+	private final OperationMetrics notifyConnectionMetrics = new OperationMetrics("notifyConnection");
+
+	/**	metrics of the role queries **/
+	private final OperationMetrics getRoleMetrics = new OperationMetrics("getRole");
+
+	/**
+	 * Metrics of an operation.
+	 * @class OperationMetrics
+	 */
+	private static final class OperationMetrics {
+		/**	operation name **/
+		private final String operation;
+
+		/**	number of calls **/
+		private final AtomicLong calls = new AtomicLong();
+
+		/**	number of calls which failed **/
+		private final AtomicLong errors = new AtomicLong();
+
+		/**	total duration of the calls, in microseconds **/
+		private final AtomicLong totalMicros = new AtomicLong();
+
+		/**	longest call, in microseconds **/
+		private final AtomicLong maxMicros = new AtomicLong();
+
+		/**
+		 * Constructor
+		 * @param operation operation name
+		 */
+		private OperationMetrics(String operation) {
+			this.operation = operation;
+		}
+
+		/**
+		 * Records a call
+		 * @param start start of the call, from {@link System#nanoTime()}
+		 * @param failed whether the call failed
+		 */
+		private void record(long start, boolean failed) {
+			long micros = (System.nanoTime() - start) / 1000L;
+			calls.incrementAndGet();
+			if (failed) {
+				errors.incrementAndGet();
+			}
+			totalMicros.addAndGet(micros);
+			long max = maxMicros.get();
+			while (micros > max && !maxMicros.compareAndSet(max, micros)) {
+				max = maxMicros.get();
+			}
+		}
+
+		/**
+		 * @return a snapshot of the metrics
+		 **/
+		private StoreOperationStats getStats() {
+			return new StoreOperationStats(operation, calls.get(), errors.get(), totalMicros.get(), maxMicros.get());
+		}
+	}
+
+	/**
+	 * Constructor
+	 * @param delegate decorated store
+	 */
+	public MeasuredProfilesStore(IProfilesStore delegate) {
+		this.delegate = delegate;
+	}
+
+	/**
+	 * @param login login of the user
+	 * @param mco MCO of the user
+	 * @return the profile, <code>null</code> if the user never connected
+	 * @throws ProfilesException if the profile could not be read
+	 * @throws ProfilesStoreException if the store failed
+	 **/
+	public CSRUserInfo getUserInfo(String login, String mco) throws ProfilesException, ProfilesStoreException {
+		checkDeadline(getUserInfoMetrics);
+		long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			CSRUserInfo userInfo = delegate.getUserInfo(login, mco);
+			failed = false;
+			return userInfo;
+		} finally {
+			getUserInfoMetrics.record(start, failed);
+		}
+	}
+
+	/**
+	 * @param userInfo profile of the user
+	 * @throws ProfilesException if the profile could not be created
+	 * @throws ProfilesStoreException if the store failed
+	 **/
+	public void createUserInfo(CSRUserInfo userInfo) throws ProfilesException, ProfilesStoreException {
+		checkDeadline(createUserInfoMetrics);
+		long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			delegate.createUserInfo(userInfo);
+			failed = false;
+		} finally {
+			createUserInfoMetrics.record(start, failed);
+		}
+	}
+
+	/**
+	 * @param userInfo profile of the user
+	 * @throws ProfilesException if the connection could not be recorded
+	 * @throws ProfilesStoreException if the store failed
+	 **/
+	public void notifyConnection(CSRUserInfo userInfo) throws ProfilesException, ProfilesStoreException {
+		checkDeadline(notifyConnectionMetrics);
+		long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			delegate.notifyConnection(userInfo);
+			failed = false;
+		} finally {
+			notifyConnectionMetrics.record(start, failed);
+		}
+	}
+
+	/**
+	 * @param roleName name of the role
+	 * @param mco MCO of the role
+	 * @return the role, <code>null</code> if it does not exist
+	 * @throws ProfilesException if the role could not be read
+	 * @throws ProfilesStoreException if the store failed
+	 **/
+	public CSRRole getRole(String roleName, String mco) throws ProfilesException, ProfilesStoreException {
+		checkDeadline(getRoleMetrics);
+		long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			CSRRole role = delegate.getRole(roleName, mco);
+			failed = false;
+			return role;
+		} finally {
+			getRoleMetrics.record(start, failed);
+		}
+	}
+
+	/**
+	 * Refuses an operation once the deadline of the request is exceeded
+	 * @param metrics metrics of the operation
+	 * @throws ProfilesStoreException if the deadline is exceeded
+	 */
+	private static void checkDeadline(OperationMetrics metrics) throws ProfilesStoreException {
+		if (RequestDeadline.isExceeded("profiles " + metrics.operation)) {
+			throw new ProfilesStoreException("deadline of the request exceeded before " + metrics.operation, null);
+		}
+	}
+
+	/**
+	 * Shuts the decorated store down
+	 */
+	public void shutdown() {
+		delegate.shutdown();
+	}
+
+	/**
+	 * @return a snapshot of the metrics of the operations and of the state of the store
+	 **/
+	public ProfilesStoreStats getStats() {
+		List<StoreOperationStats> operations = new ArrayList<StoreOperationStats>(4);
+		operations.add(getUserInfoMetrics.getStats());
+		operations.add(createUserInfoMetrics.getStats());
+		operations.add(notifyConnectionMetrics.getStats());
+		operations.add(getRoleMetrics.getStats());
+		if (delegate instanceof JdbcProfilesStore) {
+			JdbcProfilesStore jdbcStore = (JdbcProfilesStore) delegate;
+			return new ProfilesStoreStats(delegate.getClass().getSimpleName(), operations, jdbcStore.getPool().getStats(),
+					jdbcStore.getPendingConnections(), jdbcStore.getBatches(), jdbcStore.getLostConnections());
+		}
+		return new ProfilesStoreStats(delegate.getClass().getSimpleName(), operations, null, 0, 0L, 0L);
+	}
+
+	/**
+	 * @return decorated store
+	 **/
+	public IProfilesStore getDelegate() {
+		return delegate;
+	}
+}
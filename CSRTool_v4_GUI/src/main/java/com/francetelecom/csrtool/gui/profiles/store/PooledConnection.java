@@ -0,0 +1,124 @@
+package com.francetelecom.csrtool.gui.profiles.store;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.francetelecom.csrtool.gui.deadline.RequestDeadline;
+
+/**
+ * A connection of a {@link JdbcConnectionPool} with its prepared statements.<br>
+ * The statements stay open with the connection and are reused by the next calls with the same
+ * SQL, the least recently used one being closed when the cache is full. A pooled connection is
+ * used by one thread at a time, its cache needs no synchronization.
+ * @class PooledConnection
+ */
+public final class PooledConnection {
+
+	/**	the connection **/
+	private final Connection connection;
+
+	/**	prepared statements per SQL, the least recently used first **/
+	private final Map<String, PreparedStatement> statements;
+
+	/**	number of statements found in the cache, shared by the connections of the pool **/
+	private final AtomicLong statementHits;
+
+	/**	number of statements prepared, shared by the connections of the pool **/
+	private final AtomicLong statementMisses;
+
+	/**
+	 * Constructor
+	 * @param connection the connection
+	 * @param statementCacheSize maximum number of prepared statements kept
+	 * @param statementHits counter of the statements found in the cache
+	 * @param statementMisses counter of the statements prepared
+	 */
+	PooledConnection(Connection connection, final int statementCacheSize, AtomicLong statementHits, AtomicLong statementMisses) {
+		this.connection = connection;
+		this.statementHits = statementHits;
+		this.statementMisses = statementMisses;
+		this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+				if (size() > statementCacheSize) {
+					closeQuietly(eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Gets a prepared statement, from the cache if the SQL was already prepared on this connection
+	 * @param sql the SQL
+	 * @return the statement, its parameters are cleared and its query timeout is the remaining budget
+	 * of the request, if any
+	 * @throws SQLException if the statement could not be prepared
+	 */
+	public PreparedStatement prepare(String sql) throws SQLException {
+		PreparedStatement statement = statements.get(sql);
+		if (statement != null) {
+			statementHits.incrementAndGet();
+			statement.clearParameters();
+		} else {
+			statementMisses.incrementAndGet();
+			statement = connection.prepareStatement(sql);
+			statements.put(sql, statement);
+		}
+		statement.setQueryTimeout(getQueryTimeoutSeconds());
+		return statement;
+	}
+
+	/**
+	 * @return the remaining budget of the request in seconds, at least 1, or 0 without deadline
+	 **/
+	private static int getQueryTimeoutSeconds() {
+		RequestDeadline deadline = RequestDeadline.current();
+		if (deadline == null) {
+			return 0;
+		}
+		return (int) Math.max(1L, (deadline.remainingMillis() + 999L) / 1000L);
+	}
+
+	/**
+	 * @return the connection, for the transaction control
+	 **/
+	public Connection getConnection() {
+		return connection;
+	}
+
+	/**
+	 * Closes the statements and the connection, ignoring the errors
+	 */
+	void close() {
+		for (Iterator<PreparedStatement> it = statements.values().iterator(); it.hasNext();) {
+			closeQuietly(it.next());
+			it.remove();
+		}
+		try {
+			connection.close();
+		} catch (SQLException e) {
+			// already unusable
+		}
+	}
+
+	/**
+	 * Closes a statement, ignoring the errors
+	 * @param statement the statement
+	 */
+	private static void closeQuietly(PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (SQLException e) {
+			// the connection will be discarded anyway if broken
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package com.francetelecom.csrtool.gui.profiles.store;
+
+/**
+ * An exception thrown when a {@link IProfilesStore} could not reach its storage.
+ * @class ProfilesStoreException
+ * @extends Exception
+ */
+public class ProfilesStoreException extends Exception {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = -6035782140918233706L;
+
+	/**
+	 * Constructor
+	 * @param message error message
+	 * @param cause the exception thrown by the storage
+	 */
+	public ProfilesStoreException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,127 @@
+package com.francetelecom.csrtool.gui.profiles.store;
+
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.sql.DataSource;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * Builds the {@link IProfilesStore} chosen by the context parameters with the application and
+ * shuts it down with the application.<br>
+ * <code>profiles.store</code> is <code>registry</code> (default), <code>jdbc</code> or
+ * <code>memory</code>. The JDBC store takes its connections from the data source named by
+ * <code>profiles.store.jdbc.dataSource</code>.
+ * @class ProfilesStoreListener
+ * @Implements ServletContextListener
+ */
+public class ProfilesStoreListener implements ServletContextListener {
+
+	/** Logger **/
+	private static Logger LOGGER = Logger.getLogger(ProfilesStoreListener.class);
+
+	/** context parameter holding the type of the store **/
+	private static final String PARAM_STORE = "profiles.store";
+
+	/** context parameter holding the JNDI name of the data source **/
+	private static final String PARAM_DATA_SOURCE = "profiles.store.jdbc.dataSource";
+
+	/** context parameter holding the maximum number of connections **/
+	private static final String PARAM_MAX_CONNECTIONS = "profiles.store.jdbc.maxConnections";
+
+	/** context parameter holding the maximum wait for a connection, in milliseconds **/
+	private static final String PARAM_MAX_WAIT_MILLIS = "profiles.store.jdbc.maxWaitMillis";
+
+	/** context parameter holding the maximum number of prepared statements kept per connection **/
+	private static final String PARAM_STATEMENT_CACHE_SIZE = "profiles.store.jdbc.statementCacheSize";
+
+	/** context parameter holding the maximum number of connections written per batch **/
+	private static final String PARAM_BATCH_SIZE = "profiles.store.jdbc.batchSize";
+
+	/** context parameter holding the maximum delay before a connection is written, in milliseconds **/
+	private static final String PARAM_FLUSH_MILLIS = "profiles.store.jdbc.flushMillis";
+
+	/** context parameter holding the query of a profile **/
+	private static final String PARAM_SELECT_USER_INFO_SQL = "profiles.store.jdbc.selectUserInfoSql";
+
+	/** context parameter holding the insert of a profile **/
+	private static final String PARAM_INSERT_USER_INFO_SQL = "profiles.store.jdbc.insertUserInfoSql";
+
+	/** context parameter holding the update of a connection **/
+	private static final String PARAM_UPDATE_CONNECTION_SQL = "profiles.store.jdbc.updateConnectionSql";
+
+	/** store reading through the profiles registry of the model **/
+	private static final String STORE_REGISTRY = "registry";
+
+	/** store reading through JDBC **/
+	private static final String STORE_JDBC = "jdbc";
+
+	/** store in memory **/
+	private static final String STORE_MEMORY = "memory";
+
+	/**
+	 * Builds the store
+	 * @param event servlet context event
+	 */
+	public void contextInitialized(ServletContextEvent event) {
+		ServletContext context = event.getServletContext();
+		String store = StringUtils.defaultIfBlank(context.getInitParameter(PARAM_STORE), STORE_REGISTRY).trim();
+		try {
+			if (STORE_JDBC.equals(store)) {
+				ProfilesStoreRegistry.getInstance().setStore(createJdbcStore(context));
+			} else if (STORE_MEMORY.equals(store)) {
+				ProfilesStoreRegistry.getInstance().setStore(new InMemoryProfilesStore());
+			} else if (!STORE_REGISTRY.equals(store)) {
+				LOGGER.error(FuncLogging.getLogFormatedMessage("ProfilesStoreListener","contextInitialized",
+						FuncLogging.REQUEST_STATUS_FAILED, null,"unknown profiles store " + store + ", the registry is used"));
+				return;
+			}
+			if (LOGGER.isInfoEnabled()) {
+				LOGGER.info(FuncLogging.getLogFormatedMessage("ProfilesStoreListener","contextInitialized",
+						String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,"profiles store: " + store));
+			}
+		} catch (NamingException e) {
+			LOGGER.error(FuncLogging.getLogFormatedMessage("ProfilesStoreListener","contextInitialized",
+					FuncLogging.REQUEST_STATUS_FAILED, null,"data source not found, the registry is used: " + e.getMessage()), e);
+		} catch (NumberFormatException e) {
+			LOGGER.error(FuncLogging.getLogFormatedMessage("ProfilesStoreListener","contextInitialized",
+					FuncLogging.REQUEST_STATUS_FAILED, null,"invalid parameter, the registry is used: " + e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * Builds the JDBC store
+	 * @param context servlet context
+	 * @return the store
+	 * @throws NamingException if the data source is not found
+	 */
+	private JdbcProfilesStore createJdbcStore(ServletContext context) throws NamingException {
+		int maxConnections = Integer.parseInt(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_MAX_CONNECTIONS), "10").trim());
+		long maxWaitMillis = Long.parseLong(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_MAX_WAIT_MILLIS), "500").trim());
+		int statementCacheSize = Integer.parseInt(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_STATEMENT_CACHE_SIZE), "20").trim());
+		int batchSize = Integer.parseInt(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_BATCH_SIZE), "50").trim());
+		long flushMillis = Long.parseLong(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_FLUSH_MILLIS), "200").trim());
+
+		DataSource dataSource = (DataSource) new InitialContext().lookup(context.getInitParameter(PARAM_DATA_SOURCE));
+		JdbcConnectionPool pool = new JdbcConnectionPool("profiles", dataSource, maxConnections, maxWaitMillis, statementCacheSize);
+		return new JdbcProfilesStore(pool,
+				StringUtils.defaultIfBlank(context.getInitParameter(PARAM_SELECT_USER_INFO_SQL), JdbcProfilesStore.DEFAULT_SELECT_USER_INFO_SQL),
+				StringUtils.defaultIfBlank(context.getInitParameter(PARAM_INSERT_USER_INFO_SQL), JdbcProfilesStore.DEFAULT_INSERT_USER_INFO_SQL),
+				StringUtils.defaultIfBlank(context.getInitParameter(PARAM_UPDATE_CONNECTION_SQL), JdbcProfilesStore.DEFAULT_UPDATE_CONNECTION_SQL),
+				batchSize, flushMillis);
+	}
+
+	/**
+	 * Shuts the store down, writing the pending connections
+	 * @param event servlet context event
+	 */
+	public void contextDestroyed(ServletContextEvent event) {
+		ProfilesStoreRegistry.getInstance().setStore(new RegistryProfilesStore());
+	}
+}
@@ -0,0 +1,53 @@
+package com.francetelecom.csrtool.gui.profiles.store;
+
+/**
+ * Holds the {@link IProfilesStore} used by the application, measured by a
+ * {@link MeasuredProfilesStore}. Until configured, the store is the {@link RegistryProfilesStore}.
+ * @class ProfilesStoreRegistry
+ */
+public final class ProfilesStoreRegistry {
+
+	/**	unique instance **/
+	private static final ProfilesStoreRegistry INSTANCE = new ProfilesStoreRegistry();
+
+	/**	store in use **/
+	private volatile MeasuredProfilesStore store = new MeasuredProfilesStore(new RegistryProfilesStore());
+
+	/**
+	 * Constructor
+	 */
+	private ProfilesStoreRegistry() {
+		// singleton
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static ProfilesStoreRegistry getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @return the store in use
+	 **/
+	public IProfilesStore getStore() {
+		return store;
+	}
+
+	/**
+	 * Replaces the store in use, the previous one is shut down
+	 * @param newStore the new store
+	 */
+	public synchronized void setStore(IProfilesStore newStore) {
+		MeasuredProfilesStore previous = store;
+		store = new MeasuredProfilesStore(newStore);
+		previous.shutdown();
+	}
+
+	/**
+	 * @return a snapshot of the metrics of the store in use
+	 **/
+	public ProfilesStoreStats getStats() {
+		return store.getStats();
+	}
+}
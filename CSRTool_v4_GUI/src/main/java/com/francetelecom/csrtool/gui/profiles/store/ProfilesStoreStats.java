@@ -0,0 +1,114 @@
+package com.francetelecom.csrtool.gui.profiles.store;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * This bean is a snapshot of the metrics of the {@link IProfilesStore} in use.
+ * @class ProfilesStoreStats
+ * @Implements Serializable
+ */
+public class ProfilesStoreStats implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 3846126005316471528L;
+
+	/**	type of the store **/
+	private final String store;
+
+	/**	metrics of the operations **/
+	private final List<StoreOperationStats> operations;
+
+	/**	state of the connection pool, <code>null</code> if the store has none **/
+	private final ConnectionPoolStats pool;
+
+	/**	number of connections waiting to be written **/
+	private final int pendingConnections;
+
+	/**	number of batches of connections written **/
+	private final long batches;
+
+	/**	number of connections lost because their batch failed **/
+	private final long lostConnections;
+
+	/**
+	 * Constructor
+	 * @param store type of the store
+	 * @param operations metrics of the operations
+	 * @param pool state of the connection pool, <code>null</code> if the store has none
+	 * @param pendingConnections number of connections waiting to be written
+	 * @param batches number of batches of connections written
+	 * @param lostConnections number of connections lost because their batch failed
+	 */
+	public ProfilesStoreStats(String store, List<StoreOperationStats> operations, ConnectionPoolStats pool, int pendingConnections,
+			long batches, long lostConnections) {
+		this.store = store;
+		this.operations = operations;
+		this.pool = pool;
+		this.pendingConnections = pendingConnections;
+		this.batches = batches;
+		this.lostConnections = lostConnections;
+	}
+
+	/**
+	 * @return details of the statistics
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("store", store);
+		toStringBuilder.append("operations", operations);
+		toStringBuilder.append("pool", pool);
+		toStringBuilder.append("pendingConnections", pendingConnections);
+		toStringBuilder.append("batches", batches);
+		toStringBuilder.append("lostConnections", lostConnections);
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return type of the store
+	 **/
+	public String getStore() {
+		return store;
+	}
+
+	/**
+	 * @return metrics of the operations
+	 **/
+	public List<StoreOperationStats> getOperations() {
+		return operations;
+	}
+
+	/**
+	 * @return state of the connection pool, <code>null</code> if the store has none
+	 **/
+	public ConnectionPoolStats getPool() {
+		return pool;
+	}
+
+	/**
+	 * @return number of connections waiting to be written
+	 **/
+	public int getPendingConnections() {
+		return pendingConnections;
+	}
+
+	/**
+	 * @return number of batches of connections written
+	 **/
+	public long getBatches() {
+		return batches;
+	}
+
+	/**
+	 * @return number of connections lost because their batch failed
+	 **/
+	public long getLostConnections() {
+		return lostConnections;
+	}
+}
@@ -0,0 +1,58 @@
+package com.francetelecom.csrtool.gui.profiles.store;
+
+import com.francetelecom.csrtool.model.profiles.CSRRole;
+import com.francetelecom.csrtool.model.profiles.CSRUserInfo;
+import com.francetelecom.csrtool.model.profiles.ProfilesException;
+import com.francetelecom.csrtool.model.profiles.ProfilesRegistry;
+
+/**
+ * The default store, reading and writing the profiles through the {@link ProfilesRegistry} of the
+ * model.
+ * @class RegistryProfilesStore
+ * @implements IProfilesStore
+ */
+public class RegistryProfilesStore implements IProfilesStore {
+
+	/**
+	 * @param login login of the user
+	 * @param mco MCO of the user
+	 * @return the profile, <code>null</code> if the user never connected
+	 * @throws ProfilesException if the profile could not be read
+	 **/
+	public CSRUserInfo getUserInfo(String login, String mco) throws ProfilesException {
+		return ProfilesRegistry.getInstance().getUserInfo(login, mco);
+	}
+
+	/**
+	 * @param userInfo profile of the user
+	 * @throws ProfilesException if the profile could not be created
+	 **/
+	public void createUserInfo(CSRUserInfo userInfo) throws ProfilesException {
+		ProfilesRegistry.getInstance().createUserInfo(userInfo);
+	}
+
+	/**
+	 * @param userInfo profile of the user
+	 * @throws ProfilesException if the connection could not be recorded
+	 **/
+	public void notifyConnection(CSRUserInfo userInfo) throws ProfilesException {
+		ProfilesRegistry.getInstance().notifyConnection(userInfo);
+	}
+
+	/**
+	 * @param roleName name of the role
+	 * @param mco MCO of the role
+	 * @return the role, <code>null</code> if it does not exist
+	 * @throws ProfilesException if the role could not be read
+	 **/
+	public CSRRole getRole(String roleName, String mco) throws ProfilesException {
+		return ProfilesRegistry.getInstance().getRole(roleName, mco);
+	}
+
+	/**
+	 * Nothing to release, the registry belongs to the model
+	 */
+	public void shutdown() {
+		// Do nothing
+	}
+}
@@ -0,0 +1,107 @@
+package com.francetelecom.csrtool.gui.profiles.store;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * This bean is a snapshot of the statistics of one operation of a {@link IProfilesStore}.
+ * @class StoreOperationStats
+ * @Implements Serializable
+ */
+public class StoreOperationStats implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 8129950363468124707L;
+
+	/**	operation name **/
+	private final String operation;
+
+	/**	number of calls **/
+	private final long calls;
+
+	/**	number of calls which failed **/
+	private final long errors;
+
+	/**	total duration of the calls, in microseconds **/
+	private final long totalMicros;
+
+	/**	longest call, in microseconds **/
+	private final long maxMicros;
+
+	/**
+	 * Constructor
+	 * @param operation operation name
+	 * @param calls number of calls
+	 * @param errors number of calls which failed
+	 * @param totalMicros total duration of the calls, in microseconds
+	 * @param maxMicros longest call, in microseconds
+	 */
+	public StoreOperationStats(String operation, long calls, long errors, long totalMicros, long maxMicros) {
+		this.operation = operation;
+		this.calls = calls;
+		this.errors = errors;
+		this.totalMicros = totalMicros;
+		this.maxMicros = maxMicros;
+	}
+
+	/**
+	 * @return average duration of the calls, in microseconds
+	 **/
+	public long getAverageMicros() {
+		return calls == 0 ? 0L : totalMicros / calls;
+	}
+
+	/**
+	 * @return details of the statistics
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("operation", operation);
+		toStringBuilder.append("calls", calls);
+		toStringBuilder.append("errors", errors);
+		toStringBuilder.append("totalMicros", totalMicros);
+		toStringBuilder.append("maxMicros", maxMicros);
+		toStringBuilder.append("averageMicros", getAverageMicros());
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return operation name
+	 **/
+	public String getOperation() {
+		return operation;
+	}
+
+	/**
+	 * @return number of calls
+	 **/
+	public long getCalls() {
+		return calls;
+	}
+
+	/**
+	 * @return number of calls which failed
+	 **/
+	public long getErrors() {
+		return errors;
+	}
+
+	/**
+	 * @return total duration of the calls, in microseconds
+	 **/
+	public long getTotalMicros() {
+		return totalMicros;
+	}
+
+	/**
+	 * @return longest call, in microseconds
+	 **/
+	public long getMaxMicros() {
+		return maxMicros;
+	}
+}
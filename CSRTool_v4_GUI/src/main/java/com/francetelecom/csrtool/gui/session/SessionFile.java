@@ -0,0 +1,187 @@
+package com.francetelecom.csrtool.gui.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A memory-mapped file of {@link SessionRecord}s, written by appending.<br>
+ * The file starts with a magic number and holds records prefixed by their length; a length of zero
+ * marks the end. The length of a record is written last, so that a record torn by a crash is seen
+ * as the end of the file. Appended records reach the disk through the page cache, {@link #force()}
+ * makes them durable. When full, the file is rewritten with the live records only.
+ * @class SessionFile
+ */
+final class SessionFile {
+
+	/**	magic number of the file **/
+	private static final int MAGIC = 0x43535231;
+
+	/**	size of the header **/
+	private static final int HEADER_SIZE = 4;
+
+	/**	size of the length of a record **/
+	private static final int LENGTH_SIZE = 2;
+
+	/**	file **/
+	private final RandomAccessFile file;
+
+	/**	mapped content of the file **/
+	private final MappedByteBuffer buffer;
+
+	/**	position of the next record **/
+	private int position;
+
+	/**	whether records were appended since the last force **/
+	private boolean dirty;
+
+	/**
+	 * Constructor, maps the file, created if missing
+	 * @param path path of the file
+	 * @param capacity size of the file, in bytes
+	 * @throws IOException if the file could not be mapped
+	 */
+	SessionFile(File path, int capacity) throws IOException {
+		this.file = new RandomAccessFile(path, "rw");
+		try {
+			this.file.setLength(capacity);
+			this.buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0L, capacity);
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		}
+		if (buffer.getInt(0) != MAGIC) {
+			reset();
+		}
+	}
+
+	/**
+	 * Reads the records of the file, the oldest first, and moves the position after the last one
+	 * @return the records
+	 */
+	synchronized List<SessionRecord> load() {
+		List<SessionRecord> records = new ArrayList<SessionRecord>();
+		position = HEADER_SIZE;
+		while (position + LENGTH_SIZE <= buffer.capacity()) {
+			int length = buffer.getShort(position) & 0xFFFF;
+			if (length == 0 || position + LENGTH_SIZE + length > buffer.capacity()) {
+				break;
+			}
+			byte[] payload = new byte[length];
+			buffer.position(position + LENGTH_SIZE);
+			buffer.get(payload);
+			try {
+				records.add(SessionRecord.read(new DataInputStream(new ByteArrayInputStream(payload))));
+			} catch (IOException e) {
+				// torn record
+				break;
+			}
+			position += LENGTH_SIZE + length;
+		}
+		return records;
+	}
+
+	/**
+	 * Appends a record
+	 * @param record the record
+	 * @return <code>false</code> if the file is full
+	 * @throws IOException if the record could not be encoded
+	 */
+	synchronized boolean append(SessionRecord record) throws IOException {
+		byte[] payload = encode(record);
+		// room for the record and the end marker
+		if (position + LENGTH_SIZE + payload.length + LENGTH_SIZE > buffer.capacity()) {
+			return false;
+		}
+		buffer.position(position + LENGTH_SIZE);
+		buffer.put(payload);
+		buffer.putShort(position + LENGTH_SIZE + payload.length, (short) 0);
+		buffer.putShort(position, (short) payload.length);
+		position += LENGTH_SIZE + payload.length;
+		dirty = true;
+		return true;
+	}
+
+	/**
+	 * Rewrites the file with the given records
+	 * @param records the live records
+	 * @throws IOException if a record could not be encoded
+	 */
+	synchronized void rewrite(Collection<SessionRecord> records) throws IOException {
+		reset();
+		for (SessionRecord record : records) {
+			if (!append(record)) {
+				break;
+			}
+		}
+		force();
+	}
+
+	/**
+	 * Writes the appended records to the disk
+	 */
+	synchronized void force() {
+		if (dirty) {
+			buffer.force();
+			dirty = false;
+		}
+	}
+
+	/**
+	 * Forces and closes the file
+	 * @throws IOException if the file could not be closed
+	 */
+	synchronized void close() throws IOException {
+		force();
+		file.close();
+	}
+
+	/**
+	 * @return the number of bytes used
+	 **/
+	synchronized int getUsedBytes() {
+		return position;
+	}
+
+	/**
+	 * @return the size of the file, in bytes
+	 **/
+	int getCapacity() {
+		return buffer.capacity();
+	}
+
+	/**
+	 * Empties the file
+	 */
+	private void reset() {
+		buffer.putInt(0, MAGIC);
+		buffer.putShort(HEADER_SIZE, (short) 0);
+		position = HEADER_SIZE;
+		dirty = true;
+	}
+
+	/**
+	 * @param record a record
+	 * @return the encoded record
+	 * @throws IOException if the record is too large
+	 */
+	private static byte[] encode(SessionRecord record) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+		DataOutputStream output = new DataOutputStream(bytes);
+		record.write(output);
+		output.flush();
+		if (bytes.size() > 0xFFFF) {
+			throw new IOException("session record too large: " + record);
+		}
+		return bytes.toByteArray();
+	}
+}
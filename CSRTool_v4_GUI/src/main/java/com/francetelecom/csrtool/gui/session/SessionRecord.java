@@ -0,0 +1,176 @@
+package com.francetelecom.csrtool.gui.session;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import com.francetelecom.csrtool.model.profiles.CSRUserInfo;
+
+/**
+ * The compact form of a session user: its identity, its admin level and the name of its service
+ * role. The profile fields are kept so that the user can be rebuilt without reading its profile.
+ * @class SessionRecord
+ */
+public final class SessionRecord {
+
+	/**	login of the user **/
+	private final String login;
+
+	/**	MCO of the user **/
+	private final String mco;
+
+	/**	first name of the user **/
+	private final String firstname;
+
+	/**	last name of the user **/
+	private final String lastname;
+
+	/**	language of the user **/
+	private final String language;
+
+	/**	admin level of the user **/
+	private final int adminLevel;
+
+	/**	name of the service role, empty for the administrators **/
+	private final String roleName;
+
+	/**	time of the login **/
+	private final long loginTime;
+
+	/**
+	 * Constructor
+	 * @param userInfo profile of the user
+	 * @param adminLevel admin level of the user
+	 * @param roleName name of the service role, <code>null</code> for the administrators
+	 * @param loginTime time of the login
+	 */
+	public SessionRecord(CSRUserInfo userInfo, int adminLevel, String roleName, long loginTime) {
+		this(userInfo.getLogin(), userInfo.getMco(), userInfo.getFirstname(), userInfo.getLastname(), userInfo.getLanguage(), adminLevel,
+				roleName, loginTime);
+	}
+
+	/**
+	 * Constructor
+	 * @param login login of the user
+	 * @param mco MCO of the user
+	 * @param firstname first name of the user
+	 * @param lastname last name of the user
+	 * @param language language of the user
+	 * @param adminLevel admin level of the user
+	 * @param roleName name of the service role, <code>null</code> for the administrators
+	 * @param loginTime time of the login
+	 */
+	private SessionRecord(String login, String mco, String firstname, String lastname, String language, int adminLevel, String roleName,
+			long loginTime) {
+		this.login = StringUtils.defaultString(login);
+		this.mco = StringUtils.defaultString(mco);
+		this.firstname = StringUtils.defaultString(firstname);
+		this.lastname = StringUtils.defaultString(lastname);
+		this.language = StringUtils.defaultString(language);
+		this.adminLevel = adminLevel;
+		this.roleName = StringUtils.defaultString(roleName);
+		this.loginTime = loginTime;
+	}
+
+	/**
+	 * Reads a record written by {@link #write(DataOutput)}
+	 * @param input the input
+	 * @return the record
+	 * @throws IOException if the record could not be read
+	 */
+	public static SessionRecord read(DataInput input) throws IOException {
+		String login = input.readUTF();
+		String mco = input.readUTF();
+		String firstname = input.readUTF();
+		String lastname = input.readUTF();
+		String language = input.readUTF();
+		int adminLevel = input.readByte();
+		String roleName = input.readUTF();
+		long loginTime = input.readLong();
+		return new SessionRecord(login, mco, firstname, lastname, language, adminLevel, roleName, loginTime);
+	}
+
+	/**
+	 * Writes the record
+	 * @param output the output
+	 * @throws IOException if the record could not be written
+	 */
+	public void write(DataOutput output) throws IOException {
+		output.writeUTF(login);
+		output.writeUTF(mco);
+		output.writeUTF(firstname);
+		output.writeUTF(lastname);
+		output.writeUTF(language);
+		output.writeByte(adminLevel);
+		output.writeUTF(roleName);
+		output.writeLong(loginTime);
+	}
+
+	/**
+	 * @return a new profile of the user
+	 **/
+	public CSRUserInfo toUserInfo() {
+		CSRUserInfo userInfo = new CSRUserInfo();
+		userInfo.setLogin(login);
+		userInfo.setMco(mco);
+		userInfo.setFirstname(StringUtils.trimToNull(firstname));
+		userInfo.setLastname(StringUtils.trimToNull(lastname));
+		userInfo.setLanguage(StringUtils.trimToNull(language));
+		return userInfo;
+	}
+
+	/**
+	 * @return details of the record
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("login", login);
+		toStringBuilder.append("mco", mco);
+		toStringBuilder.append("adminLevel", adminLevel);
+		toStringBuilder.append("roleName", roleName);
+		toStringBuilder.append("loginTime", loginTime);
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return login of the user
+	 **/
+	public String getLogin() {
+		return login;
+	}
+
+	/**
+	 * @return MCO of the user
+	 **/
+	public String getMco() {
+		return mco;
+	}
+
+	/**
+	 * @return admin level of the user
+	 **/
+	public int getAdminLevel() {
+		return adminLevel;
+	}
+
+	/**
+	 * @return name of the service role, <code>null</code> for the administrators
+	 **/
+	public String getRoleName() {
+		return StringUtils.trimToNull(roleName);
+	}
+
+	/**
+	 * @return time of the login
+	 **/
+	public long getLoginTime() {
+		return loginTime;
+	}
+}
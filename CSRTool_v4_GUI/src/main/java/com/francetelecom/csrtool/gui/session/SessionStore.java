@@ -0,0 +1,285 @@
+package com.francetelecom.csrtool.gui.session;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.gui.authent.AuthentifiedUser;
+import com.francetelecom.csrtool.gui.concurrent.DaemonThreadFactory;
+import com.francetelecom.csrtool.gui.profiles.ProfileKey;
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+import com.francetelecom.csrtool.model.profiles.CSRRole;
+import com.francetelecom.csrtool.model.profiles.CSRUser;
+
+/**
+ * Keeps the session users in a compact form in a memory-mapped {@link SessionFile}, so that the
+ * users logged in before a restart get their session back without loading their profile and their
+ * roles again.<br>
+ * The records are loaded at start but the users are rebuilt lazily, on their first request. The
+ * roles of the rebuilt users are shared through a short lived cache, since the agents of a MCO
+ * share few roles. The file is forced to the disk periodically.
+ * @class SessionStore
+ */
+public final class SessionStore {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(SessionStore.class);
+
+	/**	time a role is kept for the restored users, in milliseconds **/
+	private static final long ROLE_CACHE_MILLIS = 300000L;
+
+	/**	unique instance **/
+	private static final SessionStore INSTANCE = new SessionStore();
+
+	/**	last record of each user **/
+	private final ConcurrentMap<ProfileKey, SessionRecord> records = new ConcurrentHashMap<ProfileKey, SessionRecord>();
+
+	/**	roles of the restored users **/
+	private final ConcurrentMap<ProfileKey, CachedRole> roles = new ConcurrentHashMap<ProfileKey, CachedRole>();
+
+	/**	number of users saved **/
+	private final AtomicLong saved = new AtomicLong();
+
+	/**	number of users restored **/
+	private final AtomicLong restored = new AtomicLong();
+
+	/**	number of users not saved because the file was full or failed **/
+	private final AtomicLong dropped = new AtomicLong();
+
+	/**	number of rewrites of the file **/
+	private final AtomicLong compactions = new AtomicLong();
+
+	/**	file, <code>null</code> when stopped **/
+	private volatile SessionFile file;
+
+	/**	writer of the file to the disk **/
+	private ScheduledExecutorService flusher;
+
+	/**	age over which a record is not restored, in milliseconds **/
+	private volatile long maxAgeMillis;
+
+	/**
+	 * A role kept for the restored users.
+	 * @class CachedRole
+	 */
+	private static final class CachedRole {
+		/**	the role **/
+		private final CSRRole role;
+
+		/**	expiration time **/
+		private final long expiresAt;
+
+		/**
+		 * Constructor
+		 * @param role the role
+		 * @param expiresAt expiration time
+		 */
+		private CachedRole(CSRRole role, long expiresAt) {
+			this.role = role;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	/**
+	 * Constructor
+	 */
+	private SessionStore() {
+		// singleton
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static SessionStore getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Maps the file and loads its records
+	 * @param path path of the file
+	 * @param capacity size of the file, in bytes
+	 * @param maxAgeMillis age over which a record is not restored, in milliseconds
+	 * @param flushMillis delay between two writes of the file to the disk, in milliseconds
+	 * @throws IOException if the file could not be mapped
+	 */
+	public synchronized void start(File path, int capacity, long maxAgeMillis, long flushMillis) throws IOException {
+		if (file != null) {
+			return;
+		}
+		this.maxAgeMillis = maxAgeMillis;
+		SessionFile sessionFile = new SessionFile(path, capacity);
+		long oldest = System.currentTimeMillis() - maxAgeMillis;
+		for (SessionRecord record : sessionFile.load()) {
+			if (record.getLoginTime() >= oldest) {
+				records.put(key(record.getMco(), record.getLogin()), record);
+			}
+		}
+		file = sessionFile;
+		flusher = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("SessionStoreFlush"));
+		flusher.scheduleWithFixedDelay(new Runnable() {
+			public void run() {
+				SessionFile sessionFile = file;
+				if (sessionFile != null) {
+					sessionFile.force();
+				}
+			}
+		}, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+
+		if (LOGGER.isInfoEnabled()) {
+			LOGGER.info(FuncLogging.getLogFormatedMessage("SessionStore","start",
+					String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,records.size() + " sessions loaded from " + path));
+		}
+	}
+
+	/**
+	 * Writes the file to the disk and unmaps it
+	 */
+	public synchronized void stop() {
+		if (file == null) {
+			return;
+		}
+		flusher.shutdownNow();
+		flusher = null;
+		try {
+			file.close();
+		} catch (IOException e) {
+			LOGGER.warn(FuncLogging.getLogFormatedMessage("SessionStore","stop",
+					FuncLogging.REQUEST_STATUS_FAILED, null,e.getMessage()), e);
+		}
+		file = null;
+		records.clear();
+		roles.clear();
+	}
+
+	/**
+	 * @return whether the store is started
+	 **/
+	public boolean isStarted() {
+		return file != null;
+	}
+
+	/**
+	 * Saves a user who logged in
+	 * @param user the user
+	 * @param roleName name of its service role, <code>null</code> for the administrators
+	 */
+	public void save(CSRUser user, String roleName) {
+		SessionFile sessionFile = file;
+		if (sessionFile == null) {
+			return;
+		}
+		SessionRecord record = new SessionRecord(user.getUserInfo(), user.getAdminLevel(), roleName, System.currentTimeMillis());
+		records.put(key(record.getMco(), record.getLogin()), record);
+		try {
+			if (!sessionFile.append(record)) {
+				compact(sessionFile);
+				if (!sessionFile.append(record)) {
+					dropped.incrementAndGet();
+					return;
+				}
+			}
+			saved.incrementAndGet();
+		} catch (IOException e) {
+			dropped.incrementAndGet();
+			LOGGER.warn(FuncLogging.getLogFormatedMessage("SessionStore","save",
+					FuncLogging.REQUEST_STATUS_FAILED, null,"session of " + user.getLogin() + " not saved: " + e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * Finds the record of an authenticated user; the record must have been saved with the same
+	 * admin level and service role and must not be too old.
+	 * @param authentifiedUser the authenticated user
+	 * @return the record or <code>null</code>
+	 */
+	public SessionRecord find(AuthentifiedUser authentifiedUser) {
+		if (file == null || authentifiedUser.getMco() == null) {
+			return null;
+		}
+		SessionRecord record = records.get(key(authentifiedUser.getMco(), authentifiedUser.getLogin()));
+		if (record == null
+				|| record.getAdminLevel() != authentifiedUser.getAdminLevel()
+				|| !StringUtils.equals(record.getRoleName(), StringUtils.trimToNull(authentifiedUser.getServiceRoleName()))
+				|| record.getLoginTime() < System.currentTimeMillis() - maxAgeMillis) {
+			return null;
+		}
+		return record;
+	}
+
+	/**
+	 * Counts a restored user
+	 */
+	public void restored() {
+		restored.incrementAndGet();
+	}
+
+	/**
+	 * @param roleName name of the role
+	 * @param mco MCO of the role
+	 * @return the role loaded for a previously restored user or <code>null</code>
+	 */
+	public CSRRole getRole(String roleName, String mco) {
+		CachedRole cachedRole = roles.get(key(mco, roleName));
+		if (cachedRole == null || cachedRole.expiresAt < System.currentTimeMillis()) {
+			return null;
+		}
+		return cachedRole.role;
+	}
+
+	/**
+	 * Keeps a role loaded for a restored user
+	 * @param roleName name of the role
+	 * @param mco MCO of the role
+	 * @param role the role
+	 */
+	public void putRole(String roleName, String mco, CSRRole role) {
+		roles.put(key(mco, roleName), new CachedRole(role, System.currentTimeMillis() + ROLE_CACHE_MILLIS));
+	}
+
+	/**
+	 * Rewrites the file with the records young enough to be restored
+	 * @param sessionFile the file
+	 * @throws IOException if a record could not be encoded
+	 */
+	private void compact(SessionFile sessionFile) throws IOException {
+		long oldest = System.currentTimeMillis() - maxAgeMillis;
+		List<SessionRecord> live = new ArrayList<SessionRecord>(records.size());
+		for (SessionRecord record : records.values()) {
+			if (record.getLoginTime() >= oldest) {
+				live.add(record);
+			} else {
+				records.remove(key(record.getMco(), record.getLogin()), record);
+			}
+		}
+		sessionFile.rewrite(live);
+		compactions.incrementAndGet();
+	}
+
+	/**
+	 * @param mco MCO
+	 * @param name login or role name
+	 * @return the key, the MCO in upper case as in the profiles
+	 */
+	private static ProfileKey key(String mco, String name) {
+		return new ProfileKey(StringUtils.upperCase(StringUtils.trim(mco)), name);
+	}
+
+	/**
+	 * @return a snapshot of the state of the store
+	 **/
+	public SessionStoreStats getStats() {
+		SessionFile sessionFile = file;
+		return new SessionStoreStats(sessionFile != null, records.size(), sessionFile != null ? sessionFile.getUsedBytes() : 0,
+				sessionFile != null ? sessionFile.getCapacity() : 0, saved.get(), restored.get(), dropped.get(), compactions.get());
+	}
+}
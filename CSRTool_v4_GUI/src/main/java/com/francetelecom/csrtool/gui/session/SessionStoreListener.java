@@ -0,0 +1,85 @@
+package com.francetelecom.csrtool.gui.session;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * Starts the {@link SessionStore} with the application when enabled, and stops it with the
+ * application.
+ * @class SessionStoreListener
+ * @Implements ServletContextListener
+ */
+public class SessionStoreListener implements ServletContextListener {
+
+	/** Logger **/
+	private static Logger LOGGER = Logger.getLogger(SessionStoreListener.class);
+
+	/** context parameter enabling the store **/
+	private static final String PARAM_ENABLED = "session.store.enabled";
+
+	/** context parameter holding the path of the file **/
+	private static final String PARAM_FILE = "session.store.file";
+
+	/** context parameter holding the size of the file, in kilobytes **/
+	private static final String PARAM_CAPACITY_KB = "session.store.capacityKb";
+
+	/** context parameter holding the age over which a session is not restored, in minutes **/
+	private static final String PARAM_MAX_AGE_MINUTES = "session.store.maxAgeMinutes";
+
+	/** context parameter holding the delay between two writes of the file to the disk, in milliseconds **/
+	private static final String PARAM_FLUSH_MILLIS = "session.store.flushMillis";
+
+	/** default name of the file, in the temporary directory **/
+	private static final String DEFAULT_FILE_NAME = "csrtool-sessions.dat";
+
+	/** default size of the file, in kilobytes **/
+	private static final String DEFAULT_CAPACITY_KB = "4096";
+
+	/** default age over which a session is not restored, in minutes **/
+	private static final String DEFAULT_MAX_AGE_MINUTES = "720";
+
+	/** default delay between two writes of the file to the disk, in milliseconds **/
+	private static final String DEFAULT_FLUSH_MILLIS = "1000";
+
+	/**
+	 * Starts the store if enabled
+	 * @param event servlet context event
+	 */
+	public void contextInitialized(ServletContextEvent event) {
+		ServletContext context = event.getServletContext();
+		if (!Boolean.parseBoolean(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_ENABLED), "false").trim())) {
+			return;
+		}
+		File file = new File(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_FILE),
+				new File(System.getProperty("java.io.tmpdir"), DEFAULT_FILE_NAME).getPath()).trim());
+		try {
+			int capacity = Integer.parseInt(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_CAPACITY_KB), DEFAULT_CAPACITY_KB).trim()) * 1024;
+			long maxAgeMinutes = Long.parseLong(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_MAX_AGE_MINUTES), DEFAULT_MAX_AGE_MINUTES).trim());
+			long flushMillis = Long.parseLong(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_FLUSH_MILLIS), DEFAULT_FLUSH_MILLIS).trim());
+			SessionStore.getInstance().start(file, capacity, maxAgeMinutes * 60000L, flushMillis);
+		} catch (NumberFormatException e) {
+			LOGGER.error(FuncLogging.getLogFormatedMessage("SessionStoreListener","contextInitialized",
+					FuncLogging.REQUEST_STATUS_FAILED, null,"session store not started: " + e.getMessage()), e);
+		} catch (IOException e) {
+			LOGGER.error(FuncLogging.getLogFormatedMessage("SessionStoreListener","contextInitialized",
+					FuncLogging.REQUEST_STATUS_FAILED, null,"session store not started, " + file + ": " + e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * Stops the store
+	 * @param event servlet context event
+	 */
+	public void contextDestroyed(ServletContextEvent event) {
+		SessionStore.getInstance().stop();
+	}
+}
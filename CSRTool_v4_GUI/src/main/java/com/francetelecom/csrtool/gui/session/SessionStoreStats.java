@@ -0,0 +1,139 @@
+package com.francetelecom.csrtool.gui.session;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * This bean is a snapshot of the state of the {@link SessionStore}.
+ * @class SessionStoreStats
+ * @Implements Serializable
+ */
+public class SessionStoreStats implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 6182374021570334197L;
+
+	/**	whether the store is started **/
+	private final boolean started;
+
+	/**	number of users kept **/
+	private final int records;
+
+	/**	number of bytes of the file used **/
+	private final int usedBytes;
+
+	/**	size of the file, in bytes **/
+	private final int capacity;
+
+	/**	number of users saved **/
+	private final long saved;
+
+	/**	number of users restored **/
+	private final long restored;
+
+	/**	number of users not saved **/
+	private final long dropped;
+
+	/**	number of rewrites of the file **/
+	private final long compactions;
+
+	/**
+	 * Constructor
+	 * @param started whether the store is started
+	 * @param records number of users kept
+	 * @param usedBytes number of bytes of the file used
+	 * @param capacity size of the file, in bytes
+	 * @param saved number of users saved
+	 * @param restored number of users restored
+	 * @param dropped number of users not saved
+	 * @param compactions number of rewrites of the file
+	 */
+	public SessionStoreStats(boolean started, int records, int usedBytes, int capacity, long saved, long restored, long dropped,
+			long compactions) {
+		this.started = started;
+		this.records = records;
+		this.usedBytes = usedBytes;
+		this.capacity = capacity;
+		this.saved = saved;
+		this.restored = restored;
+		this.dropped = dropped;
+		this.compactions = compactions;
+	}
+
+	/**
+	 * @return details of the statistics
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("started", started);
+		toStringBuilder.append("records", records);
+		toStringBuilder.append("usedBytes", usedBytes);
+		toStringBuilder.append("capacity", capacity);
+		toStringBuilder.append("saved", saved);
+		toStringBuilder.append("restored", restored);
+		toStringBuilder.append("dropped", dropped);
+		toStringBuilder.append("compactions", compactions);
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return whether the store is started
+	 **/
+	public boolean isStarted() {
+		return started;
+	}
+
+	/**
+	 * @return number of users kept
+	 **/
+	public int getRecords() {
+		return records;
+	}
+
+	/**
+	 * @return number of bytes of the file used
+	 **/
+	public int getUsedBytes() {
+		return usedBytes;
+	}
+
+	/**
+	 * @return size of the file, in bytes
+	 **/
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return number of users saved
+	 **/
+	public long getSaved() {
+		return saved;
+	}
+
+	/**
+	 * @return number of users restored
+	 **/
+	public long getRestored() {
+		return restored;
+	}
+
+	/**
+	 * @return number of users not saved
+	 **/
+	public long getDropped() {
+		return dropped;
+	}
+
+	/**
+	 * @return number of rewrites of the file
+	 **/
+	public long getCompactions() {
+		return compactions;
+	}
+}
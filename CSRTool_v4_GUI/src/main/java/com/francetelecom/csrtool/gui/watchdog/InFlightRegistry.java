@@ -0,0 +1,103 @@
+package com.francetelecom.csrtool.gui.watchdog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the requests in progress on this node, one per serving thread.<br>
+ * The authentication filter registers each request and the code on its path records the stage it
+ * enters, so that a stalled thread can be attributed to a request, a user and a stage without a
+ * thread dump.
+ * @class InFlightRegistry
+ */
+public final class InFlightRegistry {
+
+	/**	unique instance **/
+	private static final InFlightRegistry INSTANCE = new InFlightRegistry();
+
+	/**	requests in progress per serving thread **/
+	private final ConcurrentMap<Thread, InFlightRequest> requests = new ConcurrentHashMap<Thread, InFlightRequest>();
+
+	/**
+	 * Constructor
+	 */
+	private InFlightRegistry() {
+		// singleton
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static InFlightRegistry getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Registers the request served by the current thread
+	 * @param uri URI of the request
+	 * @param stage initial stage
+	 */
+	public void begin(String uri, String stage) {
+		Thread thread = Thread.currentThread();
+		requests.put(thread, new InFlightRequest(thread, uri, System.currentTimeMillis(), stage));
+	}
+
+	/**
+	 * Removes the request served by the current thread
+	 */
+	public void end() {
+		requests.remove(Thread.currentThread());
+	}
+
+	/**
+	 * Records the user of the request served by the current thread
+	 * @param login login of the user
+	 * @param mco MCO of the user
+	 */
+	public void setUser(String login, String mco) {
+		InFlightRequest request = requests.get(Thread.currentThread());
+		if (request != null) {
+			request.setLogin(login);
+			request.setMco(mco);
+		}
+	}
+
+	/**
+	 * Records the stage entered by the request served by the current thread
+	 * @param stage the stage
+	 * @return the previous stage, to restore when the stage ends, <code>null</code> if the thread serves no request
+	 */
+	public String setStage(String stage) {
+		InFlightRequest request = requests.get(Thread.currentThread());
+		if (request == null) {
+			return null;
+		}
+		String previous = request.getStage();
+		request.setStage(stage);
+		return previous;
+	}
+
+	/**
+	 * @return the requests in progress, the oldest first
+	 **/
+	public List<InFlightRequest> getAll() {
+		List<InFlightRequest> all = new ArrayList<InFlightRequest>(requests.values());
+		Collections.sort(all, new Comparator<InFlightRequest>() {
+			public int compare(InFlightRequest request1, InFlightRequest request2) {
+				return Long.compare(request1.getStartTime(), request2.getStartTime());
+			}
+		});
+		return all;
+	}
+
+	/**
+	 * @return the number of requests in progress
+	 **/
+	public int size() {
+		return requests.size();
+	}
+}
@@ -0,0 +1,133 @@
+package com.francetelecom.csrtool.gui.watchdog;
+
+/**
+ * A request in progress on this node: the thread serving it, the user and the current stage of
+ * its processing. The stage and the user are set by the thread serving the request and read by
+ * the {@link SlowRequestWatchdog}.
+ * @class InFlightRequest
+ */
+public class InFlightRequest {
+
+	/**	thread serving the request **/
+	private final Thread thread;
+
+	/**	URI of the request **/
+	private final String uri;
+
+	/**	start time **/
+	private final long startTime;
+
+	/**	login of the user, <code>null</code> until authenticated **/
+	private volatile String login;
+
+	/**	MCO of the user, <code>null</code> until authenticated **/
+	private volatile String mco;
+
+	/**	current stage of the processing **/
+	private volatile String stage;
+
+	/**	number of stack samples taken, only used by the watchdog thread **/
+	private int samples;
+
+	/**
+	 * Constructor
+	 * @param thread thread serving the request
+	 * @param uri URI of the request
+	 * @param startTime start time
+	 * @param stage initial stage
+	 */
+	public InFlightRequest(Thread thread, String uri, long startTime, String stage) {
+		this.thread = thread;
+		this.uri = uri;
+		this.startTime = startTime;
+		this.stage = stage;
+	}
+
+	/**
+	 * @param now current time
+	 * @return the time elapsed since the start of the request, in milliseconds
+	 **/
+	public long getElapsedMillis(long now) {
+		return now - startTime;
+	}
+
+	/**
+	 * @return the number of stack samples taken and counts a new one
+	 **/
+	int nextSample() {
+		return samples++;
+	}
+
+	/*----------------------------
+	  Getters & Setters
+	  ----------------------------*/
+	/**
+	 * @return thread serving the request
+	 **/
+	Thread getThread() {
+		return thread;
+	}
+
+	/**
+	 * @return name of the thread serving the request
+	 **/
+	public String getThreadName() {
+		return thread.getName();
+	}
+
+	/**
+	 * @return URI of the request
+	 **/
+	public String getUri() {
+		return uri;
+	}
+
+	/**
+	 * @return start time
+	 **/
+	public long getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * @return login of the user, <code>null</code> until authenticated
+	 **/
+	public String getLogin() {
+		return login;
+	}
+
+	/**
+	 * @param login login of the user
+	 **/
+	public void setLogin(String login) {
+		this.login = login;
+	}
+
+	/**
+	 * @return MCO of the user, <code>null</code> until authenticated
+	 **/
+	public String getMco() {
+		return mco;
+	}
+
+	/**
+	 * @param mco MCO of the user
+	 **/
+	public void setMco(String mco) {
+		this.mco = mco;
+	}
+
+	/**
+	 * @return current stage of the processing
+	 **/
+	public String getStage() {
+		return stage;
+	}
+
+	/**
+	 * @param stage current stage of the processing
+	 **/
+	public void setStage(String stage) {
+		this.stage = stage;
+	}
+}
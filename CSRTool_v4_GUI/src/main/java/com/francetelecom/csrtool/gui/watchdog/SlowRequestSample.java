@@ -0,0 +1,146 @@
+package com.francetelecom.csrtool.gui.watchdog;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * This bean is a stack sample of a request in progress for longer than the threshold of the
+ * {@link SlowRequestWatchdog}.
+ * @class SlowRequestSample
+ * @Implements Serializable
+ */
+public class SlowRequestSample implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 2630871954407712385L;
+
+	/**	time of the sample **/
+	private final long sampleTime;
+
+	/**	URI of the request **/
+	private final String uri;
+
+	/**	login of the user **/
+	private final String login;
+
+	/**	MCO of the user **/
+	private final String mco;
+
+	/**	stage of the processing when sampled **/
+	private final String stage;
+
+	/**	time elapsed since the start of the request, in milliseconds **/
+	private final long elapsedMillis;
+
+	/**	name of the thread serving the request **/
+	private final String threadName;
+
+	/**	state of the thread serving the request **/
+	private final String threadState;
+
+	/**	stack of the thread, the innermost frame first **/
+	private final List<String> stack;
+
+	/**
+	 * Constructor
+	 * @param sampleTime time of the sample
+	 * @param request the sampled request
+	 * @param threadState state of the thread serving the request
+	 * @param stack stack of the thread, the innermost frame first
+	 */
+	public SlowRequestSample(long sampleTime, InFlightRequest request, String threadState, List<String> stack) {
+		this.sampleTime = sampleTime;
+		this.uri = request.getUri();
+		this.login = request.getLogin();
+		this.mco = request.getMco();
+		this.stage = request.getStage();
+		this.elapsedMillis = request.getElapsedMillis(sampleTime);
+		this.threadName = request.getThreadName();
+		this.threadState = threadState;
+		this.stack = stack;
+	}
+
+	/**
+	 * @return details of the sample, without the stack
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("uri", uri);
+		toStringBuilder.append("login", login);
+		toStringBuilder.append("mco", mco);
+		toStringBuilder.append("stage", stage);
+		toStringBuilder.append("elapsedMillis", elapsedMillis);
+		toStringBuilder.append("threadName", threadName);
+		toStringBuilder.append("threadState", threadState);
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return time of the sample
+	 **/
+	public long getSampleTime() {
+		return sampleTime;
+	}
+
+	/**
+	 * @return URI of the request
+	 **/
+	public String getUri() {
+		return uri;
+	}
+
+	/**
+	 * @return login of the user
+	 **/
+	public String getLogin() {
+		return login;
+	}
+
+	/**
+	 * @return MCO of the user
+	 **/
+	public String getMco() {
+		return mco;
+	}
+
+	/**
+	 * @return stage of the processing when sampled
+	 **/
+	public String getStage() {
+		return stage;
+	}
+
+	/**
+	 * @return time elapsed since the start of the request, in milliseconds
+	 **/
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	/**
+	 * @return name of the thread serving the request
+	 **/
+	public String getThreadName() {
+		return threadName;
+	}
+
+	/**
+	 * @return state of the thread serving the request
+	 **/
+	public String getThreadState() {
+		return threadState;
+	}
+
+	/**
+	 * @return stack of the thread, the innermost frame first
+	 **/
+	public List<String> getStack() {
+		return stack;
+	}
+}
@@ -0,0 +1,155 @@
+package com.francetelecom.csrtool.gui.watchdog;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.gui.concurrent.DaemonThreadFactory;
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * Samples the stack of the requests in progress for longer than a threshold.<br>
+ * Periodically, the requests of the {@link InFlightRegistry} over the threshold get the stack of
+ * their thread captured into a bounded buffer, the oldest samples being dropped first. A request
+ * is sampled a limited number of times, so that a hung request does not fill the buffer.
+ * @class SlowRequestWatchdog
+ */
+public final class SlowRequestWatchdog {
+
+	/**	Logger **/
+	private static Logger LOGGER = Logger.getLogger(SlowRequestWatchdog.class);
+
+	/**	maximum number of samples of one request **/
+	private static final int MAX_SAMPLES_PER_REQUEST = 5;
+
+	/**	maximum number of frames kept per sample **/
+	private static final int MAX_FRAMES = 64;
+
+	/**	unique instance **/
+	private static final SlowRequestWatchdog INSTANCE = new SlowRequestWatchdog();
+
+	/**	last samples, the newest first **/
+	private final Deque<SlowRequestSample> samples = new ArrayDeque<SlowRequestSample>();
+
+	/**	number of slow requests detected **/
+	private final AtomicLong slowRequests = new AtomicLong();
+
+	/**	sampler, <code>null</code> when stopped **/
+	private ScheduledExecutorService scheduler;
+
+	/**	threshold over which a request is sampled, in milliseconds **/
+	private volatile long thresholdMillis;
+
+	/**	maximum number of samples kept **/
+	private volatile int maxSamples;
+
+	/**
+	 * Constructor
+	 */
+	private SlowRequestWatchdog() {
+		// singleton
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static SlowRequestWatchdog getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Starts the sampling
+	 * @param thresholdMillis threshold over which a request is sampled, in milliseconds
+	 * @param periodMillis delay between two samplings, in milliseconds
+	 * @param maxSamples maximum number of samples kept
+	 */
+	public synchronized void start(long thresholdMillis, long periodMillis, int maxSamples) {
+		if (scheduler != null) {
+			return;
+		}
+		this.thresholdMillis = thresholdMillis;
+		this.maxSamples = maxSamples;
+		scheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("SlowRequestWatchdog"));
+		scheduler.scheduleWithFixedDelay(new Runnable() {
+			public void run() {
+				sample();
+			}
+		}, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the sampling and drops the samples
+	 */
+	public synchronized void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+		synchronized (samples) {
+			samples.clear();
+		}
+	}
+
+	/**
+	 * Samples the requests over the threshold
+	 */
+	private void sample() {
+		try {
+			long now = System.currentTimeMillis();
+			for (InFlightRequest request : InFlightRegistry.getInstance().getAll()) {
+				if (request.getElapsedMillis(now) < thresholdMillis) {
+					// sorted by start time, the next ones are younger
+					break;
+				}
+				int sample = request.nextSample();
+				if (sample >= MAX_SAMPLES_PER_REQUEST) {
+					continue;
+				}
+				Thread thread = request.getThread();
+				StackTraceElement[] frames = thread.getStackTrace();
+				List<String> stack = new ArrayList<String>(Math.min(frames.length, MAX_FRAMES));
+				for (int i = 0; i < frames.length && i < MAX_FRAMES; i++) {
+					stack.add(frames[i].toString());
+				}
+				SlowRequestSample slowRequestSample = new SlowRequestSample(now, request, thread.getState().name(), stack);
+				if (sample == 0) {
+					slowRequests.incrementAndGet();
+					LOGGER.warn(FuncLogging.getLogFormatedMessage("SlowRequestWatchdog","sample",
+							FuncLogging.REQUEST_STATUS_FAILED, null,"slow request: " + slowRequestSample));
+				}
+				synchronized (samples) {
+					samples.addFirst(slowRequestSample);
+					while (samples.size() > maxSamples) {
+						samples.removeLast();
+					}
+				}
+			}
+		} catch (RuntimeException e) {
+			LOGGER.warn(FuncLogging.getLogFormatedMessage("SlowRequestWatchdog","sample",
+					FuncLogging.REQUEST_STATUS_FAILED, null,e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * @return the last samples, the newest first
+	 **/
+	public List<SlowRequestSample> getSamples() {
+		synchronized (samples) {
+			return new ArrayList<SlowRequestSample>(samples);
+		}
+	}
+
+	/**
+	 * @return the number of slow requests detected
+	 **/
+	public long getSlowRequests() {
+		return slowRequests.get();
+	}
+}
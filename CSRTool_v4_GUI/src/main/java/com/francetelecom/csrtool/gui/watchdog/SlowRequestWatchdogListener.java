@@ -0,0 +1,75 @@
+package com.francetelecom.csrtool.gui.watchdog;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * Starts the {@link SlowRequestWatchdog} with the application and stops it with the application.
+ * @class SlowRequestWatchdogListener
+ * @Implements ServletContextListener
+ */
+public class SlowRequestWatchdogListener implements ServletContextListener {
+
+	/** Logger **/
+	private static Logger LOGGER = Logger.getLogger(SlowRequestWatchdogListener.class);
+
+	/** context parameter enabling the watchdog **/
+	private static final String PARAM_ENABLED = "watchdog.enabled";
+
+	/** context parameter holding the threshold over which a request is sampled, in milliseconds **/
+	private static final String PARAM_THRESHOLD_MILLIS = "watchdog.thresholdMillis";
+
+	/** context parameter holding the delay between two samplings, in milliseconds **/
+	private static final String PARAM_PERIOD_MILLIS = "watchdog.periodMillis";
+
+	/** context parameter holding the maximum number of samples kept **/
+	private static final String PARAM_MAX_SAMPLES = "watchdog.maxSamples";
+
+	/** default threshold over which a request is sampled, in milliseconds **/
+	private static final String DEFAULT_THRESHOLD_MILLIS = "5000";
+
+	/** default delay between two samplings, in milliseconds **/
+	private static final String DEFAULT_PERIOD_MILLIS = "1000";
+
+	/** default maximum number of samples kept **/
+	private static final String DEFAULT_MAX_SAMPLES = "200";
+
+	/**
+	 * Starts the watchdog unless disabled
+	 * @param event servlet context event
+	 */
+	public void contextInitialized(ServletContextEvent event) {
+		ServletContext context = event.getServletContext();
+		if (!Boolean.parseBoolean(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_ENABLED), "true").trim())) {
+			return;
+		}
+		try {
+			long thresholdMillis = Long.parseLong(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_THRESHOLD_MILLIS), DEFAULT_THRESHOLD_MILLIS).trim());
+			long periodMillis = Long.parseLong(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_PERIOD_MILLIS), DEFAULT_PERIOD_MILLIS).trim());
+			int maxSamples = Integer.parseInt(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_MAX_SAMPLES), DEFAULT_MAX_SAMPLES).trim());
+			SlowRequestWatchdog.getInstance().start(thresholdMillis, periodMillis, maxSamples);
+
+			if (LOGGER.isInfoEnabled()) {
+				LOGGER.info(FuncLogging.getLogFormatedMessage("SlowRequestWatchdogListener","contextInitialized",
+						String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,"slow request watchdog started, threshold " + thresholdMillis + " ms"));
+			}
+		} catch (NumberFormatException e) {
+			LOGGER.error(FuncLogging.getLogFormatedMessage("SlowRequestWatchdogListener","contextInitialized",
+					FuncLogging.REQUEST_STATUS_FAILED, null,"slow request watchdog not started: " + e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * Stops the watchdog
+	 * @param event servlet context event
+	 */
+	public void contextDestroyed(ServletContextEvent event) {
+		SlowRequestWatchdog.getInstance().stop();
+	}
+}
@@ -0,0 +1,150 @@
+package com.francetelecom.csrtool.gui.ws;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.francetelecom.csrtool.gui.deadline.RequestDeadline;
+import com.francetelecom.csrtool.gui.jfr.BackendCallEvent;
+import com.francetelecom.csrtool.gui.watchdog.InFlightRegistry;
+import com.francetelecom.csrtool.model.profiles.CSRUser;
+
+/**
+ * Protects the calls to one web service backend with a {@link Bulkhead} and a
+ * {@link CircuitBreaker}. No call starts once the {@link RequestDeadline} of the request is exceeded.
+ * @class BackendGuard
+ */
+public class BackendGuard {
+
+	/**	backend name **/
+	private final String name;
+
+	/**	stage of the requests calling the backend, for the slow request watchdog **/
+	private final String stage;
+
+	/**	concurrency limit **/
+	private final Bulkhead bulkhead;
+
+	/**	circuit breaker **/
+	private final CircuitBreaker circuitBreaker;
+
+	/**	number of calls which reached the backend **/
+	private final AtomicLong calls = new AtomicLong();
+
+	/**	number of calls which failed in the backend **/
+	private final AtomicLong failures = new AtomicLong();
+
+	/**
+	 * Constructor
+	 * @param name backend name
+	 * @param bulkhead concurrency limit
+	 * @param circuitBreaker circuit breaker
+	 */
+	public BackendGuard(String name, Bulkhead bulkhead, CircuitBreaker circuitBreaker) {
+		this.name = name;
+		this.stage = "backend " + name;
+		this.bulkhead = bulkhead;
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	/**
+	 * Executes a call to the backend, as a stage of the request in progress
+	 * @param call the call
+	 * @param <T> type of the result
+	 * @return result of the call
+	 * @throws BackendUnavailableException if the call was refused without reaching the backend,
+	 * including when the deadline of the request is exceeded
+	 * @throws Exception the exception thrown by the call
+	 */
+	public <T> T execute(IBackendCall<T> call) throws Exception {
+		InFlightRegistry inFlightRegistry = InFlightRegistry.getInstance();
+		String previousStage = inFlightRegistry.setStage(stage);
+		CSRUser currentUser = CSRUser.getCurrentCSR();
+		BackendCallEvent event = new BackendCallEvent(name, currentUser != null ? currentUser.getLogin() : null,
+				currentUser != null ? currentUser.getMco() : null);
+		event.setOutcome(BackendCallEvent.OUTCOME_REJECTED);
+		event.begin();
+		try {
+			if (RequestDeadline.isExceeded(stage)) {
+				throw new BackendUnavailableException(name, "deadline exceeded");
+			}
+			bulkhead.acquire();
+			try {
+				long permit = circuitBreaker.allowRequest();
+				if (permit == CircuitBreaker.REFUSED) {
+					throw new BackendUnavailableException(name, "circuit open");
+				}
+				calls.incrementAndGet();
+				try {
+					T result = call.call();
+					circuitBreaker.onSuccess(permit);
+					event.setOutcome(BackendCallEvent.OUTCOME_SUCCESS);
+					return result;
+				} catch (Exception e) {
+					if (isCancelled(e)) {
+						// cancelled by the caller, the backend did not fail
+						circuitBreaker.onIgnored(permit);
+					} else {
+						failures.incrementAndGet();
+						circuitBreaker.onFailure(permit);
+					}
+					event.setOutcome(BackendCallEvent.OUTCOME_FAILURE);
+					throw e;
+				} catch (Error e) {
+					failures.incrementAndGet();
+					circuitBreaker.onFailure(permit);
+					event.setOutcome(BackendCallEvent.OUTCOME_FAILURE);
+					throw e;
+				}
+			} finally {
+				bulkhead.release();
+			}
+		} finally {
+			event.commit();
+			if (previousStage != null) {
+				inFlightRegistry.setStage(previousStage);
+			}
+		}
+	}
+
+	/**
+	 * Tells whether a call failed because it was cancelled, as the losing call of a hedge
+	 * @param e exception thrown by the call
+	 * @return <code>true</code> if the call was interrupted
+	 */
+	private static boolean isCancelled(Exception e) {
+		return e instanceof InterruptedException || e instanceof InterruptedIOException || Thread.currentThread().isInterrupted();
+	}
+
+	/**
+	 * @return a snapshot of the state of this guard
+	 **/
+	public BackendGuardStats getStats() {
+		return new BackendGuardStats(name, circuitBreaker.getState().name(), circuitBreaker.getConsecutiveFailures(),
+				circuitBreaker.getOpenings(), circuitBreaker.getShortCircuitedCalls(), bulkhead.getMaxConcurrentCalls(),
+				bulkhead.getActiveCalls(), bulkhead.getWaitingCalls(), bulkhead.getRejectedCalls(), calls.get(), failures.get());
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return backend name
+	 **/
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return concurrency limit
+	 **/
+	public Bulkhead getBulkhead() {
+		return bulkhead;
+	}
+
+	/**
+	 * @return circuit breaker
+	 **/
+	public CircuitBreaker getCircuitBreaker() {
+		return circuitBreaker;
+	}
+}
@@ -0,0 +1,93 @@
+package com.francetelecom.csrtool.gui.ws;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the {@link BackendGuard} of each web service backend, so that all the clients of a
+ * backend share the same bulkhead and circuit.
+ * @class BackendGuardRegistry
+ */
+public final class BackendGuardRegistry {
+
+	/**	default maximum number of concurrent calls per backend **/
+	public static final int DEFAULT_MAX_CONCURRENT_CALLS = 20;
+
+	/**	default maximum number of calls waiting per backend **/
+	public static final int DEFAULT_MAX_WAITING_CALLS = 20;
+
+	/**	default maximum wait time in milliseconds **/
+	public static final long DEFAULT_MAX_WAIT_MILLIS = 500L;
+
+	/**	default number of consecutive failures opening a circuit **/
+	public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+
+	/**	default time in milliseconds a circuit stays open **/
+	public static final long DEFAULT_OPEN_DURATION_MILLIS = 10000L;
+
+	/**	unique instance **/
+	private static final BackendGuardRegistry INSTANCE = new BackendGuardRegistry();
+
+	/**	guards per backend name **/
+	private final ConcurrentMap<String, BackendGuard> guards = new ConcurrentHashMap<String, BackendGuard>();
+
+	/**
+	 * Constructor
+	 */
+	private BackendGuardRegistry() {
+		// singleton
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static BackendGuardRegistry getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Gets the guard of a backend, creating it with the default settings if needed
+	 * @param backend backend name
+	 * @return the guard
+	 */
+	public BackendGuard get(String backend) {
+		BackendGuard guard = guards.get(backend);
+		if (guard == null) {
+			guard = register(backend, DEFAULT_MAX_CONCURRENT_CALLS, DEFAULT_MAX_WAITING_CALLS, DEFAULT_MAX_WAIT_MILLIS,
+					DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION_MILLIS);
+		}
+		return guard;
+	}
+
+	/**
+	 * Registers the guard of a backend with specific settings. If the backend already has a guard
+	 * the existing one is kept and returned.
+	 * @param backend backend name
+	 * @param maxConcurrentCalls maximum number of concurrent calls
+	 * @param maxWaitingCalls maximum number of waiting calls
+	 * @param maxWaitMillis maximum wait time in milliseconds
+	 * @param failureThreshold number of consecutive failures opening the circuit
+	 * @param openDurationMillis time in milliseconds the circuit stays open
+	 * @return the guard of the backend
+	 */
+	public BackendGuard register(String backend, int maxConcurrentCalls, int maxWaitingCalls, long maxWaitMillis,
+			int failureThreshold, long openDurationMillis) {
+		BackendGuard guard = new BackendGuard(backend, new Bulkhead(backend, maxConcurrentCalls, maxWaitingCalls, maxWaitMillis),
+				new CircuitBreaker(failureThreshold, openDurationMillis));
+		BackendGuard existing = guards.putIfAbsent(backend, guard);
+		return existing != null ? existing : guard;
+	}
+
+	/**
+	 * @return a snapshot of the state of all the guards
+	 **/
+	public List<BackendGuardStats> getStats() {
+		List<BackendGuardStats> stats = new ArrayList<BackendGuardStats>();
+		for (BackendGuard guard : guards.values()) {
+			stats.add(guard.getStats());
+		}
+		return stats;
+	}
+}
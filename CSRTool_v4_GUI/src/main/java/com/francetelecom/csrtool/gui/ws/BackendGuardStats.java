@@ -0,0 +1,157 @@
+package com.francetelecom.csrtool.gui.ws;
+
+import java.io.Serializable;
+
+/**
+ * This bean is a snapshot of the state of a {@link BackendGuard}.
+ * @class BackendGuardStats
+ * @Implements Serializable
+ */
+public class BackendGuardStats implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 7410588362730553163L;
+
+	/**	backend name **/
+	private final String name;
+
+	/**	state of the circuit **/
+	private final String circuitState;
+
+	/**	number of consecutive failures **/
+	private final int consecutiveFailures;
+
+	/**	number of times the circuit opened **/
+	private final long circuitOpenings;
+
+	/**	number of calls refused by the circuit **/
+	private final long shortCircuitedCalls;
+
+	/**	maximum number of concurrent calls **/
+	private final int maxConcurrentCalls;
+
+	/**	number of calls in progress **/
+	private final int activeCalls;
+
+	/**	number of calls waiting for the bulkhead **/
+	private final int waitingCalls;
+
+	/**	number of calls rejected by the bulkhead **/
+	private final long rejectedCalls;
+
+	/**	number of calls which reached the backend **/
+	private final long calls;
+
+	/**	number of calls which failed in the backend **/
+	private final long failures;
+
+	/**
+	 * Constructor
+	 * @param name backend name
+	 * @param circuitState state of the circuit
+	 * @param consecutiveFailures number of consecutive failures
+	 * @param circuitOpenings number of times the circuit opened
+	 * @param shortCircuitedCalls number of calls refused by the circuit
+	 * @param maxConcurrentCalls maximum number of concurrent calls
+	 * @param activeCalls number of calls in progress
+	 * @param waitingCalls number of calls waiting for the bulkhead
+	 * @param rejectedCalls number of calls rejected by the bulkhead
+	 * @param calls number of calls which reached the backend
+	 * @param failures number of calls which failed in the backend
+	 */
+	public BackendGuardStats(String name, String circuitState, int consecutiveFailures, long circuitOpenings,
+			long shortCircuitedCalls, int maxConcurrentCalls, int activeCalls, int waitingCalls, long rejectedCalls,
+			long calls, long failures) {
+		this.name = name;
+		this.circuitState = circuitState;
+		this.consecutiveFailures = consecutiveFailures;
+		this.circuitOpenings = circuitOpenings;
+		this.shortCircuitedCalls = shortCircuitedCalls;
+		this.maxConcurrentCalls = maxConcurrentCalls;
+		this.activeCalls = activeCalls;
+		this.waitingCalls = waitingCalls;
+		this.rejectedCalls = rejectedCalls;
+		this.calls = calls;
+		this.failures = failures;
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return backend name
+	 **/
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return state of the circuit
+	 **/
+	public String getCircuitState() {
+		return circuitState;
+	}
+
+	/**
+	 * @return number of consecutive failures
+	 **/
+	public int getConsecutiveFailures() {
+		return consecutiveFailures;
+	}
+
+	/**
+	 * @return number of times the circuit opened
+	 **/
+	public long getCircuitOpenings() {
+		return circuitOpenings;
+	}
+
+	/**
+	 * @return number of calls refused by the circuit
+	 **/
+	public long getShortCircuitedCalls() {
+		return shortCircuitedCalls;
+	}
+
+	/**
+	 * @return maximum number of concurrent calls
+	 **/
+	public int getMaxConcurrentCalls() {
+		return maxConcurrentCalls;
+	}
+
+	/**
+	 * @return number of calls in progress
+	 **/
+	public int getActiveCalls() {
+		return activeCalls;
+	}
+
+	/**
+	 * @return number of calls waiting for the bulkhead
+	 **/
+	public int getWaitingCalls() {
+		return waitingCalls;
+	}
+
+	/**
+	 * @return number of calls rejected by the bulkhead
+	 **/
+	public long getRejectedCalls() {
+		return rejectedCalls;
+	}
+
+	/**
+	 * @return number of calls which reached the backend
+	 **/
+	public long getCalls() {
+		return calls;
+	}
+
+	/**
+	 * @return number of calls which failed in the backend
+	 **/
+	public long getFailures() {
+		return failures;
+	}
+}
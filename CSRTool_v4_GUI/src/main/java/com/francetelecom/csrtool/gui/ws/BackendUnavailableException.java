@@ -0,0 +1,33 @@
+package com.francetelecom.csrtool.gui.ws;
+
+/**
+ * An exception thrown when a backend call is refused without reaching the backend, because its
+ * circuit is open or its bulkhead is full.
+ * @class BackendUnavailableException
+ * @extends Exception
+ */
+public class BackendUnavailableException extends Exception {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = -3468025713392084419L;
+
+	/**	backend name **/
+	private final String backend;
+
+	/**
+	 * Constructor
+	 * @param backend backend name
+	 * @param reason why the call was refused
+	 */
+	public BackendUnavailableException(String backend, String reason) {
+		super("backend [" + backend + "] unavailable: " + reason);
+		this.backend = backend;
+	}
+
+	/**
+	 * @return backend name
+	 **/
+	public String getBackend() {
+		return backend;
+	}
+}
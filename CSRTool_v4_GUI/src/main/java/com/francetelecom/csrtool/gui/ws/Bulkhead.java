@@ -0,0 +1,121 @@
+package com.francetelecom.csrtool.gui.ws;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.francetelecom.csrtool.gui.deadline.RequestDeadline;
+
+/**
+ * Limits the number of concurrent calls to a backend.<br>
+ * Calls over the limit wait in a bounded queue for at most a given time; when the queue is full
+ * or the wait times out the call is rejected, so that a slow backend never holds more than a
+ * bounded number of container threads. The wait never outlasts the {@link RequestDeadline} of the
+ * request.
+ * @class Bulkhead
+ */
+public class Bulkhead {
+
+	/**	backend name **/
+	private final String name;
+
+	/**	maximum number of concurrent calls **/
+	private final int maxConcurrentCalls;
+
+	/**	maximum number of waiting calls **/
+	private final int maxWaitingCalls;
+
+	/**	maximum wait time in milliseconds **/
+	private final long maxWaitMillis;
+
+	/**	permits of the concurrent calls **/
+	private final Semaphore permits;
+
+	/**	number of waiting calls **/
+	private final AtomicInteger waiting = new AtomicInteger();
+
+	/**	number of rejected calls **/
+	private final AtomicLong rejected = new AtomicLong();
+
+	/**
+	 * Constructor
+	 * @param name backend name
+	 * @param maxConcurrentCalls maximum number of concurrent calls
+	 * @param maxWaitingCalls maximum number of waiting calls
+	 * @param maxWaitMillis maximum wait time in milliseconds
+	 */
+	public Bulkhead(String name, int maxConcurrentCalls, int maxWaitingCalls, long maxWaitMillis) {
+		this.name = name;
+		this.maxConcurrentCalls = maxConcurrentCalls;
+		this.maxWaitingCalls = maxWaitingCalls;
+		this.maxWaitMillis = maxWaitMillis;
+		this.permits = new Semaphore(maxConcurrentCalls, true);
+	}
+
+	/**
+	 * Acquires a permit, waiting if needed. Each successful call must be followed by a call to
+	 * {@link #release()}.
+	 * @throws BackendUnavailableException if the queue is full or the wait timed out
+	 */
+	public void acquire() throws BackendUnavailableException {
+		if (permits.tryAcquire()) {
+			return;
+		}
+		if (waiting.incrementAndGet() > maxWaitingCalls) {
+			waiting.decrementAndGet();
+			rejected.incrementAndGet();
+			throw new BackendUnavailableException(name, "bulkhead full");
+		}
+		try {
+			if (!permits.tryAcquire(RequestDeadline.bound(maxWaitMillis), TimeUnit.MILLISECONDS)) {
+				rejected.incrementAndGet();
+				throw new BackendUnavailableException(name, "bulkhead wait timed out");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			rejected.incrementAndGet();
+			throw new BackendUnavailableException(name, "interrupted while waiting for the bulkhead");
+		} finally {
+			waiting.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Releases a permit
+	 */
+	public void release() {
+		permits.release();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return maximum number of concurrent calls
+	 **/
+	public int getMaxConcurrentCalls() {
+		return maxConcurrentCalls;
+	}
+
+	/**
+	 * @return number of calls in progress
+	 **/
+	public int getActiveCalls() {
+		return maxConcurrentCalls - permits.availablePermits();
+	}
+
+	/**
+	 * @return number of waiting calls
+	 **/
+	public int getWaitingCalls() {
+		return waiting.get();
+	}
+
+	/**
+	 * @return number of rejected calls
+	 **/
+	public long getRejectedCalls() {
+		return rejected.get();
+	}
+}
@@ -0,0 +1,195 @@
+package com.francetelecom.csrtool.gui.ws;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fails fast the calls to an unhealthy backend.<br>
+ * The circuit opens after a number of consecutive failures. While open, calls are refused
+ * immediately. Once the open duration has elapsed a single trial call is let through
+ * (half-open): its success closes the circuit, its failure opens it again. Each call allowed
+ * holds a permit naming the state it was allowed in, so that a late outcome of a call allowed
+ * earlier never moves the circuit.
+ * @class CircuitBreaker
+ */
+public class CircuitBreaker {
+
+	/**
+	 * The states of the circuit.
+	 */
+	public enum State {
+		/** calls go through **/
+		CLOSED,
+		/** calls are refused **/
+		OPEN,
+		/** a single trial call is in progress **/
+		HALF_OPEN
+	}
+
+	/**	permit of a call refused **/
+	public static final long REFUSED = -1L;
+
+	/**	number of consecutive failures opening the circuit **/
+	private final int failureThreshold;
+
+	/**	time in milliseconds the circuit stays open before a trial call **/
+	private final long openDurationMillis;
+
+	/**	current state, with its generation **/
+	private final AtomicReference<Circuit> circuit = new AtomicReference<Circuit>(new Circuit(State.CLOSED, 0L, 0L));
+
+	/**	number of consecutive failures **/
+	private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+	/**	number of calls refused while the circuit was not closed **/
+	private final AtomicLong shortCircuited = new AtomicLong();
+
+	/**	number of times the circuit opened **/
+	private final AtomicLong openings = new AtomicLong();
+
+	/**
+	 * Constructor
+	 * @param failureThreshold number of consecutive failures opening the circuit
+	 * @param openDurationMillis time in milliseconds the circuit stays open before a trial call
+	 */
+	public CircuitBreaker(int failureThreshold, long openDurationMillis) {
+		this.failureThreshold = failureThreshold;
+		this.openDurationMillis = openDurationMillis;
+	}
+
+	/**
+	 * Tells whether a call may go through. A call allowed must report its outcome with
+	 * {@link #onSuccess(long)}, {@link #onFailure(long)} or {@link #onIgnored(long)}, given the
+	 * permit returned here.
+	 * @return the permit of the call, {@link #REFUSED} if the call may not go through
+	 */
+	public long allowRequest() {
+		Circuit current = circuit.get();
+		if (current.state == State.CLOSED) {
+			return current.generation;
+		}
+		if (current.state == State.OPEN && System.currentTimeMillis() - current.openedAt >= openDurationMillis) {
+			Circuit trial = new Circuit(State.HALF_OPEN, current.generation + 1, current.openedAt);
+			if (circuit.compareAndSet(current, trial)) {
+				return trial.generation;
+			}
+		}
+		shortCircuited.incrementAndGet();
+		return REFUSED;
+	}
+
+	/**
+	 * Reports a successful call. Only the trial call closes a half-open circuit; the outcome of a
+	 * call allowed before the circuit last changed state is ignored.
+	 * @param permit permit of the call
+	 */
+	public void onSuccess(long permit) {
+		Circuit current = circuit.get();
+		if (current.generation != permit) {
+			return;
+		}
+		if (current.state == State.CLOSED
+				|| circuit.compareAndSet(current, new Circuit(State.CLOSED, current.generation + 1, 0L))) {
+			consecutiveFailures.set(0);
+		}
+	}
+
+	/**
+	 * Reports a failed call. Only the trial call opens a half-open circuit again; the outcome of a
+	 * call allowed before the circuit last changed state is ignored.
+	 * @param permit permit of the call
+	 */
+	public void onFailure(long permit) {
+		Circuit current = circuit.get();
+		if (current.generation != permit) {
+			return;
+		}
+		if (current.state == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+			open(current);
+		}
+	}
+
+	/**
+	 * Reports a call that was allowed but gave no outcome of the backend, such as a call cancelled,
+	 * so that a trial call does not leave the circuit half-open forever: the circuit is opened again
+	 * for a whole open duration.
+	 * @param permit permit of the call
+	 */
+	public void onIgnored(long permit) {
+		Circuit current = circuit.get();
+		if (current.generation == permit && current.state == State.HALF_OPEN) {
+			circuit.compareAndSet(current, new Circuit(State.OPEN, current.generation + 1, System.currentTimeMillis()));
+		}
+	}
+
+	/**
+	 * Opens the circuit
+	 * @param expected circuit expected
+	 */
+	private void open(Circuit expected) {
+		if (circuit.compareAndSet(expected, new Circuit(State.OPEN, expected.generation + 1, System.currentTimeMillis()))) {
+			consecutiveFailures.set(0);
+			openings.incrementAndGet();
+		}
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return current state
+	 **/
+	public State getState() {
+		return circuit.get().state;
+	}
+
+	/**
+	 * @return number of consecutive failures
+	 **/
+	public int getConsecutiveFailures() {
+		return consecutiveFailures.get();
+	}
+
+	/**
+	 * @return number of calls refused while the circuit was not closed
+	 **/
+	public long getShortCircuitedCalls() {
+		return shortCircuited.get();
+	}
+
+	/**
+	 * @return number of times the circuit opened
+	 **/
+	public long getOpenings() {
+		return openings.get();
+	}
+
+	/**
+	 * A state of the circuit. Each change of state makes a new generation, so that the outcome of a
+	 * call is only applied to the state the call was allowed in.
+	 */
+	private static final class Circuit {
+
+		/**	state **/
+		final State state;
+
+		/**	generation of the state **/
+		final long generation;
+
+		/**	time the circuit opened **/
+		final long openedAt;
+
+		/**
+		 * Constructor
+		 * @param state state
+		 * @param generation generation of the state
+		 * @param openedAt time the circuit opened
+		 */
+		Circuit(State state, long generation, long openedAt) {
+			this.state = state;
+			this.generation = generation;
+			this.openedAt = openedAt;
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.francetelecom.csrtool.gui.ws;
+
+/**
+ * The budget of the hedged calls shared by all the backends: each call earns a fraction of a
+ * hedge, each hedge spends a whole one, so that the hedges never add more than this fraction of
+ * the load. A few hedges may be saved for a burst of slow calls.
+ * @class HedgeBudget
+ */
+final class HedgeBudget {
+
+	/**	maximum number of hedges saved **/
+	private static final double MAX_SAVED = 10d;
+
+	/**	fraction of a hedge earned per call **/
+	private volatile double ratio;
+
+	/**	hedges available, guarded by the budget **/
+	private double available;
+
+	/**
+	 * Constructor
+	 * @param ratio fraction of a hedge earned per call
+	 */
+	HedgeBudget(double ratio) {
+		this.ratio = ratio;
+	}
+
+	/**
+	 * Earns the share of a call
+	 */
+	synchronized void deposit() {
+		available = Math.min(MAX_SAVED, available + ratio);
+	}
+
+	/**
+	 * Spends a hedge if available
+	 * @return <code>true</code> if the hedge may be sent
+	 */
+	synchronized boolean withdraw() {
+		if (available < 1d) {
+			return false;
+		}
+		available -= 1d;
+		return true;
+	}
+
+	/**
+	 * @param ratio fraction of a hedge earned per call
+	 **/
+	void setRatio(double ratio) {
+		this.ratio = ratio;
+	}
+}
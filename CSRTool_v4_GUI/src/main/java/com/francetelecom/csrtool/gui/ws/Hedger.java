@@ -0,0 +1,242 @@
+package com.francetelecom.csrtool.gui.ws;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.francetelecom.csrtool.gui.concurrent.ContextAwareExecutorService;
+import com.francetelecom.csrtool.gui.concurrent.DaemonThreadFactory;
+import com.francetelecom.csrtool.gui.deadline.DeadlineRegistry;
+import com.francetelecom.csrtool.gui.deadline.RequestDeadline;
+
+/**
+ * Hedges the read-only calls to one web service backend: when a call is not answered within a
+ * percentile of the recent latencies of the backend, an identical call is sent, to another
+ * instance, and the first answer wins; the other call is cancelled.<br>
+ * The hedges are limited by the {@link HedgeBudget} shared by all the backends. Until enough
+ * latencies are known, or when no thread is free, the calls are made without hedge.
+ * @class Hedger
+ */
+public class Hedger {
+
+	/**	maximum number of threads making the calls of a backend **/
+	private static final int MAX_THREADS = 64;
+
+	/**	backend name **/
+	private final String name;
+
+	/**	stage of the requests waiting for the backend, for the deadlines **/
+	private final String stage;
+
+	/**	shared budget of the hedges **/
+	private final HedgeBudget budget;
+
+	/**	minimum delay before a hedge, in milliseconds **/
+	private final long minDelayMillis;
+
+	/**	latencies of the last calls **/
+	private final LatencyWindow latencies;
+
+	/**	executor of the calls, run with the context of the request **/
+	private final ExecutorService executor;
+
+	/**	number of calls **/
+	private final AtomicLong calls = new AtomicLong();
+
+	/**	number of hedges sent **/
+	private final AtomicLong hedges = new AtomicLong();
+
+	/**	number of calls answered by their hedge **/
+	private final AtomicLong wins = new AtomicLong();
+
+	/**	number of hedges not sent for lack of budget **/
+	private final AtomicLong denied = new AtomicLong();
+
+	/**
+	 * Constructor
+	 * @param name backend name
+	 * @param budget shared budget of the hedges
+	 * @param percentile percentile of the latencies after which a call is hedged, between 0 and 1
+	 * @param minDelayMillis minimum delay before a hedge, in milliseconds
+	 */
+	Hedger(String name, HedgeBudget budget, double percentile, long minDelayMillis) {
+		this.name = name;
+		this.stage = "hedge " + name;
+		this.budget = budget;
+		this.minDelayMillis = minDelayMillis;
+		this.latencies = new LatencyWindow(percentile);
+		this.executor = new ContextAwareExecutorService(new ThreadPoolExecutor(0, MAX_THREADS, 60L, TimeUnit.SECONDS,
+				new SynchronousQueue<Runnable>(), new DaemonThreadFactory("Hedge-" + name)));
+	}
+
+	/**
+	 * Executes a read-only call, hedged if it is slow
+	 * @param call the call
+	 * @param hedge the identical call to another instance
+	 * @param <T> type of the result
+	 * @return the first result
+	 * @throws BackendUnavailableException if the deadline of the request is exceeded meanwhile
+	 * @throws Exception the exception thrown by the call, when its hedge did not succeed either
+	 */
+	public <T> T execute(IBackendCall<T> call, IBackendCall<T> hedge) throws Exception {
+		calls.incrementAndGet();
+		budget.deposit();
+		long delayMillis = latencies.getPercentileMillis();
+		if (delayMillis < 0L) {
+			return timed(call).call();
+		}
+		CompletionService<T> completionService = new ExecutorCompletionService<T>(executor);
+		Future<T> callFuture;
+		try {
+			callFuture = completionService.submit(timed(call));
+		} catch (RejectedExecutionException e) {
+			return timed(call).call();
+		}
+		Future<T> hedgeFuture = null;
+		try {
+			Future<T> done = completionService.poll(RequestDeadline.bound(Math.max(delayMillis, minDelayMillis)), TimeUnit.MILLISECONDS);
+			if (done == null) {
+				hedgeFuture = sendHedge(completionService, hedge);
+				done = next(completionService);
+			}
+			try {
+				return winner(done, hedgeFuture);
+			} catch (ExecutionException e) {
+				if (hedgeFuture == null) {
+					throw unwrap(e);
+				}
+				// the other call may still succeed
+				try {
+					return winner(next(completionService), hedgeFuture);
+				} catch (ExecutionException other) {
+					throw unwrap(e);
+				}
+			}
+		} finally {
+			callFuture.cancel(true);
+			if (hedgeFuture != null) {
+				hedgeFuture.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Sends the hedge of a slow call if the budget allows it
+	 * @param completionService completion service of the call
+	 * @param hedge the hedge
+	 * @param <T> type of the result
+	 * @return the future of the hedge, <code>null</code> if not sent
+	 */
+	private <T> Future<T> sendHedge(CompletionService<T> completionService, IBackendCall<T> hedge) {
+		if (!budget.withdraw()) {
+			denied.incrementAndGet();
+			return null;
+		}
+		try {
+			Future<T> hedgeFuture = completionService.submit(timed(hedge));
+			hedges.incrementAndGet();
+			return hedgeFuture;
+		} catch (RejectedExecutionException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Waits for the next call to complete, within the deadline of the request
+	 * @param completionService completion service of the calls
+	 * @param <T> type of the result
+	 * @return the future of the call completed
+	 * @throws InterruptedException if interrupted while waiting
+	 * @throws BackendUnavailableException if the deadline of the request is exceeded
+	 */
+	private <T> Future<T> next(CompletionService<T> completionService) throws InterruptedException, BackendUnavailableException {
+		if (RequestDeadline.current() == null) {
+			return completionService.take();
+		}
+		Future<T> done = completionService.poll(RequestDeadline.bound(Long.MAX_VALUE), TimeUnit.MILLISECONDS);
+		if (done == null) {
+			DeadlineRegistry.getInstance().exceeded(stage);
+			throw new BackendUnavailableException(name, "deadline exceeded");
+		}
+		return done;
+	}
+
+	/**
+	 * @param done a call completed
+	 * @param hedgeFuture the hedge, <code>null</code> if not sent
+	 * @param <T> type of the result
+	 * @return the result of the call, counted as a win if it is the hedge
+	 * @throws ExecutionException if the call failed
+	 * @throws InterruptedException never, the call is completed
+	 **/
+	private <T> T winner(Future<T> done, Future<T> hedgeFuture) throws ExecutionException, InterruptedException {
+		T result = done.get();
+		if (done == hedgeFuture) {
+			wins.incrementAndGet();
+		}
+		return result;
+	}
+
+	/**
+	 * Wraps a call so that its latency is recorded whatever its outcome, unless it did not reach
+	 * the backend. A call failed, or cancelled because the other call answered first, is recorded
+	 * with the time it took until then, so that the slow calls still weigh in the percentile.
+	 * @param call the call
+	 * @param <T> type of the result
+	 * @return the wrapped call
+	 */
+	private <T> Callable<T> timed(final IBackendCall<T> call) {
+		return new Callable<T>() {
+			public T call() throws Exception {
+				long start = System.nanoTime();
+				boolean reached = true;
+				try {
+					return call.call();
+				} catch (BackendUnavailableException e) {
+					// refused by the guard of the backend
+					reached = false;
+					throw e;
+				} finally {
+					if (reached) {
+						latencies.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+					}
+				}
+			}
+		};
+	}
+
+	/**
+	 * @param e the exception of a call
+	 * @return the exception thrown by the call
+	 * @throws Error if the call threw an error
+	 **/
+	private static Exception unwrap(ExecutionException e) {
+		Throwable cause = e.getCause();
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		return cause instanceof Exception ? (Exception) cause : e;
+	}
+
+	/**
+	 * @return a snapshot of the statistics of this hedger
+	 **/
+	public HedgerStats getStats() {
+		return new HedgerStats(name, latencies.getPercentileMillis(), calls.get(), hedges.get(), wins.get(), denied.get());
+	}
+
+	/**
+	 * @return backend name
+	 **/
+	public String getName() {
+		return name;
+	}
+}
@@ -0,0 +1,98 @@
+package com.francetelecom.csrtool.gui.ws;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the {@link Hedger} of each web service backend. All the hedgers share one
+ * {@link HedgeBudget}, so that the hedges of all the backends together stay within the
+ * configured fraction of the calls.
+ * @class HedgerRegistry
+ */
+public final class HedgerRegistry {
+
+	/**	default percentile of the latencies after which a call is hedged **/
+	public static final double DEFAULT_PERCENTILE = 0.95d;
+
+	/**	default budget of the hedges, in percent of the calls **/
+	public static final double DEFAULT_BUDGET_PERCENT = 5d;
+
+	/**	default minimum delay before a hedge, in milliseconds **/
+	public static final long DEFAULT_MIN_DELAY_MILLIS = 50L;
+
+	/**	unique instance **/
+	private static final HedgerRegistry INSTANCE = new HedgerRegistry();
+
+	/**	hedgers per backend name **/
+	private final ConcurrentMap<String, Hedger> hedgers = new ConcurrentHashMap<String, Hedger>();
+
+	/**	budget shared by all the hedgers **/
+	private final HedgeBudget budget = new HedgeBudget(DEFAULT_BUDGET_PERCENT / 100d);
+
+	/**	percentile of the latencies after which a call is hedged **/
+	private volatile double percentile = DEFAULT_PERCENTILE;
+
+	/**	minimum delay before a hedge, in milliseconds **/
+	private volatile long minDelayMillis = DEFAULT_MIN_DELAY_MILLIS;
+
+	/**
+	 * Constructor
+	 */
+	private HedgerRegistry() {
+		// singleton
+	}
+
+	/**
+	 * @return the unique instance
+	 **/
+	public static HedgerRegistry getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Configures the hedging. The percentile and the delay apply to the hedgers created afterwards,
+	 * the budget to all of them.
+	 * @param percentile percentile of the latencies after which a call is hedged, between 0 and 1
+	 * @param budgetPercent budget of the hedges, in percent of the calls
+	 * @param minDelayMillis minimum delay before a hedge, in milliseconds
+	 */
+	public void configure(double percentile, double budgetPercent, long minDelayMillis) {
+		if (percentile <= 0d || percentile >= 1d || budgetPercent < 0d || minDelayMillis < 0L) {
+			throw new IllegalArgumentException(String.format("invalid hedging settings: percentile %s, budget %s%%, min delay %s ms",
+					percentile, budgetPercent, minDelayMillis));
+		}
+		this.percentile = percentile;
+		this.minDelayMillis = minDelayMillis;
+		budget.setRatio(budgetPercent / 100d);
+	}
+
+	/**
+	 * Gets the hedger of a backend, creating it if needed
+	 * @param backend backend name
+	 * @return the hedger
+	 */
+	public Hedger get(String backend) {
+		Hedger hedger = hedgers.get(backend);
+		if (hedger == null) {
+			Hedger created = new Hedger(backend, budget, percentile, minDelayMillis);
+			hedger = hedgers.putIfAbsent(backend, created);
+			if (hedger == null) {
+				hedger = created;
+			}
+		}
+		return hedger;
+	}
+
+	/**
+	 * @return a snapshot of the statistics of all the hedgers
+	 **/
+	public List<HedgerStats> getStats() {
+		List<HedgerStats> stats = new ArrayList<HedgerStats>();
+		for (Hedger hedger : hedgers.values()) {
+			stats.add(hedger.getStats());
+		}
+		return stats;
+	}
+}
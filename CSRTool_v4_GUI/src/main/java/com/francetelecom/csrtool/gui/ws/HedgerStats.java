@@ -0,0 +1,112 @@
+package com.francetelecom.csrtool.gui.ws;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * This bean is a snapshot of the statistics of a {@link Hedger}.
+ * @class HedgerStats
+ * @Implements Serializable
+ */
+public class HedgerStats implements Serializable {
+
+	/**	serialVersionUID **/
+	private static final long serialVersionUID = 3826150947712048391L;
+
+	/**	backend name **/
+	private final String name;
+
+	/**	delay before a hedge in milliseconds, -1 until enough calls were made **/
+	private final long hedgeDelayMillis;
+
+	/**	number of calls **/
+	private final long calls;
+
+	/**	number of hedges sent **/
+	private final long hedges;
+
+	/**	number of calls answered by their hedge **/
+	private final long wins;
+
+	/**	number of hedges not sent for lack of budget **/
+	private final long denied;
+
+	/**
+	 * Constructor
+	 * @param name backend name
+	 * @param hedgeDelayMillis delay before a hedge in milliseconds, -1 until enough calls were made
+	 * @param calls number of calls
+	 * @param hedges number of hedges sent
+	 * @param wins number of calls answered by their hedge
+	 * @param denied number of hedges not sent for lack of budget
+	 */
+	public HedgerStats(String name, long hedgeDelayMillis, long calls, long hedges, long wins, long denied) {
+		this.name = name;
+		this.hedgeDelayMillis = hedgeDelayMillis;
+		this.calls = calls;
+		this.hedges = hedges;
+		this.wins = wins;
+		this.denied = denied;
+	}
+
+	/**
+	 * @return details of the statistics
+	 **/
+	@Override
+	public String toString() {
+		ToStringBuilder toStringBuilder = new ToStringBuilder(this);
+		toStringBuilder.append("name", name);
+		toStringBuilder.append("hedgeDelayMillis", hedgeDelayMillis);
+		toStringBuilder.append("calls", calls);
+		toStringBuilder.append("hedges", hedges);
+		toStringBuilder.append("wins", wins);
+		toStringBuilder.append("denied", denied);
+		return toStringBuilder.toString();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return backend name
+	 **/
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return delay before a hedge in milliseconds, -1 until enough calls were made
+	 **/
+	public long getHedgeDelayMillis() {
+		return hedgeDelayMillis;
+	}
+
+	/**
+	 * @return number of calls
+	 **/
+	public long getCalls() {
+		return calls;
+	}
+
+	/**
+	 * @return number of hedges sent
+	 **/
+	public long getHedges() {
+		return hedges;
+	}
+
+	/**
+	 * @return number of calls answered by their hedge
+	 **/
+	public long getWins() {
+		return wins;
+	}
+
+	/**
+	 * @return number of hedges not sent for lack of budget
+	 **/
+	public long getDenied() {
+		return denied;
+	}
+}
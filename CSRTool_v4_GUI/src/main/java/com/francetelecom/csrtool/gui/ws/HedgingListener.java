@@ -0,0 +1,64 @@
+package com.francetelecom.csrtool.gui.ws;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.francetelecom.csrtool.model.logging.FuncLogging;
+
+/**
+ * Configures the {@link HedgerRegistry} when the application starts. The backends are hedged
+ * only where their service is wrapped in a hedged service.
+ * @class HedgingListener
+ * @Implements ServletContextListener
+ */
+public class HedgingListener implements ServletContextListener {
+
+	/** Logger **/
+	private static Logger LOGGER = Logger.getLogger(HedgingListener.class);
+
+	/** context parameter holding the percentile of the latencies after which a call is hedged **/
+	private static final String PARAM_PERCENTILE = "ws.hedging.percentile";
+
+	/** context parameter holding the budget of the hedges, in percent of the calls **/
+	private static final String PARAM_BUDGET_PERCENT = "ws.hedging.budgetPercent";
+
+	/** context parameter holding the minimum delay before a hedge, in milliseconds **/
+	private static final String PARAM_MIN_DELAY_MILLIS = "ws.hedging.minDelayMillis";
+
+	/**
+	 * Reads the hedging settings
+	 * @param event servlet context event
+	 */
+	public void contextInitialized(ServletContextEvent event) {
+		ServletContext context = event.getServletContext();
+		try {
+			double percentile = Double.parseDouble(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_PERCENTILE),
+					String.valueOf(HedgerRegistry.DEFAULT_PERCENTILE)).trim());
+			double budgetPercent = Double.parseDouble(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_BUDGET_PERCENT),
+					String.valueOf(HedgerRegistry.DEFAULT_BUDGET_PERCENT)).trim());
+			long minDelayMillis = Long.parseLong(StringUtils.defaultIfBlank(context.getInitParameter(PARAM_MIN_DELAY_MILLIS),
+					String.valueOf(HedgerRegistry.DEFAULT_MIN_DELAY_MILLIS)).trim());
+			HedgerRegistry.getInstance().configure(percentile, budgetPercent, minDelayMillis);
+
+			if (LOGGER.isInfoEnabled()) {
+				LOGGER.info(FuncLogging.getLogFormatedMessage("HedgingListener","contextInitialized",
+						String.valueOf(FuncLogging.REQUEST_STATUS_SUCCESS), null,"hedging after the p" + (percentile * 100d)
+						+ " latency, budget " + budgetPercent + "% of the calls"));
+			}
+		} catch (IllegalArgumentException e) {
+			LOGGER.error(FuncLogging.getLogFormatedMessage("HedgingListener","contextInitialized",
+					FuncLogging.REQUEST_STATUS_FAILED, null,"default hedging settings kept: " + e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * @param event servlet context event
+	 **/
+	public void contextDestroyed(ServletContextEvent event) {
+		// Do nothing
+	}
+}
@@ -0,0 +1,14 @@
+package com.francetelecom.csrtool.gui.ws;
+
+/**
+ * Interface of a call to a web service backend.
+ * @param <T> type of the result
+ **/
+public interface IBackendCall<T> {
+	/**
+	 * Calls the backend
+	 * @return result of the call
+	 * @throws Exception if the call failed
+	 */
+	T call() throws Exception;
+}
@@ -0,0 +1,66 @@
+package com.francetelecom.csrtool.gui.ws;
+
+import java.util.Arrays;
+
+/**
+ * The latencies of the last calls to a backend, with a percentile of them recomputed every
+ * <code>RECOMPUTE_INTERVAL</code> calls rather than on each read.
+ * @class LatencyWindow
+ */
+final class LatencyWindow {
+
+	/**	number of latencies kept **/
+	private static final int SIZE = 1024;
+
+	/**	number of latencies recorded between two computations of the percentile **/
+	private static final int RECOMPUTE_INTERVAL = 64;
+
+	/**	minimum number of latencies before the percentile is known **/
+	private static final int MIN_SAMPLES = 100;
+
+	/**	percentile computed, between 0 and 1 **/
+	private final double percentile;
+
+	/**	last latencies in milliseconds, circular **/
+	private final long[] latencies = new long[SIZE];
+
+	/**	number of latencies recorded, guarded by the window **/
+	private long count;
+
+	/**	percentile of the latencies in milliseconds, -1 until known **/
+	private volatile long percentileMillis = -1L;
+
+	/**
+	 * Constructor
+	 * @param percentile percentile computed, between 0 and 1
+	 */
+	LatencyWindow(double percentile) {
+		this.percentile = percentile;
+	}
+
+	/**
+	 * Records the latency of a call
+	 * @param millis latency in milliseconds
+	 */
+	void record(long millis) {
+		long[] snapshot = null;
+		synchronized (this) {
+			latencies[(int) (count % SIZE)] = millis;
+			count++;
+			if (count >= MIN_SAMPLES && count % RECOMPUTE_INTERVAL == 0) {
+				snapshot = Arrays.copyOf(latencies, (int) Math.min(count, SIZE));
+			}
+		}
+		if (snapshot != null) {
+			Arrays.sort(snapshot);
+			percentileMillis = snapshot[(int) Math.min(snapshot.length - 1, Math.floor(percentile * snapshot.length))];
+		}
+	}
+
+	/**
+	 * @return the percentile of the latencies in milliseconds, -1 until enough calls were recorded
+	 **/
+	long getPercentileMillis() {
+		return percentileMillis;
+	}
+}
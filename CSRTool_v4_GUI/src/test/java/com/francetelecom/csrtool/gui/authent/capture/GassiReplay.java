@@ -0,0 +1,269 @@
+package com.francetelecom.csrtool.gui.authent.capture;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.francetelecom.csrtool.gui.concurrent.DaemonThreadFactory;
+
+/**
+ * Replays a GASSI trace captured by {@link GassiCapture} against a test platform, at the original
+ * speed or faster, so that the requests go again through the GASSI plugin, the authentication
+ * filter and the controllers with the production mix of header shapes, roles, MCOs and sessions.
+ * This tool is not part of the application: it is run from the test classpath by the
+ * <code>gassi-replay</code> profile of the pom, once the tests are compiled:
+ * <pre>mvn -Pgassi-replay test-compile -Dgassi.replay.args="&lt;trace&gt; [&lt;base URL&gt; [&lt;speed&gt; [&lt;threads&gt;]]]"</pre>
+ * <ul>
+ * <li>without base URL the records of the trace are printed,</li>
+ * <li>the base URL is the URL of the application, its context path included,</li>
+ * <li>the speed multiplies the original rate, 1 by default, 0 to send the requests without any wait,</li>
+ * <li>the threads are the maximum number of requests in progress, 50 by default.</li>
+ * </ul>
+ * Each pseudonym is replayed as a user <code>replay-&lt;pseudonym&gt;</code>, created on its first
+ * login like any new user; the roles named in the trace must exist on the test platform. Each
+ * session of the trace is replayed as the session the platform creates for its first request.
+ * Only the paths are captured, so the requests are replayed without their parameters.
+ * @class GassiReplay
+ */
+public final class GassiReplay {
+
+	/**	default maximum number of requests in progress **/
+	private static final int DEFAULT_THREADS = 50;
+
+	/**	timeout of the connections and of the responses, in milliseconds **/
+	private static final int TIMEOUT_MILLIS = 60000;
+
+	/**	number of requests between two progress reports **/
+	private static final int PROGRESS_INTERVAL = 10000;
+
+	/**	prefix of the logins of the replayed users **/
+	private static final String LOGIN_PREFIX = "replay-";
+
+	/**	base URL of the application **/
+	private final String baseUrl;
+
+	/**	session cookie of each session pseudonym **/
+	private final ConcurrentMap<Long, String> sessionCookies = new ConcurrentHashMap<Long, String>();
+
+	/**	number of requests answered per class of status, 1xx to 5xx **/
+	private final AtomicLong[] statuses = new AtomicLong[6];
+
+	/**	number of requests which failed without response **/
+	private final AtomicLong ioFailures = new AtomicLong();
+
+	/**	total duration of the requests, in milliseconds **/
+	private final AtomicLong totalMillis = new AtomicLong();
+
+	/**	longest duration of a request, in milliseconds **/
+	private final AtomicLong maxMillis = new AtomicLong();
+
+	/**	longest delay of a request behind its schedule, in milliseconds **/
+	private final AtomicLong maxLagMillis = new AtomicLong();
+
+	/**
+	 * Constructor
+	 * @param baseUrl base URL of the application
+	 */
+	private GassiReplay(String baseUrl) {
+		this.baseUrl = StringUtils.removeEnd(baseUrl, "/");
+		for (int i = 0; i < statuses.length; i++) {
+			statuses[i] = new AtomicLong();
+		}
+	}
+
+	/**
+	 * Replays or prints a trace
+	 * @param args trace file, then base URL, speed and threads
+	 * @throws Exception if the trace could not be read
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1 || args.length > 4) {
+			System.err.println("usage: GassiReplay <trace> [<base URL> [<speed> [<threads>]]]");
+			System.exit(2);
+		}
+		File trace = new File(args[0]);
+		if (args.length == 1) {
+			print(trace);
+			return;
+		}
+		double speed = args.length > 2 ? Double.parseDouble(args[2]) : 1d;
+		int threads = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_THREADS;
+		new GassiReplay(args[1]).replay(trace, speed, threads);
+	}
+
+	/**
+	 * Prints the records of a trace
+	 * @param trace trace file
+	 * @throws IOException if the trace could not be read
+	 */
+	private static void print(File trace) throws IOException {
+		GassiTraceReader reader = new GassiTraceReader(trace);
+		try {
+			for (GassiTraceRecord record = reader.read(); record != null; record = reader.read()) {
+				System.out.println(record);
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Replays a trace
+	 * @param trace trace file
+	 * @param speed factor of the original rate, 0 to send the requests without any wait
+	 * @param threads maximum number of requests in progress
+	 * @throws IOException if the trace could not be read
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private void replay(File trace, double speed, int threads) throws IOException, InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory("GassiReplay"));
+		GassiTraceReader reader = new GassiTraceReader(trace);
+		long replayStart = System.currentTimeMillis();
+		long count = 0L;
+		try {
+			for (GassiTraceRecord record = reader.read(); record != null; record = reader.read()) {
+				final long dueMillis = speed > 0d ? replayStart + (long) (record.getStartOffsetMillis() / speed) : System.currentTimeMillis();
+				long waitMillis = dueMillis - System.currentTimeMillis();
+				if (waitMillis > 0L) {
+					Thread.sleep(waitMillis);
+				}
+				final GassiTraceRecord replayed = record;
+				executor.execute(new Runnable() {
+					public void run() {
+						updateMax(maxLagMillis, System.currentTimeMillis() - dueMillis);
+						send(replayed);
+					}
+				});
+				if (++count % PROGRESS_INTERVAL == 0) {
+					report(count);
+				}
+			}
+		} finally {
+			reader.close();
+			executor.shutdown();
+		}
+		executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		report(count);
+	}
+
+	/**
+	 * Sends a request of the trace
+	 * @param record the record of the request
+	 */
+	private void send(GassiTraceRecord record) {
+		long start = System.currentTimeMillis();
+		try {
+			HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + record.getPath()).openConnection();
+			connection.setInstanceFollowRedirects(false);
+			connection.setConnectTimeout(TIMEOUT_MILLIS);
+			connection.setReadTimeout(TIMEOUT_MILLIS);
+			connection.setRequestMethod(record.getMethod());
+			if (record.getUserPseudonym() != 0L) {
+				String pseudonym = Long.toHexString(record.getUserPseudonym());
+				connection.setRequestProperty(GassiCapture.HEADER_UNIVERSAL_ID, LOGIN_PREFIX + pseudonym);
+				connection.setRequestProperty("ftusergivenname", "Replay");
+				connection.setRequestProperty("ftusersn", pseudonym);
+			}
+			if (record.getCredentials() != null) {
+				connection.setRequestProperty(GassiCapture.HEADER_CREDENTIALS, record.getCredentials());
+			}
+			if (record.getApplicationRoles() != null) {
+				connection.setRequestProperty(GassiCapture.HEADER_APPLICATION_ROLES, record.getApplicationRoles());
+			}
+			Long session = Long.valueOf(record.getSessionPseudonym());
+			String cookie = record.isNewSession() ? null : sessionCookies.get(session);
+			if (cookie != null) {
+				connection.setRequestProperty("Cookie", cookie);
+			}
+			if ("POST".equals(record.getMethod()) || "PUT".equals(record.getMethod())) {
+				connection.setDoOutput(true);
+				connection.setFixedLengthStreamingMode(0);
+			}
+			int status = connection.getResponseCode();
+			String sessionCookie = getSessionCookie(connection);
+			if (sessionCookie != null && record.getSessionPseudonym() != 0L) {
+				sessionCookies.put(session, sessionCookie);
+			}
+			drain(status < 400 ? connection.getInputStream() : connection.getErrorStream());
+			statuses[Math.min(Math.max(status / 100, 0), statuses.length - 1)].incrementAndGet();
+		} catch (IOException e) {
+			ioFailures.incrementAndGet();
+		}
+		long millis = System.currentTimeMillis() - start;
+		totalMillis.addAndGet(millis);
+		updateMax(maxMillis, millis);
+	}
+
+	/**
+	 * @param connection a connection answered
+	 * @return the session cookie set by the response, as <code>name=value</code>, <code>null</code> if none
+	 **/
+	private static String getSessionCookie(HttpURLConnection connection) {
+		// the header names are compared ignoring their case, as some servers send "Set-cookie"
+		for (int i = 1; connection.getHeaderFieldKey(i) != null; i++) {
+			if (!"Set-Cookie".equalsIgnoreCase(connection.getHeaderFieldKey(i))) {
+				continue;
+			}
+			String cookie = StringUtils.substringBefore(connection.getHeaderField(i), ";").trim();
+			if (StringUtils.endsWithIgnoreCase(StringUtils.substringBefore(cookie, "="), "SESSIONID")) {
+				return cookie;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Reads a response to its end, so that its connection may be kept alive
+	 * @param in the response, may be <code>null</code>
+	 * @throws IOException if the response could not be read
+	 */
+	private static void drain(InputStream in) throws IOException {
+		if (in == null) {
+			return;
+		}
+		try {
+			byte[] buffer = new byte[8192];
+			while (in.read(buffer) >= 0) {
+				// discarded
+			}
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * @param max a maximum
+	 * @param value a value, which becomes the maximum if greater
+	 **/
+	private static void updateMax(AtomicLong max, long value) {
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value)) {
+			current = max.get();
+		}
+	}
+
+	/**
+	 * Prints the progress of the replay
+	 * @param count number of requests scheduled
+	 */
+	private void report(long count) {
+		long answered = ioFailures.get();
+		StringBuilder builder = new StringBuilder();
+		for (int i = 1; i < statuses.length; i++) {
+			answered += statuses[i].get();
+			builder.append(' ').append(i).append("xx=").append(statuses[i].get());
+		}
+		System.out.println(String.format("scheduled=%d done=%d%s io=%d meanMillis=%d maxMillis=%d maxLagMillis=%d", count, answered,
+				builder, ioFailures.get(), answered > 0L ? totalMillis.get() / answered : 0L, maxMillis.get(), maxLagMillis.get()));
+	}
+}
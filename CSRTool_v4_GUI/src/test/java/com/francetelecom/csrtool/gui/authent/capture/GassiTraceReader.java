@@ -0,0 +1,125 @@
+package com.francetelecom.csrtool.gui.authent.capture;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the records of a GASSI trace written by a {@link GassiTraceWriter}. A reader is not
+ * thread safe.
+ * @class GassiTraceReader
+ * @Implements Closeable
+ */
+public class GassiTraceReader implements Closeable {
+
+	/**	source of the trace **/
+	private final DataInputStream in;
+
+	/**	start time of the capture **/
+	private final long captureStartMillis;
+
+	/**	strings of the trace, by index **/
+	private final List<String> dictionary = new ArrayList<String>();
+
+	/**	arrival of the last record read, in milliseconds since the start of the capture **/
+	private long lastStartOffsetMillis;
+
+	/**
+	 * Constructor, reads the header of the trace
+	 * @param file trace file
+	 * @throws IOException if the file could not be read or is not a trace
+	 */
+	public GassiTraceReader(File file) throws IOException {
+		in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 65536));
+		try {
+			if (in.readInt() != GassiTraceFormat.MAGIC) {
+				throw new IOException(String.format("not a GASSI trace: %s", file));
+			}
+			int version = in.readUnsignedByte();
+			if (version != GassiTraceFormat.VERSION) {
+				throw new IOException(String.format("unsupported GASSI trace version %d: %s", version, file));
+			}
+			captureStartMillis = in.readLong();
+		} catch (IOException e) {
+			in.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads the next record
+	 * @return the record, <code>null</code> at the end of the trace
+	 * @throws IOException if the record could not be read
+	 */
+	public GassiTraceRecord read() throws IOException {
+		long startDelta;
+		try {
+			startDelta = GassiTraceFormat.unZigZag(GassiTraceFormat.readVarLong(in));
+		} catch (EOFException e) {
+			// a capture stopped abruptly may end with a partial record, the trace ends before it
+			return null;
+		}
+		try {
+			long startOffsetMillis = lastStartOffsetMillis + startDelta;
+			int durationMillis = (int) GassiTraceFormat.readVarLong(in);
+			int flags = in.readUnsignedByte();
+			String method = readString();
+			String path = readString();
+			String credentials = readString();
+			String applicationRoles = readString();
+			long userPseudonym = in.readLong();
+			long sessionPseudonym = in.readLong();
+			lastStartOffsetMillis = startOffsetMillis;
+			return new GassiTraceRecord(startOffsetMillis, durationMillis, method, path, userPseudonym, credentials,
+					applicationRoles, sessionPseudonym, (flags & GassiTraceFormat.FLAG_NEW_SESSION) != 0);
+		} catch (EOFException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Reads a string referenced in the dictionary
+	 * @return the string, <code>null</code> if absent
+	 * @throws IOException if the string could not be read
+	 */
+	private String readString() throws IOException {
+		long reference = GassiTraceFormat.readVarLong(in);
+		if (reference == GassiTraceFormat.STRING_NONE) {
+			return null;
+		}
+		if (reference == GassiTraceFormat.STRING_NEW) {
+			String s = in.readUTF();
+			dictionary.add(s);
+			return s;
+		}
+		long index = reference - GassiTraceFormat.STRING_INDEX_OFFSET;
+		if (index >= dictionary.size()) {
+			throw new IOException(String.format("invalid string reference %d", reference));
+		}
+		return dictionary.get((int) index);
+	}
+
+	/**
+	 * Closes the trace
+	 * @throws IOException if the file could not be closed
+	 */
+	public void close() throws IOException {
+		in.close();
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	/**
+	 * @return start time of the capture
+	 **/
+	public long getCaptureStartMillis() {
+		return captureStartMillis;
+	}
+}
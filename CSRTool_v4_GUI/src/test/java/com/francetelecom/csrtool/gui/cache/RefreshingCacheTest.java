@@ -0,0 +1,131 @@
+package com.francetelecom.csrtool.gui.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests of the {@link RefreshingCache}
+ * @class RefreshingCacheTest
+ * @extends TestCase
+ */
+public class RefreshingCacheTest extends TestCase {
+
+	/**	time to live of the entries of the tests, in milliseconds **/
+	private static final long TTL = 50L;
+
+	/**	number of loads made **/
+	private final AtomicInteger loads = new AtomicInteger();
+
+	/**	executor of the concurrent callers **/
+	private ExecutorService callers;
+
+	/**
+	 * Creates the executor of the concurrent callers
+	 * @throws Exception if the test could not be set up
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		callers = Executors.newSingleThreadExecutor();
+	}
+
+	/**
+	 * Stops the executor of the concurrent callers
+	 * @throws Exception if the test could not be torn down
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		callers.shutdownNow();
+		super.tearDown();
+	}
+
+	/**
+	 * A value whose load was in progress when its key was invalidated is returned to its caller but
+	 * not stored
+	 * @throws Exception if the test failed
+	 */
+	public void testInvalidatedLoadNotStored() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final RefreshingCache<String, String> cache = new RefreshingCache<String, String>("test", new ICacheLoader<String, String>() {
+			public String load(String key) throws Exception {
+				started.countDown();
+				release.await();
+				return key + loads.incrementAndGet();
+			}
+		}, 60000L, 0L);
+		try {
+			Future<String> caller = callers.submit(new Callable<String>() {
+				public String call() throws Exception {
+					return cache.get("a");
+				}
+			});
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			cache.invalidate("a");
+			release.countDown();
+			assertEquals("a1", caller.get(5, TimeUnit.SECONDS));
+			assertEquals(0L, cache.getLoadedAt("a"));
+			assertEquals("a2", cache.get("a"));
+			assertTrue(cache.getLoadedAt("a") > 0L);
+		} finally {
+			cache.shutdown();
+		}
+	}
+
+	/**
+	 * Once the cache is shut down, the refreshes cannot start: the stale value is served and the
+	 * next load does not wait for the refresh rejected
+	 * @throws Exception if the test failed
+	 */
+	public void testRejectedRefreshDoesNotBlock() throws Exception {
+		RefreshingCache<String, String> cache = new RefreshingCache<String, String>("test", loader(), TTL, 60000L);
+		assertEquals("a1", cache.get("a"));
+		cache.shutdown();
+		Thread.sleep(TTL + 10L);
+
+		// stale: served while the refresh is rejected
+		assertEquals("a1", cache.get("a"));
+		cache.setStaleWhileRevalidate(0L);
+		assertEquals("a2", cache.get("a"));
+	}
+
+	/**
+	 * A value obtained earlier is current until it is invalidated, replaced or expired
+	 * @throws Exception if the test failed
+	 */
+	public void testIsCurrent() throws Exception {
+		RefreshingCache<String, String> cache = new RefreshingCache<String, String>("test", loader(), TTL, 0L);
+		try {
+			String value = cache.get("a");
+			assertTrue(cache.isCurrent("a", value));
+			cache.invalidate("a");
+			assertFalse(cache.isCurrent("a", value));
+
+			String reloaded = cache.get("a");
+			assertFalse(cache.isCurrent("a", value));
+			assertTrue(cache.isCurrent("a", reloaded));
+			Thread.sleep(TTL + 10L);
+			assertFalse(cache.isCurrent("a", reloaded));
+		} finally {
+			cache.shutdown();
+		}
+	}
+
+	/**
+	 * @return a loader answering the key followed by the number of loads made
+	 **/
+	private ICacheLoader<String, String> loader() {
+		return new ICacheLoader<String, String>() {
+			public String load(String key) {
+				return key + loads.incrementAndGet();
+			}
+		};
+	}
+}
@@ -0,0 +1,82 @@
+package com.francetelecom.csrtool.gui.controllers;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.multiaction.InternalPathMethodNameResolver;
+import org.springframework.web.servlet.mvc.multiaction.MethodNameResolver;
+import org.springframework.web.servlet.mvc.support.ControllerClassNameHandlerMapping;
+
+/**
+ * Benchmark of the dispatch of the {@link RouteTableHandlerMapping} against the
+ * <code>ControllerClassNameHandlerMapping</code> it replaces. Not part of the unit tests, it is run
+ * by hand once the tests are compiled:
+ * <pre>mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.francetelecom.csrtool.gui.controllers.RouteTableHandlerMappingBenchmark</pre>
+ * @class RouteTableHandlerMappingBenchmark
+ */
+public final class RouteTableHandlerMappingBenchmark {
+
+	/**	number of dispatches measured per round **/
+	private static final int DISPATCHES = 100000;
+
+	/**	number of rounds, the first ones warming up the JIT **/
+	private static final int ROUNDS = 5;
+
+	/**
+	 * Constructor
+	 */
+	private RouteTableHandlerMappingBenchmark() {
+		// main only
+	}
+
+	/**
+	 * Measures the time to find the controller and the action of a request through the route
+	 * table and through the class name mapping, and prints it
+	 * @param args not used
+	 * @throws Exception if a request could not be dispatched
+	 */
+	public static void main(String[] args) throws Exception {
+		StaticWebApplicationContext context = new StaticWebApplicationContext();
+		context.registerSingleton("monitoringController", MonitoringController.class);
+		context.registerSingleton("roleCatalogueController", RoleCatalogueController.class);
+		context.registerSingleton("routeTable", RouteTableHandlerMapping.class);
+		context.registerSingleton("classNameMapping", ControllerClassNameHandlerMapping.class);
+		context.refresh();
+		try {
+			HandlerMapping routeTable = context.getBean(RouteTableHandlerMapping.class);
+			HandlerMapping classNameMapping = context.getBean(ControllerClassNameHandlerMapping.class);
+			HttpServletRequest request = RouteTableHandlerMappingTest.request("/monitoring/RoleCatalogueStats");
+			MethodNameResolver actionResolver = new ActionMethodNameResolver();
+			MethodNameResolver pathResolver = new InternalPathMethodNameResolver();
+			long routeTableNanos = 0L;
+			long classNameNanos = 0L;
+			for (int round = 0; round < ROUNDS; round++) {
+				routeTableNanos = dispatchNanos(routeTable, actionResolver, request);
+				classNameNanos = dispatchNanos(classNameMapping, pathResolver, request);
+			}
+			System.out.println("RouteTableHandlerMapping: " + routeTableNanos + " ns per dispatch, ControllerClassNameHandlerMapping: "
+					+ classNameNanos + " ns per dispatch");
+		} finally {
+			context.close();
+		}
+	}
+
+	/**
+	 * Dispatches a request repeatedly
+	 * @param mapping mapping of the request to its controller
+	 * @param resolver resolver of the action of the request
+	 * @param request http servlet request
+	 * @return the mean time of a dispatch, in nanoseconds
+	 * @throws Exception if the request could not be dispatched
+	 */
+	private static long dispatchNanos(HandlerMapping mapping, MethodNameResolver resolver, HttpServletRequest request) throws Exception {
+		long start = System.nanoTime();
+		for (int i = 0; i < DISPATCHES; i++) {
+			if (mapping.getHandler(request) == null || resolver.getHandlerMethodName(request) == null) {
+				throw new IllegalStateException("request not dispatched");
+			}
+		}
+		return (System.nanoTime() - start) / DISPATCHES;
+	}
+}
@@ -0,0 +1,160 @@
+package com.francetelecom.csrtool.gui.controllers;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import junit.framework.TestCase;
+
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.mvc.multiaction.InternalPathMethodNameResolver;
+import org.springframework.web.servlet.mvc.multiaction.MethodNameResolver;
+import org.springframework.web.servlet.mvc.support.ControllerClassNameHandlerMapping;
+
+/**
+ * Tests of the {@link RouteTableHandlerMapping} against the <code>ControllerClassNameHandlerMapping</code>
+ * it replaces. Its dispatch time is measured by the {@link RouteTableHandlerMappingBenchmark}.
+ * @class RouteTableHandlerMappingTest
+ * @extends TestCase
+ */
+public class RouteTableHandlerMappingTest extends TestCase {
+
+	/**	application context of the controllers **/
+	private StaticWebApplicationContext context;
+
+	/**	route table **/
+	private RouteTableHandlerMapping routeTable;
+
+	/**	class name mapping, the fallback of the route table **/
+	private ControllerClassNameHandlerMapping classNameMapping;
+
+	/**
+	 * Builds the application context of the controllers and of both mappings
+	 * @throws Exception if the test could not be set up
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		context = new StaticWebApplicationContext();
+		context.registerSingleton("monitoringController", MonitoringController.class);
+		context.registerSingleton("roleCatalogueController", RoleCatalogueController.class);
+		context.registerSingleton("routeTable", RouteTableHandlerMapping.class);
+		context.registerSingleton("classNameMapping", ControllerClassNameHandlerMapping.class);
+		context.refresh();
+		routeTable = context.getBean(RouteTableHandlerMapping.class);
+		classNameMapping = context.getBean(ControllerClassNameHandlerMapping.class);
+	}
+
+	/**
+	 * Closes the application context
+	 * @throws Exception if the test could not be torn down
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		context.close();
+		super.tearDown();
+	}
+
+	/**
+	 * The methods inherited from Spring are not actions
+	 * @throws Exception if the test failed
+	 */
+	public void testFrameworkMethodsAreNotActions() throws Exception {
+		MonitoringController controller = context.getBean(MonitoringController.class);
+		assertTrue(controller.getActions().contains("BackendStats"));
+		assertFalse(controller.getActions().contains("handleRequest"));
+		assertEquals(null, routeTable.getHandler(request("/monitoring/handleRequest")));
+	}
+
+	/**
+	 * The route table resolves the same controller and action as the class name mapping, and
+	 * leaves the URL variants to it
+	 * @throws Exception if the test failed
+	 */
+	public void testSameDispatchAsClassNameMapping() throws Exception {
+		HttpServletRequest routed = request("/rolecatalogue/Roles");
+		assertSame(context.getBean(RoleCatalogueController.class), routeTable.getHandler(routed).getHandler());
+		assertEquals("Roles", new ActionMethodNameResolver().getHandlerMethodName(routed));
+
+		HttpServletRequest fallback = request("/rolecatalogue/Roles");
+		assertSame(context.getBean(RoleCatalogueController.class), classNameMapping.getHandler(fallback).getHandler());
+		assertEquals("Roles", new InternalPathMethodNameResolver().getHandlerMethodName(fallback));
+
+		HttpServletRequest variant = request("/rolecatalogue/Roles.json");
+		assertEquals(null, routeTable.getHandler(variant));
+		assertSame(context.getBean(RoleCatalogueController.class), classNameMapping.getHandler(variant).getHandler());
+		assertEquals("Roles", new ActionMethodNameResolver().getHandlerMethodName(variant));
+	}
+
+	/**
+	 * Every action of the controllers is dispatched by the route table to the same controller and
+	 * action as by the class name mapping
+	 * @throws Exception if the test failed
+	 */
+	public void testEveryActionDispatchedAlike() throws Exception {
+		MethodNameResolver actionResolver = new ActionMethodNameResolver();
+		MethodNameResolver pathResolver = new InternalPathMethodNameResolver();
+		assertEveryActionDispatchedAlike("/monitoring/", context.getBean(MonitoringController.class), actionResolver, pathResolver);
+		assertEveryActionDispatchedAlike("/rolecatalogue/", context.getBean(RoleCatalogueController.class), actionResolver, pathResolver);
+	}
+
+	/**
+	 * Checks the dispatch of every action of a controller by both mappings
+	 * @param path path of the controller within the dispatcher servlet
+	 * @param controller the controller
+	 * @param actionResolver resolver of the action used with the route table
+	 * @param pathResolver resolver of the action used with the class name mapping
+	 * @throws Exception if a request could not be dispatched
+	 */
+	private void assertEveryActionDispatchedAlike(String path, BaseActionController controller,
+			MethodNameResolver actionResolver, MethodNameResolver pathResolver) throws Exception {
+		assertFalse(controller.getActions().isEmpty());
+		for (String action : controller.getActions()) {
+			HttpServletRequest routed = request(path + action);
+			HttpServletRequest fallback = request(path + action);
+			assertSame(action, controller, routeTable.getHandler(routed).getHandler());
+			assertSame(action, controller, classNameMapping.getHandler(fallback).getHandler());
+			assertEquals(action, actionResolver.getHandlerMethodName(routed));
+			assertEquals(action, pathResolver.getHandlerMethodName(fallback));
+		}
+	}
+
+	/**
+	 * Makes a request to the dispatcher servlet
+	 * @param pathInfo path of the request within the dispatcher servlet
+	 * @return the request
+	 */
+	static HttpServletRequest request(final String pathInfo) {
+		final Map<String, Object> attributes = new HashMap<String, Object>();
+		return (HttpServletRequest) Proxy.newProxyInstance(RouteTableHandlerMappingTest.class.getClassLoader(),
+				new Class<?>[] { HttpServletRequest.class }, new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				String name = method.getName();
+				if ("getRequestURI".equals(name)) {
+					return "/csrtool/csrtoolv4/Bricks" + pathInfo;
+				} else if ("getContextPath".equals(name)) {
+					return "/csrtool";
+				} else if ("getServletPath".equals(name)) {
+					return "/csrtoolv4/Bricks";
+				} else if ("getPathInfo".equals(name)) {
+					return pathInfo;
+				} else if ("getMethod".equals(name)) {
+					return "GET";
+				} else if ("getCharacterEncoding".equals(name)) {
+					return "UTF-8";
+				} else if ("getAttribute".equals(name)) {
+					return attributes.get(args[0]);
+				} else if ("setAttribute".equals(name)) {
+					attributes.put((String) args[0], args[1]);
+				} else if ("removeAttribute".equals(name)) {
+					attributes.remove(args[0]);
+				}
+				return null;
+			}
+		});
+	}
+}
@@ -0,0 +1,222 @@
+package com.francetelecom.csrtool.gui.networkaccess;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A local fake of the network access backend, with injectable latency and failure rate.<br>
+ * Used to exercise the bulkheads, circuit breakers and caches without the real web services:
+ * the latency and failure rate may be changed at any time while requests are running.<br>
+ * The export of the customer identifiers gives a phone number, a line identifier and a contract
+ * number for each fake customer, and no change after the complete export.
+ * @class NetworkAccessMockService
+ * @implements INetworkAccessService, ICustomerIdentifierExport
+ */
+public class NetworkAccessMockService implements INetworkAccessService, ICustomerIdentifierExport {
+
+	/**	random generator of the failures **/
+	private final Random random = new Random();
+
+	/**	latency of each call in milliseconds **/
+	private volatile long latencyMillis;
+
+	/**	ratio of the calls failing, between 0 and 1 **/
+	private volatile double failureRate;
+
+	/**	number of line events returned per customer **/
+	private volatile int lineHistorySize = 10;
+
+	/**	maximum number of customers per batch call **/
+	private volatile int maxBatchSize = 50;
+
+	/**	number of customers of the export of each MCO **/
+	private volatile int customerCount = 10000;
+
+	/**
+	 * @param mco MCO name
+	 * @return fake general network access data
+	 * @throws Exception if the injected failure occurs
+	 **/
+	public NetworkAccessGeneralInfo getGeneralInfo(String mco) throws Exception {
+		simulateBackend();
+		NetworkAccessGeneralInfo generalInfo = new NetworkAccessGeneralInfo();
+		generalInfo.setMco(mco);
+		generalInfo.getAccessTechnologies().add("ADSL");
+		generalInfo.getAccessTechnologies().add("FTTH");
+
+		NetworkElementStatus networkElement = new NetworkElementStatus();
+		networkElement.setId(mco + "-OLT-1");
+		networkElement.setType("OLT");
+		networkElement.setStatus("UP");
+		generalInfo.getNetworkElements().add(networkElement);
+		return generalInfo;
+	}
+
+	/**
+	 * @param mco MCO name of the customer
+	 * @param customerId customer identifier
+	 * @return fake network access data of the customer
+	 * @throws Exception if the injected failure occurs
+	 **/
+	public NetworkAccessCustomerInfo getCustomerInfo(String mco, String customerId) throws Exception {
+		simulateBackend();
+		return newCustomerInfo(mco, customerId);
+	}
+
+	/**
+	 * @param mco MCO name of the customers
+	 * @param customerIds customer identifiers
+	 * @return fake network access data of the customers
+	 * @throws Exception if the injected failure occurs
+	 **/
+	public List<NetworkAccessCustomerInfo> getCustomerInfos(String mco, List<String> customerIds) throws Exception {
+		simulateBackend();
+		List<NetworkAccessCustomerInfo> customerInfos = new ArrayList<NetworkAccessCustomerInfo>(customerIds.size());
+		for (String customerId : customerIds) {
+			customerInfos.add(newCustomerInfo(mco, customerId));
+		}
+		return customerInfos;
+	}
+
+	/**
+	 * @param mco MCO name
+	 * @param marker index of the first customer of the page, <code>null</code> for the first page
+	 * @param maxCount maximum number of identifiers of the page
+	 * @return fake identifiers of the customers of the page
+	 * @throws Exception if the injected failure occurs
+	 **/
+	public CustomerIdentifierPage exportIdentifiers(String mco, String marker, int maxCount) throws Exception {
+		simulateBackend();
+		int first = marker != null ? Integer.parseInt(marker) : 0;
+		int end = Math.min(customerCount, first + Math.max(maxCount / 3, 1));
+		List<CustomerIdentifier> identifiers = new ArrayList<CustomerIdentifier>(3 * Math.max(end - first, 0));
+		for (int i = first; i < end; i++) {
+			String customerId = mco + "-" + i;
+			identifiers.add(new CustomerIdentifier(String.format("06%08d", Integer.valueOf(i)), CustomerIdentifier.TYPE_PHONE, customerId, false));
+			identifiers.add(new CustomerIdentifier(String.format("L%09d", Integer.valueOf(i)), CustomerIdentifier.TYPE_LINE, customerId, false));
+			identifiers.add(new CustomerIdentifier(String.format("C%07d", Integer.valueOf(i)), CustomerIdentifier.TYPE_CONTRACT, customerId, false));
+		}
+		int next = Math.max(end, first);
+		return new CustomerIdentifierPage(identifiers, String.valueOf(next), next >= customerCount);
+	}
+
+	/**
+	 * Makes the fake data of a customer
+	 * @param mco MCO name of the customer
+	 * @param customerId customer identifier
+	 * @return fake network access data of the customer
+	 */
+	private NetworkAccessCustomerInfo newCustomerInfo(String mco, String customerId) {
+		NetworkAccessCustomerInfo customerInfo = new NetworkAccessCustomerInfo();
+		customerInfo.setMco(mco);
+		customerInfo.setCustomerId(customerId);
+		customerInfo.setAccessTechnology("FTTH");
+		customerInfo.setLineStatus("UP");
+
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < lineHistorySize; i++) {
+			LineEvent lineEvent = new LineEvent();
+			lineEvent.setDate(new Date(now - i * 3600000L));
+			lineEvent.setType("SYNC");
+			lineEvent.setDescription("line synchronized");
+			customerInfo.getLineHistory().add(lineEvent);
+		}
+
+		Equipment equipment = new Equipment();
+		equipment.setSerialNumber(customerId + "-ONT");
+		equipment.setModel("ONT");
+		equipment.setStatus("UP");
+		customerInfo.getEquipments().add(equipment);
+		return customerInfo;
+	}
+
+	/**
+	 * Waits for the injected latency then fails at the injected rate
+	 * @throws Exception the injected failure
+	 */
+	private void simulateBackend() throws Exception {
+		if (latencyMillis > 0) {
+			Thread.sleep(latencyMillis);
+		}
+		if (failureRate > 0 && random.nextDouble() < failureRate) {
+			throw new IOException("injected backend failure");
+		}
+	}
+
+	/*----------------------------
+	  Getters & Setters
+	  ----------------------------*/
+	/**
+	 * @return latency of each call in milliseconds
+	 **/
+	public long getLatencyMillis() {
+		return latencyMillis;
+	}
+
+	/**
+	 * @param latencyMillis latency of each call in milliseconds
+	 **/
+	public void setLatencyMillis(long latencyMillis) {
+		this.latencyMillis = latencyMillis;
+	}
+
+	/**
+	 * @return ratio of the calls failing
+	 **/
+	public double getFailureRate() {
+		return failureRate;
+	}
+
+	/**
+	 * @param failureRate ratio of the calls failing, between 0 and 1
+	 **/
+	public void setFailureRate(double failureRate) {
+		this.failureRate = failureRate;
+	}
+
+	/**
+	 * @return number of line events returned per customer
+	 **/
+	public int getLineHistorySize() {
+		return lineHistorySize;
+	}
+
+	/**
+	 * @param lineHistorySize number of line events returned per customer
+	 **/
+	public void setLineHistorySize(int lineHistorySize) {
+		this.lineHistorySize = lineHistorySize;
+	}
+
+	/**
+	 * @return maximum number of customers per batch call
+	 **/
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	/**
+	 * @return number of customers of the export of each MCO
+	 **/
+	public int getCustomerCount() {
+		return customerCount;
+	}
+
+	/**
+	 * @param customerCount number of customers of the export of each MCO
+	 **/
+	public void setCustomerCount(int customerCount) {
+		this.customerCount = customerCount;
+	}
+
+	/**
+	 * @param maxBatchSize maximum number of customers per batch call, <code>1</code> to simulate
+	 * a backend without batch operation
+	 **/
+	public void setMaxBatchSize(int maxBatchSize) {
+		this.maxBatchSize = maxBatchSize;
+	}
+}
@@ -0,0 +1,290 @@
+package com.francetelecom.csrtool.gui.profiles.store;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+/**
+ * A fake database for the tests of the JDBC stores, made of dynamic proxies of the JDBC interfaces.<br>
+ * It holds the profiles in memory, answers the default queries of the {@link JdbcProfilesStore},
+ * counts the connections, statements, batches and transactions, and fails the next batches on
+ * demand.
+ * @class FakeDatabase
+ */
+public class FakeDatabase {
+
+	/**	profiles per login and MCO: first name, last name and language **/
+	private final Map<String, String[]> userInfos = new ConcurrentHashMap<String, String[]>();
+
+	/**	last connection time per login and MCO **/
+	private final Map<String, Long> lastConnections = new ConcurrentHashMap<String, Long>();
+
+	/**	sizes of the batches executed **/
+	private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<Integer>());
+
+	/**	number of connections opened **/
+	private final AtomicInteger opened = new AtomicInteger();
+
+	/**	number of connections closed **/
+	private final AtomicInteger closed = new AtomicInteger();
+
+	/**	number of statements prepared **/
+	private final AtomicInteger prepared = new AtomicInteger();
+
+	/**	number of transactions committed **/
+	private final AtomicInteger commits = new AtomicInteger();
+
+	/**	number of transactions rolled back **/
+	private final AtomicInteger rollbacks = new AtomicInteger();
+
+	/**	number of the next batches to fail **/
+	private final AtomicInteger batchFailures = new AtomicInteger();
+
+	/**
+	 * @return a data source opening connections to this database
+	 **/
+	public DataSource getDataSource() {
+		return proxy(DataSource.class, new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				if ("getConnection".equals(method.getName())) {
+					opened.incrementAndGet();
+					return connection();
+				}
+				return defaultValue(method);
+			}
+		});
+	}
+
+	/**
+	 * Fails the next batches executed
+	 * @param count number of batches to fail
+	 */
+	public void failBatches(int count) {
+		batchFailures.set(count);
+	}
+
+	/**
+	 * @return a new connection
+	 **/
+	private Connection connection() {
+		return proxy(Connection.class, new InvocationHandler() {
+			private boolean autoCommit = true;
+			private boolean isClosed;
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				String name = method.getName();
+				if ("prepareStatement".equals(name)) {
+					prepared.incrementAndGet();
+					return statement((String) args[0]);
+				} else if ("getAutoCommit".equals(name)) {
+					return Boolean.valueOf(autoCommit);
+				} else if ("setAutoCommit".equals(name)) {
+					autoCommit = ((Boolean) args[0]).booleanValue();
+				} else if ("commit".equals(name)) {
+					commits.incrementAndGet();
+				} else if ("rollback".equals(name)) {
+					rollbacks.incrementAndGet();
+				} else if ("close".equals(name)) {
+					if (!isClosed) {
+						isClosed = true;
+						closed.incrementAndGet();
+					}
+				} else if ("isClosed".equals(name)) {
+					return Boolean.valueOf(isClosed);
+				}
+				return defaultValue(method);
+			}
+		});
+	}
+
+	/**
+	 * @param sql the SQL of the statement
+	 * @return a new statement executing the SQL on this database
+	 **/
+	private PreparedStatement statement(final String sql) {
+		return proxy(PreparedStatement.class, new InvocationHandler() {
+			private final Map<Integer, Object> parameters = new HashMap<Integer, Object>();
+			private final List<Object[]> batch = new ArrayList<Object[]>();
+			public Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+				String name = method.getName();
+				if (name.startsWith("set") && args != null && args.length == 2 && args[0] instanceof Integer) {
+					parameters.put((Integer) args[0], args[1]);
+				} else if ("clearParameters".equals(name)) {
+					parameters.clear();
+				} else if ("addBatch".equals(name)) {
+					batch.add(new Object[] { parameters.get(1), parameters.get(2), parameters.get(3) });
+				} else if ("executeBatch".equals(name)) {
+					return executeBatch();
+				} else if ("executeUpdate".equals(name)) {
+					return Integer.valueOf(executeUpdate());
+				} else if ("executeQuery".equals(name)) {
+					return executeQuery();
+				}
+				return defaultValue(method);
+			}
+
+			private int[] executeBatch() throws SQLException {
+				try {
+					if (batchFailures.getAndDecrement() > 0) {
+						throw new SQLException("batch failure");
+					}
+					batchSizes.add(Integer.valueOf(batch.size()));
+					for (Object[] row : batch) {
+						lastConnections.put(key((String) row[1], (String) row[2]), Long.valueOf(((Date) row[0]).getTime()));
+					}
+					return new int[batch.size()];
+				} finally {
+					batch.clear();
+				}
+			}
+
+			private int executeUpdate() {
+				if (!JdbcProfilesStore.DEFAULT_INSERT_USER_INFO_SQL.equals(sql)) {
+					throw new UnsupportedOperationException(sql);
+				}
+				String key = key((String) parameters.get(1), (String) parameters.get(2));
+				userInfos.put(key, new String[] { (String) parameters.get(3), (String) parameters.get(4), (String) parameters.get(5) });
+				lastConnections.put(key, Long.valueOf(((Date) parameters.get(6)).getTime()));
+				return 1;
+			}
+
+			private ResultSet executeQuery() {
+				if (!JdbcProfilesStore.DEFAULT_SELECT_USER_INFO_SQL.equals(sql)) {
+					throw new UnsupportedOperationException(sql);
+				}
+				String login = (String) parameters.get(1);
+				String mco = (String) parameters.get(2);
+				String[] userInfo = userInfos.get(key(login, mco));
+				return resultSet(userInfo == null ? null : new String[] { login, mco, userInfo[0], userInfo[1], userInfo[2] });
+			}
+		});
+	}
+
+	/**
+	 * @param row the columns of the only row, <code>null</code> for no row
+	 * @return a result set of the row
+	 **/
+	private ResultSet resultSet(final String[] row) {
+		return proxy(ResultSet.class, new InvocationHandler() {
+			private boolean read;
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				String name = method.getName();
+				if ("next".equals(name)) {
+					boolean next = row != null && !read;
+					read = true;
+					return Boolean.valueOf(next);
+				} else if ("getString".equals(name)) {
+					return row[((Integer) args[0]).intValue() - 1];
+				}
+				return defaultValue(method);
+			}
+		});
+	}
+
+	/**
+	 * @param type JDBC interface
+	 * @param handler handler of its calls
+	 * @param <T> JDBC interface
+	 * @return a proxy of the interface
+	 **/
+	private static <T> T proxy(Class<T> type, final InvocationHandler handler) {
+		return type.cast(Proxy.newProxyInstance(FakeDatabase.class.getClassLoader(), new Class<?>[] { type }, new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				if ("equals".equals(method.getName())) {
+					return Boolean.valueOf(proxy == args[0]);
+				} else if ("hashCode".equals(method.getName())) {
+					return Integer.valueOf(System.identityHashCode(proxy));
+				}
+				return handler.invoke(proxy, method, args);
+			}
+		}));
+	}
+
+	/**
+	 * @param method a method
+	 * @return the default value of its return type
+	 **/
+	private static Object defaultValue(Method method) {
+		Class<?> type = method.getReturnType();
+		if (type == Boolean.TYPE) {
+			return Boolean.FALSE;
+		} else if (type == Integer.TYPE) {
+			return Integer.valueOf(0);
+		} else if (type == Long.TYPE) {
+			return Long.valueOf(0L);
+		}
+		return null;
+	}
+
+	/**
+	 * @param login login of the user
+	 * @param mco MCO of the user
+	 * @return key of the user
+	 **/
+	private static String key(String login, String mco) {
+		return login + "/" + mco;
+	}
+
+	/**
+	 * Adds a profile
+	 * @param login login of the user
+	 * @param mco MCO of the user
+	 * @param firstname first name
+	 * @param lastname last name
+	 * @param language language
+	 */
+	public void putUserInfo(String login, String mco, String firstname, String lastname, String language) {
+		userInfos.put(key(login, mco), new String[] { firstname, lastname, language });
+	}
+
+	/**
+	 * @param login login of the user
+	 * @param mco MCO of the user
+	 * @return last connection time of the user, <code>null</code> if never written
+	 **/
+	public Long getLastConnection(String login, String mco) {
+		return lastConnections.get(key(login, mco));
+	}
+
+	/*----------------------------
+	  Getters
+	  ----------------------------*/
+	public List<Integer> getBatchSizes() {
+		synchronized (batchSizes) {
+			return new ArrayList<Integer>(batchSizes);
+		}
+	}
+
+	public int getOpened() {
+		return opened.get();
+	}
+
+	public int getClosed() {
+		return closed.get();
+	}
+
+	public int getPrepared() {
+		return prepared.get();
+	}
+
+	public int getCommits() {
+		return commits.get();
+	}
+
+	public int getRollbacks() {
+		return rollbacks.get();
+	}
+}
@@ -0,0 +1,164 @@
+package com.francetelecom.csrtool.gui.profiles.store;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests of the {@link JdbcConnectionPool}, on a fake database
+ * @class JdbcConnectionPoolTest
+ * @extends TestCase
+ */
+public class JdbcConnectionPoolTest extends TestCase {
+
+	/**	SQL prepared by the calls **/
+	private static final String SQL = JdbcProfilesStore.DEFAULT_SELECT_USER_INFO_SQL;
+
+	/**	fake database **/
+	private FakeDatabase database;
+
+	/**	pool tested **/
+	private JdbcConnectionPool pool;
+
+	/**
+	 * Creates a pool of 2 connections on a fake database
+	 * @throws Exception if the test could not be set up
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		database = new FakeDatabase();
+		pool = new JdbcConnectionPool("test", database.getDataSource(), 2, 50L, 4);
+	}
+
+	/**
+	 * Closes the pool
+	 * @throws Exception if the test could not be torn down
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		pool.close();
+		super.tearDown();
+	}
+
+	/**
+	 * The calls reuse the idle connection and its prepared statements
+	 * @throws Exception if the test failed
+	 */
+	public void testConnectionAndStatementReused() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			pool.execute(prepareCall());
+		}
+		ConnectionPoolStats stats = pool.getStats();
+		assertEquals(1, database.getOpened());
+		assertEquals(1, database.getPrepared());
+		assertEquals(3L, stats.getLeases());
+		assertEquals(1L, stats.getCreated());
+		assertEquals(0, stats.getLeased());
+		assertEquals(1, stats.getIdle());
+		assertEquals(2L, stats.getStatementHits());
+		assertEquals(1L, stats.getStatementMisses());
+	}
+
+	/**
+	 * A connection whose call failed is closed, the next call opens another one
+	 * @throws Exception if the test failed
+	 */
+	public void testFailedConnectionDiscarded() throws Exception {
+		try {
+			pool.execute(new IConnectionCall<Void>() {
+				public Void call(PooledConnection connection) throws SQLException {
+					throw new SQLException("call failure");
+				}
+			});
+			fail("the call fails");
+		} catch (SQLException e) {
+			assertEquals("call failure", e.getMessage());
+		}
+		assertEquals(1, database.getClosed());
+		pool.execute(prepareCall());
+		ConnectionPoolStats stats = pool.getStats();
+		assertEquals(2, database.getOpened());
+		assertEquals(1L, stats.getDiscarded());
+		assertEquals(0, stats.getLeased());
+	}
+
+	/**
+	 * When all the connections are leased, the next caller fails after the maximum wait
+	 * @throws Exception if the test failed
+	 */
+	public void testExhaustedPoolTimesOut() throws Exception {
+		final CountDownLatch leased = new CountDownLatch(2);
+		final CountDownLatch release = new CountDownLatch(1);
+		Thread[] holders = new Thread[2];
+		for (int i = 0; i < holders.length; i++) {
+			holders[i] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						pool.execute(new IConnectionCall<Void>() {
+							public Void call(PooledConnection connection) throws SQLException {
+								leased.countDown();
+								try {
+									release.await();
+								} catch (InterruptedException e) {
+									Thread.currentThread().interrupt();
+								}
+								return null;
+							}
+						});
+					} catch (SQLException e) {
+						// counted by the assertions of the test
+					}
+				}
+			});
+			holders[i].start();
+		}
+		assertTrue(leased.await(5L, TimeUnit.SECONDS));
+		try {
+			pool.execute(prepareCall());
+			fail("the pool is exhausted");
+		} catch (SQLTransientConnectionException e) {
+			// expected
+		}
+		assertEquals(1L, pool.getStats().getTimeouts());
+		assertEquals(2, pool.getStats().getLeased());
+		release.countDown();
+		for (Thread holder : holders) {
+			holder.join(5000L);
+		}
+		assertEquals(0, pool.getStats().getLeased());
+		assertEquals(2, pool.getStats().getIdle());
+	}
+
+	/**
+	 * A closed pool closes its idle connections and leases no more
+	 * @throws Exception if the test failed
+	 */
+	public void testClosedPoolRefusesLeases() throws Exception {
+		pool.execute(prepareCall());
+		pool.close();
+		assertEquals(1, database.getClosed());
+		assertEquals(0, pool.getStats().getIdle());
+		try {
+			pool.execute(prepareCall());
+			fail("the pool is closed");
+		} catch (SQLTransientConnectionException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * @return a call preparing the statement of the test
+	 **/
+	private static IConnectionCall<Void> prepareCall() {
+		return new IConnectionCall<Void>() {
+			public Void call(PooledConnection connection) throws SQLException {
+				connection.prepare(SQL);
+				return null;
+			}
+		};
+	}
+}
@@ -0,0 +1,131 @@
+package com.francetelecom.csrtool.gui.profiles.store;
+
+import junit.framework.TestCase;
+
+import com.francetelecom.csrtool.model.profiles.CSRUserInfo;
+
+/**
+ * Tests of the {@link JdbcProfilesStore}, on a fake database
+ * @class JdbcProfilesStoreTest
+ * @extends TestCase
+ */
+public class JdbcProfilesStoreTest extends TestCase {
+
+	/**	MCO of the users **/
+	private static final String MCO = "OFR";
+
+	/**	maximum number of connections written per batch **/
+	private static final int BATCH_SIZE = 3;
+
+	/**	delay between two flushes, longer than the tests so that only the full batches are flushed **/
+	private static final long FLUSH_MILLIS = 60000L;
+
+	/**	fake database **/
+	private FakeDatabase database;
+
+	/**	store tested **/
+	private JdbcProfilesStore store;
+
+	/**
+	 * Creates a store on a fake database
+	 * @throws Exception if the test could not be set up
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		database = new FakeDatabase();
+		store = new JdbcProfilesStore(new JdbcConnectionPool("test", database.getDataSource(), 2, 1000L, 4),
+				JdbcProfilesStore.DEFAULT_SELECT_USER_INFO_SQL, JdbcProfilesStore.DEFAULT_INSERT_USER_INFO_SQL,
+				JdbcProfilesStore.DEFAULT_UPDATE_CONNECTION_SQL, BATCH_SIZE, FLUSH_MILLIS);
+	}
+
+	/**
+	 * Shuts the store down
+	 * @throws Exception if the test could not be torn down
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		store.shutdown();
+		super.tearDown();
+	}
+
+	/**
+	 * A profile created is read back
+	 * @throws Exception if the test failed
+	 */
+	public void testUserInfoCreatedAndRead() throws Exception {
+		assertNull(store.getUserInfo("agent", MCO));
+		store.createUserInfo(userInfo("agent"));
+		CSRUserInfo userInfo = store.getUserInfo("agent", MCO);
+		assertEquals("agent", userInfo.getLogin());
+		assertEquals(MCO, userInfo.getMco());
+		assertEquals("first agent", userInfo.getFirstname());
+		assertEquals("last agent", userInfo.getLastname());
+		assertEquals("fr", userInfo.getLanguage());
+		assertNotNull(database.getLastConnection("agent", MCO));
+	}
+
+	/**
+	 * The connections are written in batches of at most the batch size, one transaction each,
+	 * and the pending ones are written by the shutdown
+	 * @throws Exception if the test failed
+	 */
+	public void testConnectionsWrittenInBatches() throws Exception {
+		int users = 2 * BATCH_SIZE + 1;
+		for (int i = 0; i < users; i++) {
+			store.notifyConnection(userInfo("agent" + i));
+		}
+		store.shutdown();
+
+		int written = 0;
+		for (Integer batchSize : database.getBatchSizes()) {
+			assertTrue(batchSize.intValue() <= BATCH_SIZE);
+			written += batchSize.intValue();
+		}
+		assertEquals(users, written);
+		assertTrue(database.getBatchSizes().size() >= 3);
+		assertEquals(database.getBatchSizes().size(), database.getCommits());
+		assertEquals((long) database.getBatchSizes().size(), store.getBatches());
+		assertEquals(0, store.getPendingConnections());
+		assertEquals(0L, store.getLostConnections());
+		for (int i = 0; i < users; i++) {
+			assertNotNull(database.getLastConnection("agent" + i, MCO));
+		}
+		// one connection and one statement for all the batches
+		assertEquals(1, database.getOpened());
+		assertEquals(1, database.getPrepared());
+	}
+
+	/**
+	 * The connections of a failed batch are rolled back and counted as lost, the connection is
+	 * discarded
+	 * @throws Exception if the test failed
+	 */
+	public void testFailedBatchLost() throws Exception {
+		database.failBatches(1);
+		store.notifyConnection(userInfo("agent1"));
+		store.notifyConnection(userInfo("agent2"));
+		store.shutdown();
+
+		assertEquals(2L, store.getLostConnections());
+		assertEquals(0L, store.getBatches());
+		assertEquals(1, database.getRollbacks());
+		assertEquals(0, database.getCommits());
+		assertNull(database.getLastConnection("agent1", MCO));
+		assertEquals(1L, store.getPool().getStats().getDiscarded());
+	}
+
+	/**
+	 * @param login login of the user
+	 * @return a profile of the user
+	 **/
+	private static CSRUserInfo userInfo(String login) {
+		CSRUserInfo userInfo = new CSRUserInfo();
+		userInfo.setLogin(login);
+		userInfo.setMco(MCO);
+		userInfo.setFirstname("first " + login);
+		userInfo.setLastname("last " + login);
+		userInfo.setLanguage("fr");
+		return userInfo;
+	}
+}
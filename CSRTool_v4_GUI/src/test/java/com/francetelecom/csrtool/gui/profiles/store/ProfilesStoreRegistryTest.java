@@ -0,0 +1,112 @@
+package com.francetelecom.csrtool.gui.profiles.store;
+
+import junit.framework.TestCase;
+
+import com.francetelecom.csrtool.model.profiles.CSRUserInfo;
+
+/**
+ * Tests of the {@link ProfilesStoreRegistry} and of the metrics of the {@link MeasuredProfilesStore},
+ * with the {@link InMemoryProfilesStore} and the {@link JdbcProfilesStore}
+ * @class ProfilesStoreRegistryTest
+ * @extends TestCase
+ */
+public class ProfilesStoreRegistryTest extends TestCase {
+
+	/**	MCO of the users **/
+	private static final String MCO = "OFR";
+
+	/**	in-memory store installed by the tests **/
+	private InMemoryProfilesStore memoryStore;
+
+	/**
+	 * Installs an in-memory store
+	 * @throws Exception if the test could not be set up
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		memoryStore = new InMemoryProfilesStore();
+		ProfilesStoreRegistry.getInstance().setStore(memoryStore);
+	}
+
+	/**
+	 * Installs the default store back
+	 * @throws Exception if the test could not be torn down
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		ProfilesStoreRegistry.getInstance().setStore(new RegistryProfilesStore());
+		super.tearDown();
+	}
+
+	/**
+	 * The operations on the store in use are measured
+	 * @throws Exception if the test failed
+	 */
+	public void testOperationsMeasured() throws Exception {
+		IProfilesStore store = ProfilesStoreRegistry.getInstance().getStore();
+		assertNull(store.getUserInfo("agent", MCO));
+		store.createUserInfo(userInfo("agent"));
+		assertEquals("agent", store.getUserInfo("agent", MCO).getLogin());
+		store.notifyConnection(userInfo("agent"));
+		assertEquals(2L, memoryStore.getConnections());
+
+		ProfilesStoreStats stats = ProfilesStoreRegistry.getInstance().getStats();
+		assertEquals("InMemoryProfilesStore", stats.getStore());
+		assertNull(stats.getPool());
+		assertEquals(2L, getOperation(stats, "getUserInfo").getCalls());
+		assertEquals(1L, getOperation(stats, "createUserInfo").getCalls());
+		assertEquals(1L, getOperation(stats, "notifyConnection").getCalls());
+		assertEquals(0L, getOperation(stats, "getRole").getCalls());
+		assertEquals(0L, getOperation(stats, "getUserInfo").getErrors());
+	}
+
+	/**
+	 * The store replaced is shut down, the JDBC store in use reports its pool and its batches
+	 * @throws Exception if the test failed
+	 */
+	public void testStoreReplaced() throws Exception {
+		memoryStore.createUserInfo(userInfo("agent"));
+		FakeDatabase database = new FakeDatabase();
+		ProfilesStoreRegistry.getInstance().setStore(new JdbcProfilesStore(new JdbcConnectionPool("test", database.getDataSource(), 2, 1000L, 4),
+				JdbcProfilesStore.DEFAULT_SELECT_USER_INFO_SQL, JdbcProfilesStore.DEFAULT_INSERT_USER_INFO_SQL,
+				JdbcProfilesStore.DEFAULT_UPDATE_CONNECTION_SQL, 10, 60000L));
+		assertNull(memoryStore.getUserInfo("agent", MCO));
+
+		ProfilesStoreRegistry.getInstance().getStore().notifyConnection(userInfo("agent"));
+		ProfilesStoreStats stats = ProfilesStoreRegistry.getInstance().getStats();
+		assertEquals("JdbcProfilesStore", stats.getStore());
+		assertEquals("test", stats.getPool().getName());
+		assertEquals(1, stats.getPendingConnections());
+
+		// the pending connections are written when the JDBC store is replaced in turn
+		ProfilesStoreRegistry.getInstance().setStore(new InMemoryProfilesStore());
+		assertNotNull(database.getLastConnection("agent", MCO));
+	}
+
+	/**
+	 * @param stats metrics of a store
+	 * @param operation operation name
+	 * @return the metrics of the operation
+	 **/
+	private static StoreOperationStats getOperation(ProfilesStoreStats stats, String operation) {
+		for (StoreOperationStats operationStats : stats.getOperations()) {
+			if (operation.equals(operationStats.getOperation())) {
+				return operationStats;
+			}
+		}
+		fail("no metrics of " + operation);
+		return null;
+	}
+
+	/**
+	 * @param login login of the user
+	 * @return a profile of the user
+	 **/
+	private static CSRUserInfo userInfo(String login) {
+		CSRUserInfo userInfo = new CSRUserInfo();
+		userInfo.setLogin(login);
+		userInfo.setMco(MCO);
+		return userInfo;
+	}
+}
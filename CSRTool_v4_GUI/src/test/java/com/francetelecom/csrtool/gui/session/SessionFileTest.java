@@ -0,0 +1,177 @@
+package com.francetelecom.csrtool.gui.session;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.francetelecom.csrtool.model.profiles.CSRUserInfo;
+
+/**
+ * Tests of the {@link SessionFile}, on a temporary file
+ * @class SessionFileTest
+ * @extends TestCase
+ */
+public class SessionFileTest extends TestCase {
+
+	/**	size of the files **/
+	private static final int CAPACITY = 4096;
+
+	/**	MCO of the users **/
+	private static final String MCO = "OFR";
+
+	/**	path of the file **/
+	private File path;
+
+	/**
+	 * Creates the temporary file
+	 * @throws Exception if the test could not be set up
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		path = File.createTempFile("sessions", ".dat");
+	}
+
+	/**
+	 * Deletes the temporary file
+	 * @throws Exception if the test could not be torn down
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		path.delete();
+		super.tearDown();
+	}
+
+	/**
+	 * The records appended are loaded back, in order, once the file is reopened
+	 * @throws Exception if the test failed
+	 */
+	public void testRoundTrip() throws Exception {
+		SessionFile file = new SessionFile(path, CAPACITY);
+		assertTrue(file.load().isEmpty());
+		for (int i = 0; i < 3; i++) {
+			assertTrue(file.append(record("agent" + i, i, 1000L + i)));
+		}
+		int usedBytes = file.getUsedBytes();
+		file.close();
+
+		file = new SessionFile(path, CAPACITY);
+		try {
+			List<SessionRecord> records = file.load();
+			assertEquals(3, records.size());
+			for (int i = 0; i < 3; i++) {
+				SessionRecord record = records.get(i);
+				assertEquals("agent" + i, record.getLogin());
+				assertEquals(MCO, record.getMco());
+				assertEquals(i, record.getAdminLevel());
+				assertEquals("role" + i, record.getRoleName());
+				assertEquals(1000L + i, record.getLoginTime());
+				assertEquals("first agent" + i, record.toUserInfo().getFirstname());
+			}
+			assertEquals(usedBytes, file.getUsedBytes());
+			// the records appended after a load follow the loaded ones
+			assertTrue(file.append(record("agent3", 0, 1003L)));
+			assertEquals(4, file.load().size());
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * A record torn by a crash ends the file, the records before it are kept
+	 * @throws Exception if the test failed
+	 */
+	public void testTornRecordIgnored() throws Exception {
+		SessionFile file = new SessionFile(path, CAPACITY);
+		file.append(record("agent0", 0, 1000L));
+		file.append(record("agent1", 0, 1001L));
+		int usedBytes = file.getUsedBytes();
+		file.close();
+
+		// a third record whose login announces more bytes than the record holds
+		RandomAccessFile raw = new RandomAccessFile(path, "rw");
+		try {
+			raw.seek(usedBytes);
+			raw.writeShort(8);
+			raw.writeShort(100);
+			raw.writeBytes("agent2");
+		} finally {
+			raw.close();
+		}
+
+		file = new SessionFile(path, CAPACITY);
+		try {
+			List<SessionRecord> records = file.load();
+			assertEquals(2, records.size());
+			assertEquals("agent1", records.get(1).getLogin());
+			assertEquals(usedBytes, file.getUsedBytes());
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * A file which is not a session file is emptied
+	 * @throws Exception if the test failed
+	 */
+	public void testForeignFileReset() throws Exception {
+		RandomAccessFile raw = new RandomAccessFile(path, "rw");
+		try {
+			raw.writeBytes("not a session file");
+		} finally {
+			raw.close();
+		}
+		SessionFile file = new SessionFile(path, CAPACITY);
+		try {
+			assertTrue(file.load().isEmpty());
+			assertEquals(CAPACITY, file.getCapacity());
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * A full file refuses the records, rewritten with the live records it accepts them again
+	 * @throws Exception if the test failed
+	 */
+	public void testFullFileRewritten() throws Exception {
+		SessionFile file = new SessionFile(path, 256);
+		try {
+			List<SessionRecord> appended = new ArrayList<SessionRecord>();
+			SessionRecord record = record("agent0", 0, 1000L);
+			while (file.append(record)) {
+				appended.add(record);
+				record = record("agent" + appended.size(), 0, 1000L + appended.size());
+			}
+			assertTrue(appended.size() > 1);
+			assertTrue(file.getUsedBytes() <= file.getCapacity());
+
+			List<SessionRecord> live = appended.subList(appended.size() - 1, appended.size());
+			file.rewrite(live);
+			List<SessionRecord> records = file.load();
+			assertEquals(1, records.size());
+			assertEquals(live.get(0).getLogin(), records.get(0).getLogin());
+			assertTrue(file.append(record));
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * @param login login of the user
+	 * @param adminLevel administration level of the user
+	 * @param loginTime login time
+	 * @return a session record of the user
+	 **/
+	private static SessionRecord record(String login, int adminLevel, long loginTime) {
+		CSRUserInfo userInfo = new CSRUserInfo();
+		userInfo.setLogin(login);
+		userInfo.setMco(MCO);
+		userInfo.setFirstname("first " + login);
+		userInfo.setLanguage("fr");
+		return new SessionRecord(userInfo, adminLevel, "role" + adminLevel, loginTime);
+	}
+}
@@ -0,0 +1,138 @@
+package com.francetelecom.csrtool.gui.ws;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import com.francetelecom.csrtool.gui.networkaccess.NetworkAccessCustomerInfo;
+import com.francetelecom.csrtool.gui.networkaccess.NetworkAccessMockService;
+
+/**
+ * Tests of the {@link BackendGuard}, calling the fake network access backend
+ * @class BackendGuardTest
+ * @extends TestCase
+ */
+public class BackendGuardTest extends TestCase {
+
+	/**	fake backend **/
+	private NetworkAccessMockService backend;
+
+	/**	guard tested **/
+	private BackendGuard guard;
+
+	/**
+	 * Creates the fake backend and its guard
+	 * @throws Exception if the test could not be set up
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		backend = new NetworkAccessMockService();
+		guard = new BackendGuard("test", new Bulkhead("test", 2, 0, 10L), new CircuitBreaker(3, 60000L));
+	}
+
+	/**
+	 * The circuit opens after the failures of the backend, then the calls fail fast
+	 * @throws Exception if the test failed
+	 */
+	public void testFailuresOpenCircuit() throws Exception {
+		assertEquals("CUST", customerCall().call().getCustomerId());
+		backend.setFailureRate(1.0);
+		for (int i = 0; i < 3; i++) {
+			try {
+				guard.execute(customerCall());
+				fail("the backend fails");
+			} catch (BackendUnavailableException e) {
+				fail("the backend was reached");
+			} catch (Exception e) {
+				// the injected failure
+			}
+		}
+		assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitBreaker().getState());
+		try {
+			guard.execute(customerCall());
+			fail("the circuit is open");
+		} catch (BackendUnavailableException e) {
+			// expected
+		}
+		BackendGuardStats stats = guard.getStats();
+		assertEquals(3L, stats.getCalls());
+		assertEquals(3L, stats.getFailures());
+		assertEquals(1L, stats.getShortCircuitedCalls());
+	}
+
+	/**
+	 * An error thrown by a call counts as a failure of the backend
+	 * @throws Exception if the test failed
+	 */
+	public void testErrorCountsAsFailure() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			try {
+				guard.execute(new IBackendCall<Object>() {
+					public Object call() {
+						throw new OutOfMemoryError("test");
+					}
+				});
+				fail("the call throws an error");
+			} catch (OutOfMemoryError e) {
+				// expected
+			}
+		}
+		assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitBreaker().getState());
+		assertEquals(3L, guard.getStats().getFailures());
+	}
+
+	/**
+	 * The calls over the limit of concurrent calls are rejected without reaching the backend
+	 * @throws Exception if the test failed
+	 */
+	public void testBulkheadLimitsConcurrentCalls() throws Exception {
+		backend.setLatencyMillis(300L);
+		final CountDownLatch started = new CountDownLatch(2);
+		Thread[] slowCalls = new Thread[2];
+		for (int i = 0; i < slowCalls.length; i++) {
+			slowCalls[i] = new Thread() {
+				public void run() {
+					try {
+						guard.execute(new IBackendCall<NetworkAccessCustomerInfo>() {
+							public NetworkAccessCustomerInfo call() throws Exception {
+								started.countDown();
+								return backend.getCustomerInfo("MCO", "CUST");
+							}
+						});
+					} catch (Exception e) {
+						// not expected, checked by the statistics
+					}
+				}
+			};
+			slowCalls[i].start();
+		}
+		assertTrue(started.await(1L, TimeUnit.SECONDS));
+		try {
+			guard.execute(customerCall());
+			fail("the bulkhead is full");
+		} catch (BackendUnavailableException e) {
+			// expected
+		}
+		for (Thread slowCall : slowCalls) {
+			slowCall.join();
+		}
+		BackendGuardStats stats = guard.getStats();
+		assertEquals(2L, stats.getCalls());
+		assertEquals(0L, stats.getFailures());
+		assertEquals(1L, stats.getRejectedCalls());
+		assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreaker().getState());
+	}
+
+	/**
+	 * @return a call of the fake backend
+	 **/
+	private IBackendCall<NetworkAccessCustomerInfo> customerCall() {
+		return new IBackendCall<NetworkAccessCustomerInfo>() {
+			public NetworkAccessCustomerInfo call() throws Exception {
+				return backend.getCustomerInfo("MCO", "CUST");
+			}
+		};
+	}
+}
@@ -0,0 +1,73 @@
+package com.francetelecom.csrtool.gui.ws;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests of the {@link Bulkhead}
+ * @class BulkheadTest
+ * @extends TestCase
+ */
+public class BulkheadTest extends TestCase {
+
+	/**
+	 * The calls over the limit are rejected once the wait times out
+	 * @throws Exception if the test failed
+	 */
+	public void testWaitTimesOut() throws Exception {
+		Bulkhead bulkhead = new Bulkhead("test", 1, 1, 20L);
+		bulkhead.acquire();
+		assertEquals(1, bulkhead.getActiveCalls());
+		try {
+			bulkhead.acquire();
+			fail("the bulkhead is full");
+		} catch (BackendUnavailableException e) {
+			// expected
+		}
+		assertEquals(1L, bulkhead.getRejectedCalls());
+		assertEquals(0, bulkhead.getWaitingCalls());
+		bulkhead.release();
+		bulkhead.acquire();
+		bulkhead.release();
+		assertEquals(0, bulkhead.getActiveCalls());
+	}
+
+	/**
+	 * The calls over the waiting queue are rejected without waiting
+	 * @throws Exception if the test failed
+	 */
+	public void testQueueFullRejectsAtOnce() throws Exception {
+		final Bulkhead bulkhead = new Bulkhead("test", 1, 1, 5000L);
+		bulkhead.acquire();
+		final CountDownLatch acquired = new CountDownLatch(1);
+		Thread waiter = new Thread() {
+			public void run() {
+				try {
+					bulkhead.acquire();
+					acquired.countDown();
+					bulkhead.release();
+				} catch (BackendUnavailableException e) {
+					// counted by the bulkhead
+				}
+			}
+		};
+		waiter.start();
+		while (bulkhead.getWaitingCalls() == 0) {
+			Thread.sleep(1L);
+		}
+		long start = System.currentTimeMillis();
+		try {
+			bulkhead.acquire();
+			fail("the waiting queue is full");
+		} catch (BackendUnavailableException e) {
+			// expected
+		}
+		assertTrue(System.currentTimeMillis() - start < 1000L);
+		bulkhead.release();
+		assertTrue(acquired.await(1L, TimeUnit.SECONDS));
+		waiter.join();
+		assertEquals(1L, bulkhead.getRejectedCalls());
+	}
+}
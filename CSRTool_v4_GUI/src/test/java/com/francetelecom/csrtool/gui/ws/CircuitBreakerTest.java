@@ -0,0 +1,107 @@
+package com.francetelecom.csrtool.gui.ws;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests of the {@link CircuitBreaker}
+ * @class CircuitBreakerTest
+ * @extends TestCase
+ */
+public class CircuitBreakerTest extends TestCase {
+
+	/**	open duration of the circuits tested, in milliseconds **/
+	private static final long OPEN_DURATION_MILLIS = 50L;
+
+	/**
+	 * The circuit opens after the consecutive failures and refuses the calls while open
+	 */
+	public void testOpensAfterConsecutiveFailures() {
+		CircuitBreaker circuitBreaker = new CircuitBreaker(3, OPEN_DURATION_MILLIS);
+		for (int i = 0; i < 2; i++) {
+			circuitBreaker.onFailure(circuitBreaker.allowRequest());
+		}
+		circuitBreaker.onSuccess(circuitBreaker.allowRequest());
+		assertEquals(0, circuitBreaker.getConsecutiveFailures());
+		for (int i = 0; i < 3; i++) {
+			circuitBreaker.onFailure(circuitBreaker.allowRequest());
+		}
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+		assertEquals(1L, circuitBreaker.getOpenings());
+		assertEquals(CircuitBreaker.REFUSED, circuitBreaker.allowRequest());
+		assertEquals(1L, circuitBreaker.getShortCircuitedCalls());
+	}
+
+	/**
+	 * A single trial call goes through once the open duration elapsed, and its success closes
+	 * the circuit
+	 * @throws InterruptedException if interrupted
+	 */
+	public void testTrialSuccessCloses() throws InterruptedException {
+		CircuitBreaker circuitBreaker = openCircuit();
+		Thread.sleep(OPEN_DURATION_MILLIS + 10L);
+		long trial = circuitBreaker.allowRequest();
+		assertTrue(trial != CircuitBreaker.REFUSED);
+		assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+		assertEquals(CircuitBreaker.REFUSED, circuitBreaker.allowRequest());
+		circuitBreaker.onSuccess(trial);
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+	}
+
+	/**
+	 * The failure of the trial call opens the circuit again
+	 * @throws InterruptedException if interrupted
+	 */
+	public void testTrialFailureReopens() throws InterruptedException {
+		CircuitBreaker circuitBreaker = openCircuit();
+		Thread.sleep(OPEN_DURATION_MILLIS + 10L);
+		circuitBreaker.onFailure(circuitBreaker.allowRequest());
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+		assertEquals(2L, circuitBreaker.getOpenings());
+		assertEquals(CircuitBreaker.REFUSED, circuitBreaker.allowRequest());
+	}
+
+	/**
+	 * The late outcome of a call allowed before the circuit opened neither closes nor opens the
+	 * circuit
+	 * @throws InterruptedException if interrupted
+	 */
+	public void testLateOutcomeIgnored() throws InterruptedException {
+		CircuitBreaker circuitBreaker = new CircuitBreaker(1, OPEN_DURATION_MILLIS);
+		long slowCall = circuitBreaker.allowRequest();
+		long lateFailure = circuitBreaker.allowRequest();
+		circuitBreaker.onFailure(circuitBreaker.allowRequest());
+		Thread.sleep(OPEN_DURATION_MILLIS + 10L);
+		long trial = circuitBreaker.allowRequest();
+		circuitBreaker.onSuccess(slowCall);
+		assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+		circuitBreaker.onSuccess(trial);
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+		circuitBreaker.onFailure(lateFailure);
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+		assertEquals(0, circuitBreaker.getConsecutiveFailures());
+	}
+
+	/**
+	 * A trial call without outcome opens the circuit again for a whole open duration
+	 * @throws InterruptedException if interrupted
+	 */
+	public void testIgnoredTrialReopensForOpenDuration() throws InterruptedException {
+		CircuitBreaker circuitBreaker = openCircuit();
+		Thread.sleep(OPEN_DURATION_MILLIS + 10L);
+		circuitBreaker.onIgnored(circuitBreaker.allowRequest());
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+		assertEquals(CircuitBreaker.REFUSED, circuitBreaker.allowRequest());
+		Thread.sleep(OPEN_DURATION_MILLIS + 10L);
+		assertTrue(circuitBreaker.allowRequest() != CircuitBreaker.REFUSED);
+	}
+
+	/**
+	 * @return a circuit just opened
+	 **/
+	private static CircuitBreaker openCircuit() {
+		CircuitBreaker circuitBreaker = new CircuitBreaker(1, OPEN_DURATION_MILLIS);
+		circuitBreaker.onFailure(circuitBreaker.allowRequest());
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+		return circuitBreaker;
+	}
+}